@@ -0,0 +1,318 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#include "hdf5.h"
+#include <jni.h>
+#include "h5jni.h"
+
+/*
+/////////////////////////////////////////////////////////////////////////////////
+//
+// H5D helper methods for data access that is not synchronized on the class 
+// monitor of hdf.hdf5lib.H5.
+//
+/////////////////////////////////////////////////////////////////////////////////
+*/
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5is_library_threadsafe
+ * Signature: jboolean _H5is_library_threadsafe()
+ */
+JNIEXPORT jboolean JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5is_1library_1threadsafe
+  (JNIEnv *env, jclass clss)
+{
+    hbool_t is_ts = 0;
+    herr_t status;
+
+    status = H5is_library_threadsafe(&is_ts);
+    if (status < 0)
+    {
+        h5libraryError(env);
+    }
+    return (jboolean) is_ts;
+}
+
+/*
+ * The array is accessed via Get<Type>ArrayElements() rather than GetPrimitiveArrayCritical(), as
+ * these reads run outside of the global lock: a critical region held while H5Dread() waits for
+ * the HDF5 library mutex can deadlock against a thread that holds that mutex and calls back into
+ * Java (e.g. from a VL string conversion or an H5Literate / H5Ovisit callback).
+ */
+#define H5DREAD_HELPER(JTYPE, JARRAY, JELEM, JNAME) \
+JNIEXPORT jint JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dread_1##JTYPE \
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlong mem_type_id, jlong mem_space_id, \
+   jlong file_space_id, jlong xfer_plist_id, JARRAY buf) \
+{ \
+    herr_t status; \
+    JELEM *buffP; \
+\
+    if (buf == NULL) \
+    { \
+        h5nullArgument(env, "H5Dread: buf is NULL"); \
+        return -1; \
+    } \
+    buffP = (*env)->Get##JNAME##ArrayElements(env, buf, NULL); \
+    if (buffP == NULL) \
+    { \
+        h5JNIFatalError(env, "H5Dread: buf not pinned"); \
+        return -1; \
+    } \
+    status = H5Dread((hid_t) dataset_id, (hid_t) mem_type_id, (hid_t) mem_space_id, \
+                     (hid_t) file_space_id, (hid_t) xfer_plist_id, buffP); \
+    if (status < 0) \
+    { \
+        (*env)->Release##JNAME##ArrayElements(env, buf, buffP, JNI_ABORT); \
+        h5libraryError(env); \
+        return -1; \
+    } \
+    (*env)->Release##JNAME##ArrayElements(env, buf, buffP, 0); \
+    return (jint) status; \
+}
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dread_byte, _H5Dread_short, _H5Dread_int, _H5Dread_long, _H5Dread_float,
+ *            _H5Dread_double
+ * Signature: jint _H5Dread_<type>(hid_t, hid_t, hid_t, hid_t, hid_t, <type>[])
+ */
+H5DREAD_HELPER(byte, jbyteArray, jbyte, Byte)
+H5DREAD_HELPER(short, jshortArray, jshort, Short)
+H5DREAD_HELPER(int, jintArray, jint, Int)
+H5DREAD_HELPER(long, jlongArray, jlong, Long)
+H5DREAD_HELPER(float, jfloatArray, jfloat, Float)
+H5DREAD_HELPER(double, jdoubleArray, jdouble, Double)
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dread_buffer
+ * Signature: jint _H5Dread_buffer(hid_t, hid_t, hid_t, hid_t, hid_t, java.nio.ByteBuffer, jlong)
+ */
+JNIEXPORT jint JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dread_1buffer
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlong mem_type_id, jlong mem_space_id,
+   jlong file_space_id, jlong xfer_plist_id, jobject buf, jlong buf_offset)
+{
+    herr_t status;
+    char *buffP;
+
+    if (buf == NULL)
+    {
+        h5nullArgument(env, "H5Dread: buf is NULL");
+        return -1;
+    }
+    buffP = (char *) (*env)->GetDirectBufferAddress(env, buf);
+    if (buffP == NULL)
+    {
+        h5badArgument(env, "H5Dread: buf is not a direct buffer");
+        return -1;
+    }
+    status = H5Dread((hid_t) dataset_id, (hid_t) mem_type_id, (hid_t) mem_space_id,
+                     (hid_t) file_space_id, (hid_t) xfer_plist_id, buffP + buf_offset);
+    if (status < 0)
+    {
+        h5libraryError(env);
+        return -1;
+    }
+    return (jint) status;
+}
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dwrite_buffer
+ * Signature: jint _H5Dwrite_buffer(hid_t, hid_t, hid_t, hid_t, hid_t, java.nio.ByteBuffer, jlong)
+ */
+JNIEXPORT jint JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dwrite_1buffer
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlong mem_type_id, jlong mem_space_id,
+   jlong file_space_id, jlong xfer_plist_id, jobject buf, jlong buf_offset)
+{
+    herr_t status;
+    char *buffP;
+
+    if (buf == NULL)
+    {
+        h5nullArgument(env, "H5Dwrite: buf is NULL");
+        return -1;
+    }
+    buffP = (char *) (*env)->GetDirectBufferAddress(env, buf);
+    if (buffP == NULL)
+    {
+        h5badArgument(env, "H5Dwrite: buf is not a direct buffer");
+        return -1;
+    }
+    status = H5Dwrite((hid_t) dataset_id, (hid_t) mem_type_id, (hid_t) mem_space_id,
+                      (hid_t) file_space_id, (hid_t) xfer_plist_id, buffP + buf_offset);
+    if (status < 0)
+    {
+        h5libraryError(env);
+        return -1;
+    }
+    return (jint) status;
+}
+
+static int H5Dchunk_offset
+  (JNIEnv *env, jlongArray offset, hsize_t *coffset)
+{
+    jlong *offsetP;
+    jsize rank;
+    jsize i;
+
+    if (offset == NULL)
+    {
+        h5nullArgument(env, "H5Dchunk: offset is NULL");
+        return -1;
+    }
+    rank = (*env)->GetArrayLength(env, offset);
+    if (rank > H5S_MAX_RANK)
+    {
+        h5badArgument(env, "H5Dchunk: offset has too many dimensions");
+        return -1;
+    }
+    offsetP = (*env)->GetLongArrayElements(env, offset, NULL);
+    if (offsetP == NULL)
+    {
+        h5JNIFatalError(env, "H5Dchunk: offset not pinned");
+        return -1;
+    }
+    for (i = 0; i < rank; i++)
+    {
+        coffset[i] = (hsize_t) offsetP[i];
+    }
+    (*env)->ReleaseLongArrayElements(env, offset, offsetP, JNI_ABORT);
+    return 0;
+}
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dget_chunk_storage_size
+ * Signature: jlong _H5Dget_chunk_storage_size(hid_t, long[])
+ */
+JNIEXPORT jlong JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dget_1chunk_1storage_1size
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlongArray offset)
+{
+    hsize_t coffset[H5S_MAX_RANK];
+    hsize_t chunk_nbytes = 0;
+
+    if (H5Dchunk_offset(env, offset, coffset) < 0)
+    {
+        return -1;
+    }
+    if (H5Dget_chunk_storage_size((hid_t) dataset_id, coffset, &chunk_nbytes) < 0)
+    {
+        h5libraryError(env);
+        return -1;
+    }
+    return (jlong) chunk_nbytes;
+}
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dread_chunk
+ * Signature: void _H5Dread_chunk(hid_t, hid_t, long[], int[], byte[])
+ */
+JNIEXPORT void JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dread_1chunk
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlong xfer_plist_id, jlongArray offset,
+   jintArray filter_mask, jbyteArray buf)
+{
+    hsize_t coffset[H5S_MAX_RANK];
+    hsize_t chunk_nbytes = 0;
+    uint32_t filters = 0;
+    jint cfilters;
+    herr_t status;
+    jbyte *buffP;
+
+    if (buf == NULL)
+    {
+        h5nullArgument(env, "H5Dread_chunk: buf is NULL");
+        return;
+    }
+    if (filter_mask == NULL || (*env)->GetArrayLength(env, filter_mask) < 1)
+    {
+        h5badArgument(env, "H5Dread_chunk: filter_mask is NULL or empty");
+        return;
+    }
+    if (H5Dchunk_offset(env, offset, coffset) < 0)
+    {
+        return;
+    }
+    if (H5Dget_chunk_storage_size((hid_t) dataset_id, coffset, &chunk_nbytes) < 0)
+    {
+        h5libraryError(env);
+        return;
+    }
+    if (chunk_nbytes > (hsize_t) (*env)->GetArrayLength(env, buf))
+    {
+        h5badArgument(env, "H5Dread_chunk: buf is too small for chunk");
+        return;
+    }
+    buffP = (*env)->GetByteArrayElements(env, buf, NULL);
+    if (buffP == NULL)
+    {
+        h5JNIFatalError(env, "H5Dread_chunk: buf not pinned");
+        return;
+    }
+    status = H5Dread_chunk((hid_t) dataset_id, (hid_t) xfer_plist_id, coffset, &filters, buffP);
+    if (status < 0)
+    {
+        (*env)->ReleaseByteArrayElements(env, buf, buffP, JNI_ABORT);
+        h5libraryError(env);
+        return;
+    }
+    (*env)->ReleaseByteArrayElements(env, buf, buffP, 0);
+    cfilters = (jint) filters;
+    (*env)->SetIntArrayRegion(env, filter_mask, 0, 1, &cfilters);
+}
+
+/*
+ * Class:     ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper
+ * Method:    _H5Dwrite_chunk
+ * Signature: void _H5Dwrite_chunk(hid_t, hid_t, int, long[], byte[], int)
+ */
+JNIEXPORT void JNICALL Java_ch_systemsx_cisd_hdf5_hdf5lib_HDFHelper__1H5Dwrite_1chunk
+  (JNIEnv *env, jclass clss, jlong dataset_id, jlong xfer_plist_id, jint filter_mask,
+   jlongArray offset, jbyteArray buf, jint buf_size)
+{
+    hsize_t coffset[H5S_MAX_RANK];
+    herr_t status;
+    jbyte *buffP;
+
+    if (buf == NULL)
+    {
+        h5nullArgument(env, "H5Dwrite_chunk: buf is NULL");
+        return;
+    }
+    if (buf_size < 0 || buf_size > (*env)->GetArrayLength(env, buf))
+    {
+        h5badArgument(env, "H5Dwrite_chunk: buf_size is out of range");
+        return;
+    }
+    if (H5Dchunk_offset(env, offset, coffset) < 0)
+    {
+        return;
+    }
+    buffP = (*env)->GetByteArrayElements(env, buf, NULL);
+    if (buffP == NULL)
+    {
+        h5JNIFatalError(env, "H5Dwrite_chunk: buf not pinned");
+        return;
+    }
+    status = H5Dwrite_chunk((hid_t) dataset_id, (hid_t) xfer_plist_id, (uint32_t) filter_mask,
+                            coffset, (size_t) buf_size, buffP);
+    (*env)->ReleaseByteArrayElements(env, buf, buffP, JNI_ABORT);
+    if (status < 0)
+    {
+        h5libraryError(env);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+/**
+ * A class with methods that implement HDF5 filters in Java, for decoding chunks that have been
+ * read raw from the file and for encoding chunks that are written raw to the file.
+ * <p>
+ * <i>This is an internal API that should not be expected to be stable between releases!</i>
+ * 
+ * @author Bernd Rinn
+ */
+class ChunkFilterUtils
+{
+
+    private ChunkFilterUtils()
+    {
+        // Cannot be instantiated
+    }
+
+    /**
+     * Inflates the first <var>length</var> bytes of <var>compressed</var> (as written by the HDF5
+     * deflate filter) into <var>target</var>.
+     * 
+     * @return The number of bytes written to <var>target</var>.
+     */
+    static int inflate(byte[] compressed, int length, byte[] target)
+    {
+        final Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(compressed, 0, length);
+            int targetLength = 0;
+            while (targetLength < target.length && inflater.finished() == false)
+            {
+                final int n = inflater.inflate(target, targetLength, target.length - targetLength);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    break;
+                }
+                targetLength += n;
+            }
+            return targetLength;
+        } catch (DataFormatException ex)
+        {
+            throw new HDF5JavaException("Corrupt deflated chunk: " + ex.getMessage());
+        } finally
+        {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reverts the HDF5 shuffle filter on the first <var>length</var> bytes of <var>shuffled</var>
+     * and stores the result in <var>target</var>.
+     */
+    static void unshuffle(byte[] shuffled, int length, int elementSize, byte[] target)
+    {
+        if (elementSize <= 1)
+        {
+            System.arraycopy(shuffled, 0, target, 0, length);
+            return;
+        }
+        final int numberOfElements = length / elementSize;
+        for (int j = 0; j < elementSize; ++j)
+        {
+            final int shuffledOffset = j * numberOfElements;
+            for (int i = 0; i < numberOfElements; ++i)
+            {
+                target[i * elementSize + j] = shuffled[shuffledOffset + i];
+            }
+        }
+        // The bytes that don't make up a complete element are not shuffled.
+        final int leftOverOffset = numberOfElements * elementSize;
+        System.arraycopy(shuffled, leftOverOffset, target, leftOverOffset, length - leftOverOffset);
+    }
+
+    /**
+     * Deflates the first <var>length</var> bytes of <var>data</var> with compression level
+     * <var>level</var> in the same format as the HDF5 deflate filter.
+     * 
+     * @return The compressed data.
+     */
+    static byte[] deflate(byte[] data, int length, int level)
+    {
+        final Deflater deflater = new Deflater(level);
+        try
+        {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] compressed = new byte[length + (length >> 8) + 64];
+            int compressedLength = 0;
+            while (deflater.finished() == false)
+            {
+                if (compressedLength == compressed.length)
+                {
+                    compressed = Arrays.copyOf(compressed, 2 * compressed.length);
+                }
+                compressedLength +=
+                        deflater.deflate(compressed, compressedLength, compressed.length
+                                - compressedLength);
+            }
+            return Arrays.copyOf(compressed, compressedLength);
+        } finally
+        {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Applies the HDF5 shuffle filter on the first <var>length</var> bytes of <var>data</var> and
+     * stores the result in <var>target</var>.
+     */
+    static void shuffle(byte[] data, int length, int elementSize, byte[] target)
+    {
+        if (elementSize <= 1)
+        {
+            System.arraycopy(data, 0, target, 0, length);
+            return;
+        }
+        final int numberOfElements = length / elementSize;
+        for (int j = 0; j < elementSize; ++j)
+        {
+            final int shuffledOffset = j * numberOfElements;
+            for (int i = 0; i < numberOfElements; ++i)
+            {
+                target[shuffledOffset + i] = data[i * elementSize + j];
+            }
+        }
+        // The bytes that don't make up a complete element are not shuffled.
+        final int leftOverOffset = numberOfElements * elementSize;
+        System.arraycopy(data, leftOverOffset, target, leftOverOffset, length - leftOverOffset);
+    }
+
+}
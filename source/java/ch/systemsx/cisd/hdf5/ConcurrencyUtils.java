@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import ch.systemsx.cisd.base.exceptions.CheckedExceptionTunnel;
+
+/**
+ * Utilities for the worker threads of JHDF5.
+ *
+ * @author Bernd Rinn
+ */
+public final class ConcurrencyUtils
+{
+
+    private ConcurrencyUtils()
+    {
+        // Cannot be instantiated
+    }
+
+    /**
+     * Returns a factory for daemon threads called <var>threadName</var>, so that the worker threads
+     * don't keep the JVM from exiting.
+     */
+    public static ThreadFactory createDaemonThreadFactory(final String threadName)
+    {
+        return new ThreadFactory()
+            {
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+    }
+
+    /**
+     * Waits for <var>future</var> and returns its result. An exception of the task is re-thrown,
+     * checked exceptions wrapped in a {@link CheckedExceptionTunnel}.
+     */
+    public static <T> T getResult(Future<T> future)
+    {
+        try
+        {
+            return future.get();
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw CheckedExceptionTunnel.wrapIfNecessary(ex);
+        } catch (ExecutionException ex)
+        {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw CheckedExceptionTunnel.wrapIfNecessary((Exception) cause);
+        }
+    }
+
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Access to a field of a compound record class by means of {@link MethodHandle}s. Falls back to
+ * reflection if no method handle can be obtained for the field or if the access requires a
+ * conversion of the field value (e.g. a widening primitive conversion or boxing).
+ * <p>
+ * <i>This is an internal API that should not be expected to be stable between releases!</i>
+ * 
+ * @author Bernd Rinn
+ */
+final class FieldAccessor
+{
+    private final Field field;
+
+    private final Class<?> valueType;
+
+    /**
+     * Of type <code>(Object)V</code>, where <code>V</code> is the field type if primitive, and
+     * <code>Object</code> otherwise.
+     */
+    private final MethodHandle getterOrNull;
+
+    /** Of type <code>(Object,V)void</code>, where <code>V</code> is as for the getter. */
+    private final MethodHandle setterOrNull;
+
+    private FieldAccessor(Field field, Class<?> valueType, MethodHandle getterOrNull,
+            MethodHandle setterOrNull)
+    {
+        this.field = field;
+        this.valueType = valueType;
+        this.getterOrNull = getterOrNull;
+        this.setterOrNull = setterOrNull;
+    }
+
+    /**
+     * Creates an accessor for <var>field</var>. The field needs to be accessible.
+     */
+    static FieldAccessor create(Field field)
+    {
+        final Class<?> valueType = field.getType().isPrimitive() ? field.getType() : Object.class;
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle getterOrNull;
+        try
+        {
+            getterOrNull =
+                    lookup.unreflectGetter(field).asType(
+                            MethodType.methodType(valueType, Object.class));
+        } catch (IllegalAccessException ex)
+        {
+            getterOrNull = null;
+        }
+        MethodHandle setterOrNull;
+        try
+        {
+            setterOrNull =
+                    lookup.unreflectSetter(field).asType(
+                            MethodType.methodType(void.class, Object.class, valueType));
+        } catch (IllegalAccessException ex)
+        {
+            // E.g. final fields.
+            setterOrNull = null;
+        }
+        return new FieldAccessor(field, valueType, getterOrNull, setterOrNull);
+    }
+
+    Field getField()
+    {
+        return field;
+    }
+
+    Object get(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != Object.class)
+        {
+            return field.get(obj);
+        }
+        try
+        {
+            return (Object) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void set(Object obj, Object value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != Object.class)
+        {
+            field.set(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    byte getByte(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != byte.class)
+        {
+            return field.getByte(obj);
+        }
+        try
+        {
+            return (byte) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setByte(Object obj, byte value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != byte.class)
+        {
+            field.setByte(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    short getShort(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != short.class)
+        {
+            return field.getShort(obj);
+        }
+        try
+        {
+            return (short) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setShort(Object obj, short value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != short.class)
+        {
+            field.setShort(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    int getInt(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != int.class)
+        {
+            return field.getInt(obj);
+        }
+        try
+        {
+            return (int) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setInt(Object obj, int value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != int.class)
+        {
+            field.setInt(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    long getLong(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != long.class)
+        {
+            return field.getLong(obj);
+        }
+        try
+        {
+            return (long) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setLong(Object obj, long value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != long.class)
+        {
+            field.setLong(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    float getFloat(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != float.class)
+        {
+            return field.getFloat(obj);
+        }
+        try
+        {
+            return (float) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setFloat(Object obj, float value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != float.class)
+        {
+            field.setFloat(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    double getDouble(Object obj) throws IllegalAccessException
+    {
+        if (getterOrNull == null || valueType != double.class)
+        {
+            return field.getDouble(obj);
+        }
+        try
+        {
+            return (double) getterOrNull.invokeExact(obj);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    void setDouble(Object obj, double value) throws IllegalAccessException
+    {
+        if (setterOrNull == null || valueType != double.class)
+        {
+            field.setDouble(obj, value);
+            return;
+        }
+        try
+        {
+            setterOrNull.invokeExact(obj, value);
+        } catch (Throwable th)
+        {
+            throw rethrow(th);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable th)
+    {
+        if (th instanceof RuntimeException)
+        {
+            throw (RuntimeException) th;
+        }
+        if (th instanceof Error)
+        {
+            throw (Error) th;
+        }
+        // Field accessors don't throw checked exceptions.
+        throw new IllegalStateException(th);
+    }
+
+}
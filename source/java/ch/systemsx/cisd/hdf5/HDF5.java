@@ -20,9 +20,11 @@ import static hdf.hdf5lib.H5.*;
 import static ch.systemsx.cisd.hdf5.hdf5lib.HDFHelper.H5Pset_mdc_image_config;
 import static ch.systemsx.cisd.hdf5.hdf5lib.HDFHelper.H5Pget_mdc_image_enabled;
 import static hdf.hdf5lib.HDF5Constants.H5_INDEX_NAME;
+import static hdf.hdf5lib.HDF5Constants.H5_ITER_INC;
 import static hdf.hdf5lib.HDF5Constants.H5_ITER_NATIVE;
 import static hdf.hdf5lib.HDF5Constants.H5D_CHUNKED;
 import static hdf.hdf5lib.HDF5Constants.H5D_COMPACT;
+import static hdf.hdf5lib.HDF5Constants.H5D_CONTIGUOUS;
 import static hdf.hdf5lib.HDF5Constants.H5D_FILL_TIME_ALLOC;
 import static hdf.hdf5lib.HDF5Constants.H5F_ACC_RDONLY;
 import static hdf.hdf5lib.HDF5Constants.H5F_ACC_RDWR;
@@ -30,6 +32,7 @@ import static hdf.hdf5lib.HDF5Constants.H5F_ACC_TRUNC;
 import static hdf.hdf5lib.HDF5Constants.H5F_SCOPE_GLOBAL;
 import static hdf.hdf5lib.HDF5Constants.H5O_TYPE_GROUP;
 import static hdf.hdf5lib.HDF5Constants.H5P_ATTRIBUTE_CREATE;
+import static hdf.hdf5lib.HDF5Constants.H5P_DATASET_ACCESS;
 import static hdf.hdf5lib.HDF5Constants.H5P_DATASET_CREATE;
 import static hdf.hdf5lib.HDF5Constants.H5P_DEFAULT;
 import static hdf.hdf5lib.HDF5Constants.H5P_FILE_ACCESS;
@@ -49,16 +52,20 @@ import static hdf.hdf5lib.HDF5Constants.H5T_FLOAT;
 import static hdf.hdf5lib.HDF5Constants.H5T_INTEGER;
 import static hdf.hdf5lib.HDF5Constants.H5T_OPAQUE;
 import static hdf.hdf5lib.HDF5Constants.H5T_OPAQUE_TAG_MAX;
+import static hdf.hdf5lib.HDF5Constants.H5T_ORDER_BE;
 import static hdf.hdf5lib.HDF5Constants.H5T_SGN_NONE;
 import static hdf.hdf5lib.HDF5Constants.H5T_STD_I16LE;
 import static hdf.hdf5lib.HDF5Constants.H5T_STD_I32LE;
 import static hdf.hdf5lib.HDF5Constants.H5T_STD_I8LE;
 import static hdf.hdf5lib.HDF5Constants.H5T_STR_NULLPAD;
 import static hdf.hdf5lib.HDF5Constants.H5T_VARIABLE;
+import static hdf.hdf5lib.HDF5Constants.H5Z_FILTER_DEFLATE;
 import static hdf.hdf5lib.HDF5Constants.H5Z_SO_FLOAT_DSCALE;
 import static hdf.hdf5lib.HDF5Constants.H5Z_SO_INT;
 
 import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -66,9 +73,15 @@ import java.util.List;
 import hdf.hdf5lib.H5;
 import hdf.hdf5lib.HDF5Constants;
 import hdf.hdf5lib.HDFNativeData;
+import hdf.hdf5lib.callbacks.H5L_iterate_cb;
+import hdf.hdf5lib.callbacks.H5L_iterate_t;
+import hdf.hdf5lib.callbacks.H5O_iterate_cb;
+import hdf.hdf5lib.callbacks.H5O_iterate_t;
 import hdf.hdf5lib.exceptions.HDF5Exception;
 import hdf.hdf5lib.exceptions.HDF5JavaException;
+import hdf.hdf5lib.exceptions.HDF5LibraryException;
 
+import hdf.hdf5lib.structs.H5L_info_t;
 import hdf.hdf5lib.structs.H5O_info_t;
 import ch.systemsx.cisd.base.convert.NativeData;
 import ch.systemsx.cisd.base.mdarray.MDAbstractArray;
@@ -76,9 +89,11 @@ import ch.systemsx.cisd.hdf5.IHDF5WriterConfigurator.FileFormatVersion;
 import ch.systemsx.cisd.hdf5.IHDF5WriterConfigurator.FileFormatVersionBounds;
 import ch.systemsx.cisd.hdf5.cleanup.CleanUpCallable;
 import ch.systemsx.cisd.hdf5.cleanup.CleanUpRegistry;
+import ch.systemsx.cisd.hdf5.cleanup.CloseKind;
 import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
 import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
 import ch.systemsx.cisd.hdf5.exceptions.HDF5SpaceRankMismatch;
+import ch.systemsx.cisd.hdf5.hdf5lib.H5LockStrategy;
 import ch.systemsx.cisd.hdf5.hdf5lib.HDFHelper;
 
 /**
@@ -91,6 +106,16 @@ class HDF5
 
     private final static int MAX_PATH_LENGTH = 16384;
 
+    /** The operator data for link iterations that don't need any. */
+    private final static H5L_iterate_t NO_ITERATE_DATA = new H5L_iterate_t()
+        {
+        };
+
+    /** The operator data for object visits that don't need any. */
+    private final static H5O_iterate_t NO_VISIT_DATA = new H5O_iterate_t()
+        {
+        };
+
     private final CleanUpCallable runner;
 
     private final long dataSetCreationPropertyListCompactStorageLayoutFileTimeAlloc;
@@ -105,6 +130,18 @@ class HDF5
 
     private final boolean autoDereference;
 
+    /**
+     * The lock to synchronize data set reads on, or <code>null</code>, if they should synchronize
+     * on the global lock.
+     */
+    private Object fileLockOrNull;
+
+    /**
+     * The access property list to open data sets with, setting the chunk cache configured for the
+     * file.
+     */
+    private long dataSetAccessPropertyListId = H5P_DEFAULT;
+
     public HDF5(final CleanUpRegistry fileRegistry, final CleanUpCallable runner,
             final boolean performNumericConversions, final boolean useUTF8CharEncoding,
             final boolean autoDereference)
@@ -163,14 +200,7 @@ class HDF5
                 createFileAccessPropertyListId(fileFormatVersionBounds, mdcGenerateImage, registry);
         final long fileId =
                 H5Fcreate(fileName, H5F_ACC_TRUNC, H5P_DEFAULT, fileAccessPropertyListId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Fclose(fileId);
-                }
-            });
+        registry.registerClose(CloseKind.FILE, fileId);
         return fileId;
     }
 
@@ -198,14 +228,7 @@ class HDF5
         if (fileFormatVersionBounds != FileFormatVersionBounds.getDefault() || mdcGenerateImage)
         {
             final long fapl = H5Pcreate(H5P_FILE_ACCESS);
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Pclose(fapl);
-                    }
-                });
+            registry.registerClose(CloseKind.PROPERTY_LIST, fapl);
             fileAccessPropertyListId = fapl;
             if (fileFormatVersionBounds != FileFormatVersionBounds.getDefault())
             {
@@ -234,14 +257,7 @@ class HDF5
     public long openFileReadOnly(String fileName, ICleanUpRegistry registry)
     {
         final long fileId = H5Fopen(fileName, H5F_ACC_RDONLY, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Fclose(fileId);
-                }
-            });
+        registry.registerClose(CloseKind.FILE, fileId);
         return fileId;
     }
 
@@ -256,14 +272,7 @@ class HDF5
                     + "' exists but is not a file.");
         }
         final long fileId = H5Fopen(fileName, H5F_ACC_RDWR, fileAccessPropertyListId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Fclose(fileId);
-                }
-            });
+        registry.registerClose(CloseKind.FILE, fileId);
         return fileId;
     }
 
@@ -282,14 +291,7 @@ class HDF5
         final long objectId =
                 isReference(path) ? H5Oopen_by_addr(fileId, Long.parseLong(path.substring(1)))
                         : H5Oopen(fileId, path, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Oclose(objectId);
-                }
-            });
+        registry.registerClose(CloseKind.OBJECT, objectId);
         return objectId;
     }
 
@@ -336,14 +338,7 @@ class HDF5
     {
         checkMaxLength(groupName);
         final long gcplId = H5Pcreate(H5P_GROUP_CREATE);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(gcplId);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, gcplId);
         H5Pset_local_heap_size_hint(gcplId, sizeHint);
         final long groupId =
                 H5Gcreate(fileId, groupName, lcplCreateIntermediateGroups, gcplId, H5P_DEFAULT);
@@ -355,14 +350,7 @@ class HDF5
     {
         checkMaxLength(groupName);
         final long gcplId = H5Pcreate(H5P_GROUP_CREATE);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(gcplId);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, gcplId);
         H5Pset_link_phase_change(gcplId, maxCompact, minDense);
         final long groupId =
                 H5Gcreate(fileId, groupName, lcplCreateIntermediateGroups, gcplId, H5P_DEFAULT);
@@ -374,14 +362,7 @@ class HDF5
         checkMaxLength(path);
         final long groupId = isReference(path) ? H5Oopen_by_addr(fileId, Long.parseLong(path.substring(1)))
                 : H5Gopen(fileId, path, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Gclose(groupId);
-                }
-            });
+        registry.registerClose(CloseKind.GROUP, groupId);
         return groupId;
     }
 
@@ -389,14 +370,7 @@ class HDF5
     {
         checkMaxLength(path);
         final long groupId = H5Gopen(fileId, path, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Gclose(groupId);
-                }
-            });
+        registry.registerClose(CloseKind.GROUP, groupId);
         return H5Gget_info(groupId).nlinks;
     }
 
@@ -575,6 +549,142 @@ class HDF5
         return runner.call(dataDimensionRunnable);
     }
 
+    /**
+     * Returns a page with the link information of the members of <var>groupName</var> that have
+     * the indices <var>startIndex</var> to <var>startIndex + pageSize - 1</var> in the name
+     * index. Internal names are skipped unless <var>includeInternal</var> is <code>true</code>.
+     */
+    public HDF5GroupMemberPage getGroupMemberLinkInfoPage(final long fileId,
+            final String groupName, final long startIndex, final int pageSize,
+            final boolean includeInternal, final String houseKeepingNameSuffix,
+            final boolean readLinkTargets)
+    {
+        checkMaxLength(groupName);
+        final ICallableWithCleanUp<HDF5GroupMemberPage> pageRunnable =
+                new ICallableWithCleanUp<HDF5GroupMemberPage>()
+                    {
+                        @Override
+                        public HDF5GroupMemberPage call(ICleanUpRegistry registry)
+                        {
+                            final long groupId = openGroup(fileId, groupName, registry);
+                            final long n = H5Gget_info(groupId).nlinks;
+                            final List<String> names = new ArrayList<String>();
+                            if (startIndex < n)
+                            {
+                                // Only collect the names, the HDF5 library is not re-entered
+                                // from within the iteration.
+                                H5Literate(groupId, H5_INDEX_NAME, H5_ITER_INC, startIndex,
+                                        new H5L_iterate_cb()
+                                            {
+                                                @Override
+                                                public int callback(long group, String name,
+                                                        H5L_info_t info, H5L_iterate_t opData)
+                                                {
+                                                    names.add(name);
+                                                    return (names.size() < pageSize) ? 0 : 1;
+                                                }
+                                            }, NO_ITERATE_DATA);
+                            }
+                            final String superGroupName =
+                                    (groupName.equals("/") ? "/" : groupName + "/");
+                            final List<HDF5LinkInformation> members =
+                                    new ArrayList<HDF5LinkInformation>(names.size());
+                            final long[] indices = new long[names.size()];
+                            for (int i = 0; i < names.size(); ++i)
+                            {
+                                final String name = names.get(i);
+                                if (includeInternal == false
+                                        && HDF5Utils.isInternalName(name, houseKeepingNameSuffix))
+                                {
+                                    continue;
+                                }
+                                final String[] linkTargetOrNull =
+                                        readLinkTargets ? new String[2] : null;
+                                final int typeId =
+                                        HDFHelper.H5Lget_link_info(groupId, name,
+                                                linkTargetOrNull, true);
+                                indices[members.size()] = startIndex + i;
+                                members.add(HDF5LinkInformation.create(superGroupName + name,
+                                        typeId, readLinkTargets ? linkTargetOrNull[1] : null,
+                                        readLinkTargets ? linkTargetOrNull[0] : null));
+                            }
+                            final long nextIndex = startIndex + names.size();
+                            return new HDF5GroupMemberPage(members, Arrays.copyOf(indices,
+                                    members.size()), (nextIndex < n) ? nextIndex : -1);
+                        }
+                    };
+        return runner.call(pageRunnable);
+    }
+
+    /**
+     * Visits all objects below <var>groupName</var> recursively with <var>visitor</var> in one
+     * call of <code>H5Ovisit</code>. Each object is visited once, even if it has more than one
+     * hard link. Objects with an internal name in their path are left out unless
+     * <var>includeInternal</var> is <code>true</code>. The creation time and the number of
+     * attributes are only read if <var>readAllObjectInfo</var> is <code>true</code>.
+     */
+    public void visitObjects(final long fileId, final String groupName,
+            final IHDF5ObjectVisitor visitor, final boolean includeInternal,
+            final String houseKeepingNameSuffix, final boolean readAllObjectInfo)
+    {
+        checkMaxLength(groupName);
+        final ICallableWithCleanUp<Object> visitRunnable = new ICallableWithCleanUp<Object>()
+            {
+                @Override
+                public Object call(ICleanUpRegistry registry)
+                {
+                    final long groupId = openGroup(fileId, groupName, registry);
+                    final String superGroupName =
+                            (groupName.equals("/") ? "/" : groupName + "/");
+                    // An exception must not cross the native code, keep it for later.
+                    final RuntimeException[] exceptionHolder = new RuntimeException[1];
+                    H5Ovisit(groupId, H5_INDEX_NAME, H5_ITER_INC, new H5O_iterate_cb()
+                        {
+                            @Override
+                            public int callback(long group, String name, H5O_info_t info,
+                                    H5O_iterate_t opData)
+                            {
+                                if (".".equals(name) || (includeInternal == false
+                                        && isInternalPath(name, houseKeepingNameSuffix)))
+                                {
+                                    return 0;
+                                }
+                                try
+                                {
+                                    return visitor.visit(new HDF5ObjectInformation(
+                                            superGroupName + name, HDF5CommonInformation
+                                                    .objectTypeIdToObjectType(info.type), info))
+                                            ? 0 : 1;
+                                } catch (RuntimeException ex)
+                                {
+                                    exceptionHolder[0] = ex;
+                                    return 1;
+                                }
+                            }
+                        }, NO_VISIT_DATA, readAllObjectInfo ? HDF5Constants.H5O_INFO_ALL
+                            : HDF5Constants.H5O_INFO_BASIC);
+                    if (exceptionHolder[0] != null)
+                    {
+                        throw exceptionHolder[0];
+                    }
+                    return null; // Nothing to return.
+                }
+            };
+        runner.call(visitRunnable);
+    }
+
+    private static boolean isInternalPath(String relativePath, String houseKeepingNameSuffix)
+    {
+        for (String name : relativePath.split("/"))
+        {
+            if (HDF5Utils.isInternalName(name, houseKeepingNameSuffix))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     //
     // Link
     //
@@ -627,14 +737,7 @@ class HDF5
         final long dataSpaceId =
                 H5Screate_simple(dimensions.length, dimensions,
                         createMaxDimensions(dimensions, (layout == HDF5StorageLayout.CHUNKED)));
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         final long dataSetCreationPropertyListId;
         if (layout == HDF5StorageLayout.CHUNKED && chunkSizeOrNull != null)
         {
@@ -673,14 +776,7 @@ class HDF5
         final long dataSetId =
                 H5Dcreate(fileId, dataSetName, dataTypeId, dataSpaceId,
                         lcplCreateIntermediateGroups, dataSetCreationPropertyListId, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Dclose(dataSetId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SET, dataSetId);
 
         return dataSetId;
     }
@@ -797,14 +893,7 @@ class HDF5
                         H5P_DEFAULT);
         if (registryOrNull != null)
         {
-            registryOrNull.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Dclose(dataSetId);
-                    }
-                });
+            registryOrNull.registerClose(CloseKind.DATA_SET, dataSetId);
     
         }
         return dataSetId;
@@ -815,14 +904,7 @@ class HDF5
         final long dataSetCreationPropertyListId = H5Pcreate(H5P_DATASET_CREATE);
         if (registry != null)
         {
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Pclose(dataSetCreationPropertyListId);
-                    }
-                });
+            registry.registerClose(CloseKind.PROPERTY_LIST, dataSetCreationPropertyListId);
         }
         H5Pset_fill_time(dataSetCreationPropertyListId, H5D_FILL_TIME_ALLOC);
         return dataSetCreationPropertyListId;
@@ -847,17 +929,34 @@ class HDF5
         }
     }
 
+    /**
+     * Returns the offset in the file of the data of <var>dataSetId</var>, or <code>-1</code>, if
+     * the data are not stored in one contiguous block of the file (compact, chunked or external
+     * storage, or storage not yet allocated).
+     */
+    public long tryGetContiguousStorageOffset(long dataSetId, ICleanUpRegistry registry)
+    {
+        final long dataSetCreationPropertyListId = getCreationPropertyList(dataSetId, registry);
+        if (H5Pget_layout(dataSetCreationPropertyListId) != H5D_CONTIGUOUS
+                || H5Pget_external_count(dataSetCreationPropertyListId) > 0)
+        {
+            return -1;
+        }
+        try
+        {
+            final long offset = H5Dget_offset(dataSetId);
+            return (offset < 0) ? -1 : offset;
+        } catch (HDF5LibraryException ex)
+        {
+            // No storage has been allocated for the data set.
+            return -1;
+        }
+    }
+
     private long getCreationPropertyList(long dataSetId, ICleanUpRegistry registry)
     {
         final long dataSetCreationPropertyListId = H5Dget_create_plist(dataSetId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(dataSetCreationPropertyListId);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, dataSetCreationPropertyListId);
         return dataSetCreationPropertyListId;
     }
 
@@ -900,14 +999,7 @@ class HDF5
     {
         checkMaxLength(dataSetName);
         final long dataSpaceId = H5Screate(H5S_SCALAR);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         final long dataSetId =
                 H5Dcreate(
                         fileId,
@@ -918,14 +1010,7 @@ class HDF5
                         compactLayout ? dataSetCreationPropertyListCompactStorageLayoutFileTimeAlloc
                                 : dataSetCreationPropertyListFillTimeAlloc,
                         H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Dclose(dataSetId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SET, dataSetId);
         return dataSetId;
     }
 
@@ -933,21 +1018,91 @@ class HDF5
     {
         checkMaxLength(path);
         final long dataSetId = isReference(path) ? H5Oopen_by_addr(fileId, Long.parseLong(path.substring(1)))
-                : H5Dopen(fileId, path, H5P_DEFAULT);
+                : H5Dopen(fileId, path, dataSetAccessPropertyListId);
         if (registry != null)
         {
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Dclose(dataSetId);
-                    }
-                });
+            registry.registerClose(CloseKind.DATA_SET, dataSetId);
         }
         return dataSetId;
     }
 
+    /**
+     * Opens the data set <var>path</var> with a chunk cache of <var>chunkCache</var>. In mode
+     * {@link HDF5ChunkCacheSettings#AUTO}, the settings are derived from the chunk size and
+     * dimensions of the data set. Data sets that are specified by a reference are opened with the
+     * chunk cache configured for the file.
+     */
+    public long openDataSet(final long fileId, final String path,
+            final HDF5ChunkCacheSettings chunkCache, ICleanUpRegistry registry)
+    {
+        checkMaxLength(path);
+        if (isReference(path))
+        {
+            return openDataSet(fileId, path, registry);
+        }
+        final ICallableWithCleanUp<Long> openRunnable = new ICallableWithCleanUp<Long>()
+            {
+                @Override
+                public Long call(ICleanUpRegistry openRegistry)
+                {
+                    final HDF5ChunkCacheSettings settings =
+                            chunkCache.isAuto() ? resolveChunkCache(fileId, path, chunkCache,
+                                    openRegistry) : chunkCache;
+                    final long dataSetAccessPropertyList =
+                            settings.isLibraryDefault() ? H5P_DEFAULT
+                                    : createDataSetAccessPropertyList(settings, openRegistry);
+                    return H5Dopen(fileId, path, dataSetAccessPropertyList);
+                }
+            };
+        final long dataSetId = runner.call(openRunnable);
+        if (registry != null)
+        {
+            registry.registerClose(CloseKind.DATA_SET, dataSetId);
+        }
+        return dataSetId;
+    }
+
+    private HDF5ChunkCacheSettings resolveChunkCache(long fileId, String path,
+            HDF5ChunkCacheSettings chunkCache, ICleanUpRegistry registry)
+    {
+        final long dataSetId = H5Dopen(fileId, path, H5P_DEFAULT);
+        registry.registerClose(CloseKind.DATA_SET, dataSetId);
+        final long creationPropertyList = getCreationPropertyList(dataSetId, registry);
+        if (H5Pget_layout(creationPropertyList) != H5D_CHUNKED)
+        {
+            return HDF5ChunkCacheSettings.DEFAULT;
+        }
+        final long[] dimensions = getDataDimensions(dataSetId, registry);
+        final long[] chunkSizes = new long[dimensions.length];
+        H5Pget_chunk(creationPropertyList, dimensions.length, chunkSizes);
+        final int elementSize = getDataTypeSize(getDataTypeForDataSet(dataSetId, registry));
+        return chunkCache.resolve(dimensions, MDAbstractArray.toInt(chunkSizes), elementSize);
+    }
+
+    /**
+     * Lets all data sets of the file be opened with a chunk cache of <var>chunkCache</var>.
+     * Settings in mode {@link HDF5ChunkCacheSettings#AUTO} are ignored here as they need to be
+     * resolved for each data set.
+     */
+    void setChunkCache(HDF5ChunkCacheSettings chunkCache, ICleanUpRegistry fileRegistry)
+    {
+        if (chunkCache.isAuto() == false && chunkCache.isLibraryDefault() == false)
+        {
+            this.dataSetAccessPropertyListId =
+                    createDataSetAccessPropertyList(chunkCache, fileRegistry);
+        }
+    }
+
+    private long createDataSetAccessPropertyList(HDF5ChunkCacheSettings chunkCache,
+            ICleanUpRegistry registry)
+    {
+        final long dataSetAccessPropertyListId = H5Pcreate(H5P_DATASET_ACCESS);
+        registry.registerClose(CloseKind.PROPERTY_LIST, dataSetAccessPropertyListId);
+        H5Pset_chunk_cache(dataSetAccessPropertyListId, chunkCache.getNumberOfSlots(),
+                chunkCache.getSizeInBytes(), chunkCache.getPreemptionPolicy());
+        return dataSetAccessPropertyListId;
+    }
+
     boolean isReference(String path)
     {
         return autoDereference && (path.charAt(0) == '\0');
@@ -960,15 +1115,8 @@ class HDF5
         checkMaxLength(path);
         final long dataSetId =
                 isReference(path) ? H5Rdereference(fileId, H5P_DEFAULT, H5R_OBJECT, HDFNativeData.longToByte(Long.parseLong(path.substring(1))))
-                        : H5Dopen(fileId, path, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Dclose(dataSetId);
-                }
-            });
+                        : H5Dopen(fileId, path, dataSetAccessPropertyListId);
+        registry.registerClose(CloseKind.DATA_SET, dataSetId);
         final long dataSpaceId = getDataSpaceForDataSet(dataSetId, registry);
         final int rank = getDataSpaceRank(dataSpaceId);
         final long[][] dimsMaxDims = getDataSpaceDimensionsAndMaxDimensions(dataSpaceId, rank);
@@ -999,12 +1147,18 @@ class HDF5
         {
             if (layout == HDF5StorageLayout.CHUNKED)
             {
+                final long[] extendedDimensions =
+                        computeNewDimensions(oldDimensions, newDimensions, overwriteMode);
+                if (Arrays.equals(oldDimensions, extendedDimensions))
+                {
+                    // The data set is already large enough.
+                    return false;
+                }
                 // Safety check. JHDF5 creates CHUNKED data sets always with unlimited max
                 // dimensions but we may have to work on a file we haven't created.
                 if (areDimensionsInBounds(newDimensions, maxDimensions))
                 {
-                    setDataSetExtentChunked(dataSetId,
-                            computeNewDimensions(oldDimensions, newDimensions, overwriteMode));
+                    setDataSetExtentChunked(dataSetId, extendedDimensions);
                     return true;
                 } else
                 {
@@ -1040,12 +1194,18 @@ class HDF5
             final long[] maxDimensions = dataSet.getMaxDimensions();
             if (layout == HDF5StorageLayout.CHUNKED)
             {
+                final long[] extendedDimensions =
+                        computeNewDimensions(oldDimensions, newDimensions, overwriteMode);
+                if (Arrays.equals(oldDimensions, extendedDimensions))
+                {
+                    // The data set is already large enough.
+                    return false;
+                }
                 // Safety check. JHDF5 creates CHUNKED data sets always with unlimited max
                 // dimensions but we may have to work on a file we haven't created.
                 if (areDimensionsInBounds(newDimensions, maxDimensions))
                 {
-                    setDataSetExtentChunked(dataSetId,
-                            computeNewDimensions(oldDimensions, newDimensions, overwriteMode));
+                    setDataSetExtentChunked(dataSetId, extendedDimensions);
                     return true;
                 } else
                 {
@@ -1126,15 +1286,114 @@ class HDF5
         H5Dset_extent(dataSetId, dimensions);
     }
 
+    /**
+     * Makes data set reads of this file synchronize on the file lock of <var>fileId</var> rather
+     * than on the global lock, if supported by the native library.
+     * 
+     * @see H5LockStrategy
+     */
+    void useFileLock(long fileId)
+    {
+        if (H5LockStrategy.isFileLockingSupported())
+        {
+            this.fileLockOrNull = H5LockStrategy.getFileLock(fileId);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, byte[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, short[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, int[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, long[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, float[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
+    private void readDataSetWithLock(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, long xferPropertyListId, double[] data)
+    {
+        if (fileLockOrNull == null)
+        {
+            H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, xferPropertyListId,
+                    data);
+        } else
+        {
+            HDFHelper.H5Dread(fileLockOrNull, dataSetId, nativeDataTypeId, memorySpaceId,
+                    fileSpaceId, xferPropertyListId, data);
+        }
+    }
+
     public void readDataSetNonNumeric(long dataSetId, long nativeDataTypeId, byte[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, H5P_DEFAULT, data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, H5P_DEFAULT, data);
     }
 
     public void readDataSetNonNumeric(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, byte[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, H5P_DEFAULT, data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, H5P_DEFAULT,
+                data);
     }
 
     public void readDataSetString(long dataSetId, long nativeDataTypeId, String[] data)
@@ -1150,82 +1409,257 @@ class HDF5
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, byte[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, short[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, int[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, float[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, double[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL, numericConversionXferPropertyListID,
-                data);
+        readDataSetWithLock(dataSetId, nativeDataTypeId, H5S_ALL, H5S_ALL,
+                numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, byte[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, short[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, int[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, long[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, float[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
     public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
             long fileSpaceId, double[] data)
     {
-        H5Dread(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+        readDataSetWithLock(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
                 numericConversionXferPropertyListID, data);
     }
 
+    /**
+     * Reads the selection of <var>fileSpaceId</var> into the direct <var>buffer</var>, starting at
+     * its current position. The position of the buffer is not changed.
+     */
+    public void readDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, ByteBuffer buffer)
+    {
+        checkDirectBuffer(buffer);
+        if (buffer.isReadOnly())
+        {
+            throw new HDF5JavaException("Cannot read into a read-only buffer.");
+        }
+        try
+        {
+            HDFHelper.H5Dread((fileLockOrNull == null) ? H5.class : fileLockOrNull, dataSetId,
+                    nativeDataTypeId, memorySpaceId, fileSpaceId,
+                    numericConversionXferPropertyListID, buffer, buffer.position());
+        } catch (UnsatisfiedLinkError ex)
+        {
+            throw new HDF5JavaException(
+                    "The native HDF5 library doesn't support reading into buffers.");
+        }
+    }
+
+    /**
+     * Writes the content of the direct <var>buffer</var>, starting at its current position, to the
+     * selection of <var>fileSpaceId</var>. The position of the buffer is not changed.
+     */
+    public void writeDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, ByteBuffer buffer)
+    {
+        checkDirectBuffer(buffer);
+        try
+        {
+            HDFHelper.H5Dwrite(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId,
+                    H5P_DEFAULT, buffer, buffer.position());
+        } catch (UnsatisfiedLinkError ex)
+        {
+            throw new HDF5JavaException(
+                    "The native HDF5 library doesn't support writing from buffers.");
+        }
+    }
+
+    /**
+     * Writes the Java array <var>data</var> to the selection of <var>fileSpaceId</var>.
+     */
+    public void writeDataSet(long dataSetId, long nativeDataTypeId, long memorySpaceId,
+            long fileSpaceId, Object data)
+    {
+        H5Dwrite(dataSetId, nativeDataTypeId, memorySpaceId, fileSpaceId, H5P_DEFAULT, data);
+    }
+
+    private static void checkDirectBuffer(ByteBuffer buffer)
+    {
+        if (buffer.isDirect() == false)
+        {
+            throw new HDF5JavaException("Buffer needs to be a direct buffer.");
+        }
+    }
+
+    /**
+     * Checks that the remaining space of <var>buffer</var> holds <var>numberOfElements</var>
+     * elements of <var>elementSize</var> bytes.
+     */
+    void checkBufferSize(ByteBuffer buffer, int elementSize, long numberOfElements)
+            throws HDF5JavaException
+    {
+        final int remainingElements = buffer.remaining() / elementSize;
+        if (numberOfElements > remainingElements)
+        {
+            throw new HDF5JavaException("Buffer has room for " + remainingElements
+                    + " elements, but the block has " + numberOfElements + " elements.");
+        }
+    }
+
+    /**
+     * Returns the size in bytes of the chunk of <var>dataSetId</var> that starts at
+     * <var>chunkOffset</var> as it is stored in the file, or 0, if the chunk is not allocated.
+     */
+    public long getChunkStorageSize(long dataSetId, long[] chunkOffset)
+    {
+        try
+        {
+            return HDFHelper.H5Dget_chunk_storage_size((fileLockOrNull == null) ? H5.class
+                    : fileLockOrNull, dataSetId, chunkOffset);
+        } catch (UnsatisfiedLinkError ex)
+        {
+            throw new HDF5JavaException(
+                    "The native HDF5 library doesn't support raw chunk access.");
+        }
+    }
+
+    /**
+     * Reads the chunk of <var>dataSetId</var> that starts at <var>chunkOffset</var> as it is
+     * stored in the file into <var>buffer</var>, i.e. without applying any filters.
+     * 
+     * @return The mask of the filters that have been skipped for this chunk.
+     */
+    public int readChunk(long dataSetId, long[] chunkOffset, byte[] buffer)
+    {
+        final int[] filterMask = new int[1];
+        try
+        {
+            HDFHelper.H5Dread_chunk((fileLockOrNull == null) ? H5.class : fileLockOrNull,
+                    dataSetId, H5P_DEFAULT, chunkOffset, filterMask, buffer);
+        } catch (UnsatisfiedLinkError ex)
+        {
+            throw new HDF5JavaException(
+                    "The native HDF5 library doesn't support raw chunk access.");
+        }
+        return filterMask[0];
+    }
+
+    /**
+     * Writes the first <var>length</var> bytes of <var>data</var> as the chunk of
+     * <var>dataSetId</var> that starts at <var>chunkOffset</var> directly to the file, i.e.
+     * without applying any filters.
+     * 
+     * @param filterMask The mask of the filters that have <i>not</i> been applied to
+     *            <var>data</var>.
+     */
+    public void writeChunk(long dataSetId, long[] chunkOffset, int filterMask, byte[] data,
+            int length)
+    {
+        try
+        {
+            HDFHelper.H5Dwrite_chunk(dataSetId, H5P_DEFAULT, filterMask, chunkOffset, data,
+                    length);
+        } catch (UnsatisfiedLinkError ex)
+        {
+            throw new HDF5JavaException(
+                    "The native HDF5 library doesn't support raw chunk access.");
+        }
+    }
+
+    /**
+     * Returns the ids of the filters in the filter pipeline of <var>dataSetId</var>, in the order
+     * in which they are applied on writing.
+     */
+    public int[] getFilters(long dataSetId, ICleanUpRegistry registry)
+    {
+        final long dataSetCreationPropertyListId = getCreationPropertyList(dataSetId, registry);
+        final int numberOfFilters = H5Pget_nfilters(dataSetCreationPropertyListId);
+        final int[] filters = new int[numberOfFilters];
+        for (int i = 0; i < numberOfFilters; ++i)
+        {
+            filters[i] =
+                    H5Pget_filter(dataSetCreationPropertyListId, i, new int[1], new long[1],
+                            null, 1, new String[1], new int[1]);
+        }
+        return filters;
+    }
+
+    /**
+     * Returns the compression level of the deflate filter of <var>dataSetId</var>, or -1, if the
+     * data set has no deflate filter.
+     */
+    public int getDeflateLevel(long dataSetId, ICleanUpRegistry registry)
+    {
+        final long dataSetCreationPropertyListId = getCreationPropertyList(dataSetId, registry);
+        final int numberOfFilters = H5Pget_nfilters(dataSetCreationPropertyListId);
+        for (int i = 0; i < numberOfFilters; ++i)
+        {
+            final int[] values = new int[1];
+            final int filter =
+                    H5Pget_filter(dataSetCreationPropertyListId, i, new int[1], new long[]
+                        { values.length }, values, 1, new String[1], new int[1]);
+            if (filter == H5Z_FILTER_DEFLATE)
+            {
+                return values[0];
+            }
+        }
+        return -1;
+    }
+
     public void readDataSetVL(long dataSetId, long dataTypeId, String[] data)
     {
         H5DreadVL(dataSetId, dataTypeId, H5S_ALL, H5S_ALL, H5P_DEFAULT, data);
@@ -1265,14 +1699,7 @@ class HDF5
                 (dataSpaceIdOrMinusOne == -1) ? H5Screate(H5S_SCALAR) : dataSpaceIdOrMinusOne;
         if (dataSpaceIdOrMinusOne == -1)
         {
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Sclose(dataSpaceId);
-                    }
-                });
+            registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         }
         final long attCreationPlistId;
         if (useUTF8CharEncoding)
@@ -1286,14 +1713,7 @@ class HDF5
         final long attributeId =
                 H5Acreate(locationId, attributeName, dataTypeId, dataSpaceId, attCreationPlistId,
                         H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Aclose(attributeId);
-                }
-            });
+        registry.registerClose(CloseKind.ATTRIBUTE, attributeId);
         return attributeId;
     }
 
@@ -1308,14 +1728,7 @@ class HDF5
     {
         checkMaxLength(attributeName);
         final long attributeId = H5Aopen(locationId, attributeName, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Aclose(attributeId);
-                }
-            });
+        registry.registerClose(CloseKind.ATTRIBUTE, attributeId);
         return attributeId;
     }
 
@@ -1328,14 +1741,7 @@ class HDF5
         {
             final long attributeId =
                     H5Aopen_by_idx(locationId, ".", H5_INDEX_NAME, H5_ITER_NATIVE, (long) i, H5P_DEFAULT, H5P_DEFAULT);
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Aclose(attributeId);
-                    }
-                });
+            registry.registerClose(CloseKind.ATTRIBUTE, attributeId);
             attributeNames.add(H5Aget_name(attributeId));
         }
         return attributeNames;
@@ -1430,28 +1836,14 @@ class HDF5
     public long copyDataType(long dataTypeId, ICleanUpRegistry registry)
     {
         final long copiedDataTypeId = H5Tcopy(dataTypeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(copiedDataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, copiedDataTypeId);
         return copiedDataTypeId;
     }
 
     public long createDataTypeVariableString(ICleanUpRegistry registry)
     {
         final long dataTypeId = createDataTypeStringVariableLength();
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         if (useUTF8CharEncoding)
         {
             setCharacterEncodingDataType(dataTypeId, CharacterEncoding.UTF8);
@@ -1471,14 +1863,7 @@ class HDF5
         assert length > 0;
 
         final long dataTypeId = H5Tcopy(H5T_C_S1);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         H5Tset_size(dataTypeId, length);
         H5Tset_strpad(dataTypeId, H5T_STR_NULLPAD);
         if (useUTF8CharEncoding)
@@ -1496,14 +1881,7 @@ class HDF5
     public long createArrayType(long baseTypeId, int length, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Tarray_create(baseTypeId, 1, new long[] { length });
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
@@ -1515,14 +1893,7 @@ class HDF5
             ldims[i] = (long) dimensions[i];
         }
         final long dataTypeId = H5Tarray_create(baseTypeId, ldims.length, ldims);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
@@ -1556,14 +1927,7 @@ class HDF5
                 throw new InternalError();
         }
         final long dataTypeId = H5Tenum_create(baseDataTypeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         switch (size)
         {
             case BYTE8:
@@ -1697,15 +2061,7 @@ class HDF5
     public long getDataTypeForIndex(long compoundDataTypeId, int index, ICleanUpRegistry registry)
     {
         final long memberTypeId = H5Tget_member_type(compoundDataTypeId, index);
-        registry.registerCleanUp(new Runnable()
-            {
-
-                @Override
-                public void run()
-                {
-                    H5Tclose(memberTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, memberTypeId);
         return memberTypeId;
     }
 
@@ -1741,14 +2097,7 @@ class HDF5
     public long createDataTypeCompound(int lengthInBytes, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Tcreate(H5T_COMPOUND, lengthInBytes);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
@@ -1756,14 +2105,7 @@ class HDF5
     {
         checkMaxLength(tag);
         final long dataTypeId = H5Tcreate(H5T_OPAQUE, lengthInBytes);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         H5Tset_tag(dataTypeId,
                 tag.length() > H5T_OPAQUE_TAG_MAX ? tag.substring(0, H5T_OPAQUE_TAG_MAX) : tag);
         return dataTypeId;
@@ -1780,14 +2122,7 @@ class HDF5
         checkMaxLength(name);
         final long dataTypeId = isReference(name) ? H5Oopen_by_addr(fileId, Long.parseLong(name.substring(1)))
                 : H5Topen(fileId, name, H5P_DEFAULT);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
@@ -1796,31 +2131,34 @@ class HDF5
         return H5Tequal(dataTypeId1, dataTypeId2);
     }
 
+    /**
+     * Returns the binary description of the data type <var>dataTypeId</var>, as produced by
+     * <code>H5Tencode</code>. Data types that are equal have equal descriptions.
+     */
+    public byte[] encodeDataType(long dataTypeId)
+    {
+        byte[] buf = new byte[64];
+        final int size = H5Tencode(dataTypeId, buf, buf.length);
+        if (size > buf.length)
+        {
+            buf = new byte[size];
+            H5Tencode(dataTypeId, buf, buf.length);
+            return buf;
+        }
+        return Arrays.copyOf(buf, size);
+    }
+
     public long getDataTypeForDataSet(long dataSetId, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Dget_type(dataSetId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
     public long getDataTypeForAttribute(long attributeId, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Aget_type(attributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return dataTypeId;
     }
 
@@ -1832,42 +2170,21 @@ class HDF5
     public long getNativeDataType(long dataTypeId, ICleanUpRegistry registry)
     {
         final long nativeDataTypeId = H5Tget_native_type(dataTypeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(nativeDataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, nativeDataTypeId);
         return nativeDataTypeId;
     }
 
     public long getNativeDataTypeForDataSet(long dataSetId, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Dget_type(dataSetId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return getNativeDataType(dataTypeId, registry);
     }
 
     public long getNativeDataTypeForAttribute(long attributeId, ICleanUpRegistry registry)
     {
         final long dataTypeId = H5Aget_type(attributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(dataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, dataTypeId);
         return getNativeDataType(dataTypeId, registry);
     }
 
@@ -1914,14 +2231,7 @@ class HDF5
     public long getBaseDataType(long dataTypeId, ICleanUpRegistry registry)
     {
         final long baseDataTypeId = H5Tget_super(dataTypeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Tclose(baseDataTypeId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_TYPE, baseDataTypeId);
         return baseDataTypeId;
     }
 
@@ -1930,6 +2240,11 @@ class HDF5
         return H5Tget_sign(dataTypeId) != H5T_SGN_NONE;
     }
 
+    public boolean isBigEndian(long dataTypeId)
+    {
+        return H5Tget_order(dataTypeId) == H5T_ORDER_BE;
+    }
+
     public String tryGetDataTypePath(long dataTypeId)
     {
         if (dataTypeId < 0 || H5Tcommitted(dataTypeId) == false)
@@ -1960,14 +2275,7 @@ class HDF5
         final long dataSpaceId = H5Dget_space(dataSetId);
         if (registry != null)
         {
-            registry.registerCleanUp(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        H5Sclose(dataSpaceId);
-                    }
-                });
+            registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         }
         return dataSpaceId;
     }
@@ -1975,14 +2283,7 @@ class HDF5
     public long[] getDataDimensionsForAttribute(final long attributeId, ICleanUpRegistry registry)
     {
         final long dataSpaceId = H5Aget_space(attributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         final long[] dimensions = getDataSpaceDimensions(dataSpaceId);
         return dimensions;
     }
@@ -1990,14 +2291,7 @@ class HDF5
     public long[] getDataDimensions(final long dataSetId, ICleanUpRegistry registry)
     {
         final long dataSpaceId = H5Dget_space(dataSetId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         long[] dimensions = getDataSpaceDimensions(dataSpaceId);
         // Ensure backward compatibility with 8.10
         if (HDF5Utils.mightBeEmptyInStorage(dimensions)
@@ -2062,14 +2356,7 @@ class HDF5
         final long dataSpaceId =
                 isAttribute ? H5Aget_space(dataSetOrAttributeId)
                         : H5Dget_space(dataSetOrAttributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         return H5Sget_simple_extent_ndims(dataSpaceId);
     }
 
@@ -2083,14 +2370,7 @@ class HDF5
         final long dataSpaceId =
                 isAttribute ? H5Aget_space(dataSetOrAttributeId)
                         : H5Dget_space(dataSetOrAttributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         final long[] dimensions = new long[H5S_MAX_RANK];
         final int rank = H5Sget_simple_extent_dims(dataSpaceId, dimensions, null);
         final long[] realDimensions = new long[rank];
@@ -2109,14 +2389,7 @@ class HDF5
         final long dataSpaceId =
                 isAttribute ? H5Aget_space(dataSetOrAttributeId)
                         : H5Dget_space(dataSetOrAttributeId);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         final long[] dimensions = new long[H5S_MAX_RANK];
         final long[] maxDimensions = new long[H5S_MAX_RANK];
         final int rank = H5Sget_simple_extent_dims(dataSpaceId, dimensions, maxDimensions);
@@ -2163,14 +2436,7 @@ class HDF5
     public long createSimpleDataSpace(long[] dimensions, ICleanUpRegistry registry)
     {
         final long dataSpaceId = H5Screate_simple(dimensions.length, dimensions, null);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Sclose(dataSpaceId);
-                }
-            });
+        registry.registerClose(CloseKind.DATA_SPACE, dataSpaceId);
         return dataSpaceId;
     }
 
@@ -2191,14 +2457,7 @@ class HDF5
             ICleanUpRegistry registry)
     {
         final long linkCreationPropertyList = H5Pcreate(H5P_LINK_CREATE);
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(linkCreationPropertyList);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, linkCreationPropertyList);
         if (createIntermediateGroups)
         {
             H5Pset_create_intermediate_group(linkCreationPropertyList, true);
@@ -2221,28 +2480,14 @@ class HDF5
     private long createDataSetXferPropertyListAbortOverflow(ICleanUpRegistry registry)
     {
         final long datasetXferPropertyList = HDFHelper.H5Pcreate_xfer_abort_overflow();
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(datasetXferPropertyList);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, datasetXferPropertyList);
         return datasetXferPropertyList;
     }
 
     private long createDataSetXferPropertyListAbort(ICleanUpRegistry registry)
     {
         final long datasetXferPropertyList = HDFHelper.H5Pcreate_xfer_abort();
-        registry.registerCleanUp(new Runnable()
-            {
-                @Override
-                public void run()
-                {
-                    H5Pclose(datasetXferPropertyList);
-                }
-            });
+        registry.registerClose(CloseKind.PROPERTY_LIST, datasetXferPropertyList);
         return datasetXferPropertyList;
     }
 
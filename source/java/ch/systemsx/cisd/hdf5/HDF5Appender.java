@@ -0,0 +1,181 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.lang.reflect.Array;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+/**
+ * The implementation of {@link IHDF5Appender}. Sub-classes write the blocks with the typed
+ * writers.
+ *
+ * @author Bernd Rinn
+ */
+abstract class HDF5Appender<T> implements IHDF5Appender<T>
+{
+    private final HDF5BaseWriter baseWriter;
+
+    final HDF5DataSet dataSet;
+
+    /** The buffer of one chunk. */
+    private final T buffer;
+
+    private final int chunkSize;
+
+    /** The number of elements in {@link #buffer}. */
+    private int bufferedCount;
+
+    /** The number of elements written to the data set. */
+    private long writtenCount;
+
+    /** The current size of the data set in the file. */
+    private long extent;
+
+    private boolean closed;
+
+    HDF5Appender(HDF5BaseWriter baseWriter, HDF5DataSet dataSet, T buffer)
+    {
+        this.baseWriter = baseWriter;
+        this.dataSet = dataSet;
+        this.buffer = buffer;
+        this.chunkSize = Array.getLength(buffer);
+        this.extent = dataSet.getDimensions()[0];
+        this.writtenCount = extent;
+        baseWriter.addFlushable(this);
+    }
+
+    /**
+     * Writes the first <var>length</var> elements of <var>data</var> to the data set at
+     * <var>offset</var>. The data set is large enough to hold them.
+     */
+    abstract void writeBlock(T data, int length, long offset);
+
+    @Override
+    public void append(T data)
+    {
+        append(data, 0, Array.getLength(data));
+    }
+
+    @Override
+    public void append(T data, int offset, int length)
+    {
+        assert data != null;
+        assert offset >= 0 && length >= 0 && offset + length <= Array.getLength(data);
+
+        checkOpen();
+        int dataOffset = offset;
+        int remaining = length;
+        if (bufferedCount == 0 && dataOffset == 0 && remaining >= chunkSize)
+        {
+            // Write whole chunks directly from the caller's array.
+            final int directCount = remaining - remaining % chunkSize;
+            write(data, directCount);
+            dataOffset += directCount;
+            remaining -= directCount;
+        }
+        while (remaining > 0)
+        {
+            final int count = Math.min(remaining, chunkSize - bufferedCount);
+            System.arraycopy(data, dataOffset, buffer, bufferedCount, count);
+            bufferedCount += count;
+            dataOffset += count;
+            remaining -= count;
+            if (bufferedCount == chunkSize)
+            {
+                write(buffer, chunkSize);
+                bufferedCount = 0;
+            }
+        }
+    }
+
+    private void write(T data, int length)
+    {
+        final long requiredExtent = writtenCount + length;
+        if (requiredExtent > extent)
+        {
+            // Grow geometrically, in units of chunks, so that the extent rarely needs to change.
+            final long grownExtent = Math.max(requiredExtent, 2 * extent);
+            extent = ((grownExtent + chunkSize - 1) / chunkSize) * chunkSize;
+            dataSet.setExtent(new long[]
+                { extent });
+        }
+        writeBlock(data, length, writtenCount);
+        writtenCount += length;
+    }
+
+    @Override
+    public long size()
+    {
+        return writtenCount + bufferedCount;
+    }
+
+    @Override
+    public String getDataSetPath()
+    {
+        return dataSet.getDataSetPath();
+    }
+
+    @Override
+    public void flush()
+    {
+        // When the writer is closed, it has flushed this appender before.
+        if (closed || baseWriter.isClosed())
+        {
+            return;
+        }
+        if (bufferedCount > 0)
+        {
+            write(buffer, bufferedCount);
+            bufferedCount = 0;
+        }
+        if (extent != writtenCount)
+        {
+            extent = writtenCount;
+            dataSet.setExtent(new long[]
+                { extent });
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            flush();
+        } finally
+        {
+            closed = true;
+            baseWriter.removeFlushable(this);
+            dataSet.close();
+        }
+    }
+
+    private void checkOpen()
+    {
+        if (closed)
+        {
+            throw new HDF5JavaException("Appender for data set '" + getDataSetPath()
+                    + "' is closed.");
+        }
+    }
+
+}
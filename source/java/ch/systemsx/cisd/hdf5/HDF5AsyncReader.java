@@ -0,0 +1,880 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+
+/**
+ * The implementation of {@link IHDF5AsyncReader}.
+ * <p>
+ * The requests are queued per data set. For each data set with queued requests, one drain task is
+ * submitted to the executor which opens the data set once and serves the requests that are queued
+ * by the time it runs as one batch. If more requests have been queued in the meantime, the drain
+ * task is submitted again rather than looping, so that a busy data set doesn't starve the others
+ * on the same executor. Only once the executor is shut down, the drain task loops until the queue
+ * of its data set is empty, so that the requests queued before the shutdown are still served.
+ * 
+ * @author Bernd Rinn
+ */
+class HDF5AsyncReader implements IHDF5AsyncReader
+{
+
+    /**
+     * A read request on a data set. Identical requests (same data set, same read method and same
+     * parameters) which are queued at the same time share one request.
+     */
+    static abstract class Request<T>
+    {
+        private final String key;
+
+        private final List<CompletableFuture<T>> futures = new ArrayList<CompletableFuture<T>>(1);
+
+        Request(String methodName, Object... parameters)
+        {
+            this.key = methodName + Arrays.deepToString(parameters);
+        }
+
+        String getKey()
+        {
+            return key;
+        }
+
+        /**
+         * Reads the data of this request from <var>dataSet</var>.
+         */
+        abstract T read(HDF5DataSet dataSet);
+
+        CompletableFuture<T> addFuture()
+        {
+            final CompletableFuture<T> future = new CompletableFuture<T>();
+            futures.add(future);
+            return future;
+        }
+
+        @SuppressWarnings("unchecked")
+        void addFuturesOf(Request<?> request)
+        {
+            futures.addAll(((Request<T>) request).futures);
+        }
+
+        /**
+         * Returns <code>true</code>, if all callers waiting for this request have cancelled it.
+         */
+        boolean isCancelled()
+        {
+            for (CompletableFuture<T> future : futures)
+            {
+                if (future.isDone() == false)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void execute(HDF5DataSet dataSet)
+        {
+            final T data;
+            try
+            {
+                data = read(dataSet);
+            } catch (Throwable th)
+            {
+                fail(th);
+                return;
+            }
+            boolean first = true;
+            for (CompletableFuture<T> future : futures)
+            {
+                if (future.isDone())
+                {
+                    continue;
+                }
+                // Every caller gets its own copy of the data as the arrays are mutable.
+                future.complete(first ? data : copy(data));
+                first = false;
+            }
+        }
+
+        void fail(Throwable th)
+        {
+            for (CompletableFuture<T> future : futures)
+            {
+                future.completeExceptionally(th);
+            }
+        }
+    }
+
+    private final IHDF5Reader reader;
+
+    private final ExecutorService executor;
+
+    /**
+     * The queued requests per data set path. A data set path has an entry in this map if and only
+     * if a drain task for it has been submitted and not yet finished.
+     */
+    private final Map<String, Map<String, Request<?>>> queues =
+            new HashMap<String, Map<String, Request<?>>>();
+
+    HDF5AsyncReader(IHDF5Reader reader, ExecutorService executor)
+    {
+        assert reader != null;
+        assert executor != null;
+
+        this.reader = reader;
+        this.executor = executor;
+    }
+
+    <T> CompletableFuture<T> submit(final String objectPath, Request<T> request)
+    {
+        final CompletableFuture<T> future = request.addFuture();
+        final boolean startDrain;
+        synchronized (queues)
+        {
+            Map<String, Request<?>> queue = queues.get(objectPath);
+            startDrain = (queue == null);
+            if (startDrain)
+            {
+                queue = new LinkedHashMap<String, Request<?>>();
+                queues.put(objectPath, queue);
+            }
+            final Request<?> queuedRequest = queue.get(request.getKey());
+            if (queuedRequest != null)
+            {
+                queuedRequest.addFuturesOf(request);
+            } else
+            {
+                queue.put(request.getKey(), request);
+            }
+        }
+        if (startDrain)
+        {
+            submitDrain(objectPath);
+        }
+        return future;
+    }
+
+    private void submitDrain(final String objectPath)
+    {
+        try
+        {
+            executeDrain(objectPath);
+        } catch (RejectedExecutionException ex)
+        {
+            final Map<String, Request<?>> queue;
+            synchronized (queues)
+            {
+                queue = queues.remove(objectPath);
+            }
+            for (Request<?> queuedRequest : queue.values())
+            {
+                queuedRequest.fail(ex);
+            }
+        }
+    }
+
+    private void executeDrain(final String objectPath)
+    {
+        executor.execute(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    drain(objectPath);
+                }
+            });
+    }
+
+    /**
+     * Takes all requests queued for <var>objectPath</var> which have not been cancelled. If there
+     * are none, the queue of the data set is removed.
+     */
+    private List<Request<?>> takeQueuedRequests(String objectPath)
+    {
+        synchronized (queues)
+        {
+            final Map<String, Request<?>> queue = queues.get(objectPath);
+            final List<Request<?>> requests = new ArrayList<Request<?>>(queue.size());
+            for (Request<?> request : queue.values())
+            {
+                if (request.isCancelled() == false)
+                {
+                    requests.add(request);
+                }
+            }
+            queue.clear();
+            if (requests.isEmpty())
+            {
+                queues.remove(objectPath);
+            }
+            return requests;
+        }
+    }
+
+    /**
+     * Returns <code>true</code>, if requests have been queued for <var>objectPath</var> while the
+     * last batch was served. If there are none, the queue of the data set is removed.
+     */
+    private boolean hasQueuedRequests(String objectPath)
+    {
+        synchronized (queues)
+        {
+            if (queues.get(objectPath).isEmpty())
+            {
+                queues.remove(objectPath);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void drain(String objectPath)
+    {
+        while (true)
+        {
+            if (serveQueuedRequests(objectPath) == false || hasQueuedRequests(objectPath) == false)
+            {
+                return;
+            }
+            if (executor.isShutdown() == false)
+            {
+                try
+                {
+                    // Go to the back of the executor's queue to give the other data sets their
+                    // turn.
+                    executeDrain(objectPath);
+                    return;
+                } catch (RejectedExecutionException ex)
+                {
+                    // The executor has been shut down in the meantime.
+                }
+            }
+            // The executor is shutting down: serve the requests queued before on this thread.
+        }
+    }
+
+    /**
+     * Serves the requests queued for <var>objectPath</var> by now as one batch.
+     * 
+     * @return <code>false</code>, if there were no requests to serve and the queue of the data set
+     *         has been removed.
+     */
+    private boolean serveQueuedRequests(String objectPath)
+    {
+        final List<Request<?>> requests = takeQueuedRequests(objectPath);
+        if (requests.isEmpty())
+        {
+            return false;
+        }
+        try (final HDF5DataSet dataSet = reader.object().openDataSet(objectPath))
+        {
+            for (Request<?> request : requests)
+            {
+                if (request.isCancelled() == false)
+                {
+                    request.execute(dataSet);
+                }
+            }
+        } catch (Throwable th)
+        {
+            for (Request<?> request : requests)
+            {
+                request.fail(th);
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T copy(T data)
+    {
+        if (data.getClass().isArray())
+        {
+            final int length = Array.getLength(data);
+            final Object copy = Array.newInstance(data.getClass().getComponentType(), length);
+            System.arraycopy(data, 0, copy, 0, length);
+            return (T) copy;
+        }
+        if (data instanceof MDByteArray)
+        {
+            return (T) ((MDByteArray) data).clone();
+        }
+        if (data instanceof MDShortArray)
+        {
+            return (T) ((MDShortArray) data).clone();
+        }
+        if (data instanceof MDIntArray)
+        {
+            return (T) ((MDIntArray) data).clone();
+        }
+        if (data instanceof MDLongArray)
+        {
+            return (T) ((MDLongArray) data).clone();
+        }
+        if (data instanceof MDFloatArray)
+        {
+            return (T) ((MDFloatArray) data).clone();
+        }
+        if (data instanceof MDDoubleArray)
+        {
+            return (T) ((MDDoubleArray) data).clone();
+        }
+        return data;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readByteArray(String objectPath)
+    {
+        return submit(objectPath, new Request<byte[]>("readByteArray")
+            {
+                @Override
+                byte[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int8().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readByteArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<byte[]>("readByteArrayBlock", blockSize, blockNumber)
+            {
+                @Override
+                byte[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int8().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<byte[]> readByteArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<byte[]>("readByteArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                byte[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int8().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDByteArray> readByteMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDByteArray>("readByteMDArray")
+            {
+                @Override
+                MDByteArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int8().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDByteArray> readByteMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDByteArray>("readByteMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDByteArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int8()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDByteArray> readByteMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDByteArray>("readByteMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDByteArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int8()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<short[]> readShortArray(String objectPath)
+    {
+        return submit(objectPath, new Request<short[]>("readShortArray")
+            {
+                @Override
+                short[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int16().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<short[]> readShortArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<short[]>("readShortArrayBlock",
+                blockSize, blockNumber)
+            {
+                @Override
+                short[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int16().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<short[]> readShortArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<short[]>("readShortArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                short[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int16().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDShortArray> readShortMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDShortArray>("readShortMDArray")
+            {
+                @Override
+                MDShortArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int16().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDShortArray> readShortMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDShortArray>("readShortMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDShortArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int16()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDShortArray> readShortMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDShortArray>("readShortMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDShortArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int16()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<int[]> readIntArray(String objectPath)
+    {
+        return submit(objectPath, new Request<int[]>("readIntArray")
+            {
+                @Override
+                int[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int32().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<int[]> readIntArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<int[]>("readIntArrayBlock", blockSize, blockNumber)
+            {
+                @Override
+                int[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int32().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<int[]> readIntArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<int[]>("readIntArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                int[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int32().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDIntArray> readIntMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDIntArray>("readIntMDArray")
+            {
+                @Override
+                MDIntArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int32().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDIntArray> readIntMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDIntArray>("readIntMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDIntArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int32()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDIntArray> readIntMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDIntArray>("readIntMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDIntArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int32()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<long[]> readLongArray(String objectPath)
+    {
+        return submit(objectPath, new Request<long[]>("readLongArray")
+            {
+                @Override
+                long[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int64().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<long[]> readLongArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<long[]>("readLongArrayBlock", blockSize, blockNumber)
+            {
+                @Override
+                long[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int64().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<long[]> readLongArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<long[]>("readLongArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                long[] read(HDF5DataSet dataSet)
+                {
+                    return reader.int64().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDLongArray> readLongMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDLongArray>("readLongMDArray")
+            {
+                @Override
+                MDLongArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int64().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDLongArray> readLongMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDLongArray>("readLongMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDLongArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int64()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDLongArray> readLongMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDLongArray>("readLongMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDLongArray read(HDF5DataSet dataSet)
+                {
+                    return reader.int64()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<float[]> readFloatArray(String objectPath)
+    {
+        return submit(objectPath, new Request<float[]>("readFloatArray")
+            {
+                @Override
+                float[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float32().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<float[]> readFloatArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<float[]>("readFloatArrayBlock",
+                blockSize, blockNumber)
+            {
+                @Override
+                float[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float32().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<float[]> readFloatArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<float[]>("readFloatArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                float[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float32().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDFloatArray> readFloatMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDFloatArray>("readFloatMDArray")
+            {
+                @Override
+                MDFloatArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float32().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDFloatArray> readFloatMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDFloatArray>("readFloatMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDFloatArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float32()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDFloatArray> readFloatMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDFloatArray>("readFloatMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDFloatArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float32()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<double[]> readDoubleArray(String objectPath)
+    {
+        return submit(objectPath, new Request<double[]>("readDoubleArray")
+            {
+                @Override
+                double[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float64().readArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<double[]> readDoubleArrayBlock(String objectPath,
+            final int blockSize, final long blockNumber)
+    {
+        return submit(objectPath, new Request<double[]>("readDoubleArrayBlock",
+                blockSize, blockNumber)
+            {
+                @Override
+                double[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float64().readArrayBlock(dataSet, blockSize, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<double[]> readDoubleArrayBlockWithOffset(String objectPath,
+            final int blockSize, final long offset)
+    {
+        return submit(objectPath, new Request<double[]>("readDoubleArrayBlockWithOffset",
+                blockSize, offset)
+            {
+                @Override
+                double[] read(HDF5DataSet dataSet)
+                {
+                    return reader.float64().readArrayBlockWithOffset(dataSet, blockSize, offset);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDDoubleArray> readDoubleMDArray(String objectPath)
+    {
+        return submit(objectPath, new Request<MDDoubleArray>("readDoubleMDArray")
+            {
+                @Override
+                MDDoubleArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float64().readMDArray(dataSet.getDataSetPath());
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDDoubleArray> readDoubleMDArrayBlock(String objectPath,
+            final int[] blockDimensions, final long[] blockNumber)
+    {
+        return submit(objectPath, new Request<MDDoubleArray>("readDoubleMDArrayBlock",
+                blockDimensions, blockNumber)
+            {
+                @Override
+                MDDoubleArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float64()
+                            .readMDArrayBlock(dataSet, blockDimensions, blockNumber);
+                }
+            });
+    }
+
+    @Override
+    public CompletableFuture<MDDoubleArray> readDoubleMDArrayBlockWithOffset(String objectPath,
+            final int[] blockDimensions, final long[] offset)
+    {
+        return submit(objectPath, new Request<MDDoubleArray>("readDoubleMDArrayBlockWithOffset",
+                blockDimensions, offset)
+            {
+                @Override
+                MDDoubleArray read(HDF5DataSet dataSet)
+                {
+                    return reader.float64()
+                            .readMDArrayBlockWithOffset(dataSet, blockDimensions, offset);
+                }
+            });
+    }
+
+}
@@ -33,7 +33,7 @@ import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT32;
 import static hdf.hdf5lib.HDF5Constants.H5T_STRING;
 
 import java.io.File;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -103,26 +103,63 @@ class HDF5BaseReader
     protected final boolean performNumericConversions;
     
     protected final boolean hasMDCImage;
+
+    /** The chunk cache to open data sets with. */
+    final HDF5ChunkCacheSettings chunkCacheSettings;
+
+    /** The cache of data sets accessed by path, or <code>null</code>, if not enabled. */
+    private final HDF5DataSetHandleCache dataSetHandleCacheOrNull;
+
+    /** The memory mapper of contiguous data sets, or <code>null</code>, if not enabled. */
+    private final HDF5MemoryMapper memoryMapperOrNull;
     
     protected boolean readOnly;
 
     /** Map from named data types to ids. */
     private final Map<String, Long> namedDataTypeMap;
 
-    private class DataTypeContainer
+    /** The binary description of a data type, to be used as a hash key. */
+    private static final class DataTypeEncoding
     {
-        final long typeId;
+        final byte[] encoding;
 
-        final String typePath;
+        final int hashCode;
+
+        DataTypeEncoding(byte[] encoding)
+        {
+            this.encoding = encoding;
+            this.hashCode = Arrays.hashCode(encoding);
+        }
 
-        DataTypeContainer(long typeId, String typePath)
+        @Override
+        public int hashCode()
         {
-            this.typeId = typeId;
-            this.typePath = typePath;
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass())
+            {
+                return false;
+            }
+            return Arrays.equals(encoding, ((DataTypeEncoding) obj).encoding);
         }
     }
 
-    private final List<DataTypeContainer> namedDataTypeList;
+    /** Map from the binary description of named data types to their paths. */
+    private final Map<DataTypeEncoding, String> namedDataTypePathMap;
+
+    /** Cache of data set information and type variants, used if the file is opened read-only. */
+    private final HDF5MetadataCache metadataCache;
+
+    /** Cache of the compound types inferred from Java classes. */
+    final HDF5CompoundTypeCache compoundTypeCache;
 
     protected final HDF5 h5;
 
@@ -152,15 +189,19 @@ class HDF5BaseReader
     {
         this(hdf5File, performNumericConversions, false, autoDereference, fileFormat, mdcGenerateImage, 
                 overwrite,
-                preferredHouseKeepingNameSuffix);
+                preferredHouseKeepingNameSuffix, false, HDF5ChunkCacheSettings.DEFAULT, 0, false);
     }
 
     HDF5BaseReader(File hdf5File, boolean performNumericConversions, boolean useUTF8CharEncoding,
             boolean autoDereference, FileFormatVersionBounds fileFormat, MDCImageGeneration mdcGenerateImage, 
-            boolean overwrite, String preferredHouseKeepingNameSuffix)
+            boolean overwrite, String preferredHouseKeepingNameSuffix, boolean concurrentFileAccess,
+            HDF5ChunkCacheSettings chunkCacheSettings, int dataSetHandleCacheSize,
+            boolean memoryMapContiguousDataSets)
     {
         assert hdf5File != null;
         assert preferredHouseKeepingNameSuffix != null;
+        assert chunkCacheSettings != null;
+        assert dataSetHandleCacheSize >= 0;
 
         this.readOnly = true;
         this.performNumericConversions = performNumericConversions;
@@ -168,13 +209,26 @@ class HDF5BaseReader
         this.runner = new CleanUpCallable();
         this.fileRegistry = CleanUpRegistry.createSynchonized();
         this.namedDataTypeMap = new HashMap<String, Long>();
-        this.namedDataTypeList = new ArrayList<DataTypeContainer>();
+        this.namedDataTypePathMap = new HashMap<DataTypeEncoding, String>();
+        this.metadataCache = new HDF5MetadataCache();
+        this.compoundTypeCache = new HDF5CompoundTypeCache(fileRegistry);
         this.encodingForNewDataSets =
                 useUTF8CharEncoding ? CharacterEncoding.UTF8 : CharacterEncoding.ASCII;
         this.h5 =
                 new HDF5(fileRegistry, runner, performNumericConversions, useUTF8CharEncoding,
                         autoDereference);
         this.fileId = openFile(fileFormat, mdcGenerateImage, overwrite);
+        if (concurrentFileAccess)
+        {
+            h5.useFileLock(fileId);
+        }
+        this.chunkCacheSettings = chunkCacheSettings;
+        h5.setChunkCache(chunkCacheSettings, fileRegistry);
+        this.dataSetHandleCacheOrNull =
+                (dataSetHandleCacheSize > 0) ? new HDF5DataSetHandleCache(this,
+                        dataSetHandleCacheSize, fileRegistry) : null;
+        this.memoryMapperOrNull =
+                memoryMapContiguousDataSets ? new HDF5MemoryMapper(this, fileRegistry) : null;
         this.hasMDCImage = HDFHelper.H5Fhas_mdc_image(fileId);
         this.state = State.OPEN;
 
@@ -302,19 +356,22 @@ class HDF5BaseReader
 
     public HDF5DataSet openDataSet(final String objectPath)
     {
+        return openDataSet(objectPath, chunkCacheSettings);
+    }
+
+    public HDF5DataSet openDataSet(final String objectPath,
+            final HDF5ChunkCacheSettings chunkCache)
+    {
+        assert chunkCache != null;
+
         final ICallableWithCleanUp<HDF5DataSet> openDataSetCallable =
                 new ICallableWithCleanUp<HDF5DataSet>()
                     {
                         @Override
                         public HDF5DataSet call(ICleanUpRegistry registry)
                         {
-                            final long dataSetId = h5.openDataSet(fileId, objectPath, null);
-                            final HDF5StorageLayout layout = h5.getLayout(dataSetId, registry);
-                            final long dataSpaceId = h5.getDataSpaceForDataSet(dataSetId, null);
-                            final long[] dimensions = h5.getDataSpaceDimensions(dataSpaceId);
                             final HDF5DataSet dataSet =
-                                    new HDF5DataSet(HDF5BaseReader.this, objectPath, dataSetId, dataSpaceId, 
-                                            dimensions, null, layout, true);
+                                    openDataSetHandle(objectPath, chunkCache, registry);
                             fileRegistry.registerCleanUp(new Runnable()
                                 {
                                     @Override
@@ -329,6 +386,66 @@ class HDF5BaseReader
         return runner.call(openDataSetCallable);
     }
 
+    /**
+     * Opens the data set <var>objectPath</var> as a {@link HDF5DataSet} that is not registered for
+     * closing with the file.
+     */
+    HDF5DataSet openDataSetHandle(final String objectPath,
+            final HDF5ChunkCacheSettings chunkCache, ICleanUpRegistry registry)
+    {
+        // Data sets are opened with the chunk cache of the file by default.
+        final boolean fileChunkCache =
+                (chunkCache == chunkCacheSettings) && (chunkCache.isAuto() == false);
+        final long dataSetId =
+                fileChunkCache ? h5.openDataSet(fileId, objectPath, null)
+                        : h5.openDataSet(fileId, objectPath, chunkCache, null);
+        final HDF5StorageLayout layout = h5.getLayout(dataSetId, registry);
+        final long dataSpaceId = h5.getDataSpaceForDataSet(dataSetId, null);
+        final long[] dimensions = h5.getDataSpaceDimensions(dataSpaceId);
+        return new HDF5DataSet(this, objectPath, dataSetId, dataSpaceId, dimensions, null,
+                layout, true);
+    }
+
+    /**
+     * Returns the id of the data set <var>objectPath</var>, to be closed by <var>registry</var>. If
+     * the data set handle cache is enabled, the id is taken from the cache.
+     */
+    long openDataSetId(String objectPath, ICleanUpRegistry registry)
+    {
+        if (dataSetHandleCacheOrNull == null)
+        {
+            return h5.openDataSet(fileId, objectPath, registry);
+        }
+        return dataSetHandleCacheOrNull.openDataSetId(objectPath, registry);
+    }
+
+    /**
+     * Closes all cached data set handles of <var>objectPath</var> and the objects below it. Needs
+     * to be called when <var>objectPath</var> is deleted or moved.
+     */
+    void invalidateDataSetHandles(String objectPath)
+    {
+        if (dataSetHandleCacheOrNull != null)
+        {
+            dataSetHandleCacheOrNull.invalidate(objectPath);
+        }
+    }
+
+    /**
+     * Returns a read-only buffer in native byte order with <var>blockSize</var> elements of the
+     * data set <var>objectPath</var> from <var>offset</var> on (the full data set, if
+     * <var>blockSize</var> is negative) that is mapped into memory, or <code>null</code>, if
+     * memory mapping is not enabled or the data set can't be mapped for <var>memoryTypeId</var>.
+     */
+    ByteBuffer tryMapBlock(String objectPath, long memoryTypeId, long offset, int blockSize)
+    {
+        if (memoryMapperOrNull == null)
+        {
+            return null;
+        }
+        return memoryMapperOrNull.tryMapBlock(objectPath, memoryTypeId, offset, blockSize);
+    }
+
     byte[] getAttributeAsByteArray(final long objectId, final String attributeName,
             ICleanUpRegistry registry)
     {
@@ -378,11 +495,13 @@ class HDF5BaseReader
 
     String tryGetDataTypePath(long dataTypeId)
     {
-        for (DataTypeContainer namedDataType : namedDataTypeList)
+        if (namedDataTypePathMap.isEmpty() == false)
         {
-            if (h5.dataTypesAreEqual(dataTypeId, namedDataType.typeId))
+            final String dataTypePathOrNull =
+                    namedDataTypePathMap.get(new DataTypeEncoding(h5.encodeDataType(dataTypeId)));
+            if (dataTypePathOrNull != null)
             {
-                return namedDataType.typePath;
+                return dataTypePathOrNull;
             }
         }
         return h5.tryGetDataTypePath(dataTypeId);
@@ -395,12 +514,11 @@ class HDF5BaseReader
         {
             namedDataTypeMap.put(newPath, typeIdOrNull);
         }
-        for (int i = 0; i < namedDataTypeList.size(); ++i)
+        for (Map.Entry<DataTypeEncoding, String> entry : namedDataTypePathMap.entrySet())
         {
-            final DataTypeContainer c = namedDataTypeList.get(i);
-            if (c.typePath.equals(oldPath))
+            if (entry.getValue().equals(oldPath))
             {
-                namedDataTypeList.set(i, new DataTypeContainer(c.typeId, newPath));
+                entry.setValue(newPath);
             }
         }
     }
@@ -489,7 +607,13 @@ class HDF5BaseReader
             {
                 final long dataTypeId = h5.openDataType(fileId, dataTypeSubPath, fileRegistry);
                 namedDataTypeMap.put(dataTypeSubPath, dataTypeId);
-                namedDataTypeList.add(new DataTypeContainer(dataTypeId, dataTypeSubPath));
+                // The first of several equal data types wins.
+                final DataTypeEncoding encoding =
+                        new DataTypeEncoding(h5.encodeDataType(dataTypeId));
+                if (namedDataTypePathMap.containsKey(encoding) == false)
+                {
+                    namedDataTypePathMap.put(encoding, dataTypeSubPath);
+                }
             }
         }
     }
@@ -577,13 +701,10 @@ class HDF5BaseReader
                 throw new HDF5JavaException("Offset " + offset + " >= Size " + size);
             }
             effectiveBlockSize = (int) Math.min(blockSize, Math.min(size, maxFileBlockSize));
-            final long[] blockShape = new long[]
-                { effectiveBlockSize };
-            h5.setHyperslabBlock(dataSpaceId, new long[]
-                { offset }, blockShape);
+            final long[] blockShape = dataSet.getBlockShape1D(effectiveBlockSize);
+            h5.setHyperslabBlock(dataSpaceId, dataSet.getBlockOffset1D(offset), blockShape);
             memorySpaceId = dataSet.getMemorySpaceId(blockShape);
-            h5.setHyperslabBlock(memorySpaceId, new long[]
-                { 0 }, blockShape);
+            h5.setHyperslabBlock(memorySpaceId, dataSet.getZeroOffset1D(), blockShape);
         } else
         {
             memorySpaceId = HDF5Constants.H5S_ALL;
@@ -594,6 +715,42 @@ class HDF5BaseReader
         return new DataSpaceParameters(memorySpaceId, dataSpaceId, effectiveBlockSize, dimensions);
     }
 
+    /**
+     * Returns the {@link DataSpaceParameters} for reading a 1d block of <var>count</var> elements
+     * at <var>offset</var> of the given <var>dataSet</var> into a memory array of length
+     * <var>memoryLength</var>, starting at <var>memoryOffset</var>. The block is shortened if it
+     * extends beyond the end of the data set.
+     */
+    DataSpaceParameters getSpaceParameters(final HDF5DataSet dataSet, final long offset,
+            final int count, final int memoryLength, final int memoryOffset)
+    {
+        if (count < 0 || memoryOffset < 0 || memoryOffset + count > memoryLength)
+        {
+            throw new HDF5JavaException("Block [" + memoryOffset + ", " + (memoryOffset + count)
+                    + ") exceeds the bounds of the target array (length=" + memoryLength + ")");
+        }
+        final long dataSpaceId = dataSet.getDataSpaceId();
+        final long[] dimensions = dataSet.getDimensions();
+        if (dimensions.length != 1)
+        {
+            throw new HDF5JavaException("Data Set is expected to be of rank 1 (rank="
+                    + dimensions.length + ")");
+        }
+        final long size = dimensions[0];
+        final long maxFileBlockSize = size - offset;
+        if (maxFileBlockSize <= 0)
+        {
+            throw new HDF5JavaException("Offset " + offset + " >= Size " + size);
+        }
+        final int effectiveBlockSize = (int) Math.min(count, maxFileBlockSize);
+        h5.setHyperslabBlock(dataSpaceId, dataSet.getBlockOffset1D(offset),
+                dataSet.getBlockShape1D(effectiveBlockSize));
+        final long memorySpaceId = dataSet.getMemorySpaceId(dataSet.getBlockShape1D(memoryLength));
+        h5.setHyperslabBlock(memorySpaceId, dataSet.getBlockOffset1D(memoryOffset),
+                dataSet.getBlockShape1D(effectiveBlockSize));
+        return new DataSpaceParameters(memorySpaceId, dataSpaceId, effectiveBlockSize, dimensions);
+    }
+
     /**
      * Returns the {@link DataSpaceParameters} for a 1d block of the given <var>dataSetId</var>.
      */
@@ -731,42 +888,59 @@ class HDF5BaseReader
     DataSpaceParameters getSpaceParameters(final HDF5DataSet dataSet, final long[] offset,
             final int[] blockDimensionsOrNull)
     {
-        final long memorySpaceId;
-        final long dataSpaceId;
-        final long[] effectiveBlockDimensions;
         if (blockDimensionsOrNull != null)
         {
-            assert offset != null;
-            assert blockDimensionsOrNull.length == offset.length;
+            return getSpaceParameters(dataSet, offset, MDArray.toLong(blockDimensionsOrNull));
+        }
+        final long[] dimensions = dataSet.getDimensions();
+        return new DataSpaceParameters(H5S_ALL, H5S_ALL, MDAbstractArray.getLength(dimensions),
+                dimensions);
+    }
 
-            dataSpaceId = dataSet.getDataSpaceId();
-            final long[] dimensions = dataSet.getDimensions();
-            if (dimensions.length != blockDimensionsOrNull.length)
+    /**
+     * Returns the {@link DataSpaceParameters} for a multi-dimensional block of the given
+     * <var>dataSet</var>. The block is cut off at the end of the data set. A negative extent of
+     * the block in a dimension means up to the end of the data set.
+     * 
+     * @throws HDF5JavaException If the offset is outside of the data set or the block has more
+     *             than {@link Integer#MAX_VALUE} elements.
+     */
+    DataSpaceParameters getSpaceParameters(final HDF5DataSet dataSet, final long[] offset,
+            final long[] blockDimensions)
+    {
+        assert offset != null;
+        assert blockDimensions != null;
+        assert blockDimensions.length == offset.length;
+
+        final long dataSpaceId = dataSet.getDataSpaceId();
+        final long[] dimensions = dataSet.getDimensions();
+        if (dimensions.length != blockDimensions.length)
+        {
+            throw new HDF5SpaceRankMismatch(blockDimensions.length, dimensions.length);
+        }
+        final long[] effectiveBlockDimensions = new long[blockDimensions.length];
+        long length = 1;
+        for (int i = 0; i < offset.length; ++i)
+        {
+            final long maxBlockSize = dimensions[i] - offset[i];
+            if (maxBlockSize <= 0)
             {
-                throw new HDF5SpaceRankMismatch(blockDimensionsOrNull.length, dimensions.length);
+                throw new HDF5JavaException("Offset " + offset[i] + " >= Size " + dimensions[i]);
             }
-            effectiveBlockDimensions = new long[blockDimensionsOrNull.length];
-            for (int i = 0; i < offset.length; ++i)
+            effectiveBlockDimensions[i] =
+                    (blockDimensions[i] < 0) ? maxBlockSize : Math.min(blockDimensions[i],
+                            maxBlockSize);
+            length *= effectiveBlockDimensions[i];
+            if (length > Integer.MAX_VALUE)
             {
-                final long maxBlockSize = dimensions[i] - offset[i];
-                if (maxBlockSize <= 0)
-                {
-                    throw new HDF5JavaException("Offset " + offset[i] + " >= Size " + dimensions[i]);
-                }
-                effectiveBlockDimensions[i] =
-                        (blockDimensionsOrNull[i] < 0) ? (int) maxBlockSize : Math.min(
-                                blockDimensionsOrNull[i], maxBlockSize);
+                throw new HDF5JavaException("Block " + Arrays.toString(effectiveBlockDimensions)
+                        + " has more than " + Integer.MAX_VALUE + " elements.");
             }
-            h5.setHyperslabBlock(dataSpaceId, offset, effectiveBlockDimensions);
-            memorySpaceId = dataSet.getMemorySpaceId(effectiveBlockDimensions);
-        } else
-        {
-            memorySpaceId = H5S_ALL;
-            dataSpaceId = H5S_ALL;
-            effectiveBlockDimensions = dataSet.getDimensions();
         }
-        return new DataSpaceParameters(memorySpaceId, dataSpaceId,
-                MDAbstractArray.getLength(effectiveBlockDimensions), effectiveBlockDimensions);
+        h5.setHyperslabBlock(dataSpaceId, offset, effectiveBlockDimensions);
+        final long memorySpaceId = dataSet.getMemorySpaceId(effectiveBlockDimensions);
+        return new DataSpaceParameters(memorySpaceId, dataSpaceId, (int) length,
+                effectiveBlockDimensions);
     }
 
     /**
@@ -1046,13 +1220,33 @@ class HDF5BaseReader
     {
         assert dataSetPath != null;
 
+        if (readOnly == false)
+        {
+            return readDataSetInformation(dataSetPath, options, fillDimensions);
+        }
+        final HDF5DataSetInformation cachedInfoOrNull =
+                metadataCache.tryGetDataSetInformation(dataSetPath, options, fillDimensions);
+        if (cachedInfoOrNull != null)
+        {
+            return cachedInfoOrNull.copy();
+        }
+        final HDF5DataSetInformation info =
+                readDataSetInformation(dataSetPath,
+                        HDF5MetadataCache.getCanonicalOptions(options), fillDimensions);
+        metadataCache.putDataSetInformation(dataSetPath, options, fillDimensions, info);
+        return info.copy();
+    }
+
+    private HDF5DataSetInformation readDataSetInformation(final String dataSetPath,
+            final DataTypeInfoOptions options, final boolean fillDimensions)
+    {
         final ICallableWithCleanUp<HDF5DataSetInformation> informationDeterminationRunnable =
                 new ICallableWithCleanUp<HDF5DataSetInformation>()
                     {
                         @Override
                         public HDF5DataSetInformation call(ICleanUpRegistry registry)
                         {
-                            final long dataSetId = h5.openDataSet(fileId, dataSetPath, registry);
+                            final long dataSetId = openDataSetId(dataSetPath, registry);
                             final long dataTypeId = h5.getDataTypeForDataSet(dataSetId, registry);
                             final HDF5DataTypeInformation dataTypeInfo =
                                     getDataTypeInformation(dataTypeId, options, registry);
@@ -1096,7 +1290,7 @@ class HDF5BaseReader
                         @Override
                         public long[] call(ICleanUpRegistry registry)
                         {
-                            final long dataSetId = h5.openDataSet(fileId, dataSetPath, registry);
+                            final long dataSetId = openDataSetId(dataSetPath, registry);
                             return h5.getDimensions(dataSetId, false, registry);
                         }
                     };
@@ -1146,7 +1340,7 @@ class HDF5BaseReader
                         @Override
                         public Integer call(ICleanUpRegistry registry)
                         {
-                            final long dataSetId = h5.openDataSet(fileId, dataSetPath, registry);
+                            final long dataSetId = openDataSetId(dataSetPath, registry);
                             return h5.getRank(dataSetId, false, registry);
                         }
                     };
@@ -1157,36 +1351,59 @@ class HDF5BaseReader
     {
         assert objectPath != null;
 
-        final ICallableWithCleanUp<HDF5DataTypeVariant> readRunnable =
-                new ICallableWithCleanUp<HDF5DataTypeVariant>()
-                    {
-                        @Override
-                        public HDF5DataTypeVariant call(ICleanUpRegistry registry)
-                        {
-                            final long objectId = h5.openObject(fileId, objectPath, registry);
-                            return tryGetTypeVariant(objectId, registry);
-                        }
-                    };
-
-        return runner.call(readRunnable);
+        final Integer cachedOrdinalOrNull =
+                readOnly ? metadataCache.tryGetTypeVariantOrdinal(objectPath) : null;
+        if (cachedOrdinalOrNull != null)
+        {
+            return toTypeVariant(cachedOrdinalOrNull);
+        }
+        final ICallableWithCleanUp<Integer> readRunnable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final long objectId = h5.openObject(fileId, objectPath, registry);
+                    return getAttributeTypeVariant(objectId, registry);
+                }
+            };
+        final int typeVariantOrdinal = runner.call(readRunnable);
+        if (readOnly)
+        {
+            metadataCache.putTypeVariantOrdinal(objectPath, typeVariantOrdinal);
+        }
+        return toTypeVariant(typeVariantOrdinal);
     }
 
     HDF5DataTypeVariant tryGetTypeVariant(final String objectPath, final String attributeName)
     {
         assert objectPath != null;
 
-        final ICallableWithCleanUp<HDF5DataTypeVariant> readRunnable =
-                new ICallableWithCleanUp<HDF5DataTypeVariant>()
-                    {
-                        @Override
-                        public HDF5DataTypeVariant call(ICleanUpRegistry registry)
-                        {
-                            final long objectId = h5.openObject(fileId, objectPath, registry);
-                            return tryGetTypeVariant(objectId, attributeName, registry);
-                        }
-                    };
+        final Integer cachedOrdinalOrNull =
+                readOnly ? metadataCache.tryGetTypeVariantOrdinal(objectPath, attributeName) : null;
+        if (cachedOrdinalOrNull != null)
+        {
+            return toTypeVariant(cachedOrdinalOrNull);
+        }
+        final ICallableWithCleanUp<Integer> readRunnable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final long objectId = h5.openObject(fileId, objectPath, registry);
+                    return getAttributeTypeVariant(objectId, attributeName, registry);
+                }
+            };
+        final int typeVariantOrdinal = runner.call(readRunnable);
+        if (readOnly)
+        {
+            metadataCache.putTypeVariantOrdinal(objectPath, attributeName, typeVariantOrdinal);
+        }
+        return toTypeVariant(typeVariantOrdinal);
+    }
 
-        return runner.call(readRunnable);
+    private static HDF5DataTypeVariant toTypeVariant(int typeVariantOrdinal)
+    {
+        return typeVariantOrdinal < 0 ? null : HDF5DataTypeVariant.values()[typeVariantOrdinal];
     }
 
     HDF5EnumerationValueArray getEnumValueArray(final long attributeId, final String objectPath,
@@ -1326,15 +1543,13 @@ class HDF5BaseReader
 
     HDF5DataTypeVariant tryGetTypeVariant(final long objectId, ICleanUpRegistry registry)
     {
-        final int typeVariantOrdinal = getAttributeTypeVariant(objectId, registry);
-        return typeVariantOrdinal < 0 ? null : HDF5DataTypeVariant.values()[typeVariantOrdinal];
+        return toTypeVariant(getAttributeTypeVariant(objectId, registry));
     }
 
     HDF5DataTypeVariant tryGetTypeVariant(final long objectId, String attributeName,
             ICleanUpRegistry registry)
     {
-        final int typeVariantOrdinal = getAttributeTypeVariant(objectId, attributeName, registry);
-        return typeVariantOrdinal < 0 ? null : HDF5DataTypeVariant.values()[typeVariantOrdinal];
+        return toTypeVariant(getAttributeTypeVariant(objectId, attributeName, registry));
     }
 
     /**
@@ -1790,14 +2005,7 @@ class HDF5BaseReader
             final int lengthPerElement = h5.getDataTypeSize(stringDataTypeId);
             final int numberOfElements = arrayDimensions[0];
             final String[] result = new String[numberOfElements];
-            for (int i = 0, startIdx = 0, endIdx = lengthPerElement; i < numberOfElements; ++i, startIdx +=
-                    lengthPerElement, endIdx += lengthPerElement)
-            {
-                result[i] =
-                        readRaw ? StringUtils.fromBytes(data, startIdx, endIdx, dataSetEncoding)
-                                : StringUtils.fromBytes0Term(data, startIdx, endIdx,
-                                        dataSetEncoding);
-            }
+            StringUtils.fromBytes(data, lengthPerElement, readRaw, dataSetEncoding, result);
             return result;
         }
     }
@@ -1837,14 +2045,7 @@ class HDF5BaseReader
             final int lengthPerElement = h5.getDataTypeSize(stringDataTypeId);
             final int numberOfElements = MDAbstractArray.getLength(arrayDimensions);
             final String[] result = new String[numberOfElements];
-            for (int i = 0, startIdx = 0, endIdx = lengthPerElement; i < numberOfElements; ++i, startIdx +=
-                    lengthPerElement, endIdx += lengthPerElement)
-            {
-                result[i] =
-                        readRaw ? StringUtils.fromBytes(data, startIdx, endIdx, dataSetEncoding)
-                                : StringUtils.fromBytes0Term(data, startIdx, endIdx,
-                                        dataSetEncoding);
-            }
+            StringUtils.fromBytes(data, lengthPerElement, readRaw, dataSetEncoding, result);
             return new MDArray<String>(result, arrayDimensions);
         }
     }
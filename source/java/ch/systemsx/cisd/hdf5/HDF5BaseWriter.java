@@ -139,10 +139,12 @@ final class HDF5BaseWriter extends HDF5BaseReader
             boolean autoDereference, FileFormatVersionBounds fileFormat, MDCImageGeneration mdcGenerateImage, 
             boolean useExtentableDataTypes, boolean overwriteFile, boolean keepDataSetIfExists,
             boolean useSimpleDataSpaceForAttributes, String preferredHouseKeepingNameSuffix,
-            SyncMode syncMode)
+            SyncMode syncMode, boolean concurrentFileAccess,
+            HDF5ChunkCacheSettings chunkCacheSettings, int dataSetHandleCacheSize)
     {
         super(hdf5File, performNumericConversions, useUTF8CharEncoding, autoDereference,
-                fileFormat, mdcGenerateImage, overwriteFile, preferredHouseKeepingNameSuffix);
+                fileFormat, mdcGenerateImage, overwriteFile, preferredHouseKeepingNameSuffix,
+                concurrentFileAccess, chunkCacheSettings, dataSetHandleCacheSize, false);
         this.readOnly = false;
         try
         {
@@ -633,7 +635,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -683,7 +685,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -734,7 +736,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -785,7 +787,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -836,7 +838,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -887,7 +889,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -938,7 +940,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         boolean exists = h5.exists(fileId, dataSetPath);
         if (exists && keepDatasetIfExists == false)
         {
-            h5.deleteObject(fileId, dataSetPath);
+            deleteObject(dataSetPath);
             exists = false;
         }
         if (exists)
@@ -998,7 +1000,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
             {
                 return h5.openDataSet(fileId, objectPath, registry);
             }
-            h5.deleteObject(fileId, objectPath);
+            deleteObject(objectPath);
         }
         if (empty)
         {
@@ -1056,7 +1058,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
                                 {
                                     return openDataSet(objectPath);
                                 }
-                                h5.deleteObject(fileId, objectPath);
+                                deleteObject(objectPath);
                             }
                             if (empty)
                             {
@@ -1215,7 +1217,7 @@ final class HDF5BaseWriter extends HDF5BaseReader
         final boolean isRef = h5.isReference(objectPath);
         if (exists && isRef == false && keepDataIfExists(features) == false)
         {
-            h5.deleteObject(fileId, objectPath);
+            deleteObject(objectPath);
             exists = false;
         }
         if (exists || isRef)
@@ -1685,12 +1687,20 @@ final class HDF5BaseWriter extends HDF5BaseReader
             int idx = 0;
             for (String s : array)
             {
-                final byte[] data =
-                        StringUtils.toBytes(s, maxLengthPerString, encodingForNewDataSets);
-                final int dataLen = Math.min(data.length, realMaxLengthPerString);
-                final int newLen = len + realMaxLengthPerString;
-                System.arraycopy(data, 0, buf, len, dataLen);
-                len = newLen;
+                final int length = Math.min(s.length(), maxLengthPerString);
+                final int dataLen;
+                if (StringUtils.isAscii(s, length))
+                {
+                    StringUtils.copyAscii(s, length, buf, len);
+                    dataLen = length;
+                } else
+                {
+                    final byte[] data =
+                            StringUtils.toBytes(s, maxLengthPerString, encodingForNewDataSets);
+                    dataLen = Math.min(data.length, realMaxLengthPerString);
+                    System.arraycopy(data, 0, buf, len, dataLen);
+                }
+                len += realMaxLengthPerString;
                 if (valueContainsChar0 == false)
                 {
                     valueContainsChar0 |= s.contains("\0");
@@ -1701,15 +1711,23 @@ final class HDF5BaseWriter extends HDF5BaseReader
 
         private void addAllLengthFitsValue(String[] array)
         {
-            final byte[][] data = new byte[array.length][];
+            // Only the non-ASCII strings are encoded up-front, the ASCII strings are copied to
+            // the buffer directly.
+            final byte[][] dataOrNull = new byte[array.length][];
             this.lengths = new int[array.length];
             int idx = 0;
             for (String s : array)
             {
-                final byte[] bytes = StringUtils.toBytes(s, encodingForNewDataSets);
-                realMaxLengthPerString = Math.max(realMaxLengthPerString, bytes.length);
-                data[idx] = bytes;
-                lengths[idx] = bytes.length;
+                if (StringUtils.isAscii(s, s.length()))
+                {
+                    lengths[idx] = s.length();
+                } else
+                {
+                    final byte[] bytes = StringUtils.toBytes(s, encodingForNewDataSets);
+                    dataOrNull[idx] = bytes;
+                    lengths[idx] = bytes.length;
+                }
+                realMaxLengthPerString = Math.max(realMaxLengthPerString, lengths[idx]);
                 if (valueContainsChar0 == false)
                 {
                     valueContainsChar0 |= s.contains("\0");
@@ -1717,9 +1735,15 @@ final class HDF5BaseWriter extends HDF5BaseReader
                 ++idx;
             }
             this.buf = new byte[realMaxLengthPerString * array.length];
-            for (byte[] bytes : data)
+            for (idx = 0; idx < array.length; ++idx)
             {
-                System.arraycopy(bytes, 0, buf, len, bytes.length);
+                if (dataOrNull[idx] == null)
+                {
+                    StringUtils.copyAscii(array[idx], lengths[idx], buf, len);
+                } else
+                {
+                    System.arraycopy(dataOrNull[idx], 0, buf, len, lengths[idx]);
+                }
                 len = len + realMaxLengthPerString;
             }
         }
@@ -1821,10 +1845,31 @@ final class HDF5BaseWriter extends HDF5BaseReader
             { value });
     }
 
+    /**
+     * Deletes the link <var>objectPath</var> and closes the cached handles of the data sets below
+     * it.
+     */
+    void deleteObject(String objectPath)
+    {
+        invalidateDataSetHandles(objectPath);
+        h5.deleteObject(fileId, objectPath);
+    }
+
+    /**
+     * Moves the link <var>oldLinkPath</var> to <var>newLinkPath</var> and closes the cached handles
+     * of the data sets below either of them.
+     */
+    void moveLink(String oldLinkPath, String newLinkPath)
+    {
+        invalidateDataSetHandles(oldLinkPath);
+        invalidateDataSetHandles(newLinkPath);
+        h5.moveLink(fileId, oldLinkPath, newLinkPath);
+    }
+
     String moveLinkOutOfTheWay(String linkPath)
     {
         final String newLinkPath = createNonExistentReplacementLinkPath(linkPath);
-        h5.moveLink(fileId, linkPath, newLinkPath);
+        moveLink(linkPath, newLinkPath);
         return newLinkPath;
     }
 
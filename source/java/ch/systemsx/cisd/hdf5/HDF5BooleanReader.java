@@ -101,7 +101,7 @@ public class HDF5BooleanReader implements IHDF5BooleanReader
                 public Boolean call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long nativeDataTypeId =
                             baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
                     final byte[] data = new byte[1];
@@ -135,7 +135,7 @@ public class HDF5BooleanReader implements IHDF5BooleanReader
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, registry);
                     final long[] data = new long[spaceParams.blockSize];
@@ -165,7 +165,7 @@ public class HDF5BooleanReader implements IHDF5BooleanReader
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParamsOrNull =
                             baseReader.tryGetSpaceParameters(dataSetId, offset, blockSize,
                                     nullWhenOutside, registry);
@@ -222,8 +222,7 @@ public class HDF5BooleanReader implements IHDF5BooleanReader
                         public MDLongArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, registry);
                             checkDimensions2D(spaceParams.dimensions);
@@ -263,7 +262,7 @@ public class HDF5BooleanReader implements IHDF5BooleanReader
                 public MDLongArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long[] dimensions = baseReader.h5.getDataDimensions(dataSetId, registry);
                     checkDimensions2D(dimensions);
                     final int numberOfWords = dimToInt(dimensions[0]);
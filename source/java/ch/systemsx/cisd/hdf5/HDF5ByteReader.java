@@ -22,6 +22,7 @@ import static ch.systemsx.cisd.hdf5.MatrixUtils.createFullBlockDimensionsAndOffs
 import static hdf.hdf5lib.HDF5Constants.H5T_ARRAY;
 import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT8;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
 
@@ -160,7 +161,7 @@ class HDF5ByteReader implements IHDF5ByteReader
                 public Byte call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final byte[] data = new byte[1];
                     baseReader.h5.readDataSet(dataSetId, H5T_NATIVE_INT8, data);
                     return data[0];
@@ -175,13 +176,19 @@ class HDF5ByteReader implements IHDF5ByteReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT8, 0L, -1);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<byte[]> readCallable = new ICallableWithCleanUp<byte[]>()
             {
                 @Override
                 public byte[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readByteArray(dataSetId, registry);
                 }
             };
@@ -239,7 +246,7 @@ class HDF5ByteReader implements IHDF5ByteReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), registry);
@@ -295,7 +302,7 @@ class HDF5ByteReader implements IHDF5ByteReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), offset, blockDimensions, registry);
@@ -338,6 +345,37 @@ class HDF5ByteReader implements IHDF5ByteReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public java.nio.ByteBuffer tryMapArray(final String objectPath)
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT8, 0L, -1);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asByteBuffer(mappedOrNull);
+    }
+
+    @Override
+    public java.nio.ByteBuffer tryMapArrayBlockWithOffset(final String objectPath,
+            final int blockSize, final long offset)
+    {
+        assert objectPath != null;
+        assert blockSize > 0;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT8, offset, blockSize);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asByteBuffer(mappedOrNull);
+    }
+
+    private static byte[] toArray(ByteBuffer mapped)
+    {
+        final byte[] data = new byte[mapped.remaining() / 1];
+        HDF5MemoryMapper.asByteBuffer(mapped).get(data);
+        return data;
+    }
+
     @Override
     public byte[] readArrayBlock(final String objectPath, final int blockSize,
             final long blockNumber)
@@ -358,13 +396,19 @@ class HDF5ByteReader implements IHDF5ByteReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT8, offset, blockSize);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<byte[]> readCallable = new ICallableWithCleanUp<byte[]>()
             {
                 @Override
                 public byte[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
                     final byte[] data = new byte[spaceParams.blockSize];
@@ -399,6 +443,93 @@ class HDF5ByteReader implements IHDF5ByteReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public int readArrayBlockWithOffset(final HDF5DataSet dataSet, final byte[] target,
+            final int targetOffset, final int count, final long offset)
+    {
+        assert dataSet != null;
+        assert target != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, target.length,
+                                    targetOffset);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT8, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, target);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public int readToBuffer(final HDF5DataSet dataSet, final ByteBuffer buffer, final long offset)
+    {
+        assert dataSet != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        final int count = buffer.remaining() / 1;
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, count, 0);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT8, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 1);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public long[] readMDArrayBlockWithOffsetToBuffer(final HDF5DataSet dataSet,
+            final long[] blockDimensions, final long[] offset, final ByteBuffer buffer)
+    {
+        assert dataSet != null;
+        assert blockDimensions != null;
+        assert offset != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(blockDimensions.length, offset.length);
+        baseReader.h5.checkRank(blockDimensions.length, dataSet.getRank());
+        final ICallableWithCleanUp<long[]> readCallable = new ICallableWithCleanUp<long[]>()
+            {
+                @Override
+                public long[] call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, blockDimensions);
+                    baseReader.h5.checkBufferSize(buffer, 1, spaceParams.blockSize);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT8,
+                            spaceParams.memorySpaceId, spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 1);
+                    return spaceParams.dimensions;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
     @Override
     public byte[][] readMatrix(final String objectPath) throws HDF5JavaException
     {
@@ -546,7 +677,7 @@ class HDF5ByteReader implements IHDF5ByteReader
                 public MDByteArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readByteMDArray(dataSetId, registry);
                 }
             };
@@ -864,7 +995,7 @@ class HDF5ByteReader implements IHDF5ByteReader
                 public MDByteArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     try
                     {
                         final DataSpaceParameters spaceParams =
@@ -937,6 +1068,13 @@ class HDF5ByteReader implements IHDF5ByteReader
     @Override
     public Iterable<HDF5DataBlock<byte[]>> getArrayNaturalBlocks(final String dataSetPath)
             throws HDF5JavaException
+    {
+        return getArrayNaturalBlocks(dataSetPath, false);
+    }
+
+    @Override
+    public Iterable<HDF5DataBlock<byte[]>> getArrayNaturalBlocks(final String dataSetPath,
+            final boolean reuseBuffer) throws HDF5JavaException
     {
         baseReader.checkOpen();
         final HDF5NaturalBlock1DParameters params =
@@ -954,6 +1092,8 @@ class HDF5ByteReader implements IHDF5ByteReader
                             final HDF5NaturalBlock1DParameters.HDF5NaturalBlock1DIndex index =
                                     params.getNaturalBlockIndex();
 
+                            byte[] bufferOrNull;
+
                             @Override
                             public boolean hasNext()
                             {
@@ -964,9 +1104,20 @@ class HDF5ByteReader implements IHDF5ByteReader
                             public HDF5DataBlock<byte[]> next()
                             {
                                 final long offset = index.computeOffsetAndSizeGetOffset();
-                                final byte[] block =
-                                        readArrayBlockWithOffset(dataSet, index
-                                                .getBlockSize(), offset);
+                                final int blockSize = index.getBlockSize();
+                                final byte[] block;
+                                if (reuseBuffer)
+                                {
+                                    if (bufferOrNull == null || bufferOrNull.length != blockSize)
+                                    {
+                                        bufferOrNull = new byte[blockSize];
+                                    }
+                                    block = bufferOrNull;
+                                    readArrayBlockWithOffset(dataSet, block, 0, blockSize, offset);
+                                } else
+                                {
+                                    block = readArrayBlockWithOffset(dataSet, blockSize, offset);
+                                }
                                 return new HDF5DataBlock<byte[]>(block, index.getAndIncIndex(), 
                                         offset);
                             }
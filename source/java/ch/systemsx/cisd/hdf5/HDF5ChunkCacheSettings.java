@@ -0,0 +1,226 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import ch.systemsx.cisd.base.mdarray.MDAbstractArray;
+
+/**
+ * The settings of the raw data chunk cache of a data set.
+ * <p>
+ * The HDF5 library keeps recently accessed chunks of a chunked data set in a cache, so that
+ * reading a chunk again doesn't require reading and de-compressing it again. The default cache of
+ * the library holds 1 MB in 521 slots, which is too small if the blocks that are read cross a row
+ * of chunks that in total is larger than that. Use these settings with
+ * {@link IHDF5ReaderConfigurator#chunkCache(HDF5ChunkCacheSettings)} for all data sets of a file,
+ * or with
+ * {@link IHDF5ObjectReadOnlyInfoProviderHandler#openDataSet(String, HDF5ChunkCacheSettings)} for
+ * a single data set.
+ * <p>
+ * With {@link #AUTO}, the cache is sized such that it can hold one row of chunks along the last
+ * (fastest varying) dimension of the data set, which is what is needed to read each chunk only
+ * once when iterating over blocks in the order of e.g.
+ * {@link IHDF5FloatReader#getMDArrayNaturalBlocks(String)}.
+ * 
+ * @author Bernd Rinn
+ */
+public final class HDF5ChunkCacheSettings
+{
+    /** Marks a parameter that should be taken from the default of the library. */
+    private static final long LIBRARY_DEFAULT = -1L;
+
+    /** The number of hash slots in the chunk cache of the library by default. */
+    static final long DEFAULT_NUMBER_OF_SLOTS = 521;
+
+    /** The size of the chunk cache of the library by default (1 MB). */
+    static final long DEFAULT_SIZE_IN_BYTES = 1024 * 1024;
+
+    /** The maximal size of the chunk cache in mode {@link #AUTO} (64 MB). */
+    static final long MAX_AUTO_SIZE_IN_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The settings of the library, i.e. the chunk cache of each data set holds 1 MB in 521 slots.
+     */
+    public static final HDF5ChunkCacheSettings DEFAULT = new HDF5ChunkCacheSettings(
+            LIBRARY_DEFAULT, LIBRARY_DEFAULT, LIBRARY_DEFAULT, false);
+
+    /**
+     * The settings for the chunk cache of each data set are derived from its chunk size and
+     * dimensions.
+     */
+    public static final HDF5ChunkCacheSettings AUTO = new HDF5ChunkCacheSettings(
+            LIBRARY_DEFAULT, LIBRARY_DEFAULT, LIBRARY_DEFAULT, true);
+
+    private final long sizeInBytes;
+
+    private final long numberOfSlots;
+
+    private final double preemptionPolicy;
+
+    private final boolean auto;
+
+    /**
+     * Creates chunk cache settings of <var>sizeInBytes</var>, keeping the number of slots and
+     * the preemption policy of the library.
+     */
+    public static HDF5ChunkCacheSettings create(long sizeInBytes)
+    {
+        return create(sizeInBytes, LIBRARY_DEFAULT, LIBRARY_DEFAULT);
+    }
+
+    /**
+     * Creates chunk cache settings.
+     * 
+     * @param sizeInBytes The total size of the chunk cache in bytes, or -1 for the default of the
+     *            library.
+     * @param numberOfSlots The number of hash slots of the chunk cache, or -1 for the default of
+     *            the library. Should be a prime number about 100 times larger than the number of
+     *            chunks that fit into the cache.
+     * @param preemptionPolicy A value between 0 and 1 that determines how strongly chunks that
+     *            have been read completely are preferred for eviction, or -1 for the default of
+     *            the library (0.75). Use 0 if chunks are read partially more than once.
+     */
+    public static HDF5ChunkCacheSettings create(long sizeInBytes, long numberOfSlots,
+            double preemptionPolicy)
+    {
+        if (preemptionPolicy != LIBRARY_DEFAULT && (preemptionPolicy < 0 || preemptionPolicy > 1))
+        {
+            throw new IllegalArgumentException("Preemption policy " + preemptionPolicy
+                    + " is not in [0, 1].");
+        }
+        return new HDF5ChunkCacheSettings(Math.max(sizeInBytes, LIBRARY_DEFAULT), Math.max(
+                numberOfSlots, LIBRARY_DEFAULT), preemptionPolicy, false);
+    }
+
+    private HDF5ChunkCacheSettings(long sizeInBytes, long numberOfSlots,
+            double preemptionPolicy, boolean auto)
+    {
+        this.sizeInBytes = sizeInBytes;
+        this.numberOfSlots = numberOfSlots;
+        this.preemptionPolicy = preemptionPolicy;
+        this.auto = auto;
+    }
+
+    /**
+     * Returns the size of the chunk cache in bytes, or -1, if the default of the library is used.
+     */
+    public long getSizeInBytes()
+    {
+        return sizeInBytes;
+    }
+
+    /**
+     * Returns the number of hash slots of the chunk cache, or -1, if the default of the library is
+     * used.
+     */
+    public long getNumberOfSlots()
+    {
+        return numberOfSlots;
+    }
+
+    /**
+     * Returns the preemption policy (w0) of the chunk cache, or -1, if the default of the library
+     * is used.
+     */
+    public double getPreemptionPolicy()
+    {
+        return preemptionPolicy;
+    }
+
+    /**
+     * Returns <code>true</code>, if the settings are derived from the chunk size and dimensions
+     * of each data set.
+     */
+    public boolean isAuto()
+    {
+        return auto;
+    }
+
+    /**
+     * Returns <code>true</code>, if these settings are the defaults of the library.
+     */
+    boolean isLibraryDefault()
+    {
+        return auto == false && sizeInBytes == LIBRARY_DEFAULT && numberOfSlots == LIBRARY_DEFAULT
+                && preemptionPolicy == LIBRARY_DEFAULT;
+    }
+
+    /**
+     * Returns the settings for a data set of <var>dimensions</var> with chunks of
+     * <var>chunkSizes</var> and elements of <var>elementSize</var> bytes. Returns these settings,
+     * if they are not in mode {@link #AUTO}.
+     */
+    HDF5ChunkCacheSettings resolve(long[] dimensions, int[] chunkSizes, int elementSize)
+    {
+        if (auto == false)
+        {
+            return this;
+        }
+        final int rank = chunkSizes.length;
+        final long chunkBytes = MDAbstractArray.getLength(chunkSizes) * (long) elementSize;
+        if (rank == 0 || chunkBytes == 0)
+        {
+            return DEFAULT;
+        }
+        final long chunksPerRow = Math.max(1, (dimensions[rank - 1] + chunkSizes[rank - 1] - 1)
+                / chunkSizes[rank - 1]);
+        final long chunksInCache =
+                Math.max(1, Math.min(chunksPerRow, MAX_AUTO_SIZE_IN_BYTES / chunkBytes));
+        final long size = Math.max(DEFAULT_SIZE_IN_BYTES, chunksInCache * chunkBytes);
+        final long slots =
+                nextPrime(Math.max(DEFAULT_NUMBER_OF_SLOTS, 100 * (size / chunkBytes)));
+        return new HDF5ChunkCacheSettings(size, slots, LIBRARY_DEFAULT, false);
+    }
+
+    static long nextPrime(long n)
+    {
+        long candidate = (n <= 2) ? 2 : (n | 1);
+        while (isPrime(candidate) == false)
+        {
+            candidate += 2;
+        }
+        return candidate;
+    }
+
+    private static boolean isPrime(long n)
+    {
+        if (n < 4)
+        {
+            return n >= 2;
+        }
+        if (n % 2 == 0)
+        {
+            return false;
+        }
+        for (long i = 3; i * i <= n; i += 2)
+        {
+            if (n % i == 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return auto ? "HDF5ChunkCacheSettings [AUTO]" : "HDF5ChunkCacheSettings [sizeInBytes="
+                + sizeInBytes + ", numberOfSlots=" + numberOfSlots + ", preemptionPolicy="
+                + preemptionPolicy + "]";
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static hdf.hdf5lib.H5.H5Tinsert;
+
+import java.nio.ByteBuffer;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+import ch.systemsx.cisd.hdf5.HDF5DataTypeInformation.DataTypeInfoOptions;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * A member of a compound data set that is read into a column, that is an array with one element
+ * for each record.
+ * <p>
+ * The columns to read are packed into a memory compound type that only contains these members, so
+ * that the HDF5 library only converts and transfers these members.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5CompoundColumn
+{
+    private final String memberName;
+
+    private final HDF5DataClass dataClass;
+
+    private final long nativeTypeId;
+
+    private final int size;
+
+    private final int elementSizeForPadding;
+
+    private final int offset;
+
+    private final boolean variableLengthString;
+
+    private final CharacterEncoding encoding;
+
+    private final String[] enumValuesOrNull;
+
+    private HDF5CompoundColumn(String memberName, HDF5DataClass dataClass, long nativeTypeId,
+            int size, int elementSizeForPadding, int offset, boolean variableLengthString,
+            CharacterEncoding encoding, String[] enumValuesOrNull)
+    {
+        this.memberName = memberName;
+        this.dataClass = dataClass;
+        this.nativeTypeId = nativeTypeId;
+        this.size = size;
+        this.elementSizeForPadding = elementSizeForPadding;
+        this.offset = offset;
+        this.variableLengthString = variableLengthString;
+        this.encoding = encoding;
+        this.enumValuesOrNull = enumValuesOrNull;
+    }
+
+    /**
+     * Creates the column for member <var>memberIndex</var> of the compound data type
+     * <var>compoundDataTypeId</var>, placed at the first properly aligned offset from
+     * <var>minOffset</var> on.
+     * 
+     * @throws HDF5JavaException If the member cannot be read into a column.
+     */
+    static HDF5CompoundColumn create(HDF5BaseReader baseReader, long compoundDataTypeId,
+            int memberIndex, String memberName, String objectPath, int minOffset,
+            ICleanUpRegistry registry) throws HDF5JavaException
+    {
+        final long storageTypeId =
+                baseReader.h5.getDataTypeForIndex(compoundDataTypeId, memberIndex, registry);
+        final HDF5DataTypeInformation typeInfo =
+                baseReader.getDataTypeInformation(storageTypeId, DataTypeInfoOptions.MINIMAL,
+                        registry);
+        final HDF5DataClass dataClass = typeInfo.getDataClass();
+        if (typeInfo.isArrayType()
+                || isSupported(dataClass, baseReader.h5.getDataTypeSize(storageTypeId)) == false)
+        {
+            throw new HDF5JavaException("Member '" + memberName + "' of data set '" + objectPath
+                    + "' of type " + typeInfo + " cannot be read into a column.");
+        }
+        final CharacterEncoding encoding =
+                (dataClass == HDF5DataClass.STRING) ? baseReader.h5
+                        .getCharacterEncoding(storageTypeId) : CharacterEncoding.ASCII;
+        final String[] enumValuesOrNull;
+        final long nativeTypeId;
+        if (dataClass == HDF5DataClass.ENUM)
+        {
+            // The values of an enum in the file need not be successive, so let the library map
+            // them by name to the ordinals of an enum type with successive values.
+            enumValuesOrNull =
+                    baseReader.getEnumTypeForStorageDataType(null, storageTypeId, false, null,
+                            null, registry).getEnumType().getValueArray();
+            nativeTypeId =
+                    baseReader.h5.getNativeDataType(
+                            baseReader.h5.createDataTypeEnum(enumValuesOrNull, registry),
+                            registry);
+        } else
+        {
+            enumValuesOrNull = null;
+            nativeTypeId = baseReader.h5.getNativeDataType(storageTypeId, registry);
+        }
+        final int size = baseReader.h5.getDataTypeSize(nativeTypeId);
+        final int elementSizeForPadding = typeInfo.getElementSizeForPadding();
+        return new HDF5CompoundColumn(memberName, dataClass, nativeTypeId, size,
+                elementSizeForPadding, PaddingUtils.padOffset(minOffset, elementSizeForPadding),
+                typeInfo.isVariableLengthString(), encoding, enumValuesOrNull);
+    }
+
+    private static boolean isSupported(HDF5DataClass dataClass, int size)
+    {
+        switch (dataClass)
+        {
+            case INTEGER:
+                return size == 1 || size == 2 || size == 4 || size == 8;
+            case FLOAT:
+                return size == 4 || size == 8;
+            case BOOLEAN:
+            case ENUM:
+                return size == 1 || size == 2 || size == 4;
+            case STRING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    String getMemberName()
+    {
+        return memberName;
+    }
+
+    /**
+     * Returns the offset of this column in the memory record.
+     */
+    int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Returns the offset in the memory record right after this column.
+     */
+    int getEndOffset()
+    {
+        return offset + size;
+    }
+
+    int getElementSizeForPadding()
+    {
+        return elementSizeForPadding;
+    }
+
+    boolean isVariableLengthString()
+    {
+        return variableLengthString;
+    }
+
+    /**
+     * Inserts this column as member into the memory compound type <var>compoundDataTypeId</var>.
+     */
+    void insertNativeType(long compoundDataTypeId)
+    {
+        H5Tinsert(compoundDataTypeId, memberName, offset, nativeTypeId);
+    }
+
+    /**
+     * Extracts the column from the <var>numberOfRecords</var> records in <var>byteArr</var>.
+     * 
+     * @return A <code>byte[]</code>, <code>short[]</code>, <code>int[]</code> or
+     *         <code>long[]</code> for integer members, a <code>float[]</code> or
+     *         <code>double[]</code> for float members, a <code>boolean[]</code> for boolean
+     *         members and a <code>String[]</code> for enum and string members.
+     */
+    Object extract(byte[] byteArr, ByteBuffer buffer, int recordSize, int numberOfRecords)
+    {
+        switch (dataClass)
+        {
+            case INTEGER:
+                return extractInteger(byteArr, buffer, recordSize, numberOfRecords);
+            case FLOAT:
+                return extractFloat(buffer, recordSize, numberOfRecords);
+            case BOOLEAN:
+            {
+                final boolean[] column = new boolean[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    column[i] = getOrdinal(buffer, i * recordSize + offset) != 0;
+                }
+                return column;
+            }
+            case ENUM:
+            {
+                final String[] column = new String[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    final int ordinal = getOrdinal(buffer, i * recordSize + offset);
+                    if (ordinal < 0 || ordinal >= enumValuesOrNull.length)
+                    {
+                        throw new HDF5JavaException("Member '" + memberName
+                                + "' has an undefined enum value in record " + i + ".");
+                    }
+                    column[i] = enumValuesOrNull[ordinal];
+                }
+                return column;
+            }
+            case STRING:
+            {
+                final String[] column = new String[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    final int totalOffset = i * recordSize + offset;
+                    column[i] =
+                            HDF5CompoundMemberByteifyerStringFactory.bytesToString(byteArr,
+                                    totalOffset, totalOffset + size, encoding,
+                                    variableLengthString, false);
+                }
+                return column;
+            }
+            default:
+                throw new Error("Unsupported data class " + dataClass);
+        }
+    }
+
+    private Object extractInteger(byte[] byteArr, ByteBuffer buffer, int recordSize,
+            int numberOfRecords)
+    {
+        switch (size)
+        {
+            case 1:
+            {
+                final byte[] column = new byte[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    column[i] = byteArr[i * recordSize + offset];
+                }
+                return column;
+            }
+            case 2:
+            {
+                final short[] column = new short[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    column[i] = buffer.getShort(i * recordSize + offset);
+                }
+                return column;
+            }
+            case 4:
+            {
+                final int[] column = new int[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    column[i] = buffer.getInt(i * recordSize + offset);
+                }
+                return column;
+            }
+            default:
+            {
+                final long[] column = new long[numberOfRecords];
+                for (int i = 0; i < numberOfRecords; ++i)
+                {
+                    column[i] = buffer.getLong(i * recordSize + offset);
+                }
+                return column;
+            }
+        }
+    }
+
+    private Object extractFloat(ByteBuffer buffer, int recordSize, int numberOfRecords)
+    {
+        if (size == 4)
+        {
+            final float[] column = new float[numberOfRecords];
+            for (int i = 0; i < numberOfRecords; ++i)
+            {
+                column[i] = buffer.getFloat(i * recordSize + offset);
+            }
+            return column;
+        } else
+        {
+            final double[] column = new double[numberOfRecords];
+            for (int i = 0; i < numberOfRecords; ++i)
+            {
+                column[i] = buffer.getDouble(i * recordSize + offset);
+            }
+            return column;
+        }
+    }
+
+    private int getOrdinal(ByteBuffer buffer, int index)
+    {
+        switch (size)
+        {
+            case 1:
+                return buffer.get(index) & 0xff;
+            case 2:
+                return buffer.getShort(index) & 0xffff;
+            default:
+                return buffer.getInt(index);
+        }
+    }
+
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static hdf.hdf5lib.HDF5Constants.H5T_ENUM;
+import static hdf.hdf5lib.HDF5Constants.H5T_FLOAT;
+import static hdf.hdf5lib.HDF5Constants.H5T_INTEGER;
+import static hdf.hdf5lib.HDF5Constants.H5T_STRING;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+import ch.systemsx.cisd.hdf5.HDF5BaseReader.DataSpaceParameters;
+import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * The implementation of {@link IHDF5CompoundCursor}.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5CompoundCursor<T> implements IHDF5CompoundCursor<T>
+{
+    /** The size of the buffer (in bytes) that the default block size aims at. */
+    static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    private final HDF5BaseReader baseReader;
+
+    private final HDF5DataSet dataSet;
+
+    private final HDF5CompoundType<T> type;
+
+    private final long numberOfRecords;
+
+    private final int recordSize;
+
+    private final int blockSize;
+
+    private final byte[] byteArr;
+
+    private final ByteBuffer buffer;
+
+    private final String[] memberNames;
+
+    private final int[] memberOffsets;
+
+    private final int[] memberClasses;
+
+    private final int[] memberSizes;
+
+    private final boolean[] memberSigned;
+
+    private final boolean[] memberVariableLengthStrings;
+
+    private final CharacterEncoding[] memberEncodings;
+
+    private final String[][] memberEnumValues;
+
+    private final ICallableWithCleanUp<Object> readBlockRunnable;
+
+    private long blockOffset;
+
+    private int recordsInBlock;
+
+    private int indexInBlock = -1;
+
+    private int recordOffset;
+
+    private boolean closed;
+
+    /**
+     * Returns the default block size for a data set with the given chunk sizes: the multiple of the
+     * chunk size that fills a buffer of about {@link #DEFAULT_BUFFER_SIZE} bytes, but at least one
+     * chunk.
+     */
+    static int getDefaultBlockSize(int[] chunkSizesOrNull, int recordSize)
+    {
+        final int maxRecords = Math.max(1, DEFAULT_BUFFER_SIZE / recordSize);
+        if (chunkSizesOrNull == null || chunkSizesOrNull.length != 1)
+        {
+            return maxRecords;
+        }
+        final int chunkSize = chunkSizesOrNull[0];
+        return (chunkSize >= maxRecords) ? chunkSize : (maxRecords / chunkSize) * chunkSize;
+    }
+
+    HDF5CompoundCursor(HDF5BaseReader baseReader, HDF5DataSet dataSet, HDF5CompoundType<T> type,
+            int blockSize)
+    {
+        assert baseReader != null;
+        assert dataSet != null;
+        assert type != null;
+        assert blockSize > 0;
+
+        this.baseReader = baseReader;
+        this.dataSet = dataSet;
+        this.type = type;
+        this.numberOfRecords = dataSet.getDimensions()[0];
+        this.recordSize = type.getRecordSizeInMemory();
+        this.blockSize = (int) Math.max(1, Math.min(blockSize, numberOfRecords));
+        this.byteArr = new byte[this.blockSize * recordSize];
+        this.buffer = ByteBuffer.wrap(byteArr).order(ByteOrder.nativeOrder());
+        final HDF5MemberByteifyer[] byteifyers = type.getObjectByteifyer().getByteifyers();
+        this.memberNames = new String[byteifyers.length];
+        this.memberOffsets = new int[byteifyers.length];
+        this.memberClasses = new int[byteifyers.length];
+        this.memberSizes = new int[byteifyers.length];
+        this.memberSigned = new boolean[byteifyers.length];
+        this.memberVariableLengthStrings = new boolean[byteifyers.length];
+        this.memberEncodings = new CharacterEncoding[byteifyers.length];
+        this.memberEnumValues = new String[byteifyers.length][];
+        for (int i = 0; i < byteifyers.length; ++i)
+        {
+            memberNames[i] = byteifyers[i].getMemberName();
+            memberOffsets[i] = byteifyers[i].getOffsetInMemory();
+        }
+        baseReader.runner.call(new ICallableWithCleanUp<Object>()
+            {
+                @Override
+                public Object call(ICleanUpRegistry registry)
+                {
+                    retrieveMemberTypes(registry);
+                    return null; // Nothing to return.
+                }
+            });
+        this.readBlockRunnable = createReadBlockRunnable();
+    }
+
+    private ICallableWithCleanUp<Object> createReadBlockRunnable()
+    {
+        return new ICallableWithCleanUp<Object>()
+            {
+                @Override
+                public Object call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, blockOffset, blockSize,
+                                    blockSize, 0);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), type.getNativeTypeId(),
+                            spaceParams.memorySpaceId, spaceParams.dataSpaceId, byteArr);
+                    recordsInBlock = spaceParams.blockSize;
+                    return null; // Nothing to return.
+                }
+            };
+    }
+
+    private void retrieveMemberTypes(ICleanUpRegistry registry)
+    {
+        final HDF5 h5 = baseReader.h5;
+        final long nativeDataTypeId = type.getNativeTypeId();
+        for (int i = 0; i < memberNames.length; ++i)
+        {
+            final long memberTypeId =
+                    h5.getDataTypeForIndex(nativeDataTypeId,
+                            h5.getIndexForMemberName(nativeDataTypeId, memberNames[i]), registry);
+            memberClasses[i] = h5.getClassType(memberTypeId);
+            memberSizes[i] = h5.getDataTypeSize(memberTypeId);
+            if (memberClasses[i] == H5T_INTEGER)
+            {
+                memberSigned[i] = h5.getSigned(memberTypeId);
+            } else if (memberClasses[i] == H5T_STRING)
+            {
+                memberVariableLengthStrings[i] = h5.isVariableLengthString(memberTypeId);
+                memberEncodings[i] = h5.getCharacterEncoding(memberTypeId);
+            } else if (memberClasses[i] == H5T_ENUM)
+            {
+                memberEnumValues[i] = h5.getNamesForEnumOrCompoundMembers(memberTypeId);
+            }
+        }
+    }
+
+    @Override
+    public boolean next()
+    {
+        if (closed)
+        {
+            throw new HDF5JavaException("Cursor on data set '" + dataSet.getDataSetPath()
+                    + "' is closed.");
+        }
+        if (indexInBlock + 1 < recordsInBlock)
+        {
+            ++indexInBlock;
+            recordOffset += recordSize;
+            return true;
+        }
+        final long nextBlockOffset = blockOffset + recordsInBlock;
+        if (nextBlockOffset >= numberOfRecords)
+        {
+            indexInBlock = recordsInBlock;
+            return false;
+        }
+        readBlock(nextBlockOffset);
+        indexInBlock = 0;
+        recordOffset = 0;
+        return true;
+    }
+
+    private void readBlock(long offset)
+    {
+        baseReader.checkOpen();
+        reclaimVariableLengthStrings();
+        blockOffset = offset;
+        baseReader.runner.call(readBlockRunnable);
+    }
+
+    private void reclaimVariableLengthStrings()
+    {
+        if (recordsInBlock > 0 && type.getObjectByteifyer().hasVLMembers())
+        {
+            baseReader.h5.reclaimCompoundVL(type, byteArr);
+            // Ensure that the strings are not freed again if the next block is shorter.
+            Arrays.fill(byteArr, (byte) 0);
+        }
+    }
+
+    @Override
+    public long getIndex()
+    {
+        return blockOffset + indexInBlock;
+    }
+
+    @Override
+    public long getNumberOfRecords()
+    {
+        return numberOfRecords;
+    }
+
+    @Override
+    public HDF5CompoundType<T> getType()
+    {
+        return type;
+    }
+
+    @Override
+    public int getMemberIndex(String memberName) throws HDF5JavaException
+    {
+        for (int i = 0; i < memberNames.length; ++i)
+        {
+            if (memberNames[i].equals(memberName))
+            {
+                return i;
+            }
+        }
+        throw new HDF5JavaException("Compound type '" + type.getName() + "' has no member '"
+                + memberName + "'.");
+    }
+
+    @Override
+    public T get(T record)
+    {
+        checkRecord();
+        type.getObjectByteifyer().arrayifyInto(dataSet.getDataTypeId(), byteArr, recordOffset,
+                record);
+        return record;
+    }
+
+    @Override
+    public byte getByte(int memberIndex) throws HDF5JavaException
+    {
+        return (byte) getInteger(memberIndex, 1, "byte");
+    }
+
+    @Override
+    public short getShort(int memberIndex) throws HDF5JavaException
+    {
+        return (short) getInteger(memberIndex, 2, "short");
+    }
+
+    @Override
+    public int getInt(int memberIndex) throws HDF5JavaException
+    {
+        return (int) getInteger(memberIndex, 4, "int");
+    }
+
+    @Override
+    public long getLong(int memberIndex) throws HDF5JavaException
+    {
+        return getInteger(memberIndex, 8, "long");
+    }
+
+    @Override
+    public float getFloat(int memberIndex) throws HDF5JavaException
+    {
+        if (memberClasses[memberIndex] != H5T_FLOAT || memberSizes[memberIndex] != 4)
+        {
+            throw createWrongTypeException(memberIndex, "float");
+        }
+        return buffer.getFloat(getPosition(memberIndex));
+    }
+
+    @Override
+    public double getDouble(int memberIndex) throws HDF5JavaException
+    {
+        if (memberClasses[memberIndex] != H5T_FLOAT)
+        {
+            throw createWrongTypeException(memberIndex, "double");
+        }
+        final int position = getPosition(memberIndex);
+        return (memberSizes[memberIndex] == 4) ? buffer.getFloat(position) : buffer
+                .getDouble(position);
+    }
+
+    @Override
+    public boolean getBoolean(int memberIndex) throws HDF5JavaException
+    {
+        if (memberClasses[memberIndex] != H5T_ENUM && memberClasses[memberIndex] != H5T_INTEGER)
+        {
+            throw createWrongTypeException(memberIndex, "boolean");
+        }
+        return getUnsigned(getPosition(memberIndex), memberSizes[memberIndex]) != 0;
+    }
+
+    @Override
+    public String getString(int memberIndex) throws HDF5JavaException
+    {
+        if (memberClasses[memberIndex] == H5T_ENUM)
+        {
+            return memberEnumValues[memberIndex][(int) getUnsigned(getPosition(memberIndex),
+                    memberSizes[memberIndex])];
+        }
+        if (memberClasses[memberIndex] != H5T_STRING)
+        {
+            throw createWrongTypeException(memberIndex, "String");
+        }
+        final int position = getPosition(memberIndex);
+        return HDF5CompoundMemberByteifyerStringFactory.bytesToString(byteArr, position, position
+                + memberSizes[memberIndex], memberEncodings[memberIndex],
+                memberVariableLengthStrings[memberIndex], false);
+    }
+
+    private long getInteger(int memberIndex, int maxSize, String javaType)
+    {
+        final int size = memberSizes[memberIndex];
+        if (memberClasses[memberIndex] != H5T_INTEGER || size > maxSize)
+        {
+            throw createWrongTypeException(memberIndex, javaType);
+        }
+        final int position = getPosition(memberIndex);
+        if (memberSigned[memberIndex] == false)
+        {
+            return getUnsigned(position, size);
+        }
+        switch (size)
+        {
+            case 1:
+                return buffer.get(position);
+            case 2:
+                return buffer.getShort(position);
+            case 4:
+                return buffer.getInt(position);
+            default:
+                return buffer.getLong(position);
+        }
+    }
+
+    private long getUnsigned(int position, int size)
+    {
+        switch (size)
+        {
+            case 1:
+                return buffer.get(position) & 0xffL;
+            case 2:
+                return buffer.getShort(position) & 0xffffL;
+            case 4:
+                return buffer.getInt(position) & 0xffffffffL;
+            default:
+                return buffer.getLong(position);
+        }
+    }
+
+    private int getPosition(int memberIndex)
+    {
+        checkRecord();
+        return recordOffset + memberOffsets[memberIndex];
+    }
+
+    private void checkRecord()
+    {
+        if (indexInBlock < 0 || indexInBlock >= recordsInBlock)
+        {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private HDF5JavaException createWrongTypeException(int memberIndex, String javaType)
+    {
+        return new HDF5JavaException("Member '" + memberNames[memberIndex]
+                + "' of compound type '" + type.getName() + "' cannot be read as " + javaType
+                + ".");
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        reclaimVariableLengthStrings();
+        recordsInBlock = 0;
+        dataSet.close();
+        closed = true;
+    }
+
+}
@@ -150,7 +150,7 @@ abstract class HDF5CompoundInformationRetriever implements IHDF5CompoundInformat
             final DataTypeInfoOptions dataTypeInfoOptions, final ICleanUpRegistry registry)
             throws HDF5JavaException
     {
-        final long dataSetId = baseReader.h5.openDataSet(baseReader.fileId, dataSetPath, registry);
+        final long dataSetId = baseReader.openDataSetId(dataSetPath, registry);
         final long compoundDataTypeId = baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
         if (baseReader.h5.getClassType(compoundDataTypeId) != H5T_COMPOUND)
         {
@@ -353,12 +353,19 @@ abstract class HDF5CompoundInformationRetriever implements IHDF5CompoundInformat
     public <T> HDF5CompoundType<T> getInferredType(String name, Class<T> pojoClass,
             HDF5CompoundMappingHints hints, boolean requireTypesToBeEqual)
     {
-        return getType(
-                name,
-                pojoClass,
-                requireTypesToBeEqual,
-                addEnumTypes(HDF5CompoundMemberMapping.addHints(
-                        HDF5CompoundMemberMapping.inferMapping(pojoClass), hints)));
+        baseReader.checkOpen();
+        final HDF5CompoundTypeCache.Key key =
+                new HDF5CompoundTypeCache.Key(pojoClass, name, hints, requireTypesToBeEqual, null);
+        HDF5CompoundType<T> type = baseReader.compoundTypeCache.tryGet(key);
+        if (type == null)
+        {
+            type =
+                    getType(name, pojoClass, requireTypesToBeEqual,
+                            addEnumTypes(HDF5CompoundMemberMapping.addHints(
+                                    HDF5CompoundMemberMapping.inferMapping(pojoClass), hints)));
+            baseReader.compoundTypeCache.put(key, type);
+        }
+        return type;
     }
 
     @Override
@@ -633,6 +640,13 @@ abstract class HDF5CompoundInformationRetriever implements IHDF5CompoundInformat
             HDF5CompoundMappingHints hints, boolean requireTypesToBeEqual)
     {
         baseReader.checkOpen();
+        final HDF5CompoundTypeCache.Key key =
+                getDataSetTypeKey(objectPath, pojoClass, hints, requireTypesToBeEqual);
+        final HDF5CompoundType<T> cachedTypeOrNull = baseReader.compoundTypeCache.tryGet(key);
+        if (cachedTypeOrNull != null)
+        {
+            return cachedTypeOrNull;
+        }
         // We need to get ALL information for the type as otherwise the mapping might be wrong (due
         // to a missing data type variant).
         final CompoundTypeInformation cpdTypeInfo =
@@ -641,9 +655,42 @@ abstract class HDF5CompoundInformationRetriever implements IHDF5CompoundInformat
         final HDF5CompoundType<T> typeForClass =
                 getType(cpdTypeInfo.name, cpdTypeInfo.compoundDataTypeId, pojoClass,
                         requireTypesToBeEqual, createByteifyers(pojoClass, cpdTypeInfo, hints));
+        baseReader.compoundTypeCache.put(key, typeForClass);
         return typeForClass;
     }
 
+    /**
+     * Returns the key of the type cache for the on-disk data type of <var>dataSetPath</var>. The
+     * path of the committed data type is part of the key as it stores the type variants of the
+     * members.
+     */
+    private HDF5CompoundTypeCache.Key getDataSetTypeKey(final String dataSetPath,
+            final Class<?> pojoClass, final HDF5CompoundMappingHints hintsOrNull,
+            final boolean requireTypesToBeEqual)
+    {
+        final ICallableWithCleanUp<HDF5CompoundTypeCache.Key> keyRunnable =
+                new ICallableWithCleanUp<HDF5CompoundTypeCache.Key>()
+                    {
+                        @Override
+                        public HDF5CompoundTypeCache.Key call(final ICleanUpRegistry registry)
+                        {
+                            final long dataSetId = baseReader.openDataSetId(dataSetPath, registry);
+                            final long dataTypeId =
+                                    baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
+                            if (baseReader.h5.getClassType(dataTypeId) != H5T_COMPOUND)
+                            {
+                                throw new HDF5JavaException("Data set '" + dataSetPath
+                                        + "' is not of compound type.");
+                            }
+                            return new HDF5CompoundTypeCache.Key(pojoClass,
+                                    baseReader.tryGetDataTypePath(dataTypeId), hintsOrNull,
+                                    requireTypesToBeEqual,
+                                    baseReader.h5.encodeDataType(dataTypeId));
+                        }
+                    };
+        return baseReader.runner.call(keyRunnable);
+    }
+
     @Override
     public <T> HDF5CompoundType<T> getDataSetType(String objectPath, Class<T> pojoClass)
     {
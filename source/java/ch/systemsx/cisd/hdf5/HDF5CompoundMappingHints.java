@@ -104,6 +104,14 @@ public class HDF5CompoundMappingHints
         return enumerationTypeMap.get(memberName);
     }
 
+    /**
+     * Returns the enum type mapping of this hints object, or <code>null</code>, if there is none.
+     */
+    Map<String, HDF5EnumerationType> tryGetEnumTypeMap()
+    {
+        return enumerationTypeMap;
+    }
+
     /**
      * Returns the desired enumeration return type.
      */
@@ -164,6 +164,7 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, len, offset, memOffset, false,
                 typeVariant)
             {
@@ -192,18 +193,18 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.byteToByte(field.getByte(obj));
+                            return HDFNativeData.byteToByte(accessor.getByte(obj));
                         case ARRAY1D:
-                            return (byte[]) field.get(obj);
+                            return (byte[]) accessor.get(obj);
                         case ARRAY2D:
                         {
-                            final byte[][] array = (byte[][]) field.get(obj);
+                            final byte[][] array = (byte[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return MatrixUtils.flatten(array);
                         }
                         case ARRAYMD:
                         {
-                            final MDByteArray array = (MDByteArray) field.get(obj);
+                            final MDByteArray array = (MDByteArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return array.getAsFlatArray();
                         }
@@ -212,6 +213,28 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            buffer[recordOffset + offsetInMemory] = accessor.getByte(obj);
+                            return 1;
+                        case ARRAY1D:
+                        {
+                            final byte[] array = (byte[]) accessor.get(obj);
+                            System.arraycopy(array, 0, buffer, recordOffset + offsetInMemory,
+                                    Math.min(array.length, len));
+                            return array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -219,14 +242,14 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setByte(obj, byteArr[arrayOffset + offsetInMemory]);
+                            accessor.setByte(obj, byteArr[arrayOffset + offsetInMemory]);
                             break;
                         case ARRAY1D:
                         {
                             final byte[] array = new byte[len];
                             System.arraycopy(byteArr, arrayOffset + offsetInMemory, array, 0,
                                     array.length);
-                            field.set(obj, array);
+                            accessor.set(obj, array);
                             break;
                         }
                         case ARRAY2D:
@@ -234,7 +257,7 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
                             final byte[] array = new byte[len];
                             System.arraycopy(byteArr, arrayOffset + offsetInMemory, array, 0,
                                     array.length);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
@@ -242,7 +265,7 @@ class HDF5CompoundMemberByteifyerByteFactory implements IHDF5CompoundMemberBytif
                             final byte[] array = new byte[len];
                             System.arraycopy(byteArr, arrayOffset + offsetInMemory, array, 0,
                                     array.length);
-                            field.set(obj, new MDByteArray(array, dimensions));
+                            accessor.set(obj, new MDByteArray(array, dimensions));
                             break;
                         }
                         default:
@@ -163,6 +163,7 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, DOUBLE_SIZE * len, offset,
                 memOffset, false, typeVariant)
             {
@@ -191,18 +192,18 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.doubleToByte(field.getDouble(obj));
+                            return HDFNativeData.doubleToByte(accessor.getDouble(obj));
                         case ARRAY1D:
-                            return HDFHelper.doubleToByte((double[]) field.get(obj));
+                            return HDFHelper.doubleToByte((double[]) accessor.get(obj));
                         case ARRAY2D:
                         {
-                            final double[][] array = (double[][]) field.get(obj);
+                            final double[][] array = (double[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return HDFHelper.doubleToByte(MatrixUtils.flatten(array));
                         }
                         case ARRAYMD:
                         {
-                            final MDDoubleArray array = (MDDoubleArray) field.get(obj);
+                            final MDDoubleArray array = (MDDoubleArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return HDFHelper.doubleToByte(array.getAsFlatArray());
                         }
@@ -211,6 +212,34 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            NativeByteUtils.putDouble(buffer, recordOffset + offsetInMemory,
+                                    accessor.getDouble(obj));
+                            return 8;
+                        case ARRAY1D:
+                        {
+                            final double[] array = (double[]) accessor.get(obj);
+                            final int n = Math.min(array.length, len);
+                            int bufferOffset = recordOffset + offsetInMemory;
+                            for (int i = 0; i < n; ++i)
+                            {
+                                NativeByteUtils.putDouble(buffer, bufferOffset, array[i]);
+                                bufferOffset += 8;
+                            }
+                            return 8 * array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -218,11 +247,11 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setDouble(obj,
+                            accessor.setDouble(obj,
                                     HDFNativeData.byteToDouble(byteArr, arrayOffset + offsetInMemory));
                             break;
                         case ARRAY1D:
-                            field.set(obj, HDFHelper.byteToDouble(byteArr, arrayOffset
+                            accessor.set(obj, HDFHelper.byteToDouble(byteArr, arrayOffset
                                     + offsetInMemory, len));
                             break;
                         case ARRAY2D:
@@ -230,7 +259,7 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
                             final double[] array =
                                     HDFHelper.byteToDouble(byteArr, arrayOffset + offsetInMemory,
                                             len);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
@@ -238,7 +267,7 @@ class HDF5CompoundMemberByteifyerDoubleFactory implements IHDF5CompoundMemberByt
                             final double[] array =
                                     HDFHelper.byteToDouble(byteArr, arrayOffset + offsetInMemory,
                                             len);
-                            field.set(obj, new MDDoubleArray(array, dimensions));
+                            accessor.set(obj, new MDDoubleArray(array, dimensions));
                             break;
                         }
                         default:
@@ -162,6 +162,7 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, FLOAT_SIZE * len, offset, memOffset,
                 false, typeVariant)
             {
@@ -190,18 +191,18 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.floatToByte(field.getFloat(obj));
+                            return HDFNativeData.floatToByte(accessor.getFloat(obj));
                         case ARRAY1D:
-                            return HDFHelper.floatToByte((float[]) field.get(obj));
+                            return HDFHelper.floatToByte((float[]) accessor.get(obj));
                         case ARRAY2D:
                         {
-                            final float[][] array = (float[][]) field.get(obj);
+                            final float[][] array = (float[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return HDFHelper.floatToByte(MatrixUtils.flatten(array));
                         }
                         case ARRAYMD:
                         {
-                            final MDFloatArray array = (MDFloatArray) field.get(obj);
+                            final MDFloatArray array = (MDFloatArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return HDFHelper.floatToByte(array.getAsFlatArray());
                         }
@@ -210,6 +211,34 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            NativeByteUtils.putFloat(buffer, recordOffset + offsetInMemory,
+                                    accessor.getFloat(obj));
+                            return 4;
+                        case ARRAY1D:
+                        {
+                            final float[] array = (float[]) accessor.get(obj);
+                            final int n = Math.min(array.length, len);
+                            int bufferOffset = recordOffset + offsetInMemory;
+                            for (int i = 0; i < n; ++i)
+                            {
+                                NativeByteUtils.putFloat(buffer, bufferOffset, array[i]);
+                                bufferOffset += 4;
+                            }
+                            return 4 * array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -217,11 +246,11 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setFloat(obj,
+                            accessor.setFloat(obj,
                                     HDFNativeData.byteToFloat(byteArr, arrayOffset + offsetInMemory));
                             break;
                         case ARRAY1D:
-                            field.set(obj, HDFHelper.byteToFloat(byteArr, arrayOffset
+                            accessor.set(obj, HDFHelper.byteToFloat(byteArr, arrayOffset
                                     + offsetInMemory, len));
                             break;
                         case ARRAY2D:
@@ -229,7 +258,7 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
                             final float[] array =
                                     HDFHelper
                                             .byteToFloat(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
@@ -237,7 +266,7 @@ class HDF5CompoundMemberByteifyerFloatFactory implements IHDF5CompoundMemberByti
                             final float[] array =
                                     HDFHelper
                                             .byteToFloat(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, new MDFloatArray(array, dimensions));
+                            accessor.set(obj, new MDFloatArray(array, dimensions));
                             break;
                         }
                         default:
@@ -166,6 +166,7 @@ class HDF5CompoundMemberByteifyerIntFactory implements IHDF5CompoundMemberBytify
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, INT_SIZE * len, offset, memOffset,
                 false, typeVariant)
             {
@@ -194,18 +195,18 @@ class HDF5CompoundMemberByteifyerIntFactory implements IHDF5CompoundMemberBytify
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.intToByte(field.getInt(obj));
+                            return HDFNativeData.intToByte(accessor.getInt(obj));
                         case ARRAY1D:
-                            return HDFHelper.intToByte((int[]) field.get(obj));
+                            return HDFHelper.intToByte((int[]) accessor.get(obj));
                         case ARRAY2D:
                         {
-                            final int[][] array = (int[][]) field.get(obj);
+                            final int[][] array = (int[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return HDFHelper.intToByte(MatrixUtils.flatten(array));
                         }
                         case ARRAYMD:
                         {
-                            final MDIntArray array = (MDIntArray) field.get(obj);
+                            final MDIntArray array = (MDIntArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return HDFHelper.intToByte(array.getAsFlatArray());
                         }
@@ -214,6 +215,34 @@ class HDF5CompoundMemberByteifyerIntFactory implements IHDF5CompoundMemberBytify
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            NativeByteUtils.putInt(buffer, recordOffset + offsetInMemory,
+                                    accessor.getInt(obj));
+                            return 4;
+                        case ARRAY1D:
+                        {
+                            final int[] array = (int[]) accessor.get(obj);
+                            final int n = Math.min(array.length, len);
+                            int bufferOffset = recordOffset + offsetInMemory;
+                            for (int i = 0; i < n; ++i)
+                            {
+                                NativeByteUtils.putInt(buffer, bufferOffset, array[i]);
+                                bufferOffset += 4;
+                            }
+                            return 4 * array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -221,25 +250,25 @@ class HDF5CompoundMemberByteifyerIntFactory implements IHDF5CompoundMemberBytify
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setInt(obj,
+                            accessor.setInt(obj,
                                     HDFNativeData.byteToInt(byteArr, arrayOffset + offsetInMemory));
                             break;
                         case ARRAY1D:
-                            field.set(obj,
+                            accessor.set(obj,
                                     HDFHelper.byteToInt(byteArr, arrayOffset + offsetInMemory, len));
                             break;
                         case ARRAY2D:
                         {
                             final int[] array =
                                     HDFHelper.byteToInt(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
                         {
                             final int[] array =
                                     HDFHelper.byteToInt(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, new MDIntArray(array, dimensions));
+                            accessor.set(obj, new MDIntArray(array, dimensions));
                             break;
                         }
                         default:
@@ -166,6 +166,7 @@ class HDF5CompoundMemberByteifyerLongFactory implements IHDF5CompoundMemberBytif
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, LONG_SIZE * len, offset, memOffset,
                 false, typeVariant)
             {
@@ -194,18 +195,18 @@ class HDF5CompoundMemberByteifyerLongFactory implements IHDF5CompoundMemberBytif
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.longToByte(field.getLong(obj));
+                            return HDFNativeData.longToByte(accessor.getLong(obj));
                         case ARRAY1D:
-                            return HDFHelper.longToByte((long[]) field.get(obj));
+                            return HDFHelper.longToByte((long[]) accessor.get(obj));
                         case ARRAY2D:
                         {
-                            final long[][] array = (long[][]) field.get(obj);
+                            final long[][] array = (long[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return HDFHelper.longToByte(MatrixUtils.flatten(array));
                         }
                         case ARRAYMD:
                         {
-                            final MDLongArray array = (MDLongArray) field.get(obj);
+                            final MDLongArray array = (MDLongArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return HDFHelper.longToByte(array.getAsFlatArray());
                         }
@@ -214,6 +215,34 @@ class HDF5CompoundMemberByteifyerLongFactory implements IHDF5CompoundMemberBytif
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            NativeByteUtils.putLong(buffer, recordOffset + offsetInMemory,
+                                    accessor.getLong(obj));
+                            return 8;
+                        case ARRAY1D:
+                        {
+                            final long[] array = (long[]) accessor.get(obj);
+                            final int n = Math.min(array.length, len);
+                            int bufferOffset = recordOffset + offsetInMemory;
+                            for (int i = 0; i < n; ++i)
+                            {
+                                NativeByteUtils.putLong(buffer, bufferOffset, array[i]);
+                                bufferOffset += 8;
+                            }
+                            return 8 * array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -221,25 +250,25 @@ class HDF5CompoundMemberByteifyerLongFactory implements IHDF5CompoundMemberBytif
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setLong(obj,
+                            accessor.setLong(obj,
                                     HDFNativeData.byteToLong(byteArr, arrayOffset + offsetInMemory));
                             break;
                         case ARRAY1D:
-                            field.set(obj,
+                            accessor.set(obj,
                                     HDFHelper.byteToLong(byteArr, arrayOffset + offsetInMemory, len));
                             break;
                         case ARRAY2D:
                         {
                             final long[] array =
                                     HDFHelper.byteToLong(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
                         {
                             final long[] array =
                                     HDFHelper.byteToLong(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, new MDLongArray(array, dimensions));
+                            accessor.set(obj, new MDLongArray(array, dimensions));
                             break;
                         }
                         default:
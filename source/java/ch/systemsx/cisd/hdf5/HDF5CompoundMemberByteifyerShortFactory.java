@@ -166,6 +166,7 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
             final long memberTypeId, final Rank rank, final HDF5DataTypeVariant typeVariant)
     {
         ReflectionUtils.ensureAccessible(field);
+        final FieldAccessor accessor = FieldAccessor.create(field);
         return new HDF5MemberByteifyer(field, memberName, SHORT_SIZE * len, offset, memOffset,
                 false, typeVariant)
             {
@@ -194,18 +195,18 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
                     switch (rank)
                     {
                         case SCALAR:
-                            return HDFNativeData.shortToByte(field.getShort(obj));
+                            return HDFNativeData.shortToByte(accessor.getShort(obj));
                         case ARRAY1D:
-                            return HDFHelper.shortToByte((short[]) field.get(obj));
+                            return HDFHelper.shortToByte((short[]) accessor.get(obj));
                         case ARRAY2D:
                         {
-                            final short[][] array = (short[][]) field.get(obj);
+                            final short[][] array = (short[][]) accessor.get(obj);
                             MatrixUtils.checkMatrixDimensions(memberName, dimensions, array);
                             return HDFHelper.shortToByte(MatrixUtils.flatten(array));
                         }
                         case ARRAYMD:
                         {
-                            final MDShortArray array = (MDShortArray) field.get(obj);
+                            final MDShortArray array = (MDShortArray) accessor.get(obj);
                             MatrixUtils.checkMDArrayDimensions(memberName, dimensions, array);
                             return HDFHelper.shortToByte(array.getAsFlatArray());
                         }
@@ -214,6 +215,34 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
                     }
                 }
 
+                @Override
+                int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer,
+                        int recordOffset) throws IllegalAccessException
+                {
+                    switch (rank)
+                    {
+                        case SCALAR:
+                            NativeByteUtils.putShort(buffer, recordOffset + offsetInMemory,
+                                    accessor.getShort(obj));
+                            return 2;
+                        case ARRAY1D:
+                        {
+                            final short[] array = (short[]) accessor.get(obj);
+                            final int n = Math.min(array.length, len);
+                            int bufferOffset = recordOffset + offsetInMemory;
+                            for (int i = 0; i < n; ++i)
+                            {
+                                NativeByteUtils.putShort(buffer, bufferOffset, array[i]);
+                                bufferOffset += 2;
+                            }
+                            return 2 * array.length;
+                        }
+                        default:
+                            return super.byteifyInto(compoundDataTypeId, obj, buffer,
+                                    recordOffset);
+                    }
+                }
+
                 @Override
                 public void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
                         int arrayOffset) throws IllegalAccessException
@@ -221,11 +250,11 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
                     switch (rank)
                     {
                         case SCALAR:
-                            field.setShort(obj,
+                            accessor.setShort(obj,
                                     HDFNativeData.byteToShort(byteArr, arrayOffset + offsetInMemory));
                             break;
                         case ARRAY1D:
-                            field.set(obj, HDFHelper.byteToShort(byteArr, arrayOffset
+                            accessor.set(obj, HDFHelper.byteToShort(byteArr, arrayOffset
                                     + offsetInMemory, len));
                             break;
                         case ARRAY2D:
@@ -233,7 +262,7 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
                             final short[] array =
                                     HDFHelper
                                             .byteToShort(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, MatrixUtils.shapen(array, dimensions));
+                            accessor.set(obj, MatrixUtils.shapen(array, dimensions));
                             break;
                         }
                         case ARRAYMD:
@@ -241,7 +270,7 @@ class HDF5CompoundMemberByteifyerShortFactory implements IHDF5CompoundMemberByti
                             final short[] array =
                                     HDFHelper
                                             .byteToShort(byteArr, arrayOffset + offsetInMemory, len);
-                            field.set(obj, new MDShortArray(array, dimensions));
+                            accessor.set(obj, new MDShortArray(array, dimensions));
                             break;
                         }
                         default:
@@ -19,7 +19,15 @@ package ch.systemsx.cisd.hdf5;
 import static hdf.hdf5lib.HDF5Constants.H5T_ARRAY;
 import static hdf.hdf5lib.HDF5Constants.H5T_COMPOUND;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import hdf.hdf5lib.exceptions.HDF5JavaException;
 
@@ -29,6 +37,7 @@ import ch.systemsx.cisd.hdf5.HDF5BaseReader.DataSpaceParameters;
 import ch.systemsx.cisd.hdf5.HDF5DataTypeInformation.DataTypeInfoOptions;
 import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
 import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+import ch.systemsx.cisd.hdf5.hdf5lib.HDFHelper;
 
 /**
  * The implementation of {@link IHDF5CompoundReader}.
@@ -346,6 +355,173 @@ class HDF5CompoundReader extends HDF5CompoundInformationRetriever implements IHD
         return primReadCompoundArray(objectPath, blockSize, offset, type, inspectorOrNull);
     }
 
+    @Override
+    public <T> IHDF5CompoundCursor<T> getCursor(final String objectPath,
+            final HDF5CompoundType<T> type) throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        final HDF5DataSetInformation info = baseReader.getDataSetInformation(objectPath);
+        return getCursor(objectPath, type, HDF5CompoundCursor.getDefaultBlockSize(
+                info.tryGetChunkSizes(), type.getRecordSizeInMemory()));
+    }
+
+    @Override
+    public <T> IHDF5CompoundCursor<T> getCursor(final String objectPath,
+            final HDF5CompoundType<T> type, final int blockSize) throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        type.check(baseReader.fileId);
+        if (blockSize <= 0)
+        {
+            throw new HDF5JavaException("Block size needs to be positive, but is " + blockSize
+                    + ".");
+        }
+        final HDF5DataSet dataSet = baseReader.openDataSet(objectPath);
+        try
+        {
+            baseReader.h5.checkRank(1, dataSet.getRank());
+            checkCompoundType(dataSet.getDataTypeId(), objectPath, type);
+            return new HDF5CompoundCursor<T>(baseReader, dataSet, type, blockSize);
+        } catch (RuntimeException ex)
+        {
+            dataSet.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public <T> IHDF5CompoundCursor<T> getCursor(final String objectPath, final Class<T> pojoClass)
+            throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        final HDF5CompoundType<T> dataSetCompoundType = getDataSetType(objectPath, pojoClass);
+        dataSetCompoundType.checkMappingComplete();
+        return getCursor(objectPath, dataSetCompoundType);
+    }
+
+    @Override
+    public Map<String, Object> readColumns(final String objectPath, final String... memberNames)
+            throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        return primReadColumns(objectPath, memberNames, -1, -1);
+    }
+
+    @Override
+    public Map<String, Object> readColumnsBlock(final String objectPath,
+            final String[] memberNames, final int blockSize, final long blockNumber)
+            throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        return primReadColumns(objectPath, memberNames, blockSize, blockSize * blockNumber);
+    }
+
+    @Override
+    public Map<String, Object> readColumnsBlockWithOffset(final String objectPath,
+            final String[] memberNames, final int blockSize, final long offset)
+            throws HDF5JavaException
+    {
+        baseReader.checkOpen();
+        return primReadColumns(objectPath, memberNames, blockSize, offset);
+    }
+
+    private Map<String, Object> primReadColumns(final String objectPath,
+            final String[] memberNames, final int blockSize, final long offset)
+            throws HDF5JavaException
+    {
+        final ICallableWithCleanUp<Map<String, Object>> readRunnable =
+                new ICallableWithCleanUp<Map<String, Object>>()
+                    {
+                        @Override
+                        public Map<String, Object> call(final ICleanUpRegistry registry)
+                        {
+                            final long dataSetId = baseReader.openDataSetId(objectPath, registry);
+                            final long storageDataTypeId =
+                                    baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
+                            if (baseReader.h5.getClassType(storageDataTypeId) != H5T_COMPOUND)
+                            {
+                                throw new HDF5JavaException("Data set '" + objectPath
+                                        + "' is no compound.");
+                            }
+                            final List<String> storageMemberNames =
+                                    Arrays.asList(baseReader.h5
+                                            .getNamesForEnumOrCompoundMembers(storageDataTypeId));
+                            final HDF5CompoundColumn[] columns =
+                                    new HDF5CompoundColumn[memberNames.length];
+                            final Set<String> seenMemberNames = new HashSet<String>();
+                            int recordSize = 0;
+                            int maxElementSize = 0;
+                            final int[] vlMemberOffsets = new int[memberNames.length];
+                            int numberOfVLMembers = 0;
+                            for (int i = 0; i < memberNames.length; ++i)
+                            {
+                                final int memberIndex = storageMemberNames.indexOf(memberNames[i]);
+                                if (memberIndex < 0)
+                                {
+                                    throw new HDF5JavaException("Data set '" + objectPath
+                                            + "' has no compound member '" + memberNames[i]
+                                            + "'.");
+                                }
+                                if (seenMemberNames.add(memberNames[i]) == false)
+                                {
+                                    throw new HDF5JavaException("Compound member '"
+                                            + memberNames[i] + "' requested twice.");
+                                }
+                                columns[i] =
+                                        HDF5CompoundColumn.create(baseReader, storageDataTypeId,
+                                                memberIndex, memberNames[i], objectPath,
+                                                recordSize, registry);
+                                recordSize = columns[i].getEndOffset();
+                                maxElementSize =
+                                        Math.max(maxElementSize,
+                                                columns[i].getElementSizeForPadding());
+                                if (columns[i].isVariableLengthString())
+                                {
+                                    vlMemberOffsets[numberOfVLMembers++] = columns[i].getOffset();
+                                }
+                            }
+                            final Map<String, Object> result =
+                                    new LinkedHashMap<String, Object>(columns.length * 2);
+                            if (columns.length == 0)
+                            {
+                                return result;
+                            }
+                            recordSize = PaddingUtils.padOffset(recordSize, maxElementSize);
+                            final long nativeDataTypeId =
+                                    baseReader.h5.createDataTypeCompound(recordSize, registry);
+                            for (HDF5CompoundColumn column : columns)
+                            {
+                                column.insertNativeType(nativeDataTypeId);
+                            }
+                            final DataSpaceParameters spaceParams =
+                                    baseReader.getSpaceParameters(dataSetId, offset, blockSize,
+                                            registry);
+                            final byte[] byteArr = new byte[spaceParams.blockSize * recordSize];
+                            baseReader.h5.readDataSet(dataSetId, nativeDataTypeId,
+                                    spaceParams.memorySpaceId, spaceParams.dataSpaceId, byteArr);
+                            final ByteBuffer buffer =
+                                    ByteBuffer.wrap(byteArr).order(ByteOrder.nativeOrder());
+                            try
+                            {
+                                for (HDF5CompoundColumn column : columns)
+                                {
+                                    result.put(column.getMemberName(), column.extract(byteArr,
+                                            buffer, recordSize, spaceParams.blockSize));
+                                }
+                            } finally
+                            {
+                                if (numberOfVLMembers > 0)
+                                {
+                                    HDFHelper.freeCompoundVLStr(byteArr, recordSize,
+                                            Arrays.copyOf(vlMemberOffsets, numberOfVLMembers));
+                                }
+                            }
+                            return result;
+                        }
+                    };
+        return baseReader.runner.call(readRunnable);
+    }
+
     @Override
     public <T> Iterable<HDF5DataBlock<T[]>> getArrayBlocks(final String objectPath,
             final HDF5CompoundType<T> type) throws HDF5JavaException
@@ -429,7 +605,7 @@ class HDF5CompoundReader extends HDF5CompoundInformationRetriever implements IHD
                 public T call(final ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long storageDataTypeId =
                             baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                     checkCompoundType(storageDataTypeId, objectPath, type);
@@ -464,7 +640,7 @@ class HDF5CompoundReader extends HDF5CompoundInformationRetriever implements IHD
                 public T[] call(final ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long storageDataTypeId =
                             baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                     checkCompoundType(storageDataTypeId, objectPath, type);
@@ -576,8 +752,7 @@ class HDF5CompoundReader extends HDF5CompoundInformationRetriever implements IHD
                         public MDArray<T> call(final ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final long storageDataTypeId =
                                     baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                             checkCompoundType(storageDataTypeId, objectPath, type);
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import ch.systemsx.cisd.hdf5.HDF5CompoundMappingHints.EnumReturnType;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * A bounded cache of the {@link HDF5CompoundType}s that are inferred from a Java class, so that
+ * the reflection and the creation of the byteifyers and native data types is done only once per
+ * file rather than on every class-based read.
+ * <p>
+ * The types are keyed by the Java class, the mapping hints and the on-disk data type. Their data
+ * type ids are registered with the file registry, so they stay valid until the file is closed,
+ * also when a type is evicted from the cache.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5CompoundTypeCache
+{
+    /** The maximal number of types kept in the cache. */
+    static final int MAX_SIZE = 256;
+
+    /**
+     * The key of a cached type. The hints are copied as they are mutable.
+     */
+    static final class Key
+    {
+        private final Class<?> pojoClass;
+
+        private final String nameOrNull;
+
+        private final boolean requireTypesToBeEqual;
+
+        private final EnumReturnType enumReturnType;
+
+        private final boolean useVariableLengthStrings;
+
+        private final Map<String, HDF5EnumerationType> enumTypeMapOrNull;
+
+        private final byte[] storageTypeEncodingOrNull;
+
+        private final int hashCode;
+
+        /**
+         * Creates a key.
+         * 
+         * @param pojoClass The Java class of the type.
+         * @param nameOrNull The name of the type, or the path of the committed data type of the
+         *            data set, if any.
+         * @param hintsOrNull The mapping hints, if any.
+         * @param requireTypesToBeEqual Whether the type requires the types to be equal when
+         *            reading.
+         * @param storageTypeEncodingOrNull The encoding of the on-disk data type, or
+         *            <code>null</code>, if the type is not inferred from a data set.
+         */
+        Key(Class<?> pojoClass, String nameOrNull, HDF5CompoundMappingHints hintsOrNull,
+                boolean requireTypesToBeEqual, byte[] storageTypeEncodingOrNull)
+        {
+            assert pojoClass != null;
+
+            this.pojoClass = pojoClass;
+            this.nameOrNull = nameOrNull;
+            this.requireTypesToBeEqual = requireTypesToBeEqual;
+            this.enumReturnType =
+                    (hintsOrNull == null) ? null : hintsOrNull.getEnumReturnType();
+            this.useVariableLengthStrings =
+                    HDF5CompoundMappingHints.isUseVariableLengthStrings(hintsOrNull);
+            final Map<String, HDF5EnumerationType> enumTypeMapOrNull =
+                    (hintsOrNull == null) ? null : hintsOrNull.tryGetEnumTypeMap();
+            this.enumTypeMapOrNull =
+                    (enumTypeMapOrNull == null) ? null
+                            : new HashMap<String, HDF5EnumerationType>(enumTypeMapOrNull);
+            this.storageTypeEncodingOrNull = storageTypeEncodingOrNull;
+            this.hashCode =
+                    Objects.hash(pojoClass, nameOrNull, requireTypesToBeEqual, enumReturnType,
+                            useVariableLengthStrings, this.enumTypeMapOrNull)
+                            * 31 + Arrays.hashCode(storageTypeEncodingOrNull);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass())
+            {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return pojoClass == other.pojoClass
+                    && Objects.equals(nameOrNull, other.nameOrNull)
+                    && requireTypesToBeEqual == other.requireTypesToBeEqual
+                    && enumReturnType == other.enumReturnType
+                    && useVariableLengthStrings == other.useVariableLengthStrings
+                    && Objects.equals(enumTypeMapOrNull, other.enumTypeMapOrNull)
+                    && Arrays.equals(storageTypeEncodingOrNull, other.storageTypeEncodingOrNull);
+        }
+    }
+
+    private final LinkedHashMap<Key, HDF5CompoundType<?>> types;
+
+    HDF5CompoundTypeCache(ICleanUpRegistry fileRegistry)
+    {
+        this.types = new LinkedHashMap<Key, HDF5CompoundType<?>>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, HDF5CompoundType<?>> eldest)
+                {
+                    return size() > MAX_SIZE;
+                }
+            };
+        fileRegistry.registerCleanUp(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    clear();
+                }
+            });
+    }
+
+    /**
+     * Returns the type cached for <var>key</var>, or <code>null</code>, if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <T> HDF5CompoundType<T> tryGet(Key key)
+    {
+        return (HDF5CompoundType<T>) types.get(key);
+    }
+
+    /**
+     * Caches <var>type</var> for <var>key</var>.
+     */
+    synchronized void put(Key key, HDF5CompoundType<?> type)
+    {
+        types.put(key, type);
+    }
+
+    /**
+     * Removes all types from the cache.
+     */
+    synchronized void clear()
+    {
+        types.clear();
+    }
+
+}
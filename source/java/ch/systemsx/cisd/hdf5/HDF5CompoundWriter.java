@@ -20,6 +20,8 @@ import static hdf.hdf5lib.H5.H5Dwrite;
 import static hdf.hdf5lib.HDF5Constants.H5P_DEFAULT;
 import static hdf.hdf5lib.HDF5Constants.H5S_ALL;
 
+import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -93,6 +95,19 @@ class HDF5CompoundWriter extends HDF5CompoundReader implements IHDF5CompoundWrit
         return getType(null, true, pojoClass, true, members);
     }
 
+    @Override
+    public <T> HDF5CompoundType<T> getInferredType(String name, Class<T> pojoClass,
+            HDF5CompoundMappingHints hints, boolean requireTypesToBeEqual)
+    {
+        // Named types are committed to the file, so they are not taken from the type cache.
+        return getType(
+                name,
+                pojoClass,
+                requireTypesToBeEqual,
+                addEnumTypes(HDF5CompoundMemberMapping.addHints(
+                        HDF5CompoundMemberMapping.inferMapping(pojoClass), hints)));
+    }
+
     @Override
     public <T> HDF5CompoundType<T> getInferredAnonType(Class<T> pojoClass,
             HDF5CompoundMappingHints hints)
@@ -694,6 +709,76 @@ class HDF5CompoundWriter extends HDF5CompoundReader implements IHDF5CompoundWrit
         baseWriter.runner.call(writeRunnable);
     }
 
+    @Override
+    public <T> IHDF5Appender<T[]> createAppender(String objectPath, HDF5CompoundType<T> type,
+            int chunkSize)
+    {
+        return createAppender(objectPath, type, chunkSize,
+                HDF5GenericStorageFeatures.GENERIC_NO_COMPRESSION);
+    }
+
+    @Override
+    public <T> IHDF5Appender<T[]> createAppender(final String objectPath,
+            final HDF5CompoundType<T> type, final int chunkSize,
+            final HDF5GenericStorageFeatures features)
+    {
+        assert objectPath != null;
+        assert type != null;
+        assert chunkSize > 0;
+
+        baseWriter.checkOpen();
+        type.check(baseWriter.fileId);
+        final HDF5DataSet dataSet =
+                baseWriter.createDataSet(objectPath, type.getStorageTypeId(), features,
+                        new long[]
+                            { 0 }, new long[]
+                            { chunkSize }, type.getObjectByteifyer().getRecordSizeOnDisk());
+        @SuppressWarnings("unchecked")
+        final T[] buffer = (T[]) Array.newInstance(type.getCompoundType(), chunkSize);
+        return new HDF5Appender<T[]>(baseWriter, dataSet, buffer)
+            {
+                @Override
+                void writeBlock(T[] data, int length, long offset)
+                {
+                    writeArrayBlockWithOffset(dataSet, type, data, length, offset);
+                }
+            };
+    }
+
+    /**
+     * Writes the first <var>length</var> elements of <var>data</var> to <var>dataSet</var>,
+     * starting at <var>offset</var>. The data set has to be large enough to hold them.
+     */
+    private <T> void writeArrayBlockWithOffset(final HDF5DataSet dataSet,
+            final HDF5CompoundType<T> type, final T[] data, final int length, final long offset)
+    {
+        baseWriter.checkOpen();
+        final long[] dimensions = new long[]
+            { length };
+        final long[] offsetArray = new long[]
+            { offset };
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(final ICleanUpRegistry registry)
+                {
+                    final long dataSpaceId =
+                            baseWriter.h5.getDataSpaceForDataSet(dataSet.getDataSetId(), registry);
+                    baseWriter.h5.setHyperslabBlock(dataSpaceId, offsetArray, dimensions);
+                    final long memorySpaceId =
+                            baseWriter.h5.createSimpleDataSpace(dimensions, registry);
+                    final T[] block = (length == data.length) ? data : Arrays.copyOf(data, length);
+                    final byte[] byteArray =
+                            type.getObjectByteifyer().byteify(type.getStorageTypeId(), block);
+                    H5Dwrite(dataSet.getDataSetId(), type.getNativeTypeId(), memorySpaceId,
+                            dataSpaceId, H5P_DEFAULT, byteArray);
+                    baseWriter.h5.reclaimCompoundVL(type, byteArray);
+                    return null; // Nothing to return.
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
     @Override
     public <T> void writeMDArray(final String objectPath, final HDF5CompoundType<T> type,
             final MDArray<T> data)
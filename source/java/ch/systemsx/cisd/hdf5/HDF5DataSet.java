@@ -80,6 +80,14 @@ public class HDF5DataSet implements AutoCloseable
     
     private int fullRank;
 
+    // Scratch arrays for selecting 1d blocks, re-used in order to avoid allocations on block reads.
+
+    private final long[] blockOffset1D = new long[1];
+
+    private final long[] blockShape1D = new long[1];
+
+    private final long[] zeroOffset1D = new long[1];
+
     HDF5DataSet(HDF5BaseReader baseReader, String datasetPath, long dataSetId, long dataSpaceId, long[] dimensions,
             long[] maxDimensionsOrNull, HDF5StorageLayout layout, boolean ownDataSpaceId)
     {
@@ -127,13 +135,40 @@ public class HDF5DataSet implements AutoCloseable
         if (false == Arrays.equals(this.memoryBlockDimensions, memoryBlockDimensions))
         {
             closeMemorySpaceId();
-            this.memoryBlockDimensions = memoryBlockDimensions;
+            this.memoryBlockDimensions = memoryBlockDimensions.clone();
             this.memorySpaceId = H5Screate_simple(memoryBlockDimensions.length, memoryBlockDimensions, null);
         }
         H5.H5Sselect_all(memorySpaceId);
         return memorySpaceId;
     }
 
+    /**
+     * Returns a scratch array holding <var>offset</var>. The array is re-used by subsequent calls.
+     */
+    long[] getBlockOffset1D(long offset)
+    {
+        blockOffset1D[0] = offset;
+        return blockOffset1D;
+    }
+
+    /**
+     * Returns a scratch array holding <var>blockSize</var>. The array is re-used by subsequent calls.
+     */
+    long[] getBlockShape1D(long blockSize)
+    {
+        blockShape1D[0] = blockSize;
+        return blockShape1D;
+    }
+
+    /**
+     * Returns a scratch array holding offset 0.
+     */
+    long[] getZeroOffset1D()
+    {
+        zeroOffset1D[0] = 0L;
+        return zeroOffset1D;
+    }
+
     long[] getDimensions()
     {
         return dimensions;
@@ -184,6 +219,20 @@ public class HDF5DataSet implements AutoCloseable
         }
     }
 
+    /**
+     * Sets the dimensions of this data set to <var>newDimensions</var>, which may also cut it down.
+     */
+    void setExtent(long[] newDimensions)
+    {
+        if (false == Arrays.equals(dimensions, newDimensions))
+        {
+            h5.extendDataSet(this, newDimensions, true);
+            closeDataSpaceId();
+            this.dimensions = newDimensions;
+            this.dataSpaceId = h5.getDataSpaceForDataSet(dataSetId, null);
+        }
+    }
+
     long getDataTypeId()
     {
         if (dataTypeId == -1)
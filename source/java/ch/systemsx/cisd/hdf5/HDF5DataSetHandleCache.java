@@ -0,0 +1,132 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, SIS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import hdf.hdf5lib.H5;
+
+import ch.systemsx.cisd.hdf5.cleanup.CloseKind;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * A bounded cache of the {@link HDF5DataSet}s that the path-based methods of the readers access,
+ * keyed by absolute data set path. When the cache is full, the data set that has been accessed least
+ * recently is closed.
+ * <p>
+ * Each id handed out by {@link #openDataSetId(String, ICleanUpRegistry)} holds its own reference
+ * to the data set, so that a data set that is evicted or invalidated while it is being read is
+ * only closed by the HDF5 library when the read has finished.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5DataSetHandleCache
+{
+    private final HDF5BaseReader baseReader;
+
+    private final LinkedHashMap<String, HDF5DataSet> dataSets;
+
+    HDF5DataSetHandleCache(HDF5BaseReader baseReader, final int maxSize,
+            ICleanUpRegistry fileRegistry)
+    {
+        assert maxSize > 0;
+
+        this.baseReader = baseReader;
+        this.dataSets = new LinkedHashMap<String, HDF5DataSet>(16, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, HDF5DataSet> eldest)
+                {
+                    if (size() > maxSize)
+                    {
+                        eldest.getValue().close();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        fileRegistry.registerCleanUp(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    clear();
+                }
+            });
+    }
+
+    /**
+     * Returns the id of the data set <var>objectPath</var>, opening the data set if it is not yet
+     * in the cache. The returned id is registered for closing with <var>registry</var>.
+     */
+    synchronized long openDataSetId(String objectPath, ICleanUpRegistry registry)
+    {
+        final String path = normalize(objectPath);
+        HDF5DataSet dataSet = dataSets.get(path);
+        if (dataSet == null)
+        {
+            dataSet = baseReader.openDataSetHandle(path, baseReader.chunkCacheSettings, registry);
+            dataSets.put(path, dataSet);
+        }
+        final long dataSetId = dataSet.getDataSetId();
+        H5.H5Iinc_ref(dataSetId);
+        registry.registerClose(CloseKind.DATA_SET, dataSetId);
+        return dataSetId;
+    }
+
+    /**
+     * Closes and removes the data sets of <var>objectPath</var> and all objects below it.
+     */
+    synchronized void invalidate(String objectPath)
+    {
+        final String path = normalize(objectPath);
+        final String prefix = path.endsWith("/") ? path : path + "/";
+        final Iterator<Map.Entry<String, HDF5DataSet>> it = dataSets.entrySet().iterator();
+        while (it.hasNext())
+        {
+            final Map.Entry<String, HDF5DataSet> entry = it.next();
+            final String cachedPath = entry.getKey();
+            if (cachedPath.equals(path) || cachedPath.startsWith(prefix))
+            {
+                entry.getValue().close();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Closes and removes all data sets.
+     */
+    synchronized void clear()
+    {
+        for (HDF5DataSet dataSet : dataSets.values())
+        {
+            dataSet.close();
+        }
+        dataSets.clear();
+    }
+
+    private static String normalize(String objectPath)
+    {
+        return objectPath.startsWith("/") ? objectPath : "/" + objectPath;
+    }
+
+}
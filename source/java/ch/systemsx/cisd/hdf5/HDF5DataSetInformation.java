@@ -48,6 +48,20 @@ public final class HDF5DataSetInformation
         }
     }
 
+    /**
+     * Returns a copy of this information that shares no mutable state with it.
+     */
+    HDF5DataSetInformation copy()
+    {
+        final HDF5DataSetInformation copy =
+                new HDF5DataSetInformation(typeInformation.copy(), null);
+        copy.dimensions = (dimensions == null) ? null : dimensions.clone();
+        copy.maxDimensions = (maxDimensions == null) ? null : maxDimensions.clone();
+        copy.storageLayout = storageLayout;
+        copy.chunkSizesOrNull = (chunkSizesOrNull == null) ? null : chunkSizesOrNull.clone();
+        return copy;
+    }
+
     /**
      * Returns the data type information for the data set.
      */
@@ -214,6 +214,31 @@ public final class HDF5DataTypeInformation
         this.options = options;
     }
 
+    private HDF5DataTypeInformation(HDF5DataTypeInformation info)
+    {
+        this.arrayType = info.arrayType;
+        this.signed = info.signed;
+        this.variableLengthString = info.variableLengthString;
+        this.dataTypePathOrNull = info.dataTypePathOrNull;
+        this.nameOrNull = info.nameOrNull;
+        this.dataClass = info.dataClass;
+        this.elementSize = info.elementSize;
+        this.numberOfElements = info.numberOfElements;
+        this.encoding = info.encoding;
+        this.dimensions = info.dimensions.clone();
+        this.opaqueTagOrNull = info.opaqueTagOrNull;
+        this.options = info.options;
+        this.typeVariantOrNull = info.typeVariantOrNull;
+    }
+
+    /**
+     * Returns a copy of this information that shares no mutable state with it.
+     */
+    HDF5DataTypeInformation copy()
+    {
+        return new HDF5DataTypeInformation(this);
+    }
+
     /**
      * Returns the raw data class (<code>INTEGER</code>, <code>FLOAT</code>, ...) of this type.
      * <p>
@@ -172,7 +172,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public Long call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final long[] data = new long[1];
                     baseReader.h5.readDataSet(dataSetId, H5T_NATIVE_INT64, data);
@@ -194,7 +194,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, registry);
@@ -220,7 +220,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, blockNumber * blockSize,
@@ -247,7 +247,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
@@ -285,7 +285,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                         public MDLongArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                             baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                             return longReader.readLongMDArray(dataSetId, registry);
                         }
@@ -320,7 +320,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                         public MDLongArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, offset, blockDimensions, 
@@ -346,7 +346,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
@@ -375,7 +375,7 @@ class HDF5DateTimeReader implements IHDF5DateTimeReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     baseReader.checkIsTimeStamp(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
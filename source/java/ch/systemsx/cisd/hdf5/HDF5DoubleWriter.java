@@ -24,6 +24,9 @@ import static hdf.hdf5lib.HDF5Constants.H5S_ALL;
 import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_DOUBLE;
 import static hdf.hdf5lib.HDF5Constants.H5T_IEEE_F64LE;
 
+import java.nio.ByteBuffer;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
 import ch.systemsx.cisd.base.mdarray.MDArray;
 import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
 import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
@@ -379,6 +382,31 @@ class HDF5DoubleWriter extends HDF5DoubleReader implements IHDF5DoubleWriter
                     { blockSize }, 8);
     }
 
+    @Override
+    public IHDF5Appender<double[]> createAppender(String objectPath, int chunkSize)
+    {
+        return createAppender(objectPath, chunkSize, FLOAT_NO_COMPRESSION);
+    }
+
+    @Override
+    public IHDF5Appender<double[]> createAppender(final String objectPath, final int chunkSize,
+            final HDF5FloatStorageFeatures features)
+    {
+        assert objectPath != null;
+        assert chunkSize > 0;
+
+        baseWriter.checkOpen();
+        final HDF5DataSet dataSet = createArrayAndOpen(objectPath, 0L, chunkSize, features);
+        return new HDF5Appender<double[]>(baseWriter, dataSet, new double[chunkSize])
+            {
+                @Override
+                void writeBlock(double[] data, int length, long offset)
+                {
+                    writeArrayBlockWithOffset(dataSet, data, length, offset);
+                }
+            };
+    }
+
     @Override
     public void writeArrayBlock(final String objectPath, final double[] data,
             final long blockNumber)
@@ -464,6 +492,90 @@ class HDF5DoubleWriter extends HDF5DoubleReader implements IHDF5DoubleWriter
         baseWriter.runner.call(writeRunnable);
     }
 
+    @Override
+    public void writeFromBuffer(final HDF5DataSet dataSet, final ByteBuffer buffer,
+            final long offset)
+    {
+        assert dataSet != null;
+        assert buffer != null;
+
+        baseWriter.checkOpen();
+        baseWriter.h5.checkRank(1, dataSet.getRank());
+        final int dataSize = buffer.remaining() / 8;
+        if (dataSize == 0)
+        {
+            return;
+        }
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    final long[] blockDimensions = new long[]
+                        { dataSize };
+                    final long[] slabStartOrNull = new long[]
+                        { offset };
+                    final long[] requiredDimensions = new long[]
+                        { offset + dataSize };
+                    if (baseWriter.h5.extendDataSet(dataSet, requiredDimensions, false, registry))
+                    {
+                        dataSet.setDimensions(requiredDimensions);
+                    }
+                    final long dataSpaceId =
+                            baseWriter.h5.getDataSpaceForDataSet(dataSet.getDataSetId(), registry);
+                    baseWriter.h5.setHyperslabBlock(dataSpaceId, slabStartOrNull, blockDimensions);
+                    final long memorySpaceId =
+                            baseWriter.h5.createSimpleDataSpace(blockDimensions, registry);
+                    baseWriter.h5.writeDataSet(dataSet.getDataSetId(), H5T_NATIVE_DOUBLE, memorySpaceId,
+                            dataSpaceId, buffer);
+                    buffer.position(buffer.position() + dataSize * 8);
+                    return null; // Nothing to return.
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
+    @Override
+    public void writeMDArrayBlockWithOffsetFromBuffer(final HDF5DataSet dataSet,
+            final long[] blockDimensions, final long[] offset, final ByteBuffer buffer)
+    {
+        assert dataSet != null;
+        assert blockDimensions != null;
+        assert offset != null;
+        assert buffer != null;
+
+        baseWriter.checkOpen();
+        baseWriter.h5.checkRank(blockDimensions.length, offset.length);
+        baseWriter.h5.checkRank(blockDimensions.length, dataSet.getRank());
+        final long dataSize = MatrixUtils.getLength(blockDimensions);
+        baseWriter.h5.checkBufferSize(buffer, 8, dataSize);
+        if (dataSize == 0)
+        {
+            return;
+        }
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    final long[] dataSetDimensions = new long[blockDimensions.length];
+                    for (int i = 0; i < offset.length; ++i)
+                    {
+                        dataSetDimensions[i] = offset[i] + blockDimensions[i];
+                    }
+                    dataSet.extend(dataSetDimensions);
+                    final long dataSpaceId = dataSet.getDataSpaceId();
+                    baseWriter.h5.setHyperslabBlock(dataSpaceId, offset, blockDimensions);
+                    final long memorySpaceId = dataSet.getMemorySpaceId(blockDimensions);
+                    baseWriter.h5.writeDataSet(dataSet.getDataSetId(), H5T_NATIVE_DOUBLE,
+                            memorySpaceId, dataSpaceId, buffer);
+                    buffer.position(buffer.position() + (int) dataSize * 8);
+                    return null; // Nothing to return.
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
     /**
      * Writes out a <code>double</code> matrix (array of rank 2).
      * 
@@ -139,8 +139,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationType call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, dataSetPath,
-                                            registry);
+                                    baseReader.openDataSetId(dataSetPath, registry);
                             return getEnumTypeForDataSetId(dataSetId, dataSetPath,
                                     baseReader.isScaledEnum(dataSetId, registry), registry);
                         }
@@ -178,8 +177,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationType call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, dataSetPath,
-                                            registry);
+                                    baseReader.openDataSetId(dataSetPath, registry);
                             final long attributeId =
                                     baseReader.h5.openAttribute(dataSetId, attributeName, registry);
                             final long storageDataTypeId =
@@ -380,7 +378,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                 public String call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long storageDataTypeId =
                             baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                     final long nativeDataTypeId =
@@ -429,8 +427,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationValue call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5EnumerationType enumType =
                                     getEnumTypeForDataSetId(dataSetId, objectPath, false, registry);
                             return readEnumValue(dataSetId, enumType);
@@ -456,8 +453,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationValue call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             return readEnumValue(dataSetId, enumType);
                         }
                     };
@@ -491,8 +487,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationValueArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final long[] dimensions =
                                     baseReader.h5.getDataDimensions(dataSetId, registry);
                             final boolean scaledEnum = baseReader.isScaledEnum(dataSetId, registry);
@@ -543,8 +538,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationValueArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, offset, blockSize,
                                             registry);
@@ -630,8 +624,7 @@ class HDF5EnumReader implements IHDF5EnumReader
                         public HDF5EnumerationValueMDArray call(final ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final boolean scaledEnum = baseReader.isScaledEnum(dataSetId, registry);
                             final HDF5EnumerationType actualEnumType =
                                     (enumTypeOrNull == null) ? getEnumTypeForDataSetId(dataSetId,
@@ -22,6 +22,7 @@ import static ch.systemsx.cisd.hdf5.MatrixUtils.createFullBlockDimensionsAndOffs
 import static hdf.hdf5lib.HDF5Constants.H5T_ARRAY;
 import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_FLOAT;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
 
@@ -160,7 +161,7 @@ class HDF5FloatReader implements IHDF5FloatReader
                 public Float call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final float[] data = new float[1];
                     baseReader.h5.readDataSet(dataSetId, H5T_NATIVE_FLOAT, data);
                     return data[0];
@@ -175,13 +176,19 @@ class HDF5FloatReader implements IHDF5FloatReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_FLOAT, 0L, -1);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<float[]> readCallable = new ICallableWithCleanUp<float[]>()
             {
                 @Override
                 public float[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readFloatArray(dataSetId, registry);
                 }
             };
@@ -239,7 +246,7 @@ class HDF5FloatReader implements IHDF5FloatReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), registry);
@@ -295,7 +302,7 @@ class HDF5FloatReader implements IHDF5FloatReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), offset, blockDimensions, registry);
@@ -338,6 +345,37 @@ class HDF5FloatReader implements IHDF5FloatReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public java.nio.FloatBuffer tryMapArray(final String objectPath)
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_FLOAT, 0L, -1);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asFloatBuffer(mappedOrNull);
+    }
+
+    @Override
+    public java.nio.FloatBuffer tryMapArrayBlockWithOffset(final String objectPath,
+            final int blockSize, final long offset)
+    {
+        assert objectPath != null;
+        assert blockSize > 0;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_FLOAT, offset, blockSize);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asFloatBuffer(mappedOrNull);
+    }
+
+    private static float[] toArray(ByteBuffer mapped)
+    {
+        final float[] data = new float[mapped.remaining() / 4];
+        HDF5MemoryMapper.asFloatBuffer(mapped).get(data);
+        return data;
+    }
+
     @Override
     public float[] readArrayBlock(final String objectPath, final int blockSize,
             final long blockNumber)
@@ -358,13 +396,19 @@ class HDF5FloatReader implements IHDF5FloatReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_FLOAT, offset, blockSize);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<float[]> readCallable = new ICallableWithCleanUp<float[]>()
             {
                 @Override
                 public float[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
                     final float[] data = new float[spaceParams.blockSize];
@@ -399,6 +443,93 @@ class HDF5FloatReader implements IHDF5FloatReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public int readArrayBlockWithOffset(final HDF5DataSet dataSet, final float[] target,
+            final int targetOffset, final int count, final long offset)
+    {
+        assert dataSet != null;
+        assert target != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, target.length,
+                                    targetOffset);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_FLOAT, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, target);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public int readToBuffer(final HDF5DataSet dataSet, final ByteBuffer buffer, final long offset)
+    {
+        assert dataSet != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        final int count = buffer.remaining() / 4;
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, count, 0);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_FLOAT, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 4);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public long[] readMDArrayBlockWithOffsetToBuffer(final HDF5DataSet dataSet,
+            final long[] blockDimensions, final long[] offset, final ByteBuffer buffer)
+    {
+        assert dataSet != null;
+        assert blockDimensions != null;
+        assert offset != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(blockDimensions.length, offset.length);
+        baseReader.h5.checkRank(blockDimensions.length, dataSet.getRank());
+        final ICallableWithCleanUp<long[]> readCallable = new ICallableWithCleanUp<long[]>()
+            {
+                @Override
+                public long[] call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, blockDimensions);
+                    baseReader.h5.checkBufferSize(buffer, 4, spaceParams.blockSize);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_FLOAT,
+                            spaceParams.memorySpaceId, spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 4);
+                    return spaceParams.dimensions;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
     @Override
     public float[][] readMatrix(final String objectPath) throws HDF5JavaException
     {
@@ -546,7 +677,7 @@ class HDF5FloatReader implements IHDF5FloatReader
                 public MDFloatArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readFloatMDArray(dataSetId, registry);
                 }
             };
@@ -864,7 +995,7 @@ class HDF5FloatReader implements IHDF5FloatReader
                 public MDFloatArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     try
                     {
                         final DataSpaceParameters spaceParams =
@@ -937,6 +1068,13 @@ class HDF5FloatReader implements IHDF5FloatReader
     @Override
     public Iterable<HDF5DataBlock<float[]>> getArrayNaturalBlocks(final String dataSetPath)
             throws HDF5JavaException
+    {
+        return getArrayNaturalBlocks(dataSetPath, false);
+    }
+
+    @Override
+    public Iterable<HDF5DataBlock<float[]>> getArrayNaturalBlocks(final String dataSetPath,
+            final boolean reuseBuffer) throws HDF5JavaException
     {
         baseReader.checkOpen();
         final HDF5NaturalBlock1DParameters params =
@@ -954,6 +1092,8 @@ class HDF5FloatReader implements IHDF5FloatReader
                             final HDF5NaturalBlock1DParameters.HDF5NaturalBlock1DIndex index =
                                     params.getNaturalBlockIndex();
 
+                            float[] bufferOrNull;
+
                             @Override
                             public boolean hasNext()
                             {
@@ -964,9 +1104,20 @@ class HDF5FloatReader implements IHDF5FloatReader
                             public HDF5DataBlock<float[]> next()
                             {
                                 final long offset = index.computeOffsetAndSizeGetOffset();
-                                final float[] block =
-                                        readArrayBlockWithOffset(dataSet, index
-                                                .getBlockSize(), offset);
+                                final int blockSize = index.getBlockSize();
+                                final float[] block;
+                                if (reuseBuffer)
+                                {
+                                    if (bufferOrNull == null || bufferOrNull.length != blockSize)
+                                    {
+                                        bufferOrNull = new float[blockSize];
+                                    }
+                                    block = bufferOrNull;
+                                    readArrayBlockWithOffset(dataSet, block, 0, blockSize, offset);
+                                } else
+                                {
+                                    block = readArrayBlockWithOffset(dataSet, blockSize, offset);
+                                }
                                 return new HDF5DataBlock<float[]>(block, index.getAndIncIndex(), 
                                         offset);
                             }
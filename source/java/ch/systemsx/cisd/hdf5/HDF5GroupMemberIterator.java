@@ -0,0 +1,126 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * An iterator over the members of a group in the order of the name index of the group that reads
+ * the members page by page, so that the memory needed doesn't depend on the size of the group.
+ * <p>
+ * The iteration can be stopped and resumed later with a new iterator that starts at
+ * {@link #getNextIndex()}. If the group is modified while iterating, members may be skipped or
+ * returned twice.
+ * <p>
+ * The pattern for using this class is:
+ *
+ * <pre>
+ * HDF5GroupMemberIterator it = reader.object().getGroupMemberInformationIterator(groupPath, false);
+ * while (it.hasNext())
+ * {
+ *     HDF5LinkInformation member = it.next();
+ *     ... work on member, store it.getNextIndex() where the iteration needs to be resumed ...
+ * }
+ * </pre>
+ *
+ * @author Bernd Rinn
+ */
+public final class HDF5GroupMemberIterator implements Iterator<HDF5LinkInformation>
+{
+    /** The default number of members to read in one page. */
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+
+    /** A reader of the pages of a group. */
+    interface IPageReader
+    {
+        HDF5GroupMemberPage read(long startIndex, int pageSize);
+    }
+
+    private final IPageReader pageReader;
+
+    private final int pageSize;
+
+    private HDF5GroupMemberPage pageOrNull;
+
+    private int indexInPage;
+
+    private long nextPageIndex;
+
+    private long nextIndex;
+
+    HDF5GroupMemberIterator(IPageReader pageReader, long startIndex, int pageSize)
+    {
+        assert pageReader != null;
+        assert startIndex >= 0;
+        assert pageSize > 0;
+
+        this.pageReader = pageReader;
+        this.pageSize = pageSize;
+        this.nextPageIndex = startIndex;
+        this.nextIndex = startIndex;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        while (pageOrNull == null || indexInPage == pageOrNull.getMembers().size())
+        {
+            if (nextPageIndex < 0)
+            {
+                return false;
+            }
+            pageOrNull = pageReader.read(nextPageIndex, pageSize);
+            indexInPage = 0;
+            nextPageIndex = pageOrNull.getNextIndex();
+        }
+        return true;
+    }
+
+    @Override
+    public HDF5LinkInformation next()
+    {
+        if (hasNext() == false)
+        {
+            throw new NoSuchElementException();
+        }
+        nextIndex = pageOrNull.getIndex(indexInPage) + 1;
+        return pageOrNull.getMembers().get(indexInPage++);
+    }
+
+    /**
+     * Returns the index in the name index of the group that an iterator needs to start with to
+     * continue after the last member returned by {@link #next()}.
+     */
+    public long getNextIndex()
+    {
+        return nextIndex;
+    }
+
+    /**
+     * Returns a {@link Spliterator} over the remaining members, e.g. for use with
+     * {@link java.util.stream.StreamSupport#stream(Spliterator, boolean)}.
+     */
+    public Spliterator<HDF5LinkInformation> spliterator()
+    {
+        return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED
+                | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+}
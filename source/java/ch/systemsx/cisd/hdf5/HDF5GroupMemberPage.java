@@ -0,0 +1,81 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of the members of a group, in the order of the name index of the group.
+ * <p>
+ * Obtain an object of this class from
+ * {@link IHDF5ObjectReadOnlyInfoProviderHandler#getGroupMemberInformationPage}
+ * and get the next page by calling the method again with {@link #getNextIndex()} as start index.
+ *
+ * @author Bernd Rinn
+ */
+public final class HDF5GroupMemberPage
+{
+    private final List<HDF5LinkInformation> members;
+
+    private final long[] indices;
+
+    private final long nextIndex;
+
+    HDF5GroupMemberPage(List<HDF5LinkInformation> members, long[] indices, long nextIndex)
+    {
+        this.members = Collections.unmodifiableList(members);
+        this.indices = indices;
+        this.nextIndex = nextIndex;
+    }
+
+    /**
+     * Returns the members of this page. The list may be shorter than the page size, as internal
+     * names are not part of it.
+     */
+    public List<HDF5LinkInformation> getMembers()
+    {
+        return members;
+    }
+
+    /**
+     * Returns the index of the <var>i</var>-th member of this page in the name index of the
+     * group.
+     */
+    public long getIndex(int i)
+    {
+        return indices[i];
+    }
+
+    /**
+     * Returns the index in the name index of the group to start the next page with, or -1, if
+     * this is the last page.
+     */
+    public long getNextIndex()
+    {
+        return nextIndex;
+    }
+
+    /**
+     * Returns <code>true</code>, if this is the last page of the group.
+     */
+    public boolean isLastPage()
+    {
+        return nextIndex < 0;
+    }
+
+}
@@ -22,6 +22,7 @@ import static ch.systemsx.cisd.hdf5.MatrixUtils.createFullBlockDimensionsAndOffs
 import static hdf.hdf5lib.HDF5Constants.H5T_ARRAY;
 import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT64;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Iterator;
 
@@ -160,7 +161,7 @@ class HDF5LongReader implements IHDF5LongReader
                 public Long call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long[] data = new long[1];
                     baseReader.h5.readDataSet(dataSetId, H5T_NATIVE_INT64, data);
                     return data[0];
@@ -175,13 +176,19 @@ class HDF5LongReader implements IHDF5LongReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT64, 0L, -1);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<long[]> readCallable = new ICallableWithCleanUp<long[]>()
             {
                 @Override
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readLongArray(dataSetId, registry);
                 }
             };
@@ -239,7 +246,7 @@ class HDF5LongReader implements IHDF5LongReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), registry);
@@ -295,7 +302,7 @@ class HDF5LongReader implements IHDF5LongReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getBlockSpaceParameters(dataSetId, memoryOffset, array
                                     .dimensions(), offset, blockDimensions, registry);
@@ -338,6 +345,37 @@ class HDF5LongReader implements IHDF5LongReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public java.nio.LongBuffer tryMapArray(final String objectPath)
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT64, 0L, -1);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asLongBuffer(mappedOrNull);
+    }
+
+    @Override
+    public java.nio.LongBuffer tryMapArrayBlockWithOffset(final String objectPath,
+            final int blockSize, final long offset)
+    {
+        assert objectPath != null;
+        assert blockSize > 0;
+
+        baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT64, offset, blockSize);
+        return (mappedOrNull == null) ? null : HDF5MemoryMapper.asLongBuffer(mappedOrNull);
+    }
+
+    private static long[] toArray(ByteBuffer mapped)
+    {
+        final long[] data = new long[mapped.remaining() / 8];
+        HDF5MemoryMapper.asLongBuffer(mapped).get(data);
+        return data;
+    }
+
     @Override
     public long[] readArrayBlock(final String objectPath, final int blockSize,
             final long blockNumber)
@@ -358,13 +396,19 @@ class HDF5LongReader implements IHDF5LongReader
         assert objectPath != null;
 
         baseReader.checkOpen();
+        final ByteBuffer mappedOrNull =
+                baseReader.tryMapBlock(objectPath, H5T_NATIVE_INT64, offset, blockSize);
+        if (mappedOrNull != null)
+        {
+            return toArray(mappedOrNull);
+        }
         final ICallableWithCleanUp<long[]> readCallable = new ICallableWithCleanUp<long[]>()
             {
                 @Override
                 public long[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
                     final long[] data = new long[spaceParams.blockSize];
@@ -399,6 +443,93 @@ class HDF5LongReader implements IHDF5LongReader
         return baseReader.runner.call(readCallable);
     }
 
+    @Override
+    public int readArrayBlockWithOffset(final HDF5DataSet dataSet, final long[] target,
+            final int targetOffset, final int count, final long offset)
+    {
+        assert dataSet != null;
+        assert target != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, target.length,
+                                    targetOffset);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT64, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, target);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public int readToBuffer(final HDF5DataSet dataSet, final ByteBuffer buffer, final long offset)
+    {
+        assert dataSet != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(1, dataSet.getRank());
+        final int count = buffer.remaining() / 8;
+        if (count == 0)
+        {
+            return 0;
+        }
+        final ICallableWithCleanUp<Integer> readCallable = new ICallableWithCleanUp<Integer>()
+            {
+                @Override
+                public Integer call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, count, count, 0);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT64, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 8);
+                    return spaceParams.blockSize;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public long[] readMDArrayBlockWithOffsetToBuffer(final HDF5DataSet dataSet,
+            final long[] blockDimensions, final long[] offset, final ByteBuffer buffer)
+    {
+        assert dataSet != null;
+        assert blockDimensions != null;
+        assert offset != null;
+        assert buffer != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.checkRank(blockDimensions.length, offset.length);
+        baseReader.h5.checkRank(blockDimensions.length, dataSet.getRank());
+        final ICallableWithCleanUp<long[]> readCallable = new ICallableWithCleanUp<long[]>()
+            {
+                @Override
+                public long[] call(ICleanUpRegistry registry)
+                {
+                    final DataSpaceParameters spaceParams =
+                            baseReader.getSpaceParameters(dataSet, offset, blockDimensions);
+                    baseReader.h5.checkBufferSize(buffer, 8, spaceParams.blockSize);
+                    baseReader.h5.readDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT64,
+                            spaceParams.memorySpaceId, spaceParams.dataSpaceId, buffer);
+                    buffer.position(buffer.position() + spaceParams.blockSize * 8);
+                    return spaceParams.dimensions;
+                }
+            };
+        return baseReader.runner.call(readCallable);
+    }
+
     @Override
     public long[][] readMatrix(final String objectPath) throws HDF5JavaException
     {
@@ -546,7 +677,7 @@ class HDF5LongReader implements IHDF5LongReader
                 public MDLongArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     return readLongMDArray(dataSetId, registry);
                 }
             };
@@ -864,7 +995,7 @@ class HDF5LongReader implements IHDF5LongReader
                 public MDLongArray call(ICleanUpRegistry registry)
                 {
                     final long dataSetId = 
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     try
                     {
                         final DataSpaceParameters spaceParams =
@@ -937,6 +1068,13 @@ class HDF5LongReader implements IHDF5LongReader
     @Override
     public Iterable<HDF5DataBlock<long[]>> getArrayNaturalBlocks(final String dataSetPath)
             throws HDF5JavaException
+    {
+        return getArrayNaturalBlocks(dataSetPath, false);
+    }
+
+    @Override
+    public Iterable<HDF5DataBlock<long[]>> getArrayNaturalBlocks(final String dataSetPath,
+            final boolean reuseBuffer) throws HDF5JavaException
     {
         baseReader.checkOpen();
         final HDF5NaturalBlock1DParameters params =
@@ -954,6 +1092,8 @@ class HDF5LongReader implements IHDF5LongReader
                             final HDF5NaturalBlock1DParameters.HDF5NaturalBlock1DIndex index =
                                     params.getNaturalBlockIndex();
 
+                            long[] bufferOrNull;
+
                             @Override
                             public boolean hasNext()
                             {
@@ -964,9 +1104,20 @@ class HDF5LongReader implements IHDF5LongReader
                             public HDF5DataBlock<long[]> next()
                             {
                                 final long offset = index.computeOffsetAndSizeGetOffset();
-                                final long[] block =
-                                        readArrayBlockWithOffset(dataSet, index
-                                                .getBlockSize(), offset);
+                                final int blockSize = index.getBlockSize();
+                                final long[] block;
+                                if (reuseBuffer)
+                                {
+                                    if (bufferOrNull == null || bufferOrNull.length != blockSize)
+                                    {
+                                        bufferOrNull = new long[blockSize];
+                                    }
+                                    block = bufferOrNull;
+                                    readArrayBlockWithOffset(dataSet, block, 0, blockSize, offset);
+                                } else
+                                {
+                                    block = readArrayBlockWithOffset(dataSet, blockSize, offset);
+                                }
                                 return new HDF5DataBlock<long[]>(block, index.getAndIncIndex(), 
                                         offset);
                             }
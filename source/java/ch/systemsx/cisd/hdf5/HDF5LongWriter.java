@@ -25,6 +25,9 @@ import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT64;
 import static hdf.hdf5lib.HDF5Constants.H5T_STD_I64LE;
 import static hdf.hdf5lib.HDF5Constants.H5T_STD_U64LE;
 
+import java.nio.ByteBuffer;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
 import ch.systemsx.cisd.base.mdarray.MDArray;
 import ch.systemsx.cisd.base.mdarray.MDLongArray;
 import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
@@ -380,6 +383,31 @@ class HDF5LongWriter extends HDF5LongReader implements IHDF5LongWriter
                     { blockSize }, 8);
     }
 
+    @Override
+    public IHDF5Appender<long[]> createAppender(String objectPath, int chunkSize)
+    {
+        return createAppender(objectPath, chunkSize, INT_NO_COMPRESSION);
+    }
+
+    @Override
+    public IHDF5Appender<long[]> createAppender(final String objectPath, final int chunkSize,
+            final HDF5IntStorageFeatures features)
+    {
+        assert objectPath != null;
+        assert chunkSize > 0;
+
+        baseWriter.checkOpen();
+        final HDF5DataSet dataSet = createArrayAndOpen(objectPath, 0L, chunkSize, features);
+        return new HDF5Appender<long[]>(baseWriter, dataSet, new long[chunkSize])
+            {
+                @Override
+                void writeBlock(long[] data, int length, long offset)
+                {
+                    writeArrayBlockWithOffset(dataSet, data, length, offset);
+                }
+            };
+    }
+
     @Override
     public void writeArrayBlock(final String objectPath, final long[] data,
             final long blockNumber)
@@ -465,6 +493,90 @@ class HDF5LongWriter extends HDF5LongReader implements IHDF5LongWriter
         baseWriter.runner.call(writeRunnable);
     }
 
+    @Override
+    public void writeFromBuffer(final HDF5DataSet dataSet, final ByteBuffer buffer,
+            final long offset)
+    {
+        assert dataSet != null;
+        assert buffer != null;
+
+        baseWriter.checkOpen();
+        baseWriter.h5.checkRank(1, dataSet.getRank());
+        final int dataSize = buffer.remaining() / 8;
+        if (dataSize == 0)
+        {
+            return;
+        }
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    final long[] blockDimensions = new long[]
+                        { dataSize };
+                    final long[] slabStartOrNull = new long[]
+                        { offset };
+                    final long[] requiredDimensions = new long[]
+                        { offset + dataSize };
+                    if (baseWriter.h5.extendDataSet(dataSet, requiredDimensions, false, registry))
+                    {
+                        dataSet.setDimensions(requiredDimensions);
+                    }
+                    final long dataSpaceId =
+                            baseWriter.h5.getDataSpaceForDataSet(dataSet.getDataSetId(), registry);
+                    baseWriter.h5.setHyperslabBlock(dataSpaceId, slabStartOrNull, blockDimensions);
+                    final long memorySpaceId =
+                            baseWriter.h5.createSimpleDataSpace(blockDimensions, registry);
+                    baseWriter.h5.writeDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT64, memorySpaceId,
+                            dataSpaceId, buffer);
+                    buffer.position(buffer.position() + dataSize * 8);
+                    return null; // Nothing to return.
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
+    @Override
+    public void writeMDArrayBlockWithOffsetFromBuffer(final HDF5DataSet dataSet,
+            final long[] blockDimensions, final long[] offset, final ByteBuffer buffer)
+    {
+        assert dataSet != null;
+        assert blockDimensions != null;
+        assert offset != null;
+        assert buffer != null;
+
+        baseWriter.checkOpen();
+        baseWriter.h5.checkRank(blockDimensions.length, offset.length);
+        baseWriter.h5.checkRank(blockDimensions.length, dataSet.getRank());
+        final long dataSize = MatrixUtils.getLength(blockDimensions);
+        baseWriter.h5.checkBufferSize(buffer, 8, dataSize);
+        if (dataSize == 0)
+        {
+            return;
+        }
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    final long[] dataSetDimensions = new long[blockDimensions.length];
+                    for (int i = 0; i < offset.length; ++i)
+                    {
+                        dataSetDimensions[i] = offset[i] + blockDimensions[i];
+                    }
+                    dataSet.extend(dataSetDimensions);
+                    final long dataSpaceId = dataSet.getDataSpaceId();
+                    baseWriter.h5.setHyperslabBlock(dataSpaceId, offset, blockDimensions);
+                    final long memorySpaceId = dataSet.getMemorySpaceId(blockDimensions);
+                    baseWriter.h5.writeDataSet(dataSet.getDataSetId(), H5T_NATIVE_INT64,
+                            memorySpaceId, dataSpaceId, buffer);
+                    buffer.position(buffer.position() + (int) dataSize * 8);
+                    return null; // Nothing to return.
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
     /**
      * Writes out a <code>long</code> matrix (array of rank 2).
      * 
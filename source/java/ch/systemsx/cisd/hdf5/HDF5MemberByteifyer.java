@@ -95,6 +95,21 @@ abstract class HDF5MemberByteifyer
 
     abstract byte[] byteify(long compoundDataTypeId, Object obj) throws IllegalAccessException;
 
+    /**
+     * Byteifies the member of <var>obj</var> directly into the record that starts at
+     * <var>recordOffset</var> in <var>buffer</var>. At most {@link #getSize()} bytes are written.
+     * 
+     * @return The size of the byteified member in bytes, which may exceed {@link #getSize()} if
+     *         the member value has been cut.
+     */
+    int byteifyInto(long compoundDataTypeId, Object obj, byte[] buffer, int recordOffset)
+            throws IllegalAccessException
+    {
+        final byte[] b = byteify(compoundDataTypeId, obj);
+        System.arraycopy(b, 0, buffer, recordOffset + offsetInMemory, Math.min(b.length, size));
+        return b.length;
+    }
+
     abstract void setFromByteArray(long compoundDataTypeId, Object obj, byte[] byteArr,
             int arrayOffset) throws IllegalAccessException;
 
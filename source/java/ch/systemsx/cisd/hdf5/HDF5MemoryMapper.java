@@ -0,0 +1,324 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, SIS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_DOUBLE;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_FLOAT;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT16;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT32;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT64;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT8;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT16;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT32;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT64;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT8;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ch.systemsx.cisd.base.exceptions.CheckedExceptionTunnel;
+import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * Maps the data of data sets of a file opened read-only into memory, so that they can be read
+ * without the HDF5 library.
+ * <p>
+ * Only data sets whose data are stored in one contiguous block of the file and whose data type is
+ * equal to a native numeric data type can be mapped. Whether a data set can be mapped is found out
+ * on first access with the HDF5 library and then cached, so that later reads don't need the HDF5
+ * library. The data of a data set are mapped in segments of at most {@link #SEGMENT_SIZE} bytes.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5MemoryMapper
+{
+    /**
+     * The maximal size of a mapped segment of a data set. A multiple of the size of all native
+     * types, so that no element spans two segments.
+     */
+    static final long SEGMENT_SIZE = 1L << 30;
+
+    /** The native types that data sets can be mapped for, and the size of their elements. */
+    private static final long[] NATIVE_TYPES =
+        { H5T_NATIVE_INT8, H5T_NATIVE_UINT8, H5T_NATIVE_INT16, H5T_NATIVE_UINT16,
+                H5T_NATIVE_INT32, H5T_NATIVE_UINT32, H5T_NATIVE_INT64, H5T_NATIVE_UINT64,
+                H5T_NATIVE_FLOAT, H5T_NATIVE_DOUBLE };
+
+    private static final int[] NATIVE_TYPE_SIZES =
+        { 1, 1, 2, 2, 4, 4, 8, 8, 4, 8 };
+
+    /** A data set that can be mapped. */
+    private static final class MappableDataSet
+    {
+        final long storageOffset;
+
+        final long memoryTypeId;
+
+        final int elementSize;
+
+        final int rank;
+
+        final long size;
+
+        final AtomicReferenceArray<ByteBuffer> segments;
+
+        MappableDataSet(long storageOffset, long memoryTypeId, int elementSize, long[] dimensions)
+        {
+            this.storageOffset = storageOffset;
+            this.memoryTypeId = memoryTypeId;
+            this.elementSize = elementSize;
+            this.rank = dimensions.length;
+            long n = 1;
+            for (long d : dimensions)
+            {
+                n *= d;
+            }
+            this.size = n;
+            this.segments =
+                    new AtomicReferenceArray<ByteBuffer>((int) ((size * elementSize
+                            + SEGMENT_SIZE - 1) / SEGMENT_SIZE));
+        }
+    }
+
+    /** Marks a data set in {@link #dataSets} that can't be mapped. */
+    private static final Object NOT_MAPPABLE = new Object();
+
+    private final HDF5BaseReader baseReader;
+
+    private final RandomAccessFile file;
+
+    private final FileChannel channel;
+
+    /** Maps data set paths to {@link MappableDataSet} or {@link #NOT_MAPPABLE}. */
+    private final ConcurrentMap<String, Object> dataSets = new ConcurrentHashMap<String, Object>();
+
+    HDF5MemoryMapper(HDF5BaseReader baseReader, ICleanUpRegistry fileRegistry)
+    {
+        this.baseReader = baseReader;
+        try
+        {
+            this.file = new RandomAccessFile(baseReader.hdf5File, "r");
+        } catch (IOException ex)
+        {
+            throw CheckedExceptionTunnel.wrapIfNecessary(ex);
+        }
+        this.channel = file.getChannel();
+        fileRegistry.registerCleanUp(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    close();
+                }
+            });
+    }
+
+    /**
+     * Returns a read-only buffer in native byte order with <var>blockSize</var> elements of the
+     * data set <var>objectPath</var>, starting at element <var>offset</var>, or <code>null</code>,
+     * if the block can't be mapped for <var>memoryTypeId</var>. The block is cut at the end of the
+     * data set. If <var>blockSize</var> is negative, the block comprises the full data set, which
+     * may be of any rank. Otherwise the data set needs to be of rank 1 and <var>blockSize</var>
+     * needs to be positive.
+     */
+    ByteBuffer tryMapBlock(String objectPath, long memoryTypeId, long offset, int blockSize)
+    {
+        final MappableDataSet dataSet = tryGetMappableDataSet(objectPath);
+        if (dataSet == null || dataSet.memoryTypeId != memoryTypeId)
+        {
+            return null;
+        }
+        final long count;
+        if (blockSize == 0)
+        {
+            return null;
+        } else if (blockSize < 0)
+        {
+            count = dataSet.size;
+        } else
+        {
+            if (dataSet.rank != 1 || offset >= dataSet.size)
+            {
+                // Let the HDF5 library report the error.
+                return null;
+            }
+            count = Math.min(blockSize, dataSet.size - offset);
+        }
+        final long startByte = offset * dataSet.elementSize;
+        final long lengthInBytes = count * dataSet.elementSize;
+        if (lengthInBytes > Integer.MAX_VALUE)
+        {
+            return null;
+        }
+        final ByteBuffer block;
+        final int segmentIndex = (int) (startByte / SEGMENT_SIZE);
+        if (lengthInBytes == 0)
+        {
+            block = ByteBuffer.allocate(0).asReadOnlyBuffer();
+        } else if (segmentIndex == (startByte + lengthInBytes - 1) / SEGMENT_SIZE)
+        {
+            final ByteBuffer segment = getSegment(dataSet, segmentIndex).duplicate();
+            final int startInSegment = (int) (startByte - segmentIndex * SEGMENT_SIZE);
+            segment.position(startInSegment);
+            segment.limit(startInSegment + (int) lengthInBytes);
+            block = segment.slice();
+        } else
+        {
+            // The block spans two segments, map it separately.
+            block = map(dataSet.storageOffset + startByte, lengthInBytes);
+        }
+        return block.order(ByteOrder.nativeOrder());
+    }
+
+    private MappableDataSet tryGetMappableDataSet(final String objectPath)
+    {
+        Object dataSet = dataSets.get(objectPath);
+        if (dataSet == null)
+        {
+            final ICallableWithCleanUp<Object> inspectCallable =
+                    new ICallableWithCleanUp<Object>()
+                        {
+                            @Override
+                            public Object call(ICleanUpRegistry registry)
+                            {
+                                return inspect(objectPath, registry);
+                            }
+                        };
+            dataSet = baseReader.runner.call(inspectCallable);
+            dataSets.put(objectPath, dataSet);
+        }
+        return (dataSet == NOT_MAPPABLE) ? null : (MappableDataSet) dataSet;
+    }
+
+    private Object inspect(String objectPath, ICleanUpRegistry registry)
+    {
+        if (HDF5ObjectType.isDataSet(baseReader.h5.getObjectTypeInfo(baseReader.fileId,
+                objectPath, false)) == false)
+        {
+            // Let the HDF5 library report the error.
+            return NOT_MAPPABLE;
+        }
+        final long dataSetId = baseReader.openDataSetId(objectPath, registry);
+        final long storageOffset = baseReader.h5.tryGetContiguousStorageOffset(dataSetId, registry);
+        if (storageOffset < 0)
+        {
+            return NOT_MAPPABLE;
+        }
+        final long storageDataTypeId = baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
+        for (int i = 0; i < NATIVE_TYPES.length; ++i)
+        {
+            if (baseReader.h5.dataTypesAreEqual(storageDataTypeId, NATIVE_TYPES[i]))
+            {
+                return new MappableDataSet(storageOffset, NATIVE_TYPES[i], NATIVE_TYPE_SIZES[i],
+                        baseReader.h5.getDataDimensions(dataSetId, registry));
+            }
+        }
+        return NOT_MAPPABLE;
+    }
+
+    private ByteBuffer getSegment(MappableDataSet dataSet, int segmentIndex)
+    {
+        ByteBuffer segment = dataSet.segments.get(segmentIndex);
+        if (segment == null)
+        {
+            final long startByte = segmentIndex * SEGMENT_SIZE;
+            final long lengthInBytes =
+                    Math.min(SEGMENT_SIZE, dataSet.size * dataSet.elementSize - startByte);
+            segment = map(dataSet.storageOffset + startByte, lengthInBytes);
+            // If another thread has mapped the segment concurrently, use its mapping.
+            if (dataSet.segments.compareAndSet(segmentIndex, null, segment) == false)
+            {
+                segment = dataSet.segments.get(segmentIndex);
+            }
+        }
+        return segment;
+    }
+
+    private ByteBuffer map(long position, long size)
+    {
+        try
+        {
+            return channel.map(MapMode.READ_ONLY, position, size);
+        } catch (IOException ex)
+        {
+            throw CheckedExceptionTunnel.wrapIfNecessary(ex);
+        }
+    }
+
+    private void close()
+    {
+        dataSets.clear();
+        try
+        {
+            // The segments that have been mapped stay valid after closing the file. They can't be
+            // unmapped safely as callers may still hold views on them, so they are released when
+            // they are garbage collected. Clearing dataSets drops our references to them.
+            file.close();
+        } catch (IOException ex)
+        {
+            // Nothing we can do about it.
+        }
+    }
+
+    //
+    // Typed views, to be used by the generated readers.
+    //
+
+    static ByteBuffer asByteBuffer(ByteBuffer buffer)
+    {
+        return buffer;
+    }
+
+    static ShortBuffer asShortBuffer(ByteBuffer buffer)
+    {
+        return buffer.asShortBuffer();
+    }
+
+    static IntBuffer asIntBuffer(ByteBuffer buffer)
+    {
+        return buffer.asIntBuffer();
+    }
+
+    static LongBuffer asLongBuffer(ByteBuffer buffer)
+    {
+        return buffer.asLongBuffer();
+    }
+
+    static FloatBuffer asFloatBuffer(ByteBuffer buffer)
+    {
+        return buffer.asFloatBuffer();
+    }
+
+    static DoubleBuffer asDoubleBuffer(ByteBuffer buffer)
+    {
+        return buffer.asDoubleBuffer();
+    }
+
+}
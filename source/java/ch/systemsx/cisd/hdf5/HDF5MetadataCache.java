@@ -0,0 +1,139 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, SIS
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ch.systemsx.cisd.hdf5.HDF5DataTypeInformation.DataTypeInfoOptions;
+
+/**
+ * A cache for the information about data sets and the type variants of objects of a file that is
+ * opened read-only, as these can't change while the file is open.
+ * <p>
+ * The cached {@link HDF5DataSetInformation} objects must not be handed out to callers, as these
+ * can change them, only copies of them.
+ *
+ * @author Bernd Rinn
+ */
+final class HDF5MetadataCache
+{
+    /** The canonical options, indexed by {@link #getIndex(DataTypeInfoOptions, boolean)} % 4. */
+    private static final DataTypeInfoOptions[] OPTIONS =
+        { DataTypeInfoOptions.MINIMAL, DataTypeInfoOptions.PATH, DataTypeInfoOptions.DEFAULT,
+                DataTypeInfoOptions.ALL };
+
+    private final ConcurrentMap<String, AtomicReferenceArray<HDF5DataSetInformation>> dataSetInformationMap =
+            new ConcurrentHashMap<String, AtomicReferenceArray<HDF5DataSetInformation>>();
+
+    private final ConcurrentMap<String, Integer> typeVariantOrdinalMap =
+            new ConcurrentHashMap<String, Integer>();
+
+    /**
+     * Returns the cached information about <var>dataSetPath</var> with <var>options</var> and
+     * <var>fillDimensions</var>, or <code>null</code>, if it is not in the cache.
+     */
+    HDF5DataSetInformation tryGetDataSetInformation(String dataSetPath,
+            DataTypeInfoOptions options, boolean fillDimensions)
+    {
+        final AtomicReferenceArray<HDF5DataSetInformation> infos =
+                dataSetInformationMap.get(dataSetPath);
+        return (infos == null) ? null : infos.get(getIndex(options, fillDimensions));
+    }
+
+    /**
+     * Puts the information about <var>dataSetPath</var> with <var>options</var> and
+     * <var>fillDimensions</var> into the cache.
+     */
+    void putDataSetInformation(String dataSetPath, DataTypeInfoOptions options,
+            boolean fillDimensions, HDF5DataSetInformation info)
+    {
+        AtomicReferenceArray<HDF5DataSetInformation> infos =
+                dataSetInformationMap.get(dataSetPath);
+        if (infos == null)
+        {
+            infos = new AtomicReferenceArray<HDF5DataSetInformation>(2 * OPTIONS.length);
+            final AtomicReferenceArray<HDF5DataSetInformation> existingInfos =
+                    dataSetInformationMap.putIfAbsent(dataSetPath, infos);
+            if (existingInfos != null)
+            {
+                infos = existingInfos;
+            }
+        }
+        infos.set(getIndex(options, fillDimensions), info);
+    }
+
+    /**
+     * Returns the cached ordinal of the type variant of <var>objectPath</var> (<code>-1</code>, if
+     * the object has no type variant), or <code>null</code>, if it is not in the cache.
+     */
+    Integer tryGetTypeVariantOrdinal(String objectPath)
+    {
+        return typeVariantOrdinalMap.get(objectPath);
+    }
+
+    /**
+     * Puts the ordinal of the type variant of <var>objectPath</var> into the cache.
+     */
+    void putTypeVariantOrdinal(String objectPath, int typeVariantOrdinal)
+    {
+        typeVariantOrdinalMap.put(objectPath, typeVariantOrdinal);
+    }
+
+    /**
+     * Returns the cached ordinal of the type variant of attribute <var>attributeName</var> of
+     * <var>objectPath</var>, or <code>null</code>, if it is not in the cache.
+     */
+    Integer tryGetTypeVariantOrdinal(String objectPath, String attributeName)
+    {
+        return typeVariantOrdinalMap.get(getAttributeKey(objectPath, attributeName));
+    }
+
+    /**
+     * Puts the ordinal of the type variant of attribute <var>attributeName</var> of
+     * <var>objectPath</var> into the cache.
+     */
+    void putTypeVariantOrdinal(String objectPath, String attributeName, int typeVariantOrdinal)
+    {
+        typeVariantOrdinalMap.put(getAttributeKey(objectPath, attributeName), typeVariantOrdinal);
+    }
+
+    /**
+     * Returns the one of the predefined options that is equivalent to <var>options</var>. Cached
+     * information is created with these as the options object is kept by
+     * {@link HDF5DataTypeInformation} and can be changed by the caller.
+     */
+    static DataTypeInfoOptions getCanonicalOptions(DataTypeInfoOptions options)
+    {
+        return OPTIONS[getIndex(options, false)];
+    }
+
+    private static int getIndex(DataTypeInfoOptions options, boolean fillDimensions)
+    {
+        return (options.knowsDataTypePath() ? 1 : 0) + (options.knowsDataTypeVariant() ? 2 : 0)
+                + (fillDimensions ? 4 : 0);
+    }
+
+    private static String getAttributeKey(String objectPath, String attributeName)
+    {
+        // HDF5 names can't contain '\0' other than as the first character of a reference, so
+        // this key can't collide with an object path.
+        return objectPath + '\0' + attributeName;
+    }
+
+}
@@ -114,6 +114,13 @@ class HDF5ObjectReadOnlyInfoProviderHandler implements IHDF5ObjectReadOnlyInfoPr
         return baseReader.openDataSet(objectPath);
     }
 
+    @Override
+    public HDF5DataSet openDataSet(final String objectPath, HDF5ChunkCacheSettings chunkCache)
+    {
+        baseReader.checkOpen();
+        return baseReader.openDataSet(objectPath, chunkCache);
+    }
+
     @Override
     public String toHouseKeepingPath(String objectPath)
     {
@@ -211,8 +218,7 @@ class HDF5ObjectReadOnlyInfoProviderHandler implements IHDF5ObjectReadOnlyInfoPr
                         public String call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final long dataTypeId =
                                     baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                             return baseReader.tryGetDataTypePath(dataTypeId);
@@ -493,6 +499,62 @@ class HDF5ObjectReadOnlyInfoProviderHandler implements IHDF5ObjectReadOnlyInfoPr
         }
     }
 
+    @Override
+    public HDF5GroupMemberPage getGroupMemberInformationPage(final String groupPath,
+            final long startIndex, final int pageSize, final boolean readLinkTargets)
+    {
+        assert groupPath != null;
+        assert startIndex >= 0;
+        assert pageSize > 0;
+
+        baseReader.checkOpen();
+        return baseReader.h5.getGroupMemberLinkInfoPage(baseReader.fileId, groupPath, startIndex,
+                pageSize, false, baseReader.houseKeepingNameSuffix, readLinkTargets);
+    }
+
+    @Override
+    public HDF5GroupMemberIterator getGroupMemberInformationIterator(final String groupPath,
+            final boolean readLinkTargets)
+    {
+        return getGroupMemberInformationIterator(groupPath, 0L,
+                HDF5GroupMemberIterator.DEFAULT_PAGE_SIZE, readLinkTargets);
+    }
+
+    @Override
+    public HDF5GroupMemberIterator getGroupMemberInformationIterator(final String groupPath,
+            final long startIndex, final int pageSize, final boolean readLinkTargets)
+    {
+        assert groupPath != null;
+
+        return new HDF5GroupMemberIterator(new HDF5GroupMemberIterator.IPageReader()
+            {
+                @Override
+                public HDF5GroupMemberPage read(long pageStartIndex, int size)
+                {
+                    return getGroupMemberInformationPage(groupPath, pageStartIndex, size,
+                            readLinkTargets);
+                }
+            }, startIndex, pageSize);
+    }
+
+    @Override
+    public void visitObjects(final String groupPath, final IHDF5ObjectVisitor visitor)
+    {
+        visitObjects(groupPath, visitor, false, false);
+    }
+
+    @Override
+    public void visitObjects(final String groupPath, final IHDF5ObjectVisitor visitor,
+            final boolean includeInternal, final boolean readAllObjectInfo)
+    {
+        assert groupPath != null;
+        assert visitor != null;
+
+        baseReader.checkOpen();
+        baseReader.h5.visitObjects(baseReader.fileId, groupPath, visitor, includeInternal,
+                baseReader.houseKeepingNameSuffix, readAllObjectInfo);
+    }
+
     // /////////////////////
     // Types
     // /////////////////////
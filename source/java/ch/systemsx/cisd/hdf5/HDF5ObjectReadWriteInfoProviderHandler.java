@@ -113,14 +113,14 @@ final class HDF5ObjectReadWriteInfoProviderHandler extends HDF5ObjectReadOnlyInf
                 delete(path);
             }
         }
-        baseWriter.h5.deleteObject(baseWriter.fileId, objectPath);
+        baseWriter.deleteObject(objectPath);
     }
 
     @Override
     public void move(String oldLinkPath, String newLinkPath)
     {
         baseWriter.checkOpen();
-        baseWriter.h5.moveLink(baseWriter.fileId, oldLinkPath, newLinkPath);
+        baseWriter.moveLink(oldLinkPath, newLinkPath);
     }
 
     // /////////////////////
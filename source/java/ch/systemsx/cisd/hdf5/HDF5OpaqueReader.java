@@ -54,7 +54,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                 public String call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long dataTypeId = baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                     return baseReader.h5.tryGetOpaqueTag(dataTypeId);
                 }
@@ -73,8 +73,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                         public HDF5OpaqueType call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final long dataTypeId =
                                     baseReader.h5.getDataTypeForDataSet(dataSetId,
                                             baseReader.fileRegistry);
@@ -103,7 +102,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                 public byte[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, registry);
                     final long nativeDataTypeId =
@@ -171,7 +170,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                 public byte[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, blockNumber * blockSize,
                                     blockSize, registry);
@@ -199,7 +198,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                 public byte[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
                     final long nativeDataTypeId =
@@ -231,7 +230,7 @@ public class HDF5OpaqueReader implements IHDF5OpaqueReader
                 public Integer call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, memoryOffset, offset,
                                     blockSize, registry);
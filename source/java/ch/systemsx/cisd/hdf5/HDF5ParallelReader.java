@@ -0,0 +1,845 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_DOUBLE;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_FLOAT;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT16;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT32;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT64;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_INT8;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT16;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT32;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT64;
+import static hdf.hdf5lib.HDF5Constants.H5T_NATIVE_UINT8;
+import static hdf.hdf5lib.HDF5Constants.H5Z_FILTER_DEFLATE;
+import static hdf.hdf5lib.HDF5Constants.H5Z_FILTER_SHUFFLE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+import ch.systemsx.cisd.base.mdarray.MDAbstractArray;
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+import ch.systemsx.cisd.hdf5.HDF5DataTypeInformation.DataTypeInfoOptions;
+import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+import ch.systemsx.cisd.hdf5.exceptions.HDF5SpaceRankMismatch;
+import ch.systemsx.cisd.hdf5.hdf5lib.HDFHelper;
+
+/**
+ * The implementation of {@link IHDF5ParallelReader}.
+ * 
+ * @author Bernd Rinn
+ */
+class HDF5ParallelReader implements IHDF5ParallelReader
+{
+
+    /**
+     * The element types that can be read by this reader.
+     */
+    enum ElementType
+    {
+        BYTE(HDF5DataClass.INTEGER, 1)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final byte[] data = new byte[numberOfElements];
+                chunk.get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.put((byte[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return unsigned ? H5T_NATIVE_UINT8 : H5T_NATIVE_INT8;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                final IHDF5ByteWriter byteWriter = unsigned ? writer.uint8() : writer.int8();
+                byteWriter.writeMDArrayBlockWithOffset(objectPath, (MDByteArray) data, offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDByteArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                final IHDF5ByteReader byteReader = unsigned ? reader.uint8() : reader.int8();
+                return (blockDimensionsOrNull == null) ? byteReader.readMDArray(objectPath)
+                        : byteReader.readMDArrayBlockWithOffset(objectPath,
+                                blockDimensionsOrNull, offsetOrNull);
+            }
+        },
+        SHORT(HDF5DataClass.INTEGER, 2)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final short[] data = new short[numberOfElements];
+                chunk.asShortBuffer().get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.asShortBuffer().put((short[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return unsigned ? H5T_NATIVE_UINT16 : H5T_NATIVE_INT16;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                final IHDF5ShortWriter shortWriter = unsigned ? writer.uint16() : writer.int16();
+                shortWriter.writeMDArrayBlockWithOffset(objectPath, (MDShortArray) data, offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDShortArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                final IHDF5ShortReader shortReader = unsigned ? reader.uint16() : reader.int16();
+                return (blockDimensionsOrNull == null) ? shortReader.readMDArray(objectPath)
+                        : shortReader.readMDArrayBlockWithOffset(objectPath,
+                                blockDimensionsOrNull, offsetOrNull);
+            }
+        },
+        INT(HDF5DataClass.INTEGER, 4)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final int[] data = new int[numberOfElements];
+                chunk.asIntBuffer().get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.asIntBuffer().put((int[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return unsigned ? H5T_NATIVE_UINT32 : H5T_NATIVE_INT32;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                final IHDF5IntWriter intWriter = unsigned ? writer.uint32() : writer.int32();
+                intWriter.writeMDArrayBlockWithOffset(objectPath, (MDIntArray) data, offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDIntArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                final IHDF5IntReader intReader = unsigned ? reader.uint32() : reader.int32();
+                return (blockDimensionsOrNull == null) ? intReader.readMDArray(objectPath)
+                        : intReader.readMDArrayBlockWithOffset(objectPath, blockDimensionsOrNull,
+                                offsetOrNull);
+            }
+        },
+        LONG(HDF5DataClass.INTEGER, 8)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final long[] data = new long[numberOfElements];
+                chunk.asLongBuffer().get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.asLongBuffer().put((long[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return unsigned ? H5T_NATIVE_UINT64 : H5T_NATIVE_INT64;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                final IHDF5LongWriter longWriter = unsigned ? writer.uint64() : writer.int64();
+                longWriter.writeMDArrayBlockWithOffset(objectPath, (MDLongArray) data, offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDLongArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                final IHDF5LongReader longReader = unsigned ? reader.uint64() : reader.int64();
+                return (blockDimensionsOrNull == null) ? longReader.readMDArray(objectPath)
+                        : longReader.readMDArrayBlockWithOffset(objectPath,
+                                blockDimensionsOrNull, offsetOrNull);
+            }
+        },
+        FLOAT(HDF5DataClass.FLOAT, 4)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final float[] data = new float[numberOfElements];
+                chunk.asFloatBuffer().get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.asFloatBuffer().put((float[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return H5T_NATIVE_FLOAT;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                writer.float32().writeMDArrayBlockWithOffset(objectPath, (MDFloatArray) data,
+                        offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDFloatArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                return (blockDimensionsOrNull == null) ? reader.float32().readMDArray(objectPath)
+                        : reader.float32().readMDArrayBlockWithOffset(objectPath,
+                                blockDimensionsOrNull, offsetOrNull);
+            }
+        },
+        DOUBLE(HDF5DataClass.FLOAT, 8)
+        {
+            @Override
+            Object decode(ByteBuffer chunk, int numberOfElements)
+            {
+                final double[] data = new double[numberOfElements];
+                chunk.asDoubleBuffer().get(data);
+                return data;
+            }
+
+            @Override
+            void encode(Object array, ByteBuffer target)
+            {
+                target.asDoubleBuffer().put((double[]) array);
+            }
+
+            @Override
+            long getNativeTypeId(boolean unsigned)
+            {
+                return H5T_NATIVE_DOUBLE;
+            }
+
+            @Override
+            void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                    String objectPath, MDAbstractArray<?> data, long[] offset)
+            {
+                writer.float64().writeMDArrayBlockWithOffset(objectPath, (MDDoubleArray) data,
+                        offset);
+            }
+
+            @Override
+            MDAbstractArray<?> newMDArray(int[] dimensions)
+            {
+                return new MDDoubleArray(dimensions);
+            }
+
+            @Override
+            MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                    String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull)
+            {
+                return (blockDimensionsOrNull == null) ? reader.float64().readMDArray(objectPath)
+                        : reader.float64().readMDArrayBlockWithOffset(objectPath,
+                                blockDimensionsOrNull, offsetOrNull);
+            }
+        };
+
+        final HDF5DataClass dataClass;
+
+        final int elementSize;
+
+        ElementType(HDF5DataClass dataClass, int elementSize)
+        {
+            this.dataClass = dataClass;
+            this.elementSize = elementSize;
+        }
+
+        /**
+         * Decodes <var>numberOfElements</var> elements from <var>chunk</var> into a new primitive
+         * array.
+         */
+        abstract Object decode(ByteBuffer chunk, int numberOfElements);
+
+        /**
+         * Encodes the primitive <var>array</var> into <var>target</var>.
+         */
+        abstract void encode(Object array, ByteBuffer target);
+
+        abstract long getNativeTypeId(boolean unsigned);
+
+        abstract MDAbstractArray<?> newMDArray(int[] dimensions);
+
+        /**
+         * Reads the data set the conventional way, i.e. with the typed reader.
+         */
+        abstract MDAbstractArray<?> readMDArray(IHDF5Reader reader, boolean unsigned,
+                String objectPath, int[] blockDimensionsOrNull, long[] offsetOrNull);
+
+        /**
+         * Writes the data set the conventional way, i.e. with the typed writer.
+         */
+        abstract void writeMDArrayBlockWithOffset(IHDF5Writer writer, boolean unsigned,
+                String objectPath, MDAbstractArray<?> data, long[] offset);
+    }
+
+    private final HDF5BaseReader baseReader;
+
+    private final IHDF5Reader reader;
+
+    protected final ExecutorService executor;
+
+    HDF5ParallelReader(HDF5BaseReader baseReader, IHDF5Reader reader, ExecutorService executor)
+    {
+        assert baseReader != null;
+        assert reader != null;
+        assert executor != null;
+
+        this.baseReader = baseReader;
+        this.reader = reader;
+        this.executor = executor;
+    }
+
+    @Override
+    public MDByteArray readByteMDArray(String objectPath)
+    {
+        return (MDByteArray) readMDArray(objectPath, null, null, ElementType.BYTE);
+    }
+
+    @Override
+    public MDByteArray readByteMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset)
+    {
+        return (MDByteArray) readMDArray(objectPath, blockDimensions, offset, ElementType.BYTE);
+    }
+
+    @Override
+    public MDShortArray readShortMDArray(String objectPath)
+    {
+        return (MDShortArray) readMDArray(objectPath, null, null, ElementType.SHORT);
+    }
+
+    @Override
+    public MDShortArray readShortMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset)
+    {
+        return (MDShortArray) readMDArray(objectPath, blockDimensions, offset, ElementType.SHORT);
+    }
+
+    @Override
+    public MDIntArray readIntMDArray(String objectPath)
+    {
+        return (MDIntArray) readMDArray(objectPath, null, null, ElementType.INT);
+    }
+
+    @Override
+    public MDIntArray readIntMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset)
+    {
+        return (MDIntArray) readMDArray(objectPath, blockDimensions, offset, ElementType.INT);
+    }
+
+    @Override
+    public MDLongArray readLongMDArray(String objectPath)
+    {
+        return (MDLongArray) readMDArray(objectPath, null, null, ElementType.LONG);
+    }
+
+    @Override
+    public MDLongArray readLongMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset)
+    {
+        return (MDLongArray) readMDArray(objectPath, blockDimensions, offset, ElementType.LONG);
+    }
+
+    @Override
+    public MDFloatArray readFloatMDArray(String objectPath)
+    {
+        return (MDFloatArray) readMDArray(objectPath, null, null, ElementType.FLOAT);
+    }
+
+    @Override
+    public MDFloatArray readFloatMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset)
+    {
+        return (MDFloatArray) readMDArray(objectPath, blockDimensions, offset, ElementType.FLOAT);
+    }
+
+    @Override
+    public MDDoubleArray readDoubleMDArray(String objectPath)
+    {
+        return (MDDoubleArray) readMDArray(objectPath, null, null, ElementType.DOUBLE);
+    }
+
+    @Override
+    public MDDoubleArray readDoubleMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset)
+    {
+        return (MDDoubleArray) readMDArray(objectPath, blockDimensions, offset,
+                ElementType.DOUBLE);
+    }
+
+    private MDAbstractArray<?> readMDArray(final String objectPath,
+            final int[] blockDimensionsOrNull, final long[] offsetOrNull, final ElementType type)
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final HDF5DataSetInformation info =
+                baseReader.getDataSetInformation(objectPath, DataTypeInfoOptions.MINIMAL, true);
+        final HDF5DataTypeInformation typeInfo = info.getTypeInformation();
+        final boolean unsigned = (typeInfo.isSigned() == false);
+        final int[] chunkSizesOrNull = info.tryGetChunkSizes();
+        if (canAccessRawChunks(info, type) == false)
+        {
+            return type.readMDArray(reader, unsigned, objectPath, blockDimensionsOrNull,
+                    offsetOrNull);
+        }
+        final long[] dimensions = info.getDimensions();
+        final long[] offset = (offsetOrNull == null) ? new long[dimensions.length] : offsetOrNull;
+        final int[] blockDimensions =
+                getEffectiveBlockDimensions(dimensions, blockDimensionsOrNull, offset);
+        if (MDAbstractArray.getLength(blockDimensions) == 0)
+        {
+            return type.readMDArray(reader, unsigned, objectPath, blockDimensionsOrNull,
+                    offsetOrNull);
+        }
+        final ICallableWithCleanUp<MDAbstractArray<?>> readCallable =
+                new ICallableWithCleanUp<MDAbstractArray<?>>()
+                    {
+                        @Override
+                        public MDAbstractArray<?> call(ICleanUpRegistry registry)
+                        {
+                            final long dataSetId =
+                                    baseReader.openDataSetId(objectPath, registry);
+                            final int[] filters = baseReader.h5.getFilters(dataSetId, registry);
+                            if (canDecode(filters) == false)
+                            {
+                                return type.readMDArray(reader, unsigned, objectPath,
+                                        blockDimensionsOrNull, offsetOrNull);
+                            }
+                            final long dataTypeId =
+                                    baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
+                            final ByteOrder byteOrder =
+                                    baseReader.h5.isBigEndian(dataTypeId) ? ByteOrder.BIG_ENDIAN
+                                            : ByteOrder.LITTLE_ENDIAN;
+                            final MDAbstractArray<?> result = type.newMDArray(blockDimensions);
+                            final ChunkedBlock block =
+                                    new ChunkedBlock(objectPath, dataSetId, type, unsigned,
+                                            filters, byteOrder, chunkSizesOrNull, offset,
+                                            blockDimensions, result.getAsFlatArray());
+                            decodeChunks(block);
+                            return result;
+                        }
+                    };
+        return baseReader.runner.call(readCallable);
+    }
+
+    /**
+     * Returns <code>true</code>, if the chunks of the data set of <var>info</var> can be accessed
+     * raw as elements of <var>type</var>, not considering the filter pipeline.
+     */
+    static boolean canAccessRawChunks(HDF5DataSetInformation info, ElementType type)
+    {
+        final HDF5DataTypeInformation typeInfo = info.getTypeInformation();
+        return info.getStorageLayout() == HDF5StorageLayout.CHUNKED
+                && info.tryGetChunkSizes() != null && info.getRank() > 0
+                && typeInfo.isArrayType() == false && typeInfo.getRawDataClass() == type.dataClass
+                && typeInfo.getElementSize() == type.elementSize
+                && HDFHelper.isDataAccessHelpersAvailable();
+    }
+
+    static int[] getEffectiveBlockDimensions(long[] dimensions,
+            int[] blockDimensionsOrNull, long[] offset)
+    {
+        if (blockDimensionsOrNull == null)
+        {
+            return MDAbstractArray.toInt(dimensions);
+        }
+        if (blockDimensionsOrNull.length != offset.length)
+        {
+            throw new HDF5SpaceRankMismatch(blockDimensionsOrNull.length, offset.length);
+        }
+        if (blockDimensionsOrNull.length != dimensions.length)
+        {
+            throw new HDF5SpaceRankMismatch(blockDimensionsOrNull.length, dimensions.length);
+        }
+        final int[] effectiveBlockDimensions = new int[dimensions.length];
+        for (int i = 0; i < dimensions.length; ++i)
+        {
+            final long maxBlockSize = dimensions[i] - offset[i];
+            if (maxBlockSize <= 0)
+            {
+                throw new HDF5JavaException("Offset " + offset[i] + " >= Size " + dimensions[i]);
+            }
+            effectiveBlockDimensions[i] =
+                    (int) ((blockDimensionsOrNull[i] < 0) ? maxBlockSize : Math.min(
+                            blockDimensionsOrNull[i], maxBlockSize));
+        }
+        return effectiveBlockDimensions;
+    }
+
+    static boolean canDecode(int[] filters)
+    {
+        for (int filter : filters)
+        {
+            if (filter != H5Z_FILTER_DEFLATE && filter != H5Z_FILTER_SHUFFLE)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A block of a chunked data set that is read or written chunk by chunk.
+     */
+    static final class ChunkedBlock
+    {
+        final String objectPath;
+
+        final long dataSetId;
+
+        final ElementType type;
+
+        final boolean unsigned;
+
+        final int[] filters;
+
+        final ByteOrder byteOrder;
+
+        final int[] chunkSizes;
+
+        final int chunkLength;
+
+        final long[] offset;
+
+        final int[] blockDimensions;
+
+        /** The flat array holding the data of the block. */
+        final Object array;
+
+        ChunkedBlock(String objectPath, long dataSetId, ElementType type, boolean unsigned,
+                int[] filters, ByteOrder byteOrder, int[] chunkSizes, long[] offset,
+                int[] blockDimensions, Object array)
+        {
+            this.objectPath = objectPath;
+            this.dataSetId = dataSetId;
+            this.type = type;
+            this.unsigned = unsigned;
+            this.filters = filters;
+            this.byteOrder = byteOrder;
+            this.chunkSizes = chunkSizes;
+            this.chunkLength = MDAbstractArray.getLength(chunkSizes);
+            this.offset = offset;
+            this.blockDimensions = blockDimensions;
+            this.array = array;
+        }
+
+        /**
+         * Computes the intersection of the chunk at <var>chunkOffset</var> with this block.
+         * 
+         * @param chunkStart Filled with the start of the intersection relative to the chunk.
+         * @param blockStart Filled with the start of the intersection relative to the block.
+         * @param extent Filled with the extent of the intersection.
+         */
+        void intersect(long[] chunkOffset, int[] chunkStart, int[] blockStart, int[] extent)
+        {
+            for (int d = 0; d < chunkOffset.length; ++d)
+            {
+                final long start = Math.max(chunkOffset[d], offset[d]);
+                final long end =
+                        Math.min(chunkOffset[d] + chunkSizes[d], offset[d] + blockDimensions[d]);
+                chunkStart[d] = (int) (start - chunkOffset[d]);
+                blockStart[d] = (int) (start - offset[d]);
+                extent[d] = (int) (end - start);
+            }
+        }
+    }
+
+    /**
+     * Decodes all chunks that intersect with <var>block</var> on the executor and waits for them
+     * to finish.
+     */
+    private void decodeChunks(final ChunkedBlock block)
+    {
+        final List<Future<?>> futures = new ArrayList<Future<?>>();
+        try
+        {
+            for (final long[] chunkOffset : getChunkOffsets(block.chunkSizes, block.offset,
+                    block.blockDimensions))
+            {
+                futures.add(executor.submit(new Callable<Void>()
+                    {
+                        @Override
+                        public Void call()
+                        {
+                            decodeChunk(block, chunkOffset);
+                            return null;
+                        }
+                    }));
+            }
+            for (Future<?> future : futures)
+            {
+                getResult(future, block.objectPath);
+            }
+        } finally
+        {
+            awaitTermination(futures);
+        }
+    }
+
+    /**
+     * Returns the offsets of all chunks of size <var>chunkSizes</var> that intersect with the
+     * block of <var>blockDimensions</var> at <var>offset</var>.
+     */
+    static List<long[]> getChunkOffsets(int[] chunkSizes, long[] offset, int[] blockDimensions)
+    {
+        final int rank = blockDimensions.length;
+        final long[] firstChunk = new long[rank];
+        final long[] lastChunk = new long[rank];
+        for (int d = 0; d < rank; ++d)
+        {
+            firstChunk[d] = offset[d] / chunkSizes[d];
+            lastChunk[d] = (offset[d] + blockDimensions[d] - 1) / chunkSizes[d];
+        }
+        final List<long[]> chunkOffsets = new ArrayList<long[]>();
+        final long[] chunkIdx = firstChunk.clone();
+        while (true)
+        {
+            final long[] chunkOffset = new long[rank];
+            for (int d = 0; d < rank; ++d)
+            {
+                chunkOffset[d] = chunkIdx[d] * chunkSizes[d];
+            }
+            chunkOffsets.add(chunkOffset);
+            int d = rank - 1;
+            while (d >= 0 && ++chunkIdx[d] > lastChunk[d])
+            {
+                chunkIdx[d] = firstChunk[d];
+                --d;
+            }
+            if (d < 0)
+            {
+                return chunkOffsets;
+            }
+        }
+    }
+
+    /**
+     * Waits for <var>future</var> and returns its result, re-throwing any exception of the task.
+     */
+    static <T> T getResult(Future<T> future, String objectPath)
+    {
+        try
+        {
+            return future.get();
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new HDF5JavaException("Interrupted while accessing data set '" + objectPath
+                    + "'.");
+        } catch (ExecutionException ex)
+        {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new HDF5JavaException("Error accessing data set '" + objectPath + "': "
+                    + cause);
+        }
+    }
+
+    /**
+     * Cancels all <var>futures</var> that haven't started yet and waits for the others to
+     * finish, as the data set they access is closed when the call returns.
+     */
+    static void awaitTermination(Iterable<? extends Future<?>> futures)
+    {
+        for (Future<?> future : futures)
+        {
+            future.cancel(false);
+        }
+        boolean interrupted = false;
+        for (Future<?> future : futures)
+        {
+            while (future.isCancelled() == false)
+            {
+                try
+                {
+                    future.get();
+                    break;
+                } catch (InterruptedException ex)
+                {
+                    interrupted = true;
+                } catch (ExecutionException ex)
+                {
+                    break;
+                }
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void decodeChunk(ChunkedBlock block, long[] chunkOffset)
+    {
+        final int rank = chunkOffset.length;
+        final int[] chunkStart = new int[rank];
+        final int[] blockStart = new int[rank];
+        final int[] extent = new int[rank];
+        block.intersect(chunkOffset, chunkStart, blockStart, extent);
+        final long storageSize = baseReader.h5.getChunkStorageSize(block.dataSetId, chunkOffset);
+        if (storageSize == 0)
+        {
+            // Chunk not allocated, let the library fill in the fill value.
+            final long[] blockOffset = new long[rank];
+            for (int d = 0; d < rank; ++d)
+            {
+                blockOffset[d] = block.offset[d] + blockStart[d];
+            }
+            final Object data =
+                    block.type.readMDArray(reader, block.unsigned, block.objectPath, extent,
+                            blockOffset).getAsFlatArray();
+            MatrixUtils.copyRegion(data, extent, new int[rank], block.array,
+                    block.blockDimensions, blockStart, extent);
+            return;
+        }
+        byte[] data = new byte[(int) storageSize];
+        final int filterMask = baseReader.h5.readChunk(block.dataSetId, chunkOffset, data);
+        int length = data.length;
+        final int chunkBytes = block.chunkLength * block.type.elementSize;
+        for (int i = block.filters.length - 1; i >= 0; --i)
+        {
+            if ((filterMask & (1 << i)) != 0)
+            {
+                continue;
+            }
+            final byte[] decoded;
+            if (block.filters[i] == H5Z_FILTER_DEFLATE)
+            {
+                decoded = new byte[chunkBytes];
+                length = ChunkFilterUtils.inflate(data, length, decoded);
+            } else
+            {
+                decoded = new byte[length];
+                ChunkFilterUtils.unshuffle(data, length, block.type.elementSize, decoded);
+            }
+            data = decoded;
+        }
+        if (length < chunkBytes)
+        {
+            throw new HDF5JavaException("Chunk at " + Arrays.toString(chunkOffset)
+                    + " of data set '" + block.objectPath + "' is too short (" + length
+                    + " bytes, expected " + chunkBytes + " bytes).");
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(data, 0, chunkBytes).order(block.byteOrder);
+        MatrixUtils.copyRegion(block.type.decode(buffer, block.chunkLength), block.chunkSizes,
+                chunkStart, block.array, block.blockDimensions, blockStart, extent);
+    }
+
+}
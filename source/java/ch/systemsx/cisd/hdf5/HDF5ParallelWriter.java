@@ -0,0 +1,311 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static hdf.hdf5lib.HDF5Constants.H5Z_FILTER_DEFLATE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import ch.systemsx.cisd.base.mdarray.MDAbstractArray;
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+import ch.systemsx.cisd.hdf5.HDF5DataTypeInformation.DataTypeInfoOptions;
+import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+import ch.systemsx.cisd.hdf5.exceptions.HDF5SpaceRankMismatch;
+
+/**
+ * The implementation of {@link IHDF5ParallelWriter}.
+ * <p>
+ * The chunks that are completely covered by the block are encoded on the executor. The encoded
+ * chunks are written on the calling thread in the order they have been submitted, with at most
+ * {@link #MAX_CHUNKS_IN_FLIGHT} chunks being encoded at any time in order to bound the memory
+ * consumption.
+ * 
+ * @author Bernd Rinn
+ */
+class HDF5ParallelWriter extends HDF5ParallelReader implements IHDF5ParallelWriter
+{
+
+    /** The maximal number of chunks that are encoded, but not yet written. */
+    static final int MAX_CHUNKS_IN_FLIGHT = 64;
+
+    private final HDF5BaseWriter baseWriter;
+
+    private final IHDF5Writer writer;
+
+    HDF5ParallelWriter(HDF5BaseWriter baseWriter, IHDF5Writer writer, ExecutorService executor)
+    {
+        super(baseWriter, writer, executor);
+        assert baseWriter != null;
+        assert writer != null;
+
+        this.baseWriter = baseWriter;
+        this.writer = writer;
+    }
+
+    @Override
+    public void writeByteMDArrayBlockWithOffset(String objectPath, MDByteArray data, long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.BYTE);
+    }
+
+    @Override
+    public void writeShortMDArrayBlockWithOffset(String objectPath, MDShortArray data,
+            long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.SHORT);
+    }
+
+    @Override
+    public void writeIntMDArrayBlockWithOffset(String objectPath, MDIntArray data, long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.INT);
+    }
+
+    @Override
+    public void writeLongMDArrayBlockWithOffset(String objectPath, MDLongArray data, long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.LONG);
+    }
+
+    @Override
+    public void writeFloatMDArrayBlockWithOffset(String objectPath, MDFloatArray data,
+            long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.FLOAT);
+    }
+
+    @Override
+    public void writeDoubleMDArrayBlockWithOffset(String objectPath, MDDoubleArray data,
+            long[] offset)
+    {
+        writeMDArrayBlockWithOffset(objectPath, data, offset, ElementType.DOUBLE);
+    }
+
+    private void writeMDArrayBlockWithOffset(final String objectPath,
+            final MDAbstractArray<?> data, final long[] offset, final ElementType type)
+    {
+        assert objectPath != null;
+        assert data != null;
+        assert offset != null;
+
+        baseWriter.checkOpen();
+        final HDF5DataSetInformation info =
+                baseWriter.getDataSetInformation(objectPath, DataTypeInfoOptions.MINIMAL, true);
+        final boolean unsigned = (info.getTypeInformation().isSigned() == false);
+        if (canAccessRawChunks(info, type) == false || data.size() == 0)
+        {
+            type.writeMDArrayBlockWithOffset(writer, unsigned, objectPath, data, offset);
+            return;
+        }
+        final int[] blockDimensions = data.dimensions();
+        if (blockDimensions.length != offset.length)
+        {
+            throw new HDF5SpaceRankMismatch(blockDimensions.length, offset.length);
+        }
+        if (blockDimensions.length != info.getRank())
+        {
+            throw new HDF5SpaceRankMismatch(blockDimensions.length, info.getRank());
+        }
+        final int[] chunkSizes = info.tryGetChunkSizes();
+        final ICallableWithCleanUp<Void> writeRunnable = new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    final long[] requiredDimensions = new long[offset.length];
+                    for (int d = 0; d < offset.length; ++d)
+                    {
+                        requiredDimensions[d] = offset[d] + blockDimensions[d];
+                    }
+                    final long dataSetId =
+                            baseWriter.h5.openAndExtendDataSet(baseWriter.fileId, objectPath,
+                                    baseWriter.fileFormat, requiredDimensions, false, registry);
+                    final int[] filters = baseWriter.h5.getFilters(dataSetId, registry);
+                    if (canDecode(filters) == false)
+                    {
+                        type.writeMDArrayBlockWithOffset(writer, unsigned, objectPath, data,
+                                offset);
+                        return null;
+                    }
+                    final int deflateLevel = baseWriter.h5.getDeflateLevel(dataSetId, registry);
+                    final long[] dimensions = baseWriter.h5.getDataDimensions(dataSetId, registry);
+                    final long dataTypeId =
+                            baseWriter.h5.getDataTypeForDataSet(dataSetId, registry);
+                    final ByteOrder byteOrder =
+                            baseWriter.h5.isBigEndian(dataTypeId) ? ByteOrder.BIG_ENDIAN
+                                    : ByteOrder.LITTLE_ENDIAN;
+                    final ChunkedBlock block =
+                            new ChunkedBlock(objectPath, dataSetId, type, unsigned, filters,
+                                    byteOrder, chunkSizes, offset, blockDimensions,
+                                    data.getAsFlatArray());
+                    final List<long[]> fullChunks = new ArrayList<long[]>();
+                    for (long[] chunkOffset : getChunkOffsets(chunkSizes, offset,
+                            blockDimensions))
+                    {
+                        if (isCovered(block, chunkOffset, dimensions))
+                        {
+                            fullChunks.add(chunkOffset);
+                        } else
+                        {
+                            writePartialChunk(block, chunkOffset, registry);
+                        }
+                    }
+                    encodeAndWriteChunks(block, fullChunks, deflateLevel);
+                    return null;
+                }
+            };
+        baseWriter.runner.call(writeRunnable);
+    }
+
+    /**
+     * Returns <code>true</code>, if the chunk at <var>chunkOffset</var> is completely covered by
+     * <var>block</var>, considering that the last chunk in each dimension may extend beyond the
+     * data set <var>dimensions</var>.
+     */
+    static boolean isCovered(ChunkedBlock block, long[] chunkOffset, long[] dimensions)
+    {
+        for (int d = 0; d < chunkOffset.length; ++d)
+        {
+            final long chunkEnd = Math.min(chunkOffset[d] + block.chunkSizes[d], dimensions[d]);
+            if (chunkOffset[d] < block.offset[d]
+                    || block.offset[d] + block.blockDimensions[d] < chunkEnd)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the part of <var>block</var> that intersects with the chunk at
+     * <var>chunkOffset</var> through the HDF5 library, which merges it with the existing content
+     * of the chunk.
+     */
+    private void writePartialChunk(ChunkedBlock block, long[] chunkOffset,
+            ICleanUpRegistry registry)
+    {
+        final int rank = chunkOffset.length;
+        final int[] chunkStart = new int[rank];
+        final int[] blockStart = new int[rank];
+        final int[] extent = new int[rank];
+        block.intersect(chunkOffset, chunkStart, blockStart, extent);
+        final long[] fileOffset = new long[rank];
+        for (int d = 0; d < rank; ++d)
+        {
+            fileOffset[d] = block.offset[d] + blockStart[d];
+        }
+        final Object subArray = block.type.newMDArray(extent).getAsFlatArray();
+        MatrixUtils.copyRegion(block.array, block.blockDimensions, blockStart, subArray, extent,
+                new int[rank], extent);
+        final long[] longExtent = MDAbstractArray.toLong(extent);
+        final long fileSpaceId = baseWriter.h5.getDataSpaceForDataSet(block.dataSetId, registry);
+        baseWriter.h5.setHyperslabBlock(fileSpaceId, fileOffset, longExtent);
+        final long memorySpaceId = baseWriter.h5.createSimpleDataSpace(longExtent, registry);
+        baseWriter.h5.writeDataSet(block.dataSetId, block.type.getNativeTypeId(block.unsigned),
+                memorySpaceId, fileSpaceId, subArray);
+    }
+
+    /**
+     * Encodes the chunks at <var>chunkOffsets</var> on the executor and writes them in order as
+     * pre-filtered chunks.
+     */
+    private void encodeAndWriteChunks(final ChunkedBlock block, List<long[]> chunkOffsets,
+            final int deflateLevel)
+    {
+        final List<Future<byte[]>> futures = new ArrayList<Future<byte[]>>();
+        final Deque<Future<byte[]>> inFlight = new ArrayDeque<Future<byte[]>>();
+        final Deque<long[]> inFlightOffsets = new ArrayDeque<long[]>();
+        try
+        {
+            for (final long[] chunkOffset : chunkOffsets)
+            {
+                if (inFlight.size() == MAX_CHUNKS_IN_FLIGHT)
+                {
+                    writeEncodedChunk(block, inFlightOffsets.removeFirst(),
+                            inFlight.removeFirst());
+                }
+                final Future<byte[]> future = executor.submit(new Callable<byte[]>()
+                    {
+                        @Override
+                        public byte[] call()
+                        {
+                            return encodeChunk(block, chunkOffset, deflateLevel);
+                        }
+                    });
+                futures.add(future);
+                inFlight.addLast(future);
+                inFlightOffsets.addLast(chunkOffset);
+            }
+            while (inFlight.isEmpty() == false)
+            {
+                writeEncodedChunk(block, inFlightOffsets.removeFirst(), inFlight.removeFirst());
+            }
+        } finally
+        {
+            awaitTermination(futures);
+        }
+    }
+
+    private void writeEncodedChunk(ChunkedBlock block, long[] chunkOffset, Future<byte[]> future)
+    {
+        final byte[] encoded = getResult(future, block.objectPath);
+        baseWriter.h5.writeChunk(block.dataSetId, chunkOffset, 0, encoded, encoded.length);
+    }
+
+    static byte[] encodeChunk(ChunkedBlock block, long[] chunkOffset, int deflateLevel)
+    {
+        final int rank = chunkOffset.length;
+        final int[] chunkStart = new int[rank];
+        final int[] blockStart = new int[rank];
+        final int[] extent = new int[rank];
+        block.intersect(chunkOffset, chunkStart, blockStart, extent);
+        final Object chunkArray = block.type.newMDArray(block.chunkSizes).getAsFlatArray();
+        MatrixUtils.copyRegion(block.array, block.blockDimensions, blockStart, chunkArray,
+                block.chunkSizes, chunkStart, extent);
+        final int chunkBytes = block.chunkLength * block.type.elementSize;
+        byte[] data = new byte[chunkBytes];
+        block.type.encode(chunkArray, ByteBuffer.wrap(data).order(block.byteOrder));
+        for (int filter : block.filters)
+        {
+            if (filter == H5Z_FILTER_DEFLATE)
+            {
+                data = ChunkFilterUtils.deflate(data, data.length, deflateLevel);
+            } else
+            {
+                final byte[] shuffled = new byte[data.length];
+                ChunkFilterUtils.shuffle(data, data.length, block.type.elementSize, shuffled);
+                data = shuffled;
+            }
+        }
+        return data;
+    }
+
+}
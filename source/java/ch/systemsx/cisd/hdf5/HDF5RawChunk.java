@@ -0,0 +1,73 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+/**
+ * A chunk of a data set as it is stored in the file, i.e. after the filter pipeline of the data
+ * set has been applied.
+ * 
+ * @author Bernd Rinn
+ */
+public final class HDF5RawChunk
+{
+    private final int filterMask;
+
+    private final byte[] data;
+
+    /**
+     * Creates a raw chunk.
+     * 
+     * @param filterMask The mask of the filters of the filter pipeline that have <i>not</i> been
+     *            applied to <var>data</var>. Bit <i>i</i> corresponds to the filter with index
+     *            <i>i</i> in the pipeline. Use 0 if all filters have been applied.
+     * @param data The (filtered) data of the chunk.
+     */
+    public HDF5RawChunk(int filterMask, byte[] data)
+    {
+        assert data != null;
+
+        this.filterMask = filterMask;
+        this.data = data;
+    }
+
+    /**
+     * Returns the mask of the filters that have <i>not</i> been applied to the data of this chunk.
+     * Bit <i>i</i> corresponds to the filter with index <i>i</i> in the filter pipeline.
+     */
+    public int getFilterMask()
+    {
+        return filterMask;
+    }
+
+    /**
+     * Returns <code>true</code>, if the filter with index <var>filterIndex</var> in the filter
+     * pipeline has been applied to the data of this chunk.
+     */
+    public boolean isFilterApplied(int filterIndex)
+    {
+        return (filterMask & (1 << filterIndex)) == 0;
+    }
+
+    /**
+     * Returns the (filtered) data of this chunk.
+     */
+    public byte[] getData()
+    {
+        return data;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import ch.systemsx.cisd.hdf5.cleanup.ICallableWithCleanUp;
+import ch.systemsx.cisd.hdf5.cleanup.ICleanUpRegistry;
+
+/**
+ * The implementation of {@link IHDF5RawChunkReader}.
+ * 
+ * @author Bernd Rinn
+ */
+class HDF5RawChunkReader implements IHDF5RawChunkReader
+{
+
+    private final HDF5BaseReader baseReader;
+
+    HDF5RawChunkReader(HDF5BaseReader baseReader)
+    {
+        assert baseReader != null;
+
+        this.baseReader = baseReader;
+    }
+
+    @Override
+    public int[] getFilters(final HDF5DataSet dataSet)
+    {
+        assert dataSet != null;
+
+        baseReader.checkOpen();
+        final ICallableWithCleanUp<int[]> getFiltersCallable = new ICallableWithCleanUp<int[]>()
+            {
+                @Override
+                public int[] call(ICleanUpRegistry registry)
+                {
+                    return baseReader.h5.getFilters(dataSet.getDataSetId(), registry);
+                }
+            };
+        return baseReader.runner.call(getFiltersCallable);
+    }
+
+    @Override
+    public long getRawChunkSize(HDF5DataSet dataSet, long[] chunkOffset)
+    {
+        assert dataSet != null;
+        assert chunkOffset != null;
+
+        baseReader.checkOpen();
+        return baseReader.h5.getChunkStorageSize(dataSet.getDataSetId(), chunkOffset);
+    }
+
+    @Override
+    public HDF5RawChunk tryReadRawChunk(HDF5DataSet dataSet, long[] chunkOffset)
+    {
+        assert dataSet != null;
+        assert chunkOffset != null;
+
+        baseReader.checkOpen();
+        final long size = baseReader.h5.getChunkStorageSize(dataSet.getDataSetId(), chunkOffset);
+        if (size == 0)
+        {
+            return null;
+        }
+        final byte[] data = new byte[(int) size];
+        final int filterMask =
+                baseReader.h5.readChunk(dataSet.getDataSetId(), chunkOffset, data);
+        return new HDF5RawChunk(filterMask, data);
+    }
+
+}
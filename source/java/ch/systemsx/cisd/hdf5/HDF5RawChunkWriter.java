@@ -0,0 +1,49 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+/**
+ * The implementation of {@link IHDF5RawChunkWriter}.
+ * 
+ * @author Bernd Rinn
+ */
+class HDF5RawChunkWriter extends HDF5RawChunkReader implements IHDF5RawChunkWriter
+{
+
+    private final HDF5BaseWriter baseWriter;
+
+    HDF5RawChunkWriter(HDF5BaseWriter baseWriter)
+    {
+        super(baseWriter);
+        assert baseWriter != null;
+
+        this.baseWriter = baseWriter;
+    }
+
+    @Override
+    public void writeRawChunk(HDF5DataSet dataSet, long[] chunkOffset, HDF5RawChunk chunk)
+    {
+        assert dataSet != null;
+        assert chunkOffset != null;
+        assert chunk != null;
+
+        baseWriter.checkOpen();
+        baseWriter.h5.writeChunk(dataSet.getDataSetId(), chunkOffset, chunk.getFilterMask(),
+                chunk.getData(), chunk.getData().length);
+    }
+
+}
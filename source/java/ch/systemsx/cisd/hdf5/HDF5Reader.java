@@ -19,6 +19,10 @@ package ch.systemsx.cisd.hdf5;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import hdf.hdf5lib.exceptions.HDF5DatatypeInterfaceException;
 import hdf.hdf5lib.exceptions.HDF5JavaException;
@@ -85,6 +89,12 @@ class HDF5Reader implements IHDF5Reader
 
     private final IHDF5OpaqueReader opaqueReader;
 
+    private final IHDF5RawChunkReader rawChunkReader;
+
+    private IHDF5AsyncReader asyncReader;
+
+    private ExecutorService asyncExecutorOrNull;
+
     HDF5Reader(final HDF5BaseReader baseReader)
     {
         assert baseReader != null;
@@ -113,6 +123,7 @@ class HDF5Reader implements IHDF5Reader
         this.timeDurationReader = new HDF5TimeDurationReader(baseReader, (HDF5LongReader) longReader);
         this.referenceReader = new HDF5ReferenceReader(baseReader);
         this.opaqueReader = new HDF5OpaqueReader(baseReader);
+        this.rawChunkReader = new HDF5RawChunkReader(baseReader);
     }
 
     void checkOpen()
@@ -145,9 +156,39 @@ class HDF5Reader implements IHDF5Reader
     @Override
     public void close()
     {
+        awaitAsyncReads();
         baseReader.close();
     }
 
+    /**
+     * Lets the I/O thread of {@link #async()} finish the reads it has queued and waits for it to
+     * terminate, so that it doesn't access the file while its ids are closed.
+     */
+    private void awaitAsyncReads()
+    {
+        final ExecutorService executor;
+        synchronized (this)
+        {
+            executor = asyncExecutorOrNull;
+            asyncExecutorOrNull = null;
+        }
+        if (executor == null)
+        {
+            return;
+        }
+        executor.shutdown();
+        try
+        {
+            while (executor.awaitTermination(1L, TimeUnit.SECONDS) == false)
+            {
+                // Wait for the queued reads to finish.
+            }
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     // /////////////////////////////////
     // Objects, links, groups and types
     // /////////////////////////////////
@@ -274,6 +315,53 @@ class HDF5Reader implements IHDF5Reader
         return referenceReader;
     }
 
+    @Override
+    public IHDF5RawChunkReader rawChunk()
+    {
+        return rawChunkReader;
+    }
+
+    @Override
+    public IHDF5ParallelReader parallel()
+    {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public IHDF5ParallelReader parallel(ExecutorService executor)
+    {
+        return new HDF5ParallelReader(baseReader, this, executor);
+    }
+
+    @Override
+    public synchronized IHDF5AsyncReader async()
+    {
+        baseReader.checkOpen();
+        if (asyncReader == null)
+        {
+            final String threadName = "HDF5 I/O " + baseReader.hdf5File.getName();
+            final ExecutorService executor = Executors.newSingleThreadExecutor(
+                    ConcurrencyUtils.createDaemonThreadFactory(threadName));
+            baseReader.fileRegistry.registerCleanUp(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        executor.shutdown();
+                    }
+                });
+            asyncReader = new HDF5AsyncReader(this, executor);
+            asyncExecutorOrNull = executor;
+        }
+        return asyncReader;
+    }
+
+    @Override
+    public IHDF5AsyncReader async(ExecutorService executor)
+    {
+        return new HDF5AsyncReader(this, executor);
+    }
+
     //
     // References
     //
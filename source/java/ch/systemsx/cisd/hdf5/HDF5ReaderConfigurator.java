@@ -37,6 +37,14 @@ class HDF5ReaderConfigurator implements IHDF5ReaderConfigurator
 
     protected boolean autoDereference = true;
 
+    protected boolean concurrentFileAccess;
+
+    protected HDF5ChunkCacheSettings chunkCacheSettings = HDF5ChunkCacheSettings.DEFAULT;
+
+    protected int dataSetHandleCacheSize;
+
+    protected boolean memoryMapContiguousDataSets;
+
     protected HDF5Reader readerWriterOrNull;
     
     HDF5ReaderConfigurator(File hdf5File)
@@ -70,6 +78,38 @@ class HDF5ReaderConfigurator implements IHDF5ReaderConfigurator
         return this;
     }
 
+    @Override
+    public HDF5ReaderConfigurator concurrentFileAccess()
+    {
+        this.concurrentFileAccess = true;
+        return this;
+    }
+
+    @Override
+    public HDF5ReaderConfigurator chunkCache(HDF5ChunkCacheSettings settings)
+    {
+        assert settings != null;
+
+        this.chunkCacheSettings = settings;
+        return this;
+    }
+
+    @Override
+    public HDF5ReaderConfigurator dataSetHandleCache(int maxSize)
+    {
+        assert maxSize >= 0;
+
+        this.dataSetHandleCacheSize = maxSize;
+        return this;
+    }
+
+    @Override
+    public HDF5ReaderConfigurator memoryMapContiguousDataSets()
+    {
+        this.memoryMapContiguousDataSets = true;
+        return this;
+    }
+
     @Override
     public IHDF5Reader reader()
     {
@@ -77,8 +117,11 @@ class HDF5ReaderConfigurator implements IHDF5ReaderConfigurator
         {
             readerWriterOrNull =
                     new HDF5Reader(new HDF5BaseReader(hdf5File, performNumericConversions,
-                            autoDereference, IHDF5WriterConfigurator.FileFormatVersionBounds.getDefault(), 
-                            MDCImageGeneration.NO_GENERATE_MDC_IMAGE, false, ""));
+                            useUTF8CharEncoding, autoDereference,
+                            IHDF5WriterConfigurator.FileFormatVersionBounds.getDefault(),
+                            MDCImageGeneration.NO_GENERATE_MDC_IMAGE, false, "",
+                            concurrentFileAccess, chunkCacheSettings, dataSetHandleCacheSize,
+                            memoryMapContiguousDataSets));
         }
         return readerWriterOrNull;
     }
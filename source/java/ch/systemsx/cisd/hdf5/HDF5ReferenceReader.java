@@ -335,7 +335,7 @@ public class HDF5ReferenceReader implements IHDF5ReferenceReader
                 public String[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long dataTypeId = baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                     final long[] references;
                     if (baseReader.h5.getClassType(dataTypeId) == H5T_REFERENCE)
@@ -407,7 +407,7 @@ public class HDF5ReferenceReader implements IHDF5ReferenceReader
                 public String[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
                     final long[] references = new long[spaceParams.blockSize];
@@ -440,8 +440,7 @@ public class HDF5ReferenceReader implements IHDF5ReferenceReader
                         public MDArray<String> call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final long dataTypeId =
                                     baseReader.h5.getDataTypeForDataSet(dataSetId, registry);
                             final long[] references;
@@ -525,8 +524,7 @@ public class HDF5ReferenceReader implements IHDF5ReferenceReader
                         public MDArray<String> call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, offset,
                                             blockDimensions, registry);
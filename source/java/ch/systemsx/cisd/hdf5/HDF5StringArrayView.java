@@ -0,0 +1,205 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of the strings of a string array data set that creates each {@link String}
+ * only when it is accessed.
+ * <p>
+ * For fixed-length strings, the list keeps the bytes as they have been read from the file and
+ * decodes a string on its first access by {@link #get(int)}. {@link #getCharSequence(int)} gives
+ * access to a string that consists of ASCII characters only without creating a {@link String} at
+ * all. For variable-length strings, all strings are created when the data set is read.
+ * <p>
+ * Obtain an object of this class from {@link IHDF5StringReader#readArrayView(String)}.
+ *
+ * @author Bernd Rinn
+ */
+public final class HDF5StringArrayView extends AbstractList<String> implements RandomAccess
+{
+    private final byte[] bytesOrNull;
+
+    private final int elementSize;
+
+    private final boolean readRaw;
+
+    private final CharacterEncoding encoding;
+
+    /** The strings that have been created so far. */
+    private final String[] strings;
+
+    /**
+     * Creates a view on fixed-length strings of <var>elementSize</var> bytes each in
+     * <var>bytes</var>.
+     */
+    HDF5StringArrayView(byte[] bytes, int elementSize, int size, boolean readRaw,
+            CharacterEncoding encoding)
+    {
+        this.bytesOrNull = bytes;
+        this.elementSize = elementSize;
+        this.readRaw = readRaw;
+        this.encoding = encoding;
+        this.strings = new String[size];
+    }
+
+    /**
+     * Creates a view on <var>strings</var>.
+     */
+    HDF5StringArrayView(String[] strings)
+    {
+        this.bytesOrNull = null;
+        this.elementSize = 0;
+        this.readRaw = false;
+        this.encoding = null;
+        this.strings = strings;
+    }
+
+    @Override
+    public int size()
+    {
+        return strings.length;
+    }
+
+    /**
+     * Returns the string at <var>index</var>, creating it if it has not been accessed before.
+     */
+    @Override
+    public String get(int index)
+    {
+        String s = strings[index];
+        if (s == null && bytesOrNull != null)
+        {
+            final int startIdx = index * elementSize;
+            s = StringUtils.fromBytes(bytesOrNull, startIdx, getEndIdx(startIdx), encoding);
+            // Strings are immutable, so it doesn't matter if concurrent callers create it twice.
+            strings[index] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Returns the string at <var>index</var> as a {@link CharSequence}. If the string consists of
+     * ASCII characters only, the returned sequence reads the characters from the bytes of the data
+     * set and no {@link String} is created. Otherwise, this method is equivalent to
+     * {@link #get(int)}.
+     */
+    public CharSequence getCharSequence(int index)
+    {
+        final String s = strings[index];
+        if (s != null || bytesOrNull == null)
+        {
+            return s;
+        }
+        final int startIdx = index * elementSize;
+        final int endIdx = getEndIdx(startIdx);
+        if (StringUtils.isAscii(bytesOrNull, startIdx, endIdx))
+        {
+            return new AsciiCharSequence(bytesOrNull, startIdx, endIdx);
+        }
+        return get(index);
+    }
+
+    /**
+     * Returns all strings as an array, creating those that have not been accessed before.
+     */
+    public String[] toStringArray()
+    {
+        final String[] result = new String[strings.length];
+        for (int i = 0; i < result.length; ++i)
+        {
+            result[i] = get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Creates all strings and returns the array that holds them, for readers that return a
+     * <code>String[]</code> and don't hand out this view.
+     */
+    String[] getStrings()
+    {
+        if (bytesOrNull != null)
+        {
+            StringUtils.fromBytes(bytesOrNull, elementSize, readRaw, encoding, strings);
+        }
+        return strings;
+    }
+
+    private int getEndIdx(int startIdx)
+    {
+        final int maxEndIdx = startIdx + elementSize;
+        return readRaw ? maxEndIdx : StringUtils.findTermIdx(bytesOrNull, startIdx, maxEndIdx);
+    }
+
+    /**
+     * A {@link CharSequence} of ASCII characters in a byte array.
+     */
+    private static final class AsciiCharSequence implements CharSequence
+    {
+        private final byte[] bytes;
+
+        private final int startIdx;
+
+        private final int endIdx;
+
+        AsciiCharSequence(byte[] bytes, int startIdx, int endIdx)
+        {
+            this.bytes = bytes;
+            this.startIdx = startIdx;
+            this.endIdx = endIdx;
+        }
+
+        @Override
+        public int length()
+        {
+            return endIdx - startIdx;
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            if (index < 0 || index >= length())
+            {
+                throw new IndexOutOfBoundsException("Index " + index + " out of range [0, "
+                        + length() + ").");
+            }
+            return (char) bytes[startIdx + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            if (start < 0 || start > end || end > length())
+            {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + end
+                        + ") out of range [0, " + length() + ").");
+            }
+            return new AsciiCharSequence(bytes, startIdx + start, startIdx + end);
+        }
+
+        @Override
+        public String toString()
+        {
+            return new String(bytes, startIdx, endIdx - startIdx, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+}
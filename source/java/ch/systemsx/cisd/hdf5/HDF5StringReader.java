@@ -17,6 +17,7 @@
 package ch.systemsx.cisd.hdf5;
 
 import static ch.systemsx.cisd.hdf5.HDF5Utils.getOneDimensionalArraySize;
+import static hdf.hdf5lib.HDF5Constants.H5S_ALL;
 import static hdf.hdf5lib.HDF5Constants.H5T_STRING;
 
 import java.util.Iterator;
@@ -177,7 +178,7 @@ public class HDF5StringReader implements IHDF5StringReader
                 public String call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long dataTypeId =
                             baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
                     final boolean isString = (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
@@ -229,53 +230,91 @@ public class HDF5StringReader implements IHDF5StringReader
                 public String[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final long[] dimensions = baseReader.h5.getDataDimensions(dataSetId, registry);
                     final int oneDimSize = getOneDimensionalArraySize(dimensions);
-                    final String[] data = new String[oneDimSize];
-                    final long dataTypeId =
-                            baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
-                    if (baseReader.h5.isVariableLengthString(dataTypeId))
-                    {
-                        baseReader.h5.readDataSetVL(dataSetId, dataTypeId, data);
-                    } else
+                    return readStrings(objectPath, dataSetId, H5S_ALL, H5S_ALL, oneDimSize,
+                            readRaw, registry).getStrings();
+                }
+            };
+        return baseReader.runner.call(writeRunnable);
+    }
+
+    @Override
+    public HDF5StringArrayView readArrayView(final String objectPath) throws HDF5JavaException
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final ICallableWithCleanUp<HDF5StringArrayView> readCallable =
+                new ICallableWithCleanUp<HDF5StringArrayView>()
                     {
-                        final boolean isString =
-                                (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
-                        if (isString == false)
-                        {
-                            throw new HDF5JavaException(objectPath + " needs to be a String.");
-                        }
-                        final int strLength;
-                        final byte[] bdata;
-                        if (readRaw)
-                        {
-                            strLength = baseReader.h5.getDataTypeSize(dataTypeId);
-                            bdata = new byte[oneDimSize * strLength];
-                            baseReader.h5.readDataSetNonNumeric(dataSetId, dataTypeId, bdata);
-                        } else
+                        @Override
+                        public HDF5StringArrayView call(ICleanUpRegistry registry)
                         {
-                            strLength = -1;
-                            bdata = null;
-                            baseReader.h5.readDataSetString(dataSetId, dataTypeId, data);
+                            final long dataSetId = baseReader.openDataSetId(objectPath, registry);
+                            final long[] dimensions =
+                                    baseReader.h5.getDataDimensions(dataSetId, registry);
+                            final int oneDimSize = getOneDimensionalArraySize(dimensions);
+                            return readStrings(objectPath, dataSetId, H5S_ALL, H5S_ALL,
+                                    oneDimSize, false, registry);
                         }
-                        if (bdata != null && readRaw)
+                    };
+        return baseReader.runner.call(readCallable);
+    }
+
+    @Override
+    public HDF5StringArrayView readArrayViewBlockWithOffset(final String objectPath,
+            final int blockSize, final long offset) throws HDF5JavaException
+    {
+        assert objectPath != null;
+
+        baseReader.checkOpen();
+        final ICallableWithCleanUp<HDF5StringArrayView> readCallable =
+                new ICallableWithCleanUp<HDF5StringArrayView>()
+                    {
+                        @Override
+                        public HDF5StringArrayView call(ICleanUpRegistry registry)
                         {
-                            final CharacterEncoding encoding =
-                                    baseReader.h5.getCharacterEncoding(dataTypeId);
-                            for (int i = 0, startIdx = 0; i < oneDimSize; ++i, startIdx +=
-                                    strLength)
-                            {
-                                data[i] =
-                                        StringUtils.fromBytes(bdata, startIdx,
-                                                startIdx + strLength, encoding);
-                            }
+                            final long dataSetId = baseReader.openDataSetId(objectPath, registry);
+                            final DataSpaceParameters spaceParams =
+                                    baseReader.getSpaceParameters(dataSetId, offset, blockSize,
+                                            registry);
+                            return readStrings(objectPath, dataSetId, spaceParams.memorySpaceId,
+                                    spaceParams.dataSpaceId, spaceParams.blockSize, false,
+                                    registry);
                         }
-                    }
-                    return data;
-                }
-            };
-        return baseReader.runner.call(writeRunnable);
+                    };
+        return baseReader.runner.call(readCallable);
+    }
+
+    /**
+     * Reads <var>size</var> strings from <var>dataSpaceId</var> of <var>dataSetId</var>.
+     * Fixed-length strings are read into one byte array and are decoded in Java when they are
+     * accessed.
+     */
+    private HDF5StringArrayView readStrings(final String objectPath, final long dataSetId,
+            final long memorySpaceId, final long dataSpaceId, final int size,
+            final boolean readRaw, final ICleanUpRegistry registry)
+    {
+        final long dataTypeId = baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
+        if (baseReader.h5.isVariableLengthString(dataTypeId))
+        {
+            final String[] data = new String[size];
+            baseReader.h5.readDataSetVL(dataSetId, dataTypeId, memorySpaceId, dataSpaceId, data);
+            return new HDF5StringArrayView(data);
+        }
+        final boolean isString = (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
+        if (isString == false)
+        {
+            throw new HDF5JavaException(objectPath + " needs to be a String.");
+        }
+        final int strLength = baseReader.h5.getDataTypeSize(dataTypeId);
+        final byte[] bdata = new byte[size * strLength];
+        baseReader.h5.readDataSetNonNumeric(dataSetId, dataTypeId, memorySpaceId, dataSpaceId,
+                bdata);
+        return new HDF5StringArrayView(bdata, strLength, size, readRaw,
+                baseReader.h5.getCharacterEncoding(dataTypeId));
     }
 
     @Override
@@ -303,54 +342,12 @@ public class HDF5StringReader implements IHDF5StringReader
                 public String[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final DataSpaceParameters spaceParams =
                             baseReader.getSpaceParameters(dataSetId, offset, blockSize, registry);
-                    final String[] data = new String[spaceParams.blockSize];
-                    final long dataTypeId =
-                            baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
-                    if (baseReader.h5.isVariableLengthString(dataTypeId))
-                    {
-                        baseReader.h5.readDataSetVL(dataSetId, dataTypeId,
-                                spaceParams.memorySpaceId, spaceParams.dataSpaceId, data);
-                    } else
-                    {
-                        final boolean isString =
-                                (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
-                        if (isString == false)
-                        {
-                            throw new HDF5JavaException(objectPath + " needs to be a String.");
-                        }
-
-                        final int strLength;
-                        final byte[] bdata;
-                        if (readRaw)
-                        {
-                            strLength = baseReader.h5.getDataTypeSize(dataTypeId);
-                            bdata = new byte[spaceParams.blockSize * strLength];
-                            baseReader.h5.readDataSetNonNumeric(dataSetId, dataTypeId,
-                                    spaceParams.memorySpaceId, spaceParams.dataSpaceId, bdata);
-                        } else
-                        {
-                            strLength = -1;
-                            bdata = null;
-                            baseReader.h5.readDataSetString(dataSetId, dataTypeId,
-                                    spaceParams.memorySpaceId, spaceParams.dataSpaceId, data);
-                        }
-                        if (bdata != null && readRaw)
-                        {
-                            final CharacterEncoding encoding =
-                                    baseReader.h5.getCharacterEncoding(dataTypeId);
-                            for (int i = 0, startIdx = 0; i < spaceParams.blockSize; ++i, startIdx +=
-                                    strLength)
-                            {
-                                data[i] =
-                                        StringUtils.fromBytes(bdata, startIdx,
-                                                startIdx + strLength, encoding);
-                            }
-                        }
-                    }
-                    return data;
+                    return readStrings(objectPath, dataSetId, spaceParams.memorySpaceId,
+                            spaceParams.dataSpaceId, spaceParams.blockSize, readRaw, registry)
+                            .getStrings();
                 }
             };
         return baseReader.runner.call(readCallable);
@@ -392,54 +389,13 @@ public class HDF5StringReader implements IHDF5StringReader
                         public MDArray<String> call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, registry);
-                            final String[] data = new String[spaceParams.blockSize];
-                            final long dataTypeId =
-                                    baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
-                            if (baseReader.h5.isVariableLengthString(dataTypeId))
-                            {
-                                baseReader.h5.readDataSetVL(dataSetId, dataTypeId,
-                                        spaceParams.memorySpaceId, spaceParams.dataSpaceId, data);
-                            } else
-                            {
-                                final boolean isString =
-                                        (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
-                                if (isString == false)
-                                {
-                                    throw new HDF5JavaException(objectPath
-                                            + " needs to be a String.");
-                                }
-
-                                final int strLength;
-                                final byte[] bdata;
-                                if (readRaw)
-                                {
-                                    strLength = baseReader.h5.getDataTypeSize(dataTypeId);
-                                    bdata = new byte[spaceParams.blockSize * strLength];
-                                    baseReader.h5.readDataSetNonNumeric(dataSetId, dataTypeId,
-                                            bdata);
-                                } else
-                                {
-                                    strLength = -1;
-                                    bdata = null;
-                                    baseReader.h5.readDataSetString(dataSetId, dataTypeId, data);
-                                }
-                                if (bdata != null && readRaw)
-                                {
-                                    final CharacterEncoding encoding =
-                                            baseReader.h5.getCharacterEncoding(dataTypeId);
-                                    for (int i = 0, startIdx = 0; i < spaceParams.blockSize; ++i, startIdx +=
-                                            strLength)
-                                    {
-                                        data[i] =
-                                                StringUtils.fromBytes(bdata, startIdx, startIdx
-                                                        + strLength, encoding);
-                                    }
-                                }
-                            }
+                            final String[] data =
+                                    readStrings(objectPath, dataSetId, spaceParams.memorySpaceId,
+                                            spaceParams.dataSpaceId, spaceParams.blockSize,
+                                            readRaw, registry).getStrings();
                             return new MDArray<String>(data, spaceParams.dimensions);
                         }
                     };
@@ -459,58 +415,14 @@ public class HDF5StringReader implements IHDF5StringReader
                         public MDArray<String> call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final DataSpaceParameters spaceParams =
                                     baseReader.getSpaceParameters(dataSetId, offset,
                                             blockDimensions, registry);
-                            final String[] dataBlock = new String[spaceParams.blockSize];
-                            final long dataTypeId =
-                                    baseReader.h5.getNativeDataTypeForDataSet(dataSetId, registry);
-                            if (baseReader.h5.isVariableLengthString(dataTypeId))
-                            {
-                                baseReader.h5.readDataSetVL(dataSetId, dataTypeId,
-                                        spaceParams.memorySpaceId, spaceParams.dataSpaceId,
-                                        dataBlock);
-                            } else
-                            {
-                                final boolean isString =
-                                        (baseReader.h5.getClassType(dataTypeId) == H5T_STRING);
-                                if (isString == false)
-                                {
-                                    throw new HDF5JavaException(objectPath
-                                            + " needs to be a String.");
-                                }
-
-                                final int strLength;
-                                byte[] bdata = null;
-                                if (readRaw)
-                                {
-                                    strLength = baseReader.h5.getDataTypeSize(dataTypeId);
-                                    bdata = new byte[spaceParams.blockSize * strLength];
-                                    baseReader.h5.readDataSetNonNumeric(dataSetId, dataTypeId,
-                                            spaceParams.memorySpaceId, spaceParams.dataSpaceId,
-                                            bdata);
-                                } else
-                                {
-                                    strLength = -1;
-                                    baseReader.h5.readDataSetString(dataSetId, dataTypeId,
-                                            spaceParams.memorySpaceId, spaceParams.dataSpaceId,
-                                            dataBlock);
-                                }
-                                if (bdata != null && readRaw)
-                                {
-                                    final CharacterEncoding encoding =
-                                            baseReader.h5.getCharacterEncoding(dataTypeId);
-                                    for (int i = 0, startIdx = 0; i < spaceParams.blockSize; ++i, startIdx +=
-                                            strLength)
-                                    {
-                                        dataBlock[i] =
-                                                StringUtils.fromBytes(bdata, startIdx, startIdx
-                                                        + strLength, encoding);
-                                    }
-                                }
-                            }
+                            final String[] dataBlock =
+                                    readStrings(objectPath, dataSetId, spaceParams.memorySpaceId,
+                                            spaceParams.dataSpaceId, spaceParams.blockSize,
+                                            readRaw, registry).getStrings();
                             return new MDArray<String>(dataBlock, blockDimensions);
                         }
                     };
@@ -258,7 +258,7 @@ public class HDF5StringWriter extends HDF5StringReader implements IHDF5StringWri
                     boolean exists = baseWriter.h5.exists(baseWriter.fileId, objectPath);
                     if (exists && baseWriter.keepDataIfExists(features) == false)
                     {
-                        baseWriter.h5.deleteObject(baseWriter.fileId, objectPath);
+                        baseWriter.deleteObject(objectPath);
                         exists = false;
                     }
                     final long stringDataTypeId =
@@ -174,8 +174,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                         public HDF5TimeDuration call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5TimeUnit storedUnit =
                                     baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                             final long[] data = new long[1];
@@ -211,8 +210,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                         public HDF5TimeDurationArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5TimeUnit storedUnit =
                                     baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                             final DataSpaceParameters spaceParams =
@@ -266,8 +264,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                         public HDF5TimeDurationArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5TimeUnit storedUnit =
                                     baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                             final DataSpaceParameters spaceParams =
@@ -359,8 +356,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                         public HDF5TimeDurationMDArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5TimeUnit storedUnit =
                                     baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                             return new HDF5TimeDurationMDArray(longReader.readLongMDArray(
@@ -398,8 +394,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                         public HDF5TimeDurationMDArray call(ICleanUpRegistry registry)
                         {
                             final long dataSetId =
-                                    baseReader.h5.openDataSet(baseReader.fileId, objectPath,
-                                            registry);
+                                    baseReader.openDataSetId(objectPath, registry);
                             final HDF5TimeUnit storedUnit =
                                     baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                             final DataSpaceParameters spaceParams =
@@ -428,7 +423,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final HDF5TimeUnit storedUnit =
                             baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
@@ -465,7 +460,7 @@ class HDF5TimeDurationReader implements IHDF5TimeDurationReader
                 public int[] call(ICleanUpRegistry registry)
                 {
                     final long dataSetId =
-                            baseReader.h5.openDataSet(baseReader.fileId, objectPath, registry);
+                            baseReader.openDataSetId(objectPath, registry);
                     final HDF5TimeUnit storedUnit =
                             baseReader.checkIsTimeDuration(objectPath, dataSetId, registry);
                     final DataSpaceParameters spaceParams =
@@ -44,9 +44,25 @@ class HDF5ValueObjectByteifyer<T>
 
     private final int[] vlMemberIndices;
 
-    private Class<?> cachedRecordClass;
+    /**
+     * The default constructor of a record class. Immutable, so that it can be published to other
+     * threads through a single <code>volatile</code> field.
+     */
+    private static final class DefaultConstructor
+    {
+        final Class<?> recordClass;
+
+        final Constructor<?> constructor;
+
+        DefaultConstructor(Class<?> recordClass, Constructor<?> constructor)
+        {
+            this.recordClass = recordClass;
+            this.constructor = constructor;
+        }
+    }
 
-    private Constructor<?> cachedDefaultConstructor;
+    /** Byteifyers are shared between threads via the compound type cache. */
+    private volatile DefaultConstructor cachedDefaultConstructorOrNull;
 
     @SuppressWarnings("unchecked")
     private static <T> T newMap(int size)
@@ -161,16 +177,15 @@ class HDF5ValueObjectByteifyer<T>
             {
                 try
                 {
-                    final byte[] b = byteifyer.byteify(compoundDataTypeId, obj);
-                    if (b.length > byteifyer.getSize() && byteifyer.mayBeCut() == false)
+                    final int length =
+                            byteifyer.byteifyInto(compoundDataTypeId, obj, barray, offset);
+                    if (length > byteifyer.getSize() && byteifyer.mayBeCut() == false)
                     {
                         throw new HDF5JavaException("Compound " + byteifyer.describe()
                                 + " of array element " + counter + " must not exceed "
-                                + byteifyer.getSize() + " bytes, but is of size " + b.length
+                                + byteifyer.getSize() + " bytes, but is of size " + length
                                 + " bytes.");
                     }
-                    System.arraycopy(b, 0, barray, offset + byteifyer.getOffsetInMemory(),
-                            Math.min(b.length, byteifyer.getSize()));
                 } catch (IllegalAccessException ex)
                 {
                     throw new HDF5JavaException("Error accessing " + byteifyer.describe());
@@ -192,15 +207,13 @@ class HDF5ValueObjectByteifyer<T>
         {
             try
             {
-                final byte[] b = byteifyer.byteify(compoundDataTypeId, obj);
-                if (b.length > byteifyer.getSize() && byteifyer.mayBeCut() == false)
+                final int length = byteifyer.byteifyInto(compoundDataTypeId, obj, barray, 0);
+                if (length > byteifyer.getSize() && byteifyer.mayBeCut() == false)
                 {
                     throw new HDF5JavaException("Compound " + byteifyer.describe()
                             + " must not exceed " + byteifyer.getSize() + " bytes, but is of size "
-                            + b.length + " bytes.");
+                            + length + " bytes.");
                 }
-                System.arraycopy(b, 0, barray, byteifyer.getOffsetInMemory(),
-                        Math.min(b.length, byteifyer.getSize()));
             } catch (IllegalAccessException ex)
             {
                 throw new HDF5JavaException("Error accessing " + byteifyer.describe());
@@ -241,18 +254,27 @@ class HDF5ValueObjectByteifyer<T>
     private T primArrayifyScalar(long compoundDataTypeId, byte[] byteArr, Class<T> recordClass,
             int offset)
     {
-        T result = newInstance(recordClass);
+        final T result = newInstance(recordClass);
+        arrayifyInto(compoundDataTypeId, byteArr, offset, result);
+        return result;
+    }
+
+    /**
+     * Sets the members of the existing <var>record</var> from the record at <var>offset</var> in
+     * <var>byteArr</var>.
+     */
+    public void arrayifyInto(long compoundDataTypeId, byte[] byteArr, int offset, T record)
+    {
         for (HDF5MemberByteifyer byteifyer : byteifyers)
         {
             try
             {
-                byteifyer.setFromByteArray(compoundDataTypeId, result, byteArr, offset);
+                byteifyer.setFromByteArray(compoundDataTypeId, record, byteArr, offset);
             } catch (IllegalAccessException ex)
             {
                 throw new HDF5JavaException("Error accessing " + byteifyer.describe());
             }
         }
-        return result;
     }
 
     @SuppressWarnings("unchecked")
@@ -272,12 +294,15 @@ class HDF5ValueObjectByteifyer<T>
         }
         try
         {
-            if (recordClass != cachedRecordClass)
+            DefaultConstructor defaultConstructor = cachedDefaultConstructorOrNull;
+            if (defaultConstructor == null || defaultConstructor.recordClass != recordClass)
             {
-                cachedRecordClass = recordClass;
-                cachedDefaultConstructor = ReflectionUtils.getDefaultConstructor(recordClass);
+                defaultConstructor =
+                        new DefaultConstructor(recordClass,
+                                ReflectionUtils.getDefaultConstructor(recordClass));
+                cachedDefaultConstructorOrNull = defaultConstructor;
             }
-            return (T) cachedDefaultConstructor.newInstance();
+            return (T) defaultConstructor.constructor.newInstance();
         } catch (Exception ex)
         {
             throw new HDF5JavaException("Creation of new object of class "
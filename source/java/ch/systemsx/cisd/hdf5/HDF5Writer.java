@@ -19,6 +19,8 @@ package ch.systemsx.cisd.hdf5;
 import java.util.BitSet;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import hdf.hdf5lib.exceptions.HDF5JavaException;
 
@@ -85,6 +87,8 @@ final class HDF5Writer extends HDF5Reader implements IHDF5Writer
 
     private final IHDF5OpaqueWriter opaqueWriter;
 
+    private final IHDF5RawChunkWriter rawChunkWriter;
+
     HDF5Writer(HDF5BaseWriter baseWriter)
     {
         super(baseWriter);
@@ -113,6 +117,7 @@ final class HDF5Writer extends HDF5Reader implements IHDF5Writer
                 new HDF5TimeDurationWriter(baseWriter, (HDF5LongReader) longReader);
         this.referenceWriter = new HDF5ReferenceWriter(baseWriter);
         this.opaqueWriter = new HDF5OpaqueWriter(baseWriter);
+        this.rawChunkWriter = new HDF5RawChunkWriter(baseWriter);
     }
 
     HDF5BaseWriter getBaseWriter()
@@ -260,6 +265,24 @@ final class HDF5Writer extends HDF5Reader implements IHDF5Writer
         return referenceWriter;
     }
 
+    @Override
+    public IHDF5RawChunkWriter rawChunk()
+    {
+        return rawChunkWriter;
+    }
+
+    @Override
+    public IHDF5ParallelWriter parallel()
+    {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public IHDF5ParallelWriter parallel(ExecutorService executor)
+    {
+        return new HDF5ParallelWriter(baseWriter, this, executor);
+    }
+
     //
     // String
     //
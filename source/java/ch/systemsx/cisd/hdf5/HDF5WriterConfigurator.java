@@ -145,6 +145,30 @@ final class HDF5WriterConfigurator extends HDF5ReaderConfigurator implements
         return (HDF5WriterConfigurator) super.noAutoDereference();
     }
 
+    @Override
+    public HDF5WriterConfigurator concurrentFileAccess()
+    {
+        return (HDF5WriterConfigurator) super.concurrentFileAccess();
+    }
+
+    @Override
+    public HDF5WriterConfigurator chunkCache(HDF5ChunkCacheSettings settings)
+    {
+        return (HDF5WriterConfigurator) super.chunkCache(settings);
+    }
+
+    @Override
+    public HDF5WriterConfigurator dataSetHandleCache(int maxSize)
+    {
+        return (HDF5WriterConfigurator) super.dataSetHandleCache(maxSize);
+    }
+
+    @Override
+    public HDF5WriterConfigurator memoryMapContiguousDataSets()
+    {
+        return (HDF5WriterConfigurator) super.memoryMapContiguousDataSets();
+    }
+
     @Override
     public IHDF5Writer writer()
     {
@@ -155,7 +179,8 @@ final class HDF5WriterConfigurator extends HDF5ReaderConfigurator implements
                             useUTF8CharEncoding, autoDereference, fileFormatVersionBounds,
                             mdcImageGeneration, useExtentableDataTypes, overwriteFile, 
                             keepDataSetIfExists, useSimpleDataSpaceForAttributes, houseKeepingNameSuffix, 
-                            syncMode));
+                            syncMode, concurrentFileAccess, chunkCacheSettings,
+                            dataSetHandleCacheSize));
         }
         return (HDF5Writer) readerWriterOrNull;
     }
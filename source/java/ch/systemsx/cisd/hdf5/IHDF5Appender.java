@@ -0,0 +1,84 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.io.Flushable;
+
+/**
+ * An appender that writes a one-dimensional data set by appending elements to its end.
+ * <p>
+ * The appended elements are buffered in memory and written to the file one chunk at a time. The
+ * data set is extended in steps that grow with its size, so that most appends don't need to change
+ * the extent of the data set. On {@link #flush()} and {@link #close()}, the buffered elements are
+ * written and the data set is cut down to the number of appended elements. Between flushes, the
+ * data set in the file may be larger than the number of appended elements.
+ * <p>
+ * Obtain an appender from e.g. {@link IHDF5FloatWriter#createAppender(String, int)} or
+ * {@link IHDF5CompoundWriter#createAppender(String, HDF5CompoundType, int)}. An appender is
+ * flushed when the writer is flushed and closed when the writer is closed. It is not thread-safe.
+ * <p>
+ * A typical pattern for using this interface is:
+ * <pre>
+ *    try (final IHDF5Appender&lt;float[]&gt; appender = writer.float32().createAppender("/ts", 4096))
+ *    {
+ *        while (acquiring)
+ *        {
+ *            appender.append(acquireNextSamples());
+ *        }
+ *    }
+ * </pre>
+ *
+ * @param <T> The type of the arrays of elements to append, e.g. <code>float[]</code>.
+ * @author Bernd Rinn
+ */
+public interface IHDF5Appender<T> extends Flushable, AutoCloseable
+{
+    /**
+     * Appends all elements of <var>data</var>.
+     */
+    public void append(T data);
+
+    /**
+     * Appends <var>length</var> elements of <var>data</var>, starting at index <var>offset</var>
+     * of <var>data</var>.
+     */
+    public void append(T data, int offset, int length);
+
+    /**
+     * Returns the number of elements of the data set, including all elements appended so far.
+     */
+    public long size();
+
+    /**
+     * Returns the path of the data set this appender appends to.
+     */
+    public String getDataSetPath();
+
+    /**
+     * Writes all buffered elements to the data set and cuts the data set down to {@link #size()}.
+     */
+    @Override
+    public void flush();
+
+    /**
+     * Flushes this appender and closes the data set. This appender must not be used after being
+     * closed.
+     */
+    @Override
+    public void close();
+
+}
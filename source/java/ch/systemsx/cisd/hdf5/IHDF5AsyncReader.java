@@ -0,0 +1,493 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.util.concurrent.CompletableFuture;
+
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+
+/**
+ * An interface for reading numeric data sets asynchronously.
+ * <p>
+ * All methods return immediately with a {@link CompletableFuture} that is completed with the data
+ * read, or completed exceptionally with the exception the read failed with. The reads are
+ * performed on the I/O executor this reader has been obtained with. Requests for the same data set
+ * that are queued at the same time are served in one go with one open {@link HDF5DataSet}, and
+ * identical queued requests are read only once, each caller getting its own copy of the data.
+ * <p>
+ * Cancelling a returned future with {@link CompletableFuture#cancel(boolean)} before the request
+ * has been started removes it from the queue. A request that has already been started runs to
+ * completion, but its result is discarded.
+ * <p>
+ * Obtain an object implementing this interface by calling {@link IHDF5Reader#async()} or
+ * {@link IHDF5Reader#async(java.util.concurrent.ExecutorService)}.
+ * 
+ * @author Bernd Rinn
+ */
+public interface IHDF5AsyncReader
+{
+
+    /**
+     * Reads a byte array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5ByteReader#readArray(String)
+     */
+    public CompletableFuture<byte[]> readByteArray(String objectPath);
+
+    /**
+     * Reads a block of a byte array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ByteReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<byte[]> readByteArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a byte array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ByteReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<byte[]> readByteArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional byte array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5ByteReader#readMDArray(String)
+     */
+    public CompletableFuture<MDByteArray> readByteMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional byte array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ByteReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDByteArray> readByteMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional byte array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ByteReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDByteArray> readByteMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+    /**
+     * Reads a short array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5ShortReader#readArray(String)
+     */
+    public CompletableFuture<short[]> readShortArray(String objectPath);
+
+    /**
+     * Reads a block of a short array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ShortReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<short[]> readShortArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a short array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ShortReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<short[]> readShortArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional short array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5ShortReader#readMDArray(String)
+     */
+    public CompletableFuture<MDShortArray> readShortMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional short array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ShortReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDShortArray> readShortMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional short array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5ShortReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDShortArray> readShortMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+    /**
+     * Reads a int array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5IntReader#readArray(String)
+     */
+    public CompletableFuture<int[]> readIntArray(String objectPath);
+
+    /**
+     * Reads a block of a int array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5IntReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<int[]> readIntArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a int array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5IntReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<int[]> readIntArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional int array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5IntReader#readMDArray(String)
+     */
+    public CompletableFuture<MDIntArray> readIntMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional int array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5IntReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDIntArray> readIntMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional int array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5IntReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDIntArray> readIntMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+    /**
+     * Reads a long array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5LongReader#readArray(String)
+     */
+    public CompletableFuture<long[]> readLongArray(String objectPath);
+
+    /**
+     * Reads a block of a long array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5LongReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<long[]> readLongArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a long array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5LongReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<long[]> readLongArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional long array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5LongReader#readMDArray(String)
+     */
+    public CompletableFuture<MDLongArray> readLongMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional long array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5LongReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDLongArray> readLongMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional long array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5LongReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDLongArray> readLongMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+    /**
+     * Reads a float array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5FloatReader#readArray(String)
+     */
+    public CompletableFuture<float[]> readFloatArray(String objectPath);
+
+    /**
+     * Reads a block of a float array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5FloatReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<float[]> readFloatArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a float array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5FloatReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<float[]> readFloatArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional float array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5FloatReader#readMDArray(String)
+     */
+    public CompletableFuture<MDFloatArray> readFloatMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional float array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5FloatReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDFloatArray> readFloatMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional float array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5FloatReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDFloatArray> readFloatMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+    /**
+     * Reads a double array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5DoubleReader#readArray(String)
+     */
+    public CompletableFuture<double[]> readDoubleArray(String objectPath);
+
+    /**
+     * Reads a block of a double array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5DoubleReader#readArrayBlock(String, int, long)
+     */
+    public CompletableFuture<double[]> readDoubleArrayBlock(String objectPath, int blockSize,
+            long blockNumber);
+
+    /**
+     * Reads a block of a double array data set <var>objectPath</var>, starting at
+     * <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the array returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with
+     *            0).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5DoubleReader#readArrayBlockWithOffset(String, int, long)
+     */
+    public CompletableFuture<double[]> readDoubleArrayBlockWithOffset(String objectPath,
+            int blockSize, long offset);
+
+    /**
+     * Reads a multi-dimensional double array data set <var>objectPath</var> asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The future of the data read from the data set.
+     * @see IHDF5DoubleReader#readMDArray(String)
+     */
+    public CompletableFuture<MDDoubleArray> readDoubleMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional double array data set <var>objectPath</var>
+     * asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param blockNumber The block number in each dimension (offset: multiply with the
+     *            <var>blockDimensions</var> in the according dimension).
+     * @return The future of the data block read from the data set.
+     * @see IHDF5DoubleReader#readMDArrayBlock(String, int[], long[])
+     */
+    public CompletableFuture<MDDoubleArray> readDoubleMDArrayBlock(String objectPath,
+            int[] blockDimensions, long[] blockNumber);
+
+    /**
+     * Reads a block of a multi-dimensional double array data set <var>objectPath</var>, starting
+     * at <var>offset</var>, asynchronously.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The future of the data block read from the data set.
+     * @see IHDF5DoubleReader#readMDArrayBlockWithOffset(String, int[], long[])
+     */
+    public CompletableFuture<MDDoubleArray> readDoubleMDArrayBlockWithOffset(String objectPath,
+            int[] blockDimensions, long[] offset);
+
+}
@@ -16,6 +16,10 @@
 
 package ch.systemsx.cisd.hdf5;
 
+import java.nio.ByteBuffer;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
 import ch.systemsx.cisd.base.mdarray.MDByteArray;
 
 /**
@@ -298,6 +302,36 @@ public interface IHDF5ByteWriter extends IHDF5ByteReader
     public HDF5DataSetTemplate createArrayTemplate(long size, int blockSize,
             HDF5IntStorageFeatures features);
 
+    /**
+     * Creates an extendable <code>byte</code> array (of rank 1) and returns an appender that
+     * appends to its end. The appended elements are written one chunk at a time.
+     * <p>
+     * <i>The appender returned by this method must be closed after work. It is closed when the
+     * writer is closed, latest.</i>
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param chunkSize The number of elements of one chunk of the data set and of the buffer of
+     *            the appender.
+     * @return The appender for the new data set.
+     */
+    public IHDF5Appender<byte[]> createAppender(String objectPath, int chunkSize);
+
+    /**
+     * Creates an extendable <code>byte</code> array (of rank 1) and returns an appender that
+     * appends to its end. The appended elements are written one chunk at a time.
+     * <p>
+     * <i>The appender returned by this method must be closed after work. It is closed when the
+     * writer is closed, latest.</i>
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param chunkSize The number of elements of one chunk of the data set and of the buffer of
+     *            the appender.
+     * @param features The storage features of the data set.
+     * @return The appender for the new data set.
+     */
+    public IHDF5Appender<byte[]> createAppender(String objectPath, int chunkSize,
+            HDF5IntStorageFeatures features);
+
     /**
      * Writes out a block of a <code>byte</code> array (of rank 1). The data set needs to have
      * been created by {@link #createArray(String, long, int, HDF5IntStorageFeatures)}
@@ -363,6 +397,42 @@ public interface IHDF5ByteWriter extends IHDF5ByteReader
      */
     public void writeArrayBlockWithOffset(HDF5DataSet dataSet, byte[] data,
             int dataSize, long offset);
+
+    /**
+     * Writes out a block of a <code>byte</code> array (of rank 1) from the direct
+     * <var>buffer</var>, starting at the current position of the buffer. All remaining complete
+     * elements of the buffer are written and the position of the buffer is advanced accordingly.
+     * The data set is extended if necessary.
+     * <p>
+     * The values are expected in the native byte order of the platform. The data are transferred
+     * directly from the buffer without a copy on the Java heap.
+     * 
+     * @param dataSet The data set to write to.
+     * @param buffer The direct buffer to write the data from.
+     * @param offset The offset in the data set to start writing to.
+     */
+    public void writeFromBuffer(HDF5DataSet dataSet, ByteBuffer buffer, long offset);
+
+    /**
+     * Writes out a multi-dimensional block of a <code>byte</code> array from the direct
+     * <var>buffer</var>, starting at the current position of the buffer. The values of the block
+     * are expected in row-major order and in the native byte order of the platform. The position
+     * of the buffer is advanced by the number of bytes written. The data set is extended if
+     * necessary.
+     * <p>
+     * Unlike {@link #writeMDArrayBlockWithOffset(HDF5DataSet, MDByteArray, long[])}, the
+     * extent of the block is given as <code>long</code> values per dimension. One call is bounded
+     * by the capacity of the buffer, i.e. 2 GiB.
+     * 
+     * @param dataSet The data set to write to.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     * @param buffer The direct buffer to write the block from.
+     * @throws HDF5JavaException If <var>buffer</var> is not a direct buffer or if it has less
+     *             remaining elements than the block.
+     */
+    public void writeMDArrayBlockWithOffsetFromBuffer(HDF5DataSet dataSet, long[] blockDimensions,
+            long[] offset, ByteBuffer buffer) throws HDF5JavaException;
             
     /**
      * Writes out a <code>byte</code> matrix (array of rank 2).
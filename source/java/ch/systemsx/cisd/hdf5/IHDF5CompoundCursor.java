@@ -0,0 +1,139 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import hdf.hdf5lib.exceptions.HDF5JavaException;
+
+/**
+ * A cursor over the records of a compound array (of rank 1) that reads the data set block by
+ * block into one re-used buffer and doesn't create any objects per record, so that scanning even
+ * very large tables doesn't put any load on the garbage collector.
+ * <p>
+ * The members of the current record can either be accessed directly by their member index, e.g.
+ * with {@link #getFloat(int)}, or copied into a record object provided by the caller with
+ * {@link #get(Object)}.
+ * <p>
+ * Obtain an object implementing this interface by calling
+ * {@link IHDF5CompoundReader#getCursor(String, HDF5CompoundType)}. The pattern for using it is:
+ *
+ * <pre>
+ * try (IHDF5CompoundCursor&lt;Record&gt; cursor = reader.compound().getCursor(path, type))
+ * {
+ *     final int xIdx = cursor.getMemberIndex(&quot;x&quot;);
+ *     final Record record = new Record();
+ *     while (cursor.next())
+ *     {
+ *         sum += cursor.getFloat(xIdx);
+ *         ... or: cursor.get(record); ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Bernd Rinn
+ */
+public interface IHDF5CompoundCursor<T> extends AutoCloseable
+{
+    /**
+     * Moves the cursor to the next record.
+     * 
+     * @return <code>true</code>, if there is a next record, <code>false</code>, if the cursor has
+     *         passed the last record.
+     */
+    public boolean next();
+
+    /**
+     * Returns the index of the current record in the data set.
+     */
+    public long getIndex();
+
+    /**
+     * Returns the number of records of the data set.
+     */
+    public long getNumberOfRecords();
+
+    /**
+     * Returns the compound type of this cursor.
+     */
+    public HDF5CompoundType<T> getType();
+
+    /**
+     * Returns the index of the member <var>memberName</var> to use with the accessor methods.
+     * 
+     * @throws HDF5JavaException If the compound type has no member <var>memberName</var>.
+     */
+    public int getMemberIndex(String memberName) throws HDF5JavaException;
+
+    /**
+     * Copies the current record into <var>record</var>.
+     * 
+     * @return <var>record</var>.
+     */
+    public T get(T record);
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be a 1 byte
+     * integer.
+     */
+    public byte getByte(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be an
+     * integer of at most 2 bytes.
+     */
+    public short getShort(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be an
+     * integer of at most 4 bytes.
+     */
+    public int getInt(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be an
+     * integer.
+     */
+    public long getLong(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be a 4 byte
+     * float.
+     */
+    public float getFloat(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be a float.
+     */
+    public double getDouble(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be a boolean
+     * or an integer (where any value different from 0 is <code>true</code>).
+     */
+    public boolean getBoolean(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Returns the member <var>memberIndex</var> of the current record, which needs to be a string
+     * or an enum.
+     */
+    public String getString(int memberIndex) throws HDF5JavaException;
+
+    /**
+     * Closes the data set of this cursor.
+     */
+    @Override
+    public void close();
+}
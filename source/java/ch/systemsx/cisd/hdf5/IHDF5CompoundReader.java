@@ -16,6 +16,8 @@
 
 package ch.systemsx.cisd.hdf5;
 
+import java.util.Map;
+
 import hdf.hdf5lib.exceptions.HDF5JavaException;
 
 import ch.systemsx.cisd.base.mdarray.MDArray;
@@ -260,6 +262,101 @@ public interface IHDF5CompoundReader extends IHDF5CompoundInformationRetriever
             int blockSize, long offset, IByteArrayInspector inspectorOrNull)
             throws HDF5JavaException;
 
+    /**
+     * Returns a cursor over the records of the compound array (of rank 1) <var>objectPath</var>
+     * that reads the data set in blocks of about 1MB (a multiple of the chunk size for chunked
+     * data sets) into one re-used buffer. The cursor needs to be closed after use.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param type The type definition of this compound type.
+     * @throws HDF5JavaException If the data set is not of rank 1 or not a compound data set.
+     */
+    public <T> IHDF5CompoundCursor<T> getCursor(String objectPath, HDF5CompoundType<T> type)
+            throws HDF5JavaException;
+
+    /**
+     * Returns a cursor over the records of the compound array (of rank 1) <var>objectPath</var>
+     * that reads the data set in blocks of <var>blockSize</var> records into one re-used buffer.
+     * The cursor needs to be closed after use.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param type The type definition of this compound type.
+     * @param blockSize The number of records to read in one go.
+     * @throws HDF5JavaException If the data set is not of rank 1 or not a compound data set.
+     */
+    public <T> IHDF5CompoundCursor<T> getCursor(String objectPath, HDF5CompoundType<T> type,
+            int blockSize) throws HDF5JavaException;
+
+    /**
+     * Returns a cursor over the records of the compound array (of rank 1) <var>objectPath</var>
+     * that reads the data set in blocks of about 1MB (a multiple of the chunk size for chunked
+     * data sets) into one re-used buffer. The cursor needs to be closed after use.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param pojoClass The class to map the records to, see
+     *            {@link #readArray(String, Class)}.
+     * @throws HDF5JavaException If the data set is not of rank 1, not a compound data set or if the
+     *             mapping between the compound type and the POJO is not complete.
+     */
+    public <T> IHDF5CompoundCursor<T> getCursor(String objectPath, Class<T> pojoClass)
+            throws HDF5JavaException;
+
+    /**
+     * Reads the members <var>memberNames</var> of the compound array (of rank 1)
+     * <var>objectPath</var> into one array ("column") per member. Only the selected members are
+     * transferred from the file, so this is a lot faster than reading full records if only a few
+     * members of a wide compound type are needed.
+     * <p>
+     * The column of an integer member is a <code>byte[]</code>, <code>short[]</code>,
+     * <code>int[]</code> or <code>long[]</code>, depending on the size of the member, the column of
+     * a float member is a <code>float[]</code> or <code>double[]</code>, the column of a boolean
+     * member is a <code>boolean[]</code> and the column of a string or enum member is a
+     * <code>String[]</code>.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param memberNames The names of the compound members to read.
+     * @return The map of member names to columns, in the order of <var>memberNames</var>.
+     * @throws HDF5JavaException If the <var>objectPath</var> is not a compound data set or if one
+     *             of the members doesn't exist or cannot be read into a column.
+     */
+    public Map<String, Object> readColumns(String objectPath, String... memberNames)
+            throws HDF5JavaException;
+
+    /**
+     * Reads a block of the members <var>memberNames</var> of the compound array (of rank 1)
+     * <var>objectPath</var> into one array ("column") per member. See
+     * {@link #readColumns(String, String...)} for the types of the columns.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param memberNames The names of the compound members to read.
+     * @param blockSize The block size (this will be the length of the columns returned if the data
+     *            set is long enough).
+     * @param blockNumber The number of the block to read (starting with 0, offset: multiply with
+     *            <var>blockSize</var>).
+     * @return The map of member names to columns, in the order of <var>memberNames</var>.
+     * @throws HDF5JavaException If the <var>objectPath</var> is not a compound data set or if one
+     *             of the members doesn't exist or cannot be read into a column.
+     */
+    public Map<String, Object> readColumnsBlock(String objectPath, String[] memberNames,
+            int blockSize, long blockNumber) throws HDF5JavaException;
+
+    /**
+     * Reads a block of the members <var>memberNames</var> of the compound array (of rank 1)
+     * <var>objectPath</var> into one array ("column") per member. See
+     * {@link #readColumns(String, String...)} for the types of the columns.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param memberNames The names of the compound members to read.
+     * @param blockSize The block size (this will be the length of the columns returned if the data
+     *            set is long enough).
+     * @param offset The offset of the block to read (starting with 0).
+     * @return The map of member names to columns, in the order of <var>memberNames</var>.
+     * @throws HDF5JavaException If the <var>objectPath</var> is not a compound data set or if one
+     *             of the members doesn't exist or cannot be read into a column.
+     */
+    public Map<String, Object> readColumnsBlockWithOffset(String objectPath, String[] memberNames,
+            int blockSize, long offset) throws HDF5JavaException;
+
     /**
      * Provides all natural blocks of this one-dimensional data set of compounds to iterate over.
      * 
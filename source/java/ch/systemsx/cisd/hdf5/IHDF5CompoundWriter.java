@@ -449,6 +449,39 @@ public interface IHDF5CompoundWriter extends IHDF5CompoundReader
     public <T> void createArray(String objectPath, HDF5CompoundType<T> type, long size,
             HDF5GenericStorageFeatures features);
 
+    /**
+     * Creates an extendable array (of rank 1) of compound values and returns an appender that
+     * appends to its end. The appended elements are written one chunk at a time.
+     * <p>
+     * <i>The appender returned by this method must be closed after work. It is closed when the
+     * writer is closed, latest.</i>
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param type The type definition of this compound type.
+     * @param chunkSize The number of elements of one chunk of the data set and of the buffer of
+     *            the appender.
+     * @return The appender for the new data set.
+     */
+    public <T> IHDF5Appender<T[]> createAppender(String objectPath, HDF5CompoundType<T> type,
+            int chunkSize);
+
+    /**
+     * Creates an extendable array (of rank 1) of compound values and returns an appender that
+     * appends to its end. The appended elements are written one chunk at a time.
+     * <p>
+     * <i>The appender returned by this method must be closed after work. It is closed when the
+     * writer is closed, latest.</i>
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param type The type definition of this compound type.
+     * @param chunkSize The number of elements of one chunk of the data set and of the buffer of
+     *            the appender.
+     * @param features The storage features of the data set.
+     * @return The appender for the new data set.
+     */
+    public <T> IHDF5Appender<T[]> createAppender(String objectPath, HDF5CompoundType<T> type,
+            int chunkSize, HDF5GenericStorageFeatures features);
+
     /**
      * Writes out an array (of rank N) of compound values.
      * 
@@ -16,6 +16,8 @@
 
 package ch.systemsx.cisd.hdf5;
 
+import java.nio.ByteBuffer;
+
 import hdf.hdf5lib.exceptions.HDF5JavaException;
 
 import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
@@ -219,6 +221,102 @@ public interface IHDF5DoubleReader
     public double[] readArrayBlockWithOffset(HDF5DataSet dataSet, int blockSize,
             long offset);
 
+    /**
+     * Reads a block from <code>double</code> array (of rank 1) from the <var>dataSet</var> into
+     * the caller-supplied array <var>target</var>.
+     * <p>
+     * <i>This method doesn't allocate a new array and is thus suitable for reading many blocks
+     * into one re-used buffer.</i>
+     * 
+     * @param dataSet The data set to read from.
+     * @param target The array to read the block into.
+     * @param targetOffset The offset in <var>target</var> to start writing the block to.
+     * @param count The number of elements to read. The block will be shorter if it extends beyond
+     *            the end of the data set.
+     * @param offset The offset of the block in the data set to start reading from (starting with 0).
+     * @return The number of elements actually read into <var>target</var>.
+     */
+    public int readArrayBlockWithOffset(HDF5DataSet dataSet, double[] target, int targetOffset,
+            int count, long offset);
+
+    /**
+     * Reads a block from <code>double</code> array (of rank 1) from the <var>dataSet</var> into
+     * the direct <var>buffer</var>, starting at the current position of the buffer. As many
+     * elements are read as fit into the remaining space of the buffer, but no more than the data
+     * set has from <var>offset</var> on. The position of the buffer is advanced by the number of
+     * bytes read.
+     * <p>
+     * The values are stored in the native byte order of the platform, so use a buffer with
+     * {@link java.nio.ByteOrder#nativeOrder()} to access them. The data are transferred directly
+     * into the buffer without a copy on the Java heap.
+     * 
+     * @param dataSet The data set to read from.
+     * @param buffer The direct buffer to read the block into.
+     * @param offset The offset of the block in the data set to start reading from (starting with 0).
+     * @return The number of elements read into the <var>buffer</var>.
+     * @throws HDF5JavaException If <var>buffer</var> is not a direct buffer or if it is read-only.
+     */
+    public int readToBuffer(HDF5DataSet dataSet, ByteBuffer buffer, long offset)
+            throws HDF5JavaException;
+
+    /**
+     * Reads a multi-dimensional block of the <code>double</code> array <var>dataSet</var> into
+     * the direct <var>buffer</var>, starting at the current position of the buffer. The block is
+     * stored in row-major order and is cut off where it extends beyond the data set. The position
+     * of the buffer is advanced by the number of bytes read.
+     * <p>
+     * Unlike {@link #readMDArrayBlockWithOffset(HDF5DataSet, int[], long[])}, the extent of the
+     * block is given as <code>long</code> values per dimension. One call is bounded by the capacity
+     * of the buffer, i.e. 2 GiB. The values are stored in the native byte order of the platform,
+     * so use a buffer with {@link java.nio.ByteOrder#nativeOrder()} to access them.
+     * 
+     * @param dataSet The data set to read from.
+     * @param blockDimensions The extent of the block in each dimension.
+     * @param offset The offset of the block in the data set to start reading from in each
+     *            dimension (starting with 0).
+     * @param buffer The direct buffer to read the block into.
+     * @return The dimensions of the block read into the <var>buffer</var>.
+     * @throws HDF5JavaException If <var>buffer</var> is not a direct buffer, if it is read-only or
+     *             if its remaining space is too small for the block.
+     */
+    public long[] readMDArrayBlockWithOffsetToBuffer(HDF5DataSet dataSet, long[] blockDimensions,
+            long[] offset, ByteBuffer buffer) throws HDF5JavaException;
+
+    /**
+     * Returns a read-only view on the <code>double</code> array <var>objectPath</var> that is
+     * mapped into memory, or <code>null</code>, if the data set can't be mapped. The values of a
+     * data set of rank larger than 1 are returned in row-major order.
+     * <p>
+     * A data set can be mapped if the reader has been configured with
+     * {@link IHDF5ReaderConfigurator#memoryMapContiguousDataSets()}, if its data are stored
+     * contiguously and uncompressed in the file, if its data type equals the native data type of
+     * this reader, and if it is smaller than 2GB.
+     * <p>
+     * The view stays valid after the reader has been closed. Closing the reader doesn't release
+     * the mapping; that only happens when the view and all buffers derived from it have been
+     * garbage collected. As long as a mapping is alive, the file can't be deleted, truncated or
+     * overwritten on Windows.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The mapped data, or <code>null</code>, if the data set can't be mapped.
+     */
+    public java.nio.DoubleBuffer tryMapArray(String objectPath);
+
+    /**
+     * Returns a read-only view on a block of the <code>double</code> array (of rank 1)
+     * <var>objectPath</var> that is mapped into memory, or <code>null</code>, if the data set
+     * can't be mapped. See {@link #tryMapArray(String)} for when a data set can be mapped and for
+     * the lifetime of the mapping.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The block size (this will be the length of the returned buffer if the data
+     *            set is long enough).
+     * @param offset The offset of the block in the data set to start reading from (starting with 0).
+     * @return The mapped block, or <code>null</code>, if the data set can't be mapped.
+     */
+    public java.nio.DoubleBuffer tryMapArrayBlockWithOffset(String objectPath, int blockSize,
+            long offset);
+
     /**
      * Reads a <code>double</code> matrix (array of arrays) from the data set
      * <var>objectPath</var>.
@@ -545,6 +643,22 @@ public interface IHDF5DoubleReader
     									String dataSetPath)
             throws HDF5JavaException;
 
+    /**
+     * Provides all natural blocks of this one-dimensional data set to iterate over.
+     * <p>
+     * If <var>reuseBuffer</var> is <code>true</code>, all blocks of the same size are read into one
+     * buffer which is re-used by each call to {@link java.util.Iterator#next()}, so the data of a
+     * block are only valid until the next block is requested. Copy them if you need to keep them.
+     * 
+     * @param dataSetPath The name (including path information) of the data set object in the file.
+     * @param reuseBuffer If <code>true</code>, re-use one buffer for all blocks rather than
+     *            allocating a new array for each block.
+     * @see HDF5DataBlock
+     * @throws HDF5JavaException If the data set is not of rank 1.
+     */
+    public Iterable<HDF5DataBlock<double[]>> getArrayNaturalBlocks(String dataSetPath,
+            boolean reuseBuffer) throws HDF5JavaException;
+
     /**
      * Provides all natural blocks of this multi-dimensional data set to iterate over.
      * 
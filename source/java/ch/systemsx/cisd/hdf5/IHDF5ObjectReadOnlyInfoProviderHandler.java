@@ -85,6 +85,17 @@ public interface IHDF5ObjectReadOnlyInfoProviderHandler
      */
     public HDF5DataSet openDataSet(final String objectPath);
 
+    /**
+     * Opens a data set for reading (reader and writer) or writing (writer) with a raw data chunk
+     * cache of <var>chunkCache</var>. A large chunk cache pays off if the data set is accessed in
+     * blocks that cross many chunks.
+     *  
+     * @param objectPath The name (with path) of the data set to open
+     * @param chunkCache The settings of the chunk cache. Use {@link HDF5ChunkCacheSettings#AUTO}
+     *            to derive them from the chunk size and dimensions of the data set.
+     */
+    public HDF5DataSet openDataSet(final String objectPath, HDF5ChunkCacheSettings chunkCache);
+
     /**
      * Creates and returns an internal (house-keeping) version of <var>objectPath</var>.
      */
@@ -407,6 +418,85 @@ public interface IHDF5ObjectReadOnlyInfoProviderHandler
     public List<HDF5LinkInformation> getAllGroupMemberInformation(final String groupPath,
             boolean readLinkTargets);
 
+    /**
+     * Returns a page with the link information about the members of <var>groupPath</var> that
+     * have the indices <var>startIndex</var> to <var>startIndex + pageSize - 1</var> in the name
+     * index of the group. Internal names are left out. Only the members of the page are held in
+     * memory, so use this method rather than {@link #getGroupMemberInformation(String, boolean)}
+     * for groups with very many members.
+     * 
+     * @param groupPath The path of the group to get the members for.
+     * @param startIndex The index of the first member of the page, starting with 0.
+     * @param pageSize The number of members of the page.
+     * @param readLinkTargets If <code>true</code>, for symbolic links the link targets will be
+     *            available via {@link HDF5LinkInformation#tryGetSymbolicLinkTarget()}.
+     * @throws IllegalArgumentException If <var>groupPath</var> is not a group.
+     */
+    public HDF5GroupMemberPage getGroupMemberInformationPage(String groupPath, long startIndex,
+            int pageSize, boolean readLinkTargets);
+
+    /**
+     * Returns an iterator over the link information about the members of <var>groupPath</var>,
+     * in the order of the name index of the group. The members are read in pages of
+     * {@link HDF5GroupMemberIterator#DEFAULT_PAGE_SIZE} members. Internal names are left out.
+     * 
+     * @param groupPath The path of the group to get the members for.
+     * @param readLinkTargets If <code>true</code>, for symbolic links the link targets will be
+     *            available via {@link HDF5LinkInformation#tryGetSymbolicLinkTarget()}.
+     * @throws IllegalArgumentException If <var>groupPath</var> is not a group.
+     */
+    public HDF5GroupMemberIterator getGroupMemberInformationIterator(String groupPath,
+            boolean readLinkTargets);
+
+    /**
+     * Returns an iterator over the link information about the members of <var>groupPath</var>,
+     * in the order of the name index of the group, starting with the member with index
+     * <var>startIndex</var>. Use {@link HDF5GroupMemberIterator#getNextIndex()} of an earlier
+     * iterator as <var>startIndex</var> to resume an iteration. Internal names are left out.
+     * 
+     * @param groupPath The path of the group to get the members for.
+     * @param startIndex The index of the first member, starting with 0.
+     * @param pageSize The number of members to read at a time.
+     * @param readLinkTargets If <code>true</code>, for symbolic links the link targets will be
+     *            available via {@link HDF5LinkInformation#tryGetSymbolicLinkTarget()}.
+     * @throws IllegalArgumentException If <var>groupPath</var> is not a group.
+     */
+    public HDF5GroupMemberIterator getGroupMemberInformationIterator(String groupPath,
+            long startIndex, int pageSize, boolean readLinkTargets);
+
+    /**
+     * Visits all objects below <var>groupPath</var> recursively, in the order of their names.
+     * The file is traversed by the HDF5 library in one call rather than group by group. Each
+     * object is visited once, with the first path it is found by, even if it has more than one
+     * hard link. Symbolic links are not followed. Internal objects are left out and only the
+     * basic object information is read, i.e. {@link HDF5ObjectInformation#getCreationTime()} and
+     * {@link HDF5ObjectInformation#getNumberOfAttributes()} return 0.
+     * 
+     * @param groupPath The path of the group to start the traversal at.
+     * @param visitor The visitor to call for each object. The traversal stops when it returns
+     *            <code>false</code>.
+     * @throws IllegalArgumentException If <var>groupPath</var> is not a group.
+     */
+    public void visitObjects(String groupPath, IHDF5ObjectVisitor visitor);
+
+    /**
+     * Visits all objects below <var>groupPath</var> recursively, in the order of their names.
+     * The file is traversed by the HDF5 library in one call rather than group by group. Each
+     * object is visited once, with the first path it is found by, even if it has more than one
+     * hard link. Symbolic links are not followed.
+     * 
+     * @param groupPath The path of the group to start the traversal at.
+     * @param visitor The visitor to call for each object. The traversal stops when it returns
+     *            <code>false</code>.
+     * @param includeInternal If <code>true</code>, objects that are used internally by the
+     *            library are visited, too.
+     * @param readAllObjectInfo If <code>true</code>, the creation time and the number of
+     *            attributes of the objects are read, too.
+     * @throws IllegalArgumentException If <var>groupPath</var> is not a group.
+     */
+    public void visitObjects(String groupPath, IHDF5ObjectVisitor visitor,
+            boolean includeInternal, boolean readAllObjectInfo);
+
     // /////////////////////
     // Types
     // /////////////////////
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+/**
+ * A role to visit the objects of an HDF5 file, see
+ * {@link IHDF5ObjectReadOnlyInfoProviderHandler#visitObjects(String, IHDF5ObjectVisitor)}.
+ *
+ * @author Bernd Rinn
+ */
+public interface IHDF5ObjectVisitor
+{
+    /**
+     * Visits the object described by <var>info</var>. The visitor must not modify the file.
+     *
+     * @return <code>true</code>, if the traversal should continue, <code>false</code>, if it
+     *         should stop.
+     */
+    public boolean visit(HDF5ObjectInformation info);
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+
+/**
+ * An interface for reading multi-dimensional numeric data sets by decoding their chunks in
+ * parallel.
+ * <p>
+ * A chunked data set whose filter pipeline only consists of the deflate and the shuffle filter,
+ * and whose element type matches the requested type in size, is read chunk by chunk without
+ * applying the filters in the HDF5 library. The chunks are inflated, unshuffled and copied into the
+ * result on the executor this reader has been obtained with. The raw reading of the chunks from
+ * the file is still serialized. All other data sets are read in the same way as by the
+ * corresponding type reader, e.g. {@link IHDF5FloatReader#readMDArray(String)}.
+ * <p>
+ * Integer values are returned with the bit pattern as stored in the file, that is unsigned values
+ * are returned in the same way as by the unsigned readers, e.g. {@link IHDF5Reader#uint16()}.
+ * <p>
+ * Obtain an object implementing this interface by calling {@link IHDF5Reader#parallel()} or
+ * {@link IHDF5Reader#parallel(java.util.concurrent.ExecutorService)}.
+ * 
+ * @author Bernd Rinn
+ */
+public interface IHDF5ParallelReader
+{
+
+    /**
+     * Reads a multi-dimensional byte array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDByteArray readByteMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional byte array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDByteArray readByteMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+    /**
+     * Reads a multi-dimensional short array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDShortArray readShortMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional short array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDShortArray readShortMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+    /**
+     * Reads a multi-dimensional int array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDIntArray readIntMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional int array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDIntArray readIntMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+    /**
+     * Reads a multi-dimensional long array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDLongArray readLongMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional long array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDLongArray readLongMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+    /**
+     * Reads a multi-dimensional float array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDFloatArray readFloatMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional float array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDFloatArray readFloatMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+    /**
+     * Reads a multi-dimensional double array data set <var>objectPath</var>, decoding its chunks in
+     * parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The data read from the data set.
+     */
+    public MDDoubleArray readDoubleMDArray(String objectPath);
+
+    /**
+     * Reads a block of a multi-dimensional double array data set <var>objectPath</var>, decoding
+     * the chunks that intersect with the block in parallel.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockDimensions The extent of the block in each dimension. A negative value means:
+     *            until the end of the data set.
+     * @param offset The offset in the data set to start reading from in each dimension.
+     * @return The data block read from the data set.
+     */
+    public MDDoubleArray readDoubleMDArrayBlockWithOffset(String objectPath, int[] blockDimensions,
+            long[] offset);
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import ch.systemsx.cisd.base.mdarray.MDByteArray;
+import ch.systemsx.cisd.base.mdarray.MDDoubleArray;
+import ch.systemsx.cisd.base.mdarray.MDFloatArray;
+import ch.systemsx.cisd.base.mdarray.MDIntArray;
+import ch.systemsx.cisd.base.mdarray.MDLongArray;
+import ch.systemsx.cisd.base.mdarray.MDShortArray;
+
+/**
+ * An interface for writing blocks of multi-dimensional numeric data sets by encoding their chunks
+ * in parallel.
+ * <p>
+ * For a chunked data set whose filter pipeline only consists of the deflate and the shuffle filter,
+ * and whose element type matches the type of the data in size, the chunks that are completely
+ * covered by the block are shuffled and compressed with {@link java.util.zip.Deflater} on the
+ * executor this writer has been obtained with, and written to the file as pre-filtered chunks. The
+ * file stays readable with any HDF5 library. The chunks that are only partially covered by the
+ * block are written by the HDF5 library. All other data sets are written in the same way as by the
+ * corresponding type writer, e.g.
+ * {@link IHDF5FloatWriter#writeMDArrayBlockWithOffset(String, MDFloatArray, long[])}.
+ * <p>
+ * Create the data set first, e.g. with
+ * {@link IHDF5FloatWriter#createMDArray(String, long[], int[], HDF5FloatStorageFeatures)}. For
+ * best performance, choose block offsets and dimensions that are multiples of the chunk size.
+ * <p>
+ * Obtain an object implementing this interface by calling {@link IHDF5Writer#parallel()} or
+ * {@link IHDF5Writer#parallel(java.util.concurrent.ExecutorService)}.
+ * 
+ * @author Bernd Rinn
+ */
+public interface IHDF5ParallelWriter extends IHDF5ParallelReader
+{
+
+    /**
+     * Writes a block of a multi-dimensional byte array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeByteMDArrayBlockWithOffset(String objectPath, MDByteArray data,
+            long[] offset);
+
+    /**
+     * Writes a block of a multi-dimensional short array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeShortMDArrayBlockWithOffset(String objectPath, MDShortArray data,
+            long[] offset);
+
+    /**
+     * Writes a block of a multi-dimensional int array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeIntMDArrayBlockWithOffset(String objectPath, MDIntArray data,
+            long[] offset);
+
+    /**
+     * Writes a block of a multi-dimensional long array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeLongMDArrayBlockWithOffset(String objectPath, MDLongArray data,
+            long[] offset);
+
+    /**
+     * Writes a block of a multi-dimensional float array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeFloatMDArrayBlockWithOffset(String objectPath, MDFloatArray data,
+            long[] offset);
+
+    /**
+     * Writes a block of a multi-dimensional double array data set <var>objectPath</var>, encoding
+     * its chunks in parallel. The data set is extended if necessary.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param data The data to write. Must not be <code>null</code>.
+     * @param offset The offset in the data set to start writing to in each dimension.
+     */
+    public void writeDoubleMDArrayBlockWithOffset(String objectPath, MDDoubleArray data,
+            long[] offset);
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+/**
+ * An interface that provides methods for reading the chunks of chunked data sets as they are
+ * stored in the file, i.e. without applying the filter pipeline (e.g. without decompressing them).
+ * <p>
+ * A chunk is addressed by its <var>chunkOffset</var>, the logical position of its first element in
+ * the data set. It needs to be a multiple of the chunk size in each dimension.
+ * <p>
+ * Obtain an object implementing this interface by calling {@link IHDF5Reader#rawChunk()}.
+ * 
+ * @author Bernd Rinn
+ */
+public interface IHDF5RawChunkReader
+{
+
+    /**
+     * Returns the ids of the filters in the filter pipeline of <var>dataSet</var>, in the order in
+     * which they are applied on writing, e.g.
+     * {@link hdf.hdf5lib.HDF5Constants#H5Z_FILTER_SHUFFLE} and
+     * {@link hdf.hdf5lib.HDF5Constants#H5Z_FILTER_DEFLATE}.
+     */
+    public int[] getFilters(HDF5DataSet dataSet);
+
+    /**
+     * Returns the size of the chunk at <var>chunkOffset</var> of <var>dataSet</var> in bytes as it
+     * is stored in the file, or 0, if this chunk has not been written yet.
+     */
+    public long getRawChunkSize(HDF5DataSet dataSet, long[] chunkOffset);
+
+    /**
+     * Reads the chunk at <var>chunkOffset</var> of <var>dataSet</var> as it is stored in the file.
+     * 
+     * @return The raw chunk, or <code>null</code>, if this chunk has not been written yet.
+     */
+    public HDF5RawChunk tryReadRawChunk(HDF5DataSet dataSet, long[] chunkOffset);
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+/**
+ * An interface that provides methods for writing the chunks of chunked data sets directly to the
+ * file, i.e. without applying the filter pipeline. This allows to write chunks that have been
+ * compressed by the caller.
+ * <p>
+ * The data of a raw chunk need to be the full chunk with the elements in the byte order of the
+ * data type of the data set, with those filters of the filter pipeline applied in order that are
+ * not marked as skipped in the filter mask of the chunk. Otherwise the data set will not be
+ * readable.
+ * <p>
+ * Obtain an object implementing this interface by calling {@link IHDF5Writer#rawChunk()}.
+ * 
+ * @author Bernd Rinn
+ */
+public interface IHDF5RawChunkWriter extends IHDF5RawChunkReader
+{
+
+    /**
+     * Writes <var>chunk</var> as the chunk at <var>chunkOffset</var> of <var>dataSet</var>. The
+     * data set needs to be large enough to contain the chunk.
+     */
+    public void writeRawChunk(HDF5DataSet dataSet, long[] chunkOffset, HDF5RawChunk chunk);
+
+}
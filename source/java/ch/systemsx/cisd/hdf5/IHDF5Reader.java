@@ -16,6 +16,8 @@
 
 package ch.systemsx.cisd.hdf5;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * An interface for reading HDF5 files (HDF5 1.10.x and older).
  * <p>
@@ -238,4 +240,48 @@ public interface IHDF5Reader extends IHDF5SimpleReader
      */
     public IHDF5ReferenceReader reference();
 
+    // /////////////////////
+    // Raw chunks
+    // /////////////////////
+
+    /**
+     * Returns the reader for the raw, i.e. still filtered, chunks of chunked data sets.
+     */
+    public IHDF5RawChunkReader rawChunk();
+
+    // /////////////////////
+    // Parallel reading
+    // /////////////////////
+
+    /**
+     * Returns a reader that decodes the chunks of multi-dimensional numeric data sets in parallel
+     * on the common fork-join pool.
+     */
+    public IHDF5ParallelReader parallel();
+
+    /**
+     * Returns a reader that decodes the chunks of multi-dimensional numeric data sets in parallel
+     * on <var>executor</var>.
+     */
+    public IHDF5ParallelReader parallel(ExecutorService executor);
+
+    // /////////////////////
+    // Asynchronous reading
+    // /////////////////////
+
+    /**
+     * Returns a reader that reads numeric data sets asynchronously on a dedicated I/O thread of
+     * this reader. The I/O thread is started on first use and stopped when this reader is closed.
+     * Closing the reader waits for the reads queued by then to complete.
+     */
+    public IHDF5AsyncReader async();
+
+    /**
+     * Returns a reader that reads numeric data sets asynchronously on <var>executor</var>.
+     * <p>
+     * Requests are only coalesced when they are queued with the same object returned by this
+     * method.
+     */
+    public IHDF5AsyncReader async(ExecutorService executor);
+
 }
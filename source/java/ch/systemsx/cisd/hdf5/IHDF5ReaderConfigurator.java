@@ -52,6 +52,68 @@ public interface IHDF5ReaderConfigurator
      * <i>Note: automatic dereferencing is switched on by default.</i>
      */
     public IHDF5ReaderConfigurator noAutoDereference();
+
+    /**
+     * Lets data set reads synchronize on a lock that is specific to this file rather than on the
+     * JVM-wide lock of the HDF5 library, so that readers on different files don't contend with
+     * each other. Calls that don't access data set content still use the JVM-wide lock.
+     * <p>
+     * <i>Note: this only takes effect if the native HDF5 library has been built thread-safe,
+     * otherwise the JVM-wide lock is used for all calls.</i>
+     */
+    public IHDF5ReaderConfigurator concurrentFileAccess();
+
+    /**
+     * Sets the raw data chunk cache that the data sets of the file are opened with. Use this if
+     * the blocks you read cross more chunks than fit into the default chunk cache of 1 MB, as
+     * otherwise chunks get read and de-compressed more than once.
+     * <p>
+     * With {@link HDF5ChunkCacheSettings#AUTO}, the chunk cache is sized for each
+     * {@link HDF5DataSet} opened by
+     * {@link IHDF5ObjectReadOnlyInfoProviderHandler#openDataSet(String)}, while all other data set
+     * accesses use the default chunk cache.
+     * <br>
+     * <i>Note: the chunk cache is the default of the HDF5 library by default.</i>
+     */
+    public IHDF5ReaderConfigurator chunkCache(HDF5ChunkCacheSettings settings);
+
+    /**
+     * Keeps up to <var>maxSize</var> data sets that are accessed by path open, so that repeated
+     * calls of path-based methods don't need to look up and open the data set each time. When more
+     * data sets are accessed, the data set that has been accessed least recently is closed. Use this
+     * when you read many blocks of the same data sets by path rather than through a
+     * {@link HDF5DataSet}.
+     * <p>
+     * The data sets are kept open until the file is closed or until they are deleted or moved by
+     * the writer of this file. Note that deleting or moving the target of a symbolic link does not
+     * close the data set cached under the path of the link.
+     * <br>
+     * <i>Note: no data sets are kept open by default.</i>
+     */
+    public IHDF5ReaderConfigurator dataSetHandleCache(int maxSize);
+
+    /**
+     * Reads data sets whose data are stored contiguously in the file and whose data type equals
+     * the native data type of the reader by mapping the file into memory rather than through the
+     * HDF5 library. This applies to the methods that read arrays by path, like
+     * {@link IHDF5FloatReader#readArray(String)} and
+     * {@link IHDF5FloatReader#readArrayBlockWithOffset(String, int, long)}, and makes
+     * {@link IHDF5FloatReader#tryMapArray(String)} and
+     * {@link IHDF5FloatReader#tryMapArrayBlockWithOffset(String, int, long)} return views on the
+     * mapped data. Use this for random access to large contiguous data sets from many threads, as
+     * these reads don't need to wait for the lock of the HDF5 library.
+     * <p>
+     * Whether a data set can be mapped is found out on first access and then remembered until the
+     * file is closed. Chunked, compact and compressed data sets are always read through the HDF5
+     * library. Buffers that have been mapped stay valid after the file has been closed, and the
+     * mappings are only released when these buffers have been garbage collected. On Windows, a
+     * file can't be deleted, truncated or overwritten while a mapping of it is alive, so don't
+     * hold on to mapped buffers longer than needed.
+     * <br>
+     * <i>Note: only has an effect on readers, as the data of files opened for writing can change.
+     * Not enabled by default.</i>
+     */
+    public IHDF5ReaderConfigurator memoryMapContiguousDataSets();
     
     /**
      * Returns an {@link IHDF5Reader} based on this configuration.
@@ -141,6 +141,30 @@ public interface IHDF5StringReader
      */
     public String[] readArrayRaw(final String objectPath) throws HDF5JavaException;
 
+    /**
+     * Reads a string array (of rank 1) as a view that creates the strings only when they are
+     * accessed. Use this method for large arrays of fixed-length strings when only some of the
+     * strings are needed. Cuts off each string at the first '\0' character.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @return The view on the strings of the data set.
+     * @throws HDF5JavaException If the <var>objectPath</var> is not a string type.
+     */
+    public HDF5StringArrayView readArrayView(final String objectPath) throws HDF5JavaException;
+
+    /**
+     * Reads a block of a string array (of rank 1) as a view that creates the strings only when
+     * they are accessed. Cuts off each string at the first '\0' character.
+     * 
+     * @param objectPath The name (including path information) of the data set object in the file.
+     * @param blockSize The size of the block to read from the data set.
+     * @param offset The offset of the block in the data set.
+     * @return The view on the strings of the block.
+     * @throws HDF5JavaException If the <var>objectPath</var> is not a string type.
+     */
+    public HDF5StringArrayView readArrayViewBlockWithOffset(final String objectPath,
+            final int blockSize, final long offset) throws HDF5JavaException;
+
     /**
      * Reads a block of a string array (of rank 1) from the data set <var>objectPath</var>. The
      * elements of this data set need to be a string type. Considers '\0' as end of string.
@@ -16,6 +16,8 @@
 
 package ch.systemsx.cisd.hdf5;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * An interface for writing HDF5 files (HDF5 1.6.x, HDF5 1.8.x or HDF5 1.10.x).
  * <p>
@@ -264,4 +266,32 @@ public interface IHDF5Writer extends IHDF5Reader, IHDF5SimpleWriter
     @Override
     public IHDF5ReferenceWriter reference();
 
+    // /////////////////////
+    // Raw chunks
+    // /////////////////////
+
+    /**
+     * Returns the writer for the raw, i.e. already filtered, chunks of chunked data sets.
+     */
+    @Override
+    public IHDF5RawChunkWriter rawChunk();
+
+    // /////////////////////
+    // Parallel writing
+    // /////////////////////
+
+    /**
+     * Returns a writer that encodes the chunks of multi-dimensional numeric data sets in parallel
+     * on the common fork-join pool.
+     */
+    @Override
+    public IHDF5ParallelWriter parallel();
+
+    /**
+     * Returns a writer that encodes the chunks of multi-dimensional numeric data sets in parallel
+     * on <var>executor</var>.
+     */
+    @Override
+    public IHDF5ParallelWriter parallel(ExecutorService executor);
+
 }
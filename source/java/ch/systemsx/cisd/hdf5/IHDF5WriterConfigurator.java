@@ -314,6 +314,37 @@ public interface IHDF5WriterConfigurator extends IHDF5ReaderConfigurator
     @Override
     public IHDF5WriterConfigurator noAutoDereference();
 
+    /**
+     * Lets data set reads synchronize on a lock that is specific to this file rather than on the
+     * JVM-wide lock of the HDF5 library. Writes always use the JVM-wide lock.
+     * <p>
+     * <i>Note: this only takes effect if the native HDF5 library has been built thread-safe.</i>
+     */
+    @Override
+    public IHDF5WriterConfigurator concurrentFileAccess();
+
+    /**
+     * Sets the raw data chunk cache that the data sets of the file are opened with.
+     * <p>
+     * With {@link HDF5ChunkCacheSettings#AUTO}, the chunk cache is sized for each
+     * {@link HDF5DataSet} opened by
+     * {@link IHDF5ObjectReadOnlyInfoProviderHandler#openDataSet(String)}, while all other data set
+     * accesses use the default chunk cache.
+     */
+    @Override
+    public IHDF5WriterConfigurator chunkCache(HDF5ChunkCacheSettings settings);
+
+    /**
+     * Keeps up to <var>maxSize</var> data sets that are accessed by path open, so that repeated
+     * calls of path-based methods don't need to look up and open the data set each time. Data sets
+     * that are deleted or moved by this writer are closed.
+     */
+    @Override
+    public IHDF5WriterConfigurator dataSetHandleCache(int maxSize);
+
+    @Override
+    public IHDF5WriterConfigurator memoryMapContiguousDataSets();
+
     /**
      * Sets the suffix that is used to mark and recognize house keeping files and groups. An empty string ("") encodes for the default, which is two
      * leading and two trailing underscores ("__NAME__").
@@ -62,6 +62,19 @@ public final class MatrixUtils
         return dim;
     }
     
+    /**
+     * Returns the number of elements of a block with the given <var>dimensions</var>.
+     */
+    static long getLength(long[] dimensions)
+    {
+        long length = 1;
+        for (long dim : dimensions)
+        {
+            length *= dim;
+        }
+        return length;
+    }
+
     static void checkMDArrayDimensions(final String name, final int[] dimensions,
             final MDAbstractArray<?> array)
     {
@@ -318,6 +331,49 @@ public final class MatrixUtils
         return true;
     }
 
+    /**
+     * Copies a region of extent <var>extent</var> from the flat multi-dimensional array
+     * <var>source</var> with dimensions <var>sourceDims</var>, starting at
+     * <var>sourceOffset</var>, to the flat multi-dimensional array <var>target</var> with
+     * dimensions <var>targetDims</var>, starting at <var>targetOffset</var>. Both arrays need to
+     * be primitive arrays of the same type.
+     */
+    static void copyRegion(Object source, int[] sourceDims, int[] sourceOffset, Object target,
+            int[] targetDims, int[] targetOffset, int[] extent)
+    {
+        final int rank = extent.length;
+        final int rowLength = extent[rank - 1];
+        if (rowLength == 0)
+        {
+            return;
+        }
+        int numberOfRows = 1;
+        for (int d = 0; d < rank - 1; ++d)
+        {
+            numberOfRows *= extent[d];
+        }
+        final int[] idx = new int[rank];
+        for (int row = 0; row < numberOfRows; ++row)
+        {
+            int sourceIndex = 0;
+            int targetIndex = 0;
+            for (int d = 0; d < rank; ++d)
+            {
+                sourceIndex = sourceIndex * sourceDims[d] + sourceOffset[d] + idx[d];
+                targetIndex = targetIndex * targetDims[d] + targetOffset[d] + idx[d];
+            }
+            System.arraycopy(source, sourceIndex, target, targetIndex, rowLength);
+            for (int d = rank - 2; d >= 0; --d)
+            {
+                if (++idx[d] < extent[d])
+                {
+                    break;
+                }
+                idx[d] = 0;
+            }
+        }
+    }
+
     static int[] concat(int[] array1, int[] array2)
     {
         if (array1.length == 0)
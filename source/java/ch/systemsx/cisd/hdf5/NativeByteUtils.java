@@ -0,0 +1,92 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import java.nio.ByteOrder;
+
+/**
+ * Methods for writing primitive values in native byte order into a <code>byte</code> array
+ * without allocating intermediate arrays.
+ * <p>
+ * <i>This is an internal API that should not be expected to be stable between releases!</i>
+ * 
+ * @author Bernd Rinn
+ */
+final class NativeByteUtils
+{
+    private static final boolean LITTLE_ENDIAN =
+            (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+
+    private NativeByteUtils()
+    {
+        // Cannot be instantiated
+    }
+
+    static void putShort(byte[] buffer, int offset, short value)
+    {
+        if (LITTLE_ENDIAN)
+        {
+            buffer[offset] = (byte) value;
+            buffer[offset + 1] = (byte) (value >>> 8);
+        } else
+        {
+            buffer[offset] = (byte) (value >>> 8);
+            buffer[offset + 1] = (byte) value;
+        }
+    }
+
+    static void putInt(byte[] buffer, int offset, int value)
+    {
+        if (LITTLE_ENDIAN)
+        {
+            buffer[offset] = (byte) value;
+            buffer[offset + 1] = (byte) (value >>> 8);
+            buffer[offset + 2] = (byte) (value >>> 16);
+            buffer[offset + 3] = (byte) (value >>> 24);
+        } else
+        {
+            buffer[offset] = (byte) (value >>> 24);
+            buffer[offset + 1] = (byte) (value >>> 16);
+            buffer[offset + 2] = (byte) (value >>> 8);
+            buffer[offset + 3] = (byte) value;
+        }
+    }
+
+    static void putLong(byte[] buffer, int offset, long value)
+    {
+        if (LITTLE_ENDIAN)
+        {
+            putInt(buffer, offset, (int) value);
+            putInt(buffer, offset + 4, (int) (value >>> 32));
+        } else
+        {
+            putInt(buffer, offset, (int) (value >>> 32));
+            putInt(buffer, offset + 4, (int) value);
+        }
+    }
+
+    static void putFloat(byte[] buffer, int offset, float value)
+    {
+        putInt(buffer, offset, Float.floatToRawIntBits(value));
+    }
+
+    static void putDouble(byte[] buffer, int offset, double value)
+    {
+        putLong(buffer, offset, Double.doubleToRawLongBits(value));
+    }
+
+}
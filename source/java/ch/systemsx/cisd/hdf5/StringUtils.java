@@ -16,7 +16,8 @@
 
 package ch.systemsx.cisd.hdf5;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Some auxiliary methods for String to Byte conversion.
@@ -38,13 +39,7 @@ public final class StringUtils
      */
     public static byte[] toBytes0Term(String s, int maxCharacters, CharacterEncoding encoding)
     {
-        try
-        {
-            return (cut(s, maxCharacters) + '\0').getBytes(encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
-        {
-            return (cut(s, maxCharacters) + '\0').getBytes();
-        }
+        return (cut(s, maxCharacters) + '\0').getBytes(encoding.getCharSet());
     }
 
     /**
@@ -53,13 +48,7 @@ public final class StringUtils
      */
     public static byte[] toBytes0Term(String s, CharacterEncoding encoding)
     {
-        try
-        {
-            return (s + '\0').getBytes(encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
-        {
-            return (s + '\0').getBytes();
-        }
+        return (s + '\0').getBytes(encoding.getCharSet());
     }
 
     /**
@@ -68,13 +57,7 @@ public final class StringUtils
      */
     static byte[] toBytes(String s, int maxLength, CharacterEncoding encoding)
     {
-        try
-        {
-            return (cut(s, maxLength)).getBytes(encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
-        {
-            return (cut(s, maxLength)).getBytes();
-        }
+        return cut(s, maxLength).getBytes(encoding.getCharSet());
     }
 
     /**
@@ -82,13 +65,7 @@ public final class StringUtils
      */
     static byte[] toBytes(String s, CharacterEncoding encoding)
     {
-        try
-        {
-            return s.getBytes(encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
-        {
-            return s.getBytes();
-        }
+        return s.getBytes(encoding.getCharSet());
     }
 
     /**
@@ -129,6 +106,64 @@ public final class StringUtils
         return out;
     }
 
+    /**
+     * Returns <code>true</code>, if the first <var>length</var> characters of <var>s</var> are all
+     * ASCII characters. ASCII characters are encoded as one byte of the same value by all
+     * {@link CharacterEncoding}s.
+     */
+    static boolean isAscii(String s, int length)
+    {
+        for (int i = 0; i < length; ++i)
+        {
+            if (s.charAt(i) >= 0x80)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the first <var>length</var> characters of <var>s</var>, which need to be ASCII
+     * characters, to <var>out</var> at <var>offset</var>.
+     */
+    static void copyAscii(String s, int length, byte[] out, int offset)
+    {
+        for (int i = 0; i < length; ++i)
+        {
+            out[offset + i] = (byte) s.charAt(i);
+        }
+    }
+
+    /**
+     * Returns <code>true</code>, if the bytes of <var>data</var> from <var>startIdx</var> to
+     * <var>endIdx</var> are all ASCII characters.
+     */
+    static boolean isAscii(byte[] data, int startIdx, int endIdx)
+    {
+        for (int i = startIdx; i < endIdx; ++i)
+        {
+            if (data[i] < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the first 0 byte of <var>data</var> from <var>startIdx</var>, or
+     * <var>maxEndIdx</var>, if there is no 0 byte before <var>maxEndIdx</var>.
+     */
+    static int findTermIdx(byte[] data, int startIdx, int maxEndIdx)
+    {
+        int termIdx;
+        for (termIdx = startIdx; termIdx < maxEndIdx && data[termIdx] != 0; ++termIdx)
+        {
+        }
+        return termIdx;
+    }
+
     /**
      * Converts byte array <var>data</var> containing a 0-terminated string using
      * <var>encoding</var> to a string.
@@ -145,17 +180,7 @@ public final class StringUtils
     static String fromBytes0Term(byte[] data, int startIdx, int maxEndIdx,
             CharacterEncoding encoding)
     {
-        int termIdx;
-        for (termIdx = startIdx; termIdx < maxEndIdx && data[termIdx] != 0; ++termIdx)
-        {
-        }
-        try
-        {
-            return new String(data, startIdx, termIdx - startIdx, encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
-        {
-            return new String(data, startIdx, termIdx - startIdx);
-        }
+        return fromBytes(data, startIdx, findTermIdx(data, startIdx, maxEndIdx), encoding);
     }
 
     /**
@@ -182,12 +207,28 @@ public final class StringUtils
      */
     static String fromBytes(byte[] data, int startIdx, int endIdx, CharacterEncoding encoding)
     {
-        try
-        {
-            return new String(data, startIdx, endIdx - startIdx, encoding.getCharSetName());
-        } catch (UnsupportedEncodingException ex)
+        // For ASCII characters, ISO-8859-1 gives the same characters as all encodings, and
+        // decoding it is a plain copy.
+        final Charset charSet =
+                isAscii(data, startIdx, endIdx) ? StandardCharsets.ISO_8859_1 : encoding
+                        .getCharSet();
+        return new String(data, startIdx, endIdx - startIdx, charSet);
+    }
+
+    /**
+     * Converts byte array <var>data</var> containing strings of <var>elementSize</var> bytes each
+     * using <var>encoding</var> to the strings of <var>result</var>. If <var>readRaw</var> is
+     * <code>false</code>, each string ends at its first 0 byte.
+     */
+    static void fromBytes(byte[] data, int elementSize, boolean readRaw,
+            CharacterEncoding encoding, String[] result)
+    {
+        for (int i = 0, startIdx = 0; i < result.length; ++i, startIdx += elementSize)
         {
-            return new String(data, startIdx, endIdx - startIdx);
+            final int endIdx = startIdx + elementSize;
+            result[i] =
+                    readRaw ? fromBytes(data, startIdx, endIdx, encoding) : fromBytes0Term(data,
+                            startIdx, endIdx, encoding);
         }
     }
 
@@ -16,6 +16,8 @@
 
 package ch.systemsx.cisd.hdf5.cleanup;
 
+import java.util.Arrays;
+
 /**
  * A class that implements the logic of cleaning up a resource even in case of an exception but
  * re-throws an exception of the clean up procedure only when the main procedure didn't throw one.
@@ -27,13 +29,59 @@ package ch.systemsx.cisd.hdf5.cleanup;
  */
 public final class CleanUpCallable
 {
+    /**
+     * The registries of the current thread. Calls can be nested, so we keep one registry per
+     * nesting level.
+     */
+    private static final class RegistryStack
+    {
+        private CleanUpRegistry[] registries = new CleanUpRegistry[4];
+
+        private int depth;
+
+        CleanUpRegistry push()
+        {
+            if (depth == registries.length)
+            {
+                registries = Arrays.copyOf(registries, 2 * registries.length);
+            }
+            CleanUpRegistry registry = registries[depth];
+            if (registry == null)
+            {
+                registry = new CleanUpRegistry();
+                registries[depth] = registry;
+            }
+            ++depth;
+            return registry;
+        }
+
+        void pop()
+        {
+            --depth;
+        }
+    }
+
+    private static final ThreadLocal<RegistryStack> registryStacks =
+            new ThreadLocal<RegistryStack>()
+                {
+                    @Override
+                    protected RegistryStack initialValue()
+                    {
+                        return new RegistryStack();
+                    }
+                };
+
     /**
      * Runs a {@link ICallableWithCleanUp} and ensures that all registered clean-ups are performed
      * afterwards.
+     * <p>
+     * The registry handed to <var>runnable</var> is re-used by subsequent calls from the same
+     * thread, so it must not be retained beyond the call.
      */
     public <T> T call(ICallableWithCleanUp<T> runnable)
     {
-        final CleanUpRegistry registry = new CleanUpRegistry();
+        final RegistryStack stack = registryStacks.get();
+        final CleanUpRegistry registry = stack.push();
         boolean exceptionThrown = true;
         try
         {
@@ -42,7 +90,13 @@ public final class CleanUpCallable
             return result;
         } finally
         {
-            registry.cleanUp(exceptionThrown);
+            try
+            {
+                registry.cleanUp(exceptionThrown);
+            } finally
+            {
+                stack.pop();
+            }
         }
     }
 }
@@ -16,19 +16,33 @@
 
 package ch.systemsx.cisd.hdf5.cleanup;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * A class that allows registering items for clean up and that allows to perform the clean up later.
  * <p>
+ * Native identifiers registered with {@link #registerClose(CloseKind, long)} are kept on a
+ * primitive stack, so that a registry can be re-used without producing garbage once its capacity
+ * has grown to the working size.
+ * <p>
  * <em>This is an internal implementation class that is not meant to be used by users of the library.</em>
  * 
  * @author Bernd Rinn
  */
 public class CleanUpRegistry implements ICleanUpRegistry
 {
-    private final List<Runnable> cleanUpList = new ArrayList<Runnable>();
+    /** Marks an entry of the stack that is a {@link Runnable} rather than a native id. */
+    private static final byte RUNNABLE = -1;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+    private Runnable[] runnables = new Runnable[INITIAL_CAPACITY];
+
+    private int size;
 
     /**
      * Creates a synchronized version of a {@link CleanUpRegistry}. 
@@ -43,6 +57,12 @@ public class CleanUpRegistry implements ICleanUpRegistry
                     super.registerCleanUp(cleanUp);
                 }
 
+                @Override
+                public synchronized void registerClose(CloseKind kind, long id)
+                {
+                    super.registerClose(kind, id);
+                }
+
                 @Override
                 public synchronized void cleanUp(boolean suppressExceptions)
                 {
@@ -54,11 +74,35 @@ public class CleanUpRegistry implements ICleanUpRegistry
     @Override
     public void registerCleanUp(Runnable cleanUp)
     {
-        cleanUpList.add(cleanUp);
+        ensureCapacity();
+        runnables[size] = cleanUp;
+        kinds[size] = RUNNABLE;
+        ++size;
+    }
+
+    @Override
+    public void registerClose(CloseKind kind, long id)
+    {
+        ensureCapacity();
+        ids[size] = id;
+        kinds[size] = (byte) kind.ordinal();
+        ++size;
+    }
+
+    private void ensureCapacity()
+    {
+        if (size == ids.length)
+        {
+            final int newCapacity = 2 * ids.length;
+            ids = Arrays.copyOf(ids, newCapacity);
+            kinds = Arrays.copyOf(kinds, newCapacity);
+            runnables = Arrays.copyOf(runnables, newCapacity);
+        }
     }
 
     /**
-     * Performs all clean-ups registered with {@link #registerCleanUp(Runnable)}.
+     * Performs all clean-ups registered with {@link #registerCleanUp(Runnable)} and
+     * {@link #registerClose(CloseKind, long)}, in reverse order of registration.
      * 
      * @param suppressExceptions If <code>true</code>, all exceptions that happen during clean-up
      *            will be suppressed.
@@ -66,21 +110,35 @@ public class CleanUpRegistry implements ICleanUpRegistry
     public void cleanUp(boolean suppressExceptions)
     {
         RuntimeException exceptionDuringCleanUp = null;
-        for (int i = cleanUpList.size() - 1; i >= 0; --i)
+        try
         {
-            final Runnable runnable = cleanUpList.get(i);
-            try
-            {
-                runnable.run();
-            } catch (RuntimeException ex)
+            for (int i = size - 1; i >= 0; --i)
             {
-                if (suppressExceptions == false && exceptionDuringCleanUp == null)
+                try
                 {
-                    exceptionDuringCleanUp = ex;
+                    if (kinds[i] == RUNNABLE)
+                    {
+                        final Runnable runnable = runnables[i];
+                        runnables[i] = null;
+                        runnable.run();
+                    } else
+                    {
+                        CloseKind.fromOrdinal(kinds[i]).close(ids[i]);
+                    }
+                } catch (RuntimeException ex)
+                {
+                    if (suppressExceptions == false && exceptionDuringCleanUp == null)
+                    {
+                        exceptionDuringCleanUp = ex;
+                    }
                 }
             }
+        } finally
+        {
+            // Never run a clean-up twice, even if an Error has been thrown by one of them.
+            Arrays.fill(runnables, 0, size, null);
+            size = 0;
         }
-        cleanUpList.clear();
         if (exceptionDuringCleanUp != null)
         {
             throw exceptionDuringCleanUp;
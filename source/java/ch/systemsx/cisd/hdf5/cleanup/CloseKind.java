@@ -0,0 +1,79 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.cleanup;
+
+import hdf.hdf5lib.H5;
+
+/**
+ * The kinds of native HDF5 identifiers that can be registered for closing with
+ * {@link ICleanUpRegistry#registerClose(CloseKind, long)}.
+ * <p>
+ * <em>This is an internal implementation class that is not meant to be used by users of the library.</em>
+ * 
+ * @author Bernd Rinn
+ */
+public enum CloseKind
+{
+    FILE, GROUP, OBJECT, DATA_SET, DATA_SPACE, DATA_TYPE, ATTRIBUTE, PROPERTY_LIST;
+
+    private static final CloseKind[] VALUES = values();
+
+    /**
+     * Returns the kind with the given <var>ordinal</var>.
+     */
+    static CloseKind fromOrdinal(int ordinal)
+    {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Closes the native identifier <var>id</var> of this kind.
+     */
+    public void close(long id)
+    {
+        switch (this)
+        {
+            case FILE:
+                H5.H5Fclose(id);
+                break;
+            case GROUP:
+                H5.H5Gclose(id);
+                break;
+            case OBJECT:
+                H5.H5Oclose(id);
+                break;
+            case DATA_SET:
+                H5.H5Dclose(id);
+                break;
+            case DATA_SPACE:
+                H5.H5Sclose(id);
+                break;
+            case DATA_TYPE:
+                H5.H5Tclose(id);
+                break;
+            case ATTRIBUTE:
+                H5.H5Aclose(id);
+                break;
+            case PROPERTY_LIST:
+                H5.H5Pclose(id);
+                break;
+            default:
+                throw new IllegalStateException("Unknown close kind " + this);
+        }
+    }
+
+}
@@ -32,4 +32,11 @@ public interface ICleanUpRegistry
      */
     public void registerCleanUp(Runnable cleanUp);
 
+    /**
+     * Register the native identifier <var>id</var> of <var>kind</var> to be closed when the main
+     * {@link Runnable} has been executed. Prefer this method over
+     * {@link #registerCleanUp(Runnable)} where possible as it doesn't need to allocate a closure.
+     */
+    public void registerClose(CloseKind kind, long id);
+
 }
@@ -19,6 +19,7 @@ package ch.systemsx.cisd.hdf5.h5ar;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.Callable;
 import java.util.zip.CRC32;
 
 import org.apache.commons.io.FileUtils;
@@ -34,6 +35,12 @@ import hdf.hdf5lib.exceptions.HDF5JavaException;
 
 /**
  * A processor that extracts files from an archive to the file system.
+ * <p>
+ * With more than one thread, the content of files that fit into the buffer is read from the
+ * archive on the calling thread, while worker threads write the files, compute their checksums and
+ * restore their attributes. Larger files are extracted on the calling thread. The visitor is called
+ * on the calling thread in the order of the archive. Call {@link #finish()} after the traversal and
+ * {@link #close()} in any case.
  * 
  * @author Bernd Rinn
  */
@@ -53,6 +60,8 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
 
     private final GroupCache groupCache;
 
+    private final ArchiveEntryTaskQueue queueOrNull;
+
     ArchiveEntryExtractProcessor(IArchiveEntryVisitor visitorOrNull, ArchivingStrategy strategy,
             File rootDirectory, String rootPathToStrip, byte[] buffer)
     {
@@ -64,6 +73,9 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
                 "/".equals(normalizedRootPathToStrip) ? "" : normalizedRootPathToStrip;
         this.buffer = buffer;
         this.groupCache = new GroupCache();
+        this.queueOrNull =
+                (strategy.getThreads() > 1) ? new ArchiveEntryTaskQueue(strategy.getThreads(),
+                        "h5ar extracting " + rootDirectory.getName()) : null;
     }
 
     @Override
@@ -87,10 +99,7 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
                 errorStrategy.dealWithError(new UnarchivingException(file, new IOException(
                         "Failed to make directory '" + file.getAbsolutePath() + "'.")));
             }
-            if (visitorOrNull != null)
-            {
-                visitorOrNull.visit(new ArchiveEntry(dir, path, link, idCache));
-            }
+            visit(new ArchiveEntry(dir, path, link, idCache));
         } else if (link.tryGetLinkTarget() != null && Unix.isOperational())
         {
             try
@@ -99,10 +108,7 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
                 final String linkTarget = link.tryGetLinkTarget();
                 Unix.createSymbolicLink(linkTarget, file.getAbsolutePath());
                 restoreAttributes(file, link);
-                if (visitorOrNull != null)
-                {
-                    visitorOrNull.visit(new ArchiveEntry(dir, path, link, idCache));
-                }
+                visit(new ArchiveEntry(dir, path, link, idCache));
             } catch (IOExceptionUnchecked ex)
             {
                 errorStrategy.dealWithError(new UnarchivingException(file, ex));
@@ -126,6 +132,18 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
                 {
                     // Here we don't rely on link.getSize() to protect against wrong index entries.
                     final long size = reader.object().getSize(path);
+                    if (queueOrNull != null)
+                    {
+                        if (size <= buffer.length)
+                        {
+                            final byte[] data =
+                                    (size == 0) ? new byte[0] : reader.opaque().readArray(path);
+                            queueOrNull.submit(createWriteTask(dir, path, link, idCache,
+                                    errorStrategy, file, data), data.length);
+                            return true;
+                        }
+                        queueOrNull.drain();
+                    }
                     final int crc32 = copyFromHDF5(reader, path, size, file);
                     restoreAttributes(file, link);
                     final FileSizeType sizeType = getFileSizeType(file);
@@ -154,12 +172,122 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
         return true;
     }
 
+    private Callable<Runnable> createWriteTask(final String dir, final String path,
+            final LinkRecord link, final IdCache idCache, final IErrorStrategy errorStrategy,
+            final File file, final byte[] data)
+    {
+        return new Callable<Runnable>()
+            {
+                @Override
+                public Runnable call()
+                {
+                    try
+                    {
+                        final int crc32 = writeFile(data, file);
+                        restoreAttributes(file, link);
+                        final FileSizeType sizeType = getFileSizeType(file);
+                        link.setVerifiedType(sizeType.type);
+                        link.setFileVerification(sizeType.size, crc32, file.lastModified()
+                                / Utils.MILLIS_PER_SECOND);
+                        return new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    final ArchiveEntry entry =
+                                            new ArchiveEntry(dir, path, link, idCache);
+                                    // Already running as completion, so in archive order.
+                                    if (visitorOrNull != null)
+                                    {
+                                        visitorOrNull.visit(entry);
+                                    }
+                                    if (entry.isOK() == false)
+                                    {
+                                        errorStrategy.dealWithError(new UnarchivingException(
+                                                path, entry.getStatus(true)));
+                                    }
+                                }
+                            };
+                    } catch (final IOException ex)
+                    {
+                        return new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    errorStrategy.dealWithError(new UnarchivingException(file,
+                                            ex));
+                                }
+                            };
+                    }
+                }
+            };
+    }
+
     @Override
     public void postProcessDirectory(String dir, String path, LinkRecord link, IHDF5Reader reader,
             IdCache idCache, IErrorStrategy errorStrategy) throws IOException, HDF5Exception
     {
         final File file = createFile(path);
-        restoreAttributes(file, link);
+        if (queueOrNull != null)
+        {
+            // Writing the files of the directory changes its last modification time.
+            queueOrNull.submitCompletion(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        restoreAttributes(file, link);
+                    }
+                });
+        } else
+        {
+            restoreAttributes(file, link);
+        }
+    }
+
+    /**
+     * Waits for all files to be written and visited.
+     */
+    void finish()
+    {
+        if (queueOrNull != null)
+        {
+            queueOrNull.drain();
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    void close()
+    {
+        if (queueOrNull != null)
+        {
+            queueOrNull.close();
+        }
+    }
+
+    private void visit(final ArchiveEntry entry)
+    {
+        if (visitorOrNull == null)
+        {
+            return;
+        }
+        if (queueOrNull != null)
+        {
+            queueOrNull.submitCompletion(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        visitorOrNull.visit(entry);
+                    }
+                });
+        } else
+        {
+            visitorOrNull.visit(entry);
+        }
     }
 
     private File createFile(String path)
@@ -220,7 +348,17 @@ class ArchiveEntryExtractProcessor implements IArchiveEntryProcessor
                 output.write(buffer, 0, n);
                 crc32.update(buffer, 0, n);
             }
-            output.close(); // Make sure we don't silence exceptions on closing.
+            return (int) crc32.getValue();
+        }
+    }
+
+    private static int writeFile(byte[] data, File destination) throws IOException
+    {
+        try (final OutputStream output = FileUtils.openOutputStream(destination))
+        {
+            output.write(data);
+            final CRC32 crc32 = new CRC32();
+            crc32.update(data);
             return (int) crc32.getValue();
         }
     }
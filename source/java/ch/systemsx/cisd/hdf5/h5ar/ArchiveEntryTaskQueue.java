@@ -0,0 +1,150 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ch.systemsx.cisd.hdf5.h5ar;
+
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.createDaemonThreadFactory;
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.getResult;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A queue for processing the entries of an archive with several threads.
+ * <p>
+ * A task does the file system work for an entry on a worker thread and returns a completion that
+ * visits the entry and reports errors. The completions are run on the calling thread in the order
+ * the tasks have been submitted, so visitors and error strategies see the entries in the same order
+ * as when processing them with one thread. The number of pending tasks and the number of bytes they
+ * hold are bounded.
+ *
+ * @author Bernd Rinn
+ */
+final class ArchiveEntryTaskQueue
+{
+    private static final int MAX_PENDING_TASKS = 4096;
+
+    private static final class PendingTask
+    {
+        final Future<Runnable> futureOrNull;
+
+        final Runnable completionOrNull;
+
+        final long bytes;
+
+        PendingTask(Future<Runnable> futureOrNull, Runnable completionOrNull, long bytes)
+        {
+            this.futureOrNull = futureOrNull;
+            this.completionOrNull = completionOrNull;
+            this.bytes = bytes;
+        }
+
+        boolean isDone()
+        {
+            return futureOrNull == null || futureOrNull.isDone();
+        }
+    }
+
+    private final ExecutorService executor;
+
+    private final Deque<PendingTask> pending = new ArrayDeque<PendingTask>();
+
+    private long bytesInFlight;
+
+    ArchiveEntryTaskQueue(int threads, final String threadName)
+    {
+        assert threads > 1;
+
+        this.executor =
+                Executors.newFixedThreadPool(threads, createDaemonThreadFactory(threadName));
+    }
+
+    /**
+     * Submits <var>task</var> which holds <var>bytes</var> bytes of data until it is completed.
+     */
+    void submit(Callable<Runnable> task, long bytes)
+    {
+        pending.addLast(new PendingTask(executor.submit(task), null, bytes));
+        bytesInFlight += bytes;
+        while (pending.size() > MAX_PENDING_TASKS || bytesInFlight > Utils.MAX_BYTES_IN_FLIGHT)
+        {
+            completeNext();
+        }
+        completeFinished();
+    }
+
+    /**
+     * Submits <var>completion</var> to be run on the calling thread once all tasks submitted
+     * before have been completed.
+     */
+    void submitCompletion(Runnable completion)
+    {
+        if (pending.isEmpty())
+        {
+            completion.run();
+        } else
+        {
+            pending.addLast(new PendingTask(null, completion, 0L));
+        }
+    }
+
+    /**
+     * Waits for all pending tasks and runs their completions.
+     */
+    void drain()
+    {
+        while (pending.isEmpty() == false)
+        {
+            completeNext();
+        }
+    }
+
+    /**
+     * Stops the worker threads, dropping all tasks that have not been completed yet.
+     */
+    void close()
+    {
+        pending.clear();
+        bytesInFlight = 0L;
+        executor.shutdownNow();
+    }
+
+    private void completeFinished()
+    {
+        while (pending.isEmpty() == false && pending.peekFirst().isDone())
+        {
+            completeNext();
+        }
+    }
+
+    private void completeNext()
+    {
+        final PendingTask task = pending.removeFirst();
+        bytesInFlight -= task.bytes;
+        final Runnable completionOrNull =
+                (task.futureOrNull != null) ? getResult(task.futureOrNull) : task.completionOrNull;
+        if (completionOrNull != null)
+        {
+            completionOrNull.run();
+        }
+    }
+
+}
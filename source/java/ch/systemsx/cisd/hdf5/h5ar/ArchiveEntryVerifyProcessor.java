@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.zip.CRC32;
 
 import hdf.hdf5lib.exceptions.HDF5Exception;
@@ -36,6 +37,10 @@ import ch.systemsx.cisd.hdf5.IHDF5Reader;
 /**
  * An {@Link IArchiveEntryProcessor} that performs a verify operation versus a directory on
  * the file system.
+ * <p>
+ * With more than one thread, the entries are checked against the file system by worker threads,
+ * while the visitor is called on the calling thread in the order of the archive. Call
+ * {@link #finish()} after the traversal and {@link #close()} in any case.
  * 
  * @author Bernd Rinn
  */
@@ -55,15 +60,21 @@ class ArchiveEntryVerifyProcessor implements IArchiveEntryProcessor
 
     private final boolean numeric;
 
+    private final ArchiveEntryTaskQueue queueOrNull;
+
+    private final ThreadLocal<byte[]> workerBuffers;
+
     ArchiveEntryVerifyProcessor(IArchiveEntryVisitor visitor, File rootDirectoryOnFS,
-            Set<File> filesOnFSOrNull, byte[] buffer, boolean checkAttributes, boolean numeric)
+            Set<File> filesOnFSOrNull, byte[] buffer, boolean checkAttributes, boolean numeric,
+            int threads)
     {
-        this(visitor, rootDirectoryOnFS, filesOnFSOrNull, "", buffer, checkAttributes, numeric);
+        this(visitor, rootDirectoryOnFS, filesOnFSOrNull, "", buffer, checkAttributes, numeric,
+                threads);
     }
 
     ArchiveEntryVerifyProcessor(IArchiveEntryVisitor visitor, File rootDirectoryOnFS,
-            Set<File> filesOnFSOrNull, String rootDirectoryInArchive, byte[] buffer,
-            boolean checkAttributes, boolean numeric)
+            Set<File> filesOnFSOrNull, String rootDirectoryInArchive, final byte[] buffer,
+            boolean checkAttributes, boolean numeric, int threads)
     {
         this.visitor = visitor;
         this.rootDirectoryOnFS = rootDirectoryOnFS;
@@ -72,13 +83,29 @@ class ArchiveEntryVerifyProcessor implements IArchiveEntryProcessor
         this.buffer = buffer;
         this.checkAttributes = checkAttributes;
         this.numeric = numeric;
+        this.queueOrNull =
+                (threads > 1) ? new ArchiveEntryTaskQueue(threads, "h5ar verifying "
+                        + rootDirectoryOnFS.getName()) : null;
+        this.workerBuffers = new ThreadLocal<byte[]>()
+            {
+                @Override
+                protected byte[] initialValue()
+                {
+                    return new byte[buffer.length];
+                }
+            };
     }
 
     @Override
     public boolean process(String dir, String path, LinkRecord link, IHDF5Reader reader,
             IdCache idCache, IErrorStrategy errorStrategy) throws IOException
     {
-        final String errorMessage = checkLink(link, path, idCache);
+        if (queueOrNull != null)
+        {
+            queueOrNull.submit(createCheckTask(dir, path, link, idCache, errorStrategy), 0L);
+            return true;
+        }
+        final String errorMessage = checkLink(link, path, idCache, buffer);
         visitor.visit(new ArchiveEntry(dir, path, link, idCache, errorMessage));
         if (filesOnFSOrNull != null)
         {
@@ -87,13 +114,77 @@ class ArchiveEntryVerifyProcessor implements IArchiveEntryProcessor
         return true;
     }
 
+    private Callable<Runnable> createCheckTask(final String dir, final String path,
+            final LinkRecord link, final IdCache idCache, final IErrorStrategy errorStrategy)
+    {
+        return new Callable<Runnable>()
+            {
+                @Override
+                public Runnable call()
+                {
+                    try
+                    {
+                        final String errorMessage =
+                                checkLink(link, path, idCache, workerBuffers.get());
+                        return new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    visitor.visit(new ArchiveEntry(dir, path, link, idCache,
+                                            errorMessage));
+                                    if (filesOnFSOrNull != null)
+                                    {
+                                        filesOnFSOrNull.remove(new File(rootDirectoryOnFS, path));
+                                    }
+                                }
+                            };
+                    } catch (final IOException ex)
+                    {
+                        return new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    errorStrategy.dealWithError(createException(new File(path),
+                                            ex));
+                                }
+                            };
+                    }
+                }
+            };
+    }
+
+    /**
+     * Waits for all entries to be checked and visited.
+     */
+    void finish()
+    {
+        if (queueOrNull != null)
+        {
+            queueOrNull.drain();
+        }
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    void close()
+    {
+        if (queueOrNull != null)
+        {
+            queueOrNull.close();
+        }
+    }
+
     @Override
     public void postProcessDirectory(String dir, String path, LinkRecord link, IHDF5Reader reader,
             IdCache idCache, IErrorStrategy errorStrategy) throws IOException, HDF5Exception
     {
     }
 
-    private String checkLink(LinkRecord link, String path, IdCache idCache) throws IOException
+    private String checkLink(LinkRecord link, String path, IdCache idCache, byte[] buf)
+            throws IOException
     {
         if (rootDirectoryInArchive.length() > 0 && path.startsWith(rootDirectoryInArchive) == false)
         {
@@ -162,7 +253,7 @@ class ArchiveEntryVerifyProcessor implements IArchiveEntryProcessor
 
             }
             final long size = f.length();
-            final int crc32 = calcCRC32Filesystem(f, buffer);
+            final int crc32 = calcCRC32Filesystem(f, buf);
             link.setFileVerification(size, crc32, f.lastModified() / Utils.MILLIS_PER_SECOND);
             if (link.getSize() != size)
             {
@@ -0,0 +1,634 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.h5ar;
+
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.createDaemonThreadFactory;
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.getResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.commons.io.FileUtils;
+
+import ch.systemsx.cisd.base.exceptions.IErrorStrategy;
+import ch.systemsx.cisd.base.exceptions.IOExceptionUnchecked;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.h5ar.HDF5ArchiveUpdater.DataSetInfo;
+
+/**
+ * A pipeline that archives a directory tree with several threads.
+ * <p>
+ * Worker threads list the directories, create the link records of their entries and read,
+ * checksum and compress the files that are smaller than one chunk. The archive is only written on
+ * the calling thread, which takes the entries from a queue in the same order as
+ * {@link HDF5ArchiveUpdater} archives them with a single thread. The workers are ahead of the
+ * calling thread by at most {@link #MAX_QUEUED_ENTRIES} entries and
+ * {@link Utils#MAX_BYTES_IN_FLIGHT} bytes of file content. Files of at least one chunk are copied
+ * by the calling thread.
+ * <p>
+ * An object of this class archives one directory tree and is not thread-safe.
+ *
+ * @author Bernd Rinn
+ */
+final class ArchivingPipeline
+{
+    /** The maximal number of entries in the queue. */
+    static final int MAX_QUEUED_ENTRIES = 4096;
+
+    /** The content of a file, as read by a worker thread. */
+    static final class FileContent
+    {
+        /** The content of the file in its first {@link #length} bytes. */
+        final byte[] data;
+
+        final int length;
+
+        final int crc32;
+
+        /** The deflated content, or <code>null</code>, if it has not been or can't be deflated. */
+        final byte[] deflatedOrNull;
+
+        /** The hash of the content, or <code>null</code>, if the file is not deduplicated. */
+        final String hashOrNull;
+
+        final IOException exceptionOrNull;
+
+        FileContent(byte[] data, int length, int crc32, byte[] deflatedOrNull, String hashOrNull)
+        {
+            this.data = data;
+            this.length = length;
+            this.crc32 = crc32;
+            this.deflatedOrNull = deflatedOrNull;
+            this.hashOrNull = hashOrNull;
+            this.exceptionOrNull = null;
+        }
+
+        FileContent(IOException exception)
+        {
+            this.data = null;
+            this.length = 0;
+            this.crc32 = 0;
+            this.deflatedOrNull = null;
+            this.hashOrNull = null;
+            this.exceptionOrNull = exception;
+        }
+    }
+
+    /** The entries of a directory on the file system, as listed by a worker thread. */
+    private static final class DirectoryListing
+    {
+        /** The files of the directory, or <code>null</code>, if it can't be read. */
+        final File[] filesOrNull;
+
+        /** The link records of the files, <code>null</code> where it couldn't be created. */
+        final LinkRecord[] links;
+
+        /** The errors that occurred when creating the link records. */
+        final ArchivingException[] errors;
+
+        DirectoryListing(File[] filesOrNull)
+        {
+            this.filesOrNull = filesOrNull;
+            final int size = (filesOrNull == null) ? 0 : filesOrNull.length;
+            this.links = new LinkRecord[size];
+            this.errors = new ArchivingException[size];
+        }
+    }
+
+    /** A directory that is being planned. */
+    private static final class DirectoryFrame
+    {
+        final File directory;
+
+        final ArchiveEntry entry;
+
+        final DirectoryFrame parentOrNull;
+
+        final int indexInParent;
+
+        final Future<DirectoryListing> listingFuture;
+
+        DirectoryListing listing;
+
+        /** Whether a link is kept in the index of the directory. */
+        boolean[] kept;
+
+        /** The listings of sub-directories that have been submitted ahead of time. */
+        List<Future<DirectoryListing>> prefetchedListings;
+
+        int prefetchedCount;
+
+        int nextPrefetchIndex;
+
+        /** The index of the next entry to plan. */
+        int nextIndex;
+
+        boolean ok = true;
+
+        DirectoryFrame(File directory, ArchiveEntry entry, DirectoryFrame parentOrNull,
+                int indexInParent, Future<DirectoryListing> listingFuture)
+        {
+            this.directory = directory;
+            this.entry = entry;
+            this.parentOrNull = parentOrNull;
+            this.indexInParent = indexInParent;
+            this.listingFuture = listingFuture;
+        }
+
+        void setListing(DirectoryListing listing)
+        {
+            this.listing = listing;
+            final int size = listing.links.length;
+            this.kept = new boolean[size];
+            this.prefetchedListings =
+                    new ArrayList<Future<DirectoryListing>>(Collections
+                            .<Future<DirectoryListing>> nCopies(size, null));
+            for (int i = 0; i < size; ++i)
+            {
+                kept[i] = (listing.links[i] != null);
+            }
+        }
+
+        void markFailed()
+        {
+            ok = false;
+            if (parentOrNull != null)
+            {
+                parentOrNull.kept[indexInParent] = false;
+            }
+        }
+    }
+
+    private enum Kind
+    {
+        DIRECTORY_START, DIRECTORY_END, SYMLINK, REGULAR_FILE, OTHER
+    }
+
+    /** An entry in the queue, to be processed by the calling thread. */
+    private static final class QueuedEntry
+    {
+        final Kind kind;
+
+        /** The directory for directories, otherwise the directory that contains the entry. */
+        final DirectoryFrame frame;
+
+        final int index;
+
+        final ArchiveEntry entryOrNull;
+
+        final Future<FileContent> contentOrNull;
+
+        final long reservedBytes;
+
+        QueuedEntry(Kind kind, DirectoryFrame frame, int index, ArchiveEntry entryOrNull,
+                Future<FileContent> contentOrNull, long reservedBytes)
+        {
+            this.kind = kind;
+            this.frame = frame;
+            this.index = index;
+            this.entryOrNull = entryOrNull;
+            this.contentOrNull = contentOrNull;
+            this.reservedBytes = reservedBytes;
+        }
+    }
+
+    private final HDF5ArchiveUpdater updater;
+
+    private final IDirectoryIndexProvider indexProvider;
+
+    private final IErrorStrategy errorStrategy;
+
+    private final IdCache idCache;
+
+    private final ArchivingStrategy strategy;
+
+    private final int chunkSize;
+
+    private final IArchiveEntryVisitor entryVisitorOrNull;
+
+    private final int threads;
+
+    private final Deque<QueuedEntry> queue = new ArrayDeque<QueuedEntry>();
+
+    /** The directories that are being planned, innermost first. */
+    private final Deque<DirectoryFrame> stack = new ArrayDeque<DirectoryFrame>();
+
+    private long bytesInFlight;
+
+    private ExecutorService executor;
+
+    ArchivingPipeline(HDF5ArchiveUpdater updater, IDirectoryIndexProvider indexProvider,
+            IdCache idCache, ArchivingStrategy strategy, int chunkSize,
+            IArchiveEntryVisitor entryVisitorOrNull)
+    {
+        this.updater = updater;
+        this.indexProvider = indexProvider;
+        this.errorStrategy = indexProvider.getErrorStrategy();
+        this.idCache = idCache;
+        this.strategy = strategy;
+        this.chunkSize = chunkSize;
+        this.entryVisitorOrNull = entryVisitorOrNull;
+        this.threads = strategy.getThreads();
+    }
+
+    /**
+     * Archives the directory tree <var>directory</var> as <var>dirEntry</var>.
+     *
+     * @return <code>false</code>, if <var>directory</var> can't be read.
+     */
+    boolean archive(File directory, ArchiveEntry dirEntry)
+    {
+        final String threadName = "h5ar archiving " + directory.getName();
+        executor = Executors.newFixedThreadPool(threads, createDaemonThreadFactory(threadName));
+        try
+        {
+            final DirectoryFrame root =
+                    new DirectoryFrame(directory, dirEntry, null, -1, submitListing(directory));
+            stack.push(root);
+            while (true)
+            {
+                plan();
+                final QueuedEntry entry = queue.pollFirst();
+                if (entry == null)
+                {
+                    break;
+                }
+                process(entry);
+            }
+            return root.ok;
+        } finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    //
+    // Planning
+    //
+
+    /**
+     * Walks the directory tree ahead of the calling thread, submits the work for the worker
+     * threads and puts the entries into the queue. Returns when the queue or the bytes in flight
+     * are at their limit, or when a directory listing is not yet available and there are entries
+     * in the queue to process in the meantime.
+     */
+    private void plan()
+    {
+        while (stack.isEmpty() == false && queue.size() < MAX_QUEUED_ENTRIES)
+        {
+            final DirectoryFrame frame = stack.peek();
+            if (frame.listing == null)
+            {
+                if (frame.listingFuture.isDone() == false && queue.isEmpty() == false)
+                {
+                    return;
+                }
+                frame.setListing(getResult(frame.listingFuture));
+                queue.addLast(new QueuedEntry(Kind.DIRECTORY_START, frame, -1, null, null, 0L));
+                if (frame.listing.filesOrNull == null)
+                {
+                    stack.pop();
+                }
+                continue;
+            }
+            final File[] files = frame.listing.filesOrNull;
+            prefetchListings(frame);
+            if (frame.nextIndex == files.length)
+            {
+                queue.addLast(new QueuedEntry(Kind.DIRECTORY_END, frame, -1, null, null, 0L));
+                stack.pop();
+                continue;
+            }
+            final int index = frame.nextIndex;
+            final File file = files[index];
+            final LinkRecord link = frame.listing.links[index];
+            if (link == null)
+            {
+                ++frame.nextIndex;
+                continue;
+            }
+            if (strategy.doExclude(file.getAbsolutePath(), link.isDirectory()))
+            {
+                frame.kept[index] = false;
+                ++frame.nextIndex;
+                continue;
+            }
+            if (link.isRegularFile() && link.getSize() < chunkSize && bytesInFlight > 0
+                    && bytesInFlight + link.getSize() > Utils.MAX_BYTES_IN_FLIGHT)
+            {
+                return;
+            }
+            ++frame.nextIndex;
+            final String hdf5GroupPath = frame.entry.getPath();
+            final ArchiveEntry entry =
+                    new ArchiveEntry(hdf5GroupPath, Utils.concatLink(hdf5GroupPath,
+                            link.getLinkName()), link, idCache);
+            if (link.isDirectory())
+            {
+                stack.push(new DirectoryFrame(file, entry, frame, index, takeListing(frame,
+                        index)));
+            } else if (link.isSymLink())
+            {
+                queue.addLast(new QueuedEntry(Kind.SYMLINK, frame, index, entry, null, 0L));
+            } else if (link.isRegularFile())
+            {
+                if (link.getSize() < chunkSize)
+                {
+                    bytesInFlight += link.getSize();
+                    queue.addLast(new QueuedEntry(Kind.REGULAR_FILE, frame, index, entry,
+                            submitRead(file, entry.getPath()), link.getSize()));
+                } else
+                {
+                    queue.addLast(new QueuedEntry(Kind.REGULAR_FILE, frame, index, entry, null,
+                            0L));
+                }
+            } else
+            {
+                queue.addLast(new QueuedEntry(Kind.OTHER, frame, index, entry, null, 0L));
+            }
+        }
+    }
+
+    /**
+     * Submits the listings of up to {@link #threads} sub-directories of <var>frame</var> that
+     * haven't been planned yet.
+     */
+    private void prefetchListings(DirectoryFrame frame)
+    {
+        final File[] files = frame.listing.filesOrNull;
+        while (frame.prefetchedCount < threads && frame.nextPrefetchIndex < files.length)
+        {
+            final int index = frame.nextPrefetchIndex++;
+            final LinkRecord link = frame.listing.links[index];
+            if (index >= frame.nextIndex && link != null && link.isDirectory()
+                    && strategy.doExclude(files[index].getAbsolutePath(), true) == false)
+            {
+                frame.prefetchedListings.set(index, submitListing(files[index]));
+                ++frame.prefetchedCount;
+            }
+        }
+    }
+
+    private Future<DirectoryListing> takeListing(DirectoryFrame frame, int index)
+    {
+        final Future<DirectoryListing> prefetchedOrNull = frame.prefetchedListings.get(index);
+        if (prefetchedOrNull == null)
+        {
+            return submitListing(frame.listing.filesOrNull[index]);
+        }
+        frame.prefetchedListings.set(index, null);
+        --frame.prefetchedCount;
+        return prefetchedOrNull;
+    }
+
+    //
+    // Processing on the calling thread
+    //
+
+    private void process(QueuedEntry queuedEntry)
+    {
+        final DirectoryFrame frame = queuedEntry.frame;
+        switch (queuedEntry.kind)
+        {
+            case DIRECTORY_START:
+                startDirectory(frame);
+                break;
+            case DIRECTORY_END:
+                endDirectory(frame);
+                break;
+            case SYMLINK:
+                if (updater.archiveSymLink(queuedEntry.entryOrNull, getFile(queuedEntry),
+                        entryVisitorOrNull) == false)
+                {
+                    frame.kept[queuedEntry.index] = false;
+                }
+                break;
+            case REGULAR_FILE:
+                archiveFile(queuedEntry);
+                break;
+            default:
+                errorStrategy.dealWithError(new ArchivingException(getFile(queuedEntry),
+                        new IOException("Path corresponds to neither a file nor a directory.")));
+        }
+    }
+
+    private void startDirectory(DirectoryFrame frame)
+    {
+        final DirectoryListing listing = frame.listing;
+        if (listing.filesOrNull == null)
+        {
+            frame.markFailed();
+            errorStrategy.dealWithError(new ArchivingException(frame.directory, new IOException(
+                    "Cannot read directory")));
+            return;
+        }
+        updater.createGroup(frame.entry.getPath(), listing.filesOrNull);
+        for (ArchivingException errorOrNull : listing.errors)
+        {
+            if (errorOrNull != null)
+            {
+                errorStrategy.dealWithError(errorOrNull);
+            }
+        }
+        if (entryVisitorOrNull != null)
+        {
+            entryVisitorOrNull.visit(frame.entry);
+        }
+    }
+
+    private void endDirectory(DirectoryFrame frame)
+    {
+        final LinkRecord[] links = frame.listing.links;
+        final List<LinkRecord> keptLinks = new ArrayList<LinkRecord>(links.length);
+        for (int i = 0; i < links.length; ++i)
+        {
+            if (frame.kept[i])
+            {
+                keptLinks.add(links[i]);
+            }
+        }
+        final boolean verbose = (entryVisitorOrNull != null);
+        indexProvider.get(frame.entry.getPath(), verbose).updateIndex(keptLinks);
+    }
+
+    private void archiveFile(QueuedEntry queuedEntry)
+    {
+        FileContent contentOrNull = null;
+        if (queuedEntry.contentOrNull != null)
+        {
+            contentOrNull = getResult(queuedEntry.contentOrNull);
+            bytesInFlight -= queuedEntry.reservedBytes;
+        }
+        final ArchiveEntry entry = queuedEntry.entryOrNull;
+        final DataSetInfo infoOrNull =
+                updater.tryArchiveFile(getFile(queuedEntry), entry,
+                        strategy.getStorageFeatureForPath(entry.getPath()),
+                        strategy.doDeduplicate(), chunkSize, entryVisitorOrNull, contentOrNull);
+        if (infoOrNull == null)
+        {
+            queuedEntry.frame.kept[queuedEntry.index] = false;
+        } else
+        {
+            final LinkRecord link = queuedEntry.frame.listing.links[queuedEntry.index];
+            link.setSize(infoOrNull.size);
+            link.setCrc32(infoOrNull.crc32);
+        }
+    }
+
+    private static File getFile(QueuedEntry queuedEntry)
+    {
+        return queuedEntry.frame.listing.filesOrNull[queuedEntry.index];
+    }
+
+    //
+    // Work of the worker threads
+    //
+
+    private Future<DirectoryListing> submitListing(final File directory)
+    {
+        return executor.submit(new Callable<DirectoryListing>()
+            {
+                @Override
+                public DirectoryListing call()
+                {
+                    return list(directory);
+                }
+            });
+    }
+
+    private static DirectoryListing list(File directory)
+    {
+        final DirectoryListing listing = new DirectoryListing(directory.listFiles());
+        for (int i = 0; i < listing.links.length; ++i)
+        {
+            final File file = listing.filesOrNull[i];
+            try
+            {
+                listing.links[i] = LinkRecord.create(file);
+            } catch (IOExceptionUnchecked ex)
+            {
+                listing.errors[i] = new ArchivingException(file, ex.getCause());
+            }
+        }
+        return listing;
+    }
+
+    private Future<FileContent> submitRead(final File file, String path)
+    {
+        final HDF5GenericStorageFeatures features = strategy.getStorageFeatureForPath(path);
+        // Deflate only what will be written as a pre-compressed chunk.
+        final int deflateLevel =
+                (features.isDeflating() && updater.isRawChunkWritingSupported()) ? features
+                        .getDeflateLevel() : -1;
+        final boolean deduplicate = strategy.doDeduplicate();
+        return executor.submit(new Callable<FileContent>()
+            {
+                @Override
+                public FileContent call()
+                {
+                    return tryRead(file, chunkSize, deflateLevel, deduplicate);
+                }
+            });
+    }
+
+    /**
+     * Reads, checksums and, if <var>deflateLevel</var> is not negative, deflates
+     * <var>file</var>. If <var>deduplicate</var> is <code>true</code>, the content is hashed, too.
+     *
+     * @return The content, or <code>null</code>, if the file has at least <var>limit</var> bytes.
+     */
+    private static FileContent tryRead(File file, int limit, int deflateLevel,
+            boolean deduplicate)
+    {
+        try (final InputStream input = FileUtils.openInputStream(file))
+        {
+            // One byte more than the expected length, to find the end of the file with one read.
+            byte[] data = new byte[(int) Math.min(limit, file.length() + 1)];
+            int length = 0;
+            while (true)
+            {
+                if (length == data.length)
+                {
+                    if (length == limit)
+                    {
+                        return null;
+                    }
+                    data = Arrays.copyOf(data, (int) Math.min(limit, 2L * length));
+                }
+                final int n = input.read(data, length, data.length - length);
+                if (n < 0)
+                {
+                    break;
+                }
+                length += n;
+            }
+            final CRC32 crc32 = new CRC32();
+            crc32.update(data, 0, length);
+            final byte[] deflatedOrNull =
+                    (deflateLevel >= 0 && length > HDF5ArchiveUpdater.SMALL_DATASET_LIMIT)
+                            ? tryDeflate(data, length, deflateLevel) : null;
+            final String hashOrNull = deduplicate ? ContentStore.getHash(data, length) : null;
+            return new FileContent(data, length, (int) crc32.getValue(), deflatedOrNull,
+                    hashOrNull);
+        } catch (IOException ex)
+        {
+            return new FileContent(ex);
+        }
+    }
+
+    /**
+     * Deflates the first <var>length</var> bytes of <var>data</var> in the format of the HDF5
+     * deflate filter.
+     *
+     * @return The deflated data, or <code>null</code>, if they are not smaller than
+     *         <var>length</var>.
+     */
+    private static byte[] tryDeflate(byte[] data, int length, int level)
+    {
+        final Deflater deflater = new Deflater(level);
+        try
+        {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            final byte[] deflated = new byte[length];
+            int deflatedLength = 0;
+            while (deflater.finished() == false && deflatedLength < length)
+            {
+                deflatedLength +=
+                        deflater.deflate(deflated, deflatedLength, length - deflatedLength);
+            }
+            return deflater.finished() ? Arrays.copyOf(deflated, deflatedLength) : null;
+        } finally
+        {
+            deflater.end();
+        }
+    }
+
+}
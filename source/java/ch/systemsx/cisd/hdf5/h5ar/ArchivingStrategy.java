@@ -23,8 +23,8 @@ import java.util.regex.Pattern;
 import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
 
 /**
- * A class that represents a strategy for excluding files from archiving / extracting and for
- * compressing files in the archive.
+ * A class that represents a strategy for excluding files from archiving / extracting, for
+ * compressing and deduplicating files in the archive and for the number of threads to use.
  * 
  * @author Bernd Rinn
  */
@@ -50,6 +50,10 @@ public class ArchivingStrategy
 
     private CompressionStrategy compressionStrategy;
 
+    private int threads = 1;
+
+    private boolean deduplicate;
+
     private boolean sealed;
 
     /**
@@ -84,6 +88,8 @@ public class ArchivingStrategy
         this.compressionStrategy = template.compressionStrategy;
         this.compressionWhiteListOrNull = template.compressionWhiteListOrNull;
         this.compressionBlackListOrNull = template.compressionBlackListOrNull;
+        this.threads = template.threads;
+        this.deduplicate = template.deduplicate;
     }
     
     private List<Pattern> getOrCreateFileWhiteList()
@@ -314,6 +320,70 @@ public class ArchivingStrategy
         return this;
     }
 
+    /**
+     * Store files with the same content only once in the archive. The content of each file is
+     * hashed with SHA-256 and files with a content that is already in the archive are stored as
+     * hard links to this content.
+     */
+    public ArchivingStrategy deduplicate()
+    {
+        checkSealed();
+        this.deduplicate = true;
+        return this;
+    }
+
+    /**
+     * Sets, whether files with the same content should be stored only once in the archive (
+     * <code>true</code>) or not (<code>false</code>).
+     * 
+     * @see #deduplicate()
+     */
+    public ArchivingStrategy deduplicate(boolean deduplicateContent)
+    {
+        checkSealed();
+        this.deduplicate = deduplicateContent;
+        return this;
+    }
+
+    /**
+     * Returns <code>true</code>, if files with the same content should be stored only once in the
+     * archive.
+     */
+    public boolean doDeduplicate()
+    {
+        return deduplicate;
+    }
+
+    /**
+     * Sets the number of threads to use for archiving and extracting directories. With more than
+     * one thread, directories are listed and files are read, checksummed and compressed on worker
+     * threads when archiving, while the archive is written on the calling thread. When extracting,
+     * the archive is read on the calling thread, while files are written, checksummed and get their
+     * attributes restored on worker threads. The default is 1, which processes all files on the
+     * calling thread.
+     */
+    public ArchivingStrategy threads(int numberOfThreads)
+    {
+        checkSealed();
+        if (numberOfThreads < 1)
+        {
+            throw new IllegalArgumentException("Number of threads must be positive, but is "
+                    + numberOfThreads + ".");
+        }
+        this.threads = numberOfThreads;
+        return this;
+    }
+
+    /**
+     * Returns the number of threads to use for archiving and extracting directories.
+     * 
+     * @see #threads(int)
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
     boolean doExclude(String path, boolean isDirectory)
     {
         if (isDirectory)
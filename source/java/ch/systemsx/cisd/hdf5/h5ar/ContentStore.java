@@ -0,0 +1,194 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ch.systemsx.cisd.hdf5.h5ar;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import ch.systemsx.cisd.base.exceptions.CheckedExceptionTunnel;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * The store of file contents of an archive for deduplication.
+ * <p>
+ * Each distinct content is stored once as a data set in a house-keeping group of the root group,
+ * named by the SHA-256 hash of the content. The files of the archive with this content are hard
+ * links to this data set. As the hard links are regular data sets for all readers of the archive,
+ * listing, extracting and verifying archives work unchanged. The hash is stored as attribute
+ * {@link #HASH_ATTRIBUTE_NAME} of the data set, so that deleting a file can find its content and
+ * delete it with the last file referring to it.
+ * 
+ * @author Bernd Rinn
+ */
+final class ContentStore
+{
+    static final String HASH_ATTRIBUTE_NAME = "SHA256";
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final IHDF5Writer hdf5Writer;
+
+    private final String groupPath;
+
+    ContentStore(IHDF5Writer hdf5Writer)
+    {
+        this.hdf5Writer = hdf5Writer;
+        this.groupPath = "/" + hdf5Writer.object().toHouseKeepingPath("CONTENT");
+    }
+
+    /**
+     * Returns a new digest for computing the hash of a content.
+     */
+    static MessageDigest createDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException ex)
+        {
+            throw CheckedExceptionTunnel.wrapIfNecessary(ex);
+        }
+    }
+
+    /**
+     * Returns the hash of the content that has been fed to <var>digest</var>, as hex string.
+     */
+    static String getHash(MessageDigest digest)
+    {
+        final byte[] hash = digest.digest();
+        final char[] hex = new char[2 * hash.length];
+        for (int i = 0; i < hash.length; ++i)
+        {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Returns the hash of the first <var>length</var> bytes of <var>data</var>, as hex string.
+     */
+    static String getHash(byte[] data, int length)
+    {
+        final MessageDigest digest = createDigest();
+        digest.update(data, 0, length);
+        return getHash(digest);
+    }
+
+    /**
+     * Links <var>objectPath</var> to the content with <var>hash</var>, if the store has it. If
+     * <var>objectPath</var> exists already, it is replaced.
+     * 
+     * @return <code>true</code>, if the store has the content.
+     */
+    boolean tryLink(String hash, String objectPath)
+    {
+        final String contentPath = getContentPath(hash);
+        if (hdf5Writer.exists(contentPath) == false)
+        {
+            return false;
+        }
+        final String previousHashOrNull = tryGetHash(objectPath);
+        if (hdf5Writer.object().exists(objectPath, false))
+        {
+            hdf5Writer.object().delete(objectPath);
+        }
+        hdf5Writer.object().createHardLink(contentPath, objectPath);
+        if (previousHashOrNull != null && previousHashOrNull.equals(hash) == false)
+        {
+            deleteIfUnreferenced(getContentPath(previousHashOrNull));
+        }
+        return true;
+    }
+
+    /**
+     * Adds the data set <var>objectPath</var> that has just been written with the content with
+     * <var>hash</var> to the store. If the store has the content already, <var>objectPath</var> is
+     * replaced by a link to it.
+     */
+    void add(String hash, String objectPath)
+    {
+        if (tryLink(hash, objectPath))
+        {
+            return;
+        }
+        hdf5Writer.string().setAttr(objectPath, HASH_ATTRIBUTE_NAME, hash);
+        hdf5Writer.object().createHardLink(objectPath, getContentPath(hash));
+    }
+
+    /**
+     * Deletes <var>objectPath</var> from the archive, if it exists. If it is a file whose content
+     * is in the store, the content is deleted, too, if no other file refers to it.
+     */
+    void delete(String objectPath)
+    {
+        final String hashOrNull = tryGetHash(objectPath);
+        if (hdf5Writer.object().exists(objectPath, false))
+        {
+            hdf5Writer.object().delete(objectPath);
+        }
+        if (hashOrNull != null)
+        {
+            deleteIfUnreferenced(getContentPath(hashOrNull));
+        }
+    }
+
+    /**
+     * Deletes all contents from the store that no file refers to anymore.
+     */
+    void deleteUnreferenced()
+    {
+        if (hdf5Writer.exists(groupPath) == false)
+        {
+            return;
+        }
+        final List<String> contentPaths = hdf5Writer.object().getAllGroupMembers(groupPath);
+        for (String contentPath : contentPaths)
+        {
+            deleteIfUnreferenced(Utils.concatLink(groupPath, contentPath));
+        }
+    }
+
+    private void deleteIfUnreferenced(String contentPath)
+    {
+        if (hdf5Writer.exists(contentPath)
+                && hdf5Writer.object().getObjectInformation(contentPath).getReferenceCount() <= 1)
+        {
+            hdf5Writer.object().delete(contentPath);
+        }
+    }
+
+    private String tryGetHash(String objectPath)
+    {
+        if (hdf5Writer.object().isDataSet(objectPath, false)
+                && hdf5Writer.object().hasAttribute(objectPath, HASH_ATTRIBUTE_NAME))
+        {
+            return hdf5Writer.string().getAttr(objectPath, HASH_ATTRIBUTE_NAME);
+        }
+        return null;
+    }
+
+    private String getContentPath(String hash)
+    {
+        return groupPath + "/" + hash;
+    }
+
+}
@@ -56,7 +56,7 @@ import ch.systemsx.cisd.hdf5.StringUtils;
  */
 class DirectoryIndex implements IDirectoryIndex
 {
-    private static final String CRC32_ATTRIBUTE_NAME = "CRC32";
+    static final String CRC32_ATTRIBUTE_NAME = "CRC32";
 
     private final IHDF5Reader hdf5Reader;
 
@@ -106,7 +106,7 @@ class DirectoryIndex implements IDirectoryIndex
         return reader.enumeration().getType("linkType", getFileLinkTypeValues());
     }
 
-    private static HDF5CompoundType<LinkRecord> getHDF5LinkCompoundType(IHDF5Reader reader)
+    static HDF5CompoundType<LinkRecord> getHDF5LinkCompoundType(IHDF5Reader reader)
     {
         return getHDF5LinkCompoundType(reader, getHDF5LinkTypeEnumeration(reader));
     }
@@ -203,12 +203,29 @@ class DirectoryIndex implements IDirectoryIndex
 
     private String getIndexDataSetName()
     {
-        return groupPath + "/" + hdf5Reader.object().toHouseKeepingPath("INDEX");
+        return getIndexDataSetName(hdf5Reader, groupPath);
     }
 
     private String getIndexNamesDataSetName()
     {
-        return groupPath + "/" + hdf5Reader.object().toHouseKeepingPath("INDEXNAMES");
+        return getIndexNamesDataSetName(hdf5Reader, groupPath);
+    }
+
+    /**
+     * Returns the name of the data set that holds the links of the directory <var>groupPath</var>.
+     */
+    static String getIndexDataSetName(IHDF5Reader reader, String groupPath)
+    {
+        return groupPath + "/" + reader.object().toHouseKeepingPath("INDEX");
+    }
+
+    /**
+     * Returns the name of the data set that holds the link names of the directory
+     * <var>groupPath</var>.
+     */
+    static String getIndexNamesDataSetName(IHDF5Reader reader, String groupPath)
+    {
+        return groupPath + "/" + reader.object().toHouseKeepingPath("INDEXNAMES");
     }
 
     /**
@@ -16,30 +16,56 @@
 
 package ch.systemsx.cisd.hdf5.h5ar;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import ch.systemsx.cisd.base.exceptions.IErrorStrategy;
 import ch.systemsx.cisd.base.exceptions.IOExceptionUnchecked;
 import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
 
 /**
  * A provider for {@link DirectoryIndex} objects.
+ * <p>
+ * For read-only archives, at most {@link #MAX_CACHED_READ_ONLY_INDICES} directory indices are
+ * cached, the least recently used ones are dropped first. For writable archives, all directory
+ * indices are cached, as they may hold changes that haven't been flushed yet.
  * 
  * @author Bernd Rinn
  */
 class DirectoryIndexProvider implements IDirectoryIndexProvider
 {
-    private final Map<String, DirectoryIndex> cacheMap = new HashMap<String, DirectoryIndex>();
+    static final int MAX_CACHED_READ_ONLY_INDICES = 1024;
+
+    private final Map<String, DirectoryIndex> cacheMap;
 
     private final IHDF5Reader reader;
 
     private final IErrorStrategy errorStrategy;
 
+    private final PathIndex pathIndex;
+
     DirectoryIndexProvider(IHDF5Reader reader, IErrorStrategy errorStrategy)
     {
         this.reader = reader;
         this.errorStrategy = errorStrategy;
+        this.pathIndex = new PathIndex(reader);
+        if (reader instanceof IHDF5Writer)
+        {
+            this.cacheMap = new LinkedHashMap<String, DirectoryIndex>();
+        } else
+        {
+            this.cacheMap = new LinkedHashMap<String, DirectoryIndex>(16, 0.75f, true)
+                {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, DirectoryIndex> eldest)
+                    {
+                        return size() > MAX_CACHED_READ_ONLY_INDICES;
+                    }
+                };
+        }
     }
 
     @Override
@@ -59,6 +85,28 @@ class DirectoryIndexProvider implements IDirectoryIndexProvider
         return index;
     }
 
+    @Override
+    public synchronized LinkRecord tryGetLink(String normalizedPath, boolean withLinkTargets)
+    {
+        final String parentPath = Utils.getParentPath(normalizedPath);
+        final String nonEmptyParentPath = (parentPath.length() == 0) ? "/" : parentPath;
+        if (cacheMap.containsKey(nonEmptyParentPath) == false)
+        {
+            final LinkRecord linkOrNull = pathIndex.tryGetLink(normalizedPath, withLinkTargets);
+            if (linkOrNull != null)
+            {
+                return linkOrNull;
+            }
+        }
+        return get(parentPath, withLinkTargets).tryGetLink(Utils.getName(normalizedPath));
+    }
+
+    @Override
+    public synchronized void writePathIndex()
+    {
+        pathIndex.write(this);
+    }
+
     @Override
     public IErrorStrategy getErrorStrategy()
     {
@@ -42,7 +42,7 @@ class GroupCache
         this.userOrNull = Unix.isOperational() ? Unix.tryGetUserByUid(Unix.getUid()) : null;
     }
 
-    boolean isUserInGroup(int gid)
+    synchronized boolean isUserInGroup(int gid)
     {
         if (userOrNull == null)
         {
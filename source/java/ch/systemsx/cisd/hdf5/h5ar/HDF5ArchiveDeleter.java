@@ -35,11 +35,14 @@ class HDF5ArchiveDeleter
     
     private final IdCache idCache;
 
+    private final ContentStore contentStore;
+
     public HDF5ArchiveDeleter(IHDF5Writer hdf5Writer, IDirectoryIndexProvider indexProvider, IdCache idCache)
     {
         this.hdf5Writer = hdf5Writer;
         this.indexProvider = indexProvider;
         this.idCache = idCache;
+        this.contentStore = new ContentStore(hdf5Writer);
     }
 
     public HDF5ArchiveDeleter delete(List<String> hdf5ObjectPaths, IArchiveEntryVisitor entryVisitorOrNull)
@@ -59,7 +62,17 @@ class HDF5ArchiveDeleter
                 }
                 if (link != null)
                 {
-                    hdf5Writer.delete(normalizedPath);
+                    if (link.isRegularFile())
+                    {
+                        contentStore.delete(normalizedPath);
+                    } else if (link.isDirectory())
+                    {
+                        hdf5Writer.delete(normalizedPath);
+                        contentStore.deleteUnreferenced();
+                    } else
+                    {
+                        hdf5Writer.delete(normalizedPath);
+                    }
                     index.remove(name);
                     if (entryVisitorOrNull != null)
                     {
@@ -67,9 +67,7 @@ class HDF5ArchiveTraverser
         LinkRecord link = null;
         if (parentPath.length() > 0)
         {
-            link =
-                    indexProvider.get(parentPath, effectiveReadLinkTargets).tryGetLink(
-                            getNameFromPath(normalizedPath, parentPath));
+            link = indexProvider.tryGetLink(normalizedPath, effectiveReadLinkTargets);
             if (link == null)
             {
                 errorStrategy.dealWithError(processor.createException(normalizedPath,
@@ -100,11 +98,6 @@ class HDF5ArchiveTraverser
         }
     }
 
-    private String getNameFromPath(final String normalizedPath, final String parentPath)
-    {
-        return normalizedPath.substring(parentPath.length() == 1 ? 1 : parentPath.length() + 1);
-    }
-
     private void postProcessDirectory(final String parentPath, final String normalizedPath,
             LinkRecord linkOrNull, IArchiveEntryProcessor processor)
     {
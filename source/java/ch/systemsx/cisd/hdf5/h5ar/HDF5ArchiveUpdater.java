@@ -20,6 +20,8 @@ import java.io.File;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.zip.CRC32;
@@ -31,12 +33,15 @@ import ch.systemsx.cisd.base.exceptions.IErrorStrategy;
 import ch.systemsx.cisd.base.exceptions.IOExceptionUnchecked;
 import ch.systemsx.cisd.base.io.IOutputStream;
 import ch.systemsx.cisd.base.unix.FileLinkType;
+import ch.systemsx.cisd.hdf5.HDF5DataSet;
 import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
 import ch.systemsx.cisd.hdf5.HDF5OpaqueType;
+import ch.systemsx.cisd.hdf5.HDF5RawChunk;
 import ch.systemsx.cisd.hdf5.IHDF5Writer;
 import ch.systemsx.cisd.hdf5.IHDF5WriterConfigurator.FileFormatVersion;
 import ch.systemsx.cisd.hdf5.io.HDF5IOAdapterFactory;
 import hdf.hdf5lib.exceptions.HDF5Exception;
+import hdf.hdf5lib.exceptions.HDF5JavaException;
 
 /**
  * A class to create or update <code>h5ar</code> archives.
@@ -51,7 +56,10 @@ class HDF5ArchiveUpdater
 
     private static final int MIN_GROUP_MEMBER_COUNT_TO_COMPUTE_SIZEHINT = 100;
 
-    private static final int SMALL_DATASET_LIMIT = 4096;
+    static final int SMALL_DATASET_LIMIT = 4096;
+
+    private static final long[] FIRST_CHUNK_OFFSET = new long[]
+        { 0L };
 
     private final IHDF5Writer hdf5Writer;
 
@@ -65,6 +73,14 @@ class HDF5ArchiveUpdater
 
     private final byte[] buffer;
 
+    private final ContentStore contentStore;
+
+    /**
+     * Whether the native library can write pre-compressed chunks. Read by the worker threads of
+     * {@link ArchivingPipeline}.
+     */
+    private volatile boolean rawChunkWritingSupported = true;
+
     static class DataSetInfo
     {
         final long size;
@@ -90,14 +106,19 @@ class HDF5ArchiveUpdater
 
         private final CRC32 crc32 = new CRC32();
 
+        private final MessageDigest digestOrNull;
+
         private long size = 0;
 
         H5ARIOutputStream(String normalizedDirectory, LinkRecord link, int chunkSize,
-                boolean compress)
+                boolean compress, boolean deduplicate)
         {
             this.directory = normalizedDirectory;
             this.path = Utils.concatLink(this.directory, link.getLinkName());
             this.link = link;
+            this.digestOrNull = deduplicate ? ContentStore.createDigest() : null;
+            // Release the content of the file that is overwritten.
+            contentStore.delete(path);
             final HDF5GenericStorageFeatures creationStorageFeature =
                     compress ? HDF5GenericStorageFeatures.GENERIC_DEFLATE
                             : HDF5GenericStorageFeatures.GENERIC_NO_COMPRESSION;
@@ -111,6 +132,10 @@ class HDF5ArchiveUpdater
         public void write(int b) throws IOExceptionUnchecked
         {
             crc32.update(b);
+            if (digestOrNull != null)
+            {
+                digestOrNull.update((byte) b);
+            }
             ++size;
             delegate.write(b);
         }
@@ -119,6 +144,10 @@ class HDF5ArchiveUpdater
         public void write(byte[] b) throws IOExceptionUnchecked
         {
             crc32.update(b);
+            if (digestOrNull != null)
+            {
+                digestOrNull.update(b);
+            }
             size += b.length;
             delegate.write(b);
         }
@@ -127,6 +156,10 @@ class HDF5ArchiveUpdater
         public void write(byte[] b, int off, int len) throws IOExceptionUnchecked
         {
             crc32.update(b, off, len);
+            if (digestOrNull != null)
+            {
+                digestOrNull.update(b, off, len);
+            }
             size += len;
             delegate.write(b, off, len);
         }
@@ -152,6 +185,10 @@ class HDF5ArchiveUpdater
         {
             flush();
             delegate.close();
+            if (digestOrNull != null)
+            {
+                contentStore.add(ContentStore.getHash(digestOrNull), path);
+            }
             indexProvider.get(path, false).removeFlushable(this);
         }
 
@@ -166,6 +203,7 @@ class HDF5ArchiveUpdater
         this.errorStrategy = indexProvider.getErrorStrategy();
         this.indexUpdater = new DirectoryIndexUpdater(indexProvider);
         this.buffer = buffer;
+        this.contentStore = new ContentStore(hdf5Writer);
     }
 
     public HDF5ArchiveUpdater archive(File path, ArchivingStrategy strategy, int chunkSize,
@@ -177,17 +215,18 @@ class HDF5ArchiveUpdater
     }
 
     public IOutputStream archiveFile(String directory, LinkRecord link, boolean compress,
-            int chunkSize)
+            boolean deduplicate, int chunkSize)
     {
         if (link.getLinkType() != FileLinkType.REGULAR_FILE)
         {
             errorStrategy.dealWithError(new ArchivingException("A regular file is expected here."));
         }
-        return new H5ARIOutputStream(Utils.normalizePath(directory), link, chunkSize, compress);
+        return new H5ARIOutputStream(Utils.normalizePath(directory), link, chunkSize, compress,
+                deduplicate);
     }
 
     public HDF5ArchiveUpdater archive(String directory, LinkRecord link, InputStream inputOrNull,
-            boolean compress, int chunkSize)
+            boolean compress, boolean deduplicate, int chunkSize)
     {
         boolean ok = true;
         final String normalizedDir = Utils.normalizePath(directory);
@@ -224,7 +263,8 @@ class HDF5ArchiveUpdater
                 try
                 {
                     final DataSetInfo info =
-                            copyToHDF5(inputOrNull, hdf5ObjectPath, compression, chunkSize);
+                            copyToHDF5(inputOrNull, hdf5ObjectPath, compression, deduplicate,
+                                    chunkSize);
                     link.setCrc32(info.crc32);
                     link.setSize(info.size);
                 } catch (IOException ex)
@@ -277,13 +317,14 @@ class HDF5ArchiveUpdater
             ok = archiveSymLink(entry, absolutePath, entryVisitorOrNull);
         } else if (absolutePath.isDirectory())
         {
-            ok = archiveDirectory(absolutePath, entry, strategy, chunkSize, entryVisitorOrNull);
+            ok = archiveDirectoryTree(absolutePath, entry, strategy, chunkSize,
+                    entryVisitorOrNull);
         } else if (absolutePath.isFile())
         {
             final DataSetInfo dataSetInfoOrNull =
                     tryArchiveFile(absolutePath, entry,
-                            strategy.getStorageFeatureForPath(hdf5ObjectPath), chunkSize,
-                            entryVisitorOrNull);
+                            strategy.getStorageFeatureForPath(hdf5ObjectPath),
+                            strategy.doDeduplicate(), chunkSize, entryVisitorOrNull);
             ok = (dataSetInfoOrNull != null);
             if (dataSetInfoOrNull != null)
             {
@@ -317,7 +358,8 @@ class HDF5ArchiveUpdater
             final String normalizedRootDirInArchive = Utils.normalizePath(rootDirInArchive);
             final ArchiveEntry dirEntry =
                     new ArchiveEntry(null, normalizedRootDirInArchive, linkOrNull, idCache);
-            archiveDirectory(absoluteDirectory, dirEntry, strategy, chunkSize, entryVisitorOrNull);
+            archiveDirectoryTree(absoluteDirectory, dirEntry, strategy, chunkSize,
+                    entryVisitorOrNull);
         } else
         {
             errorStrategy.dealWithError(new ArchivingException(absoluteDirectory, new IOException(
@@ -345,13 +387,14 @@ class HDF5ArchiveUpdater
             ok = archiveSymLink(entry, absolutePath, entryVisitorOrNull);
         } else if (absolutePath.isDirectory())
         {
-            ok = archiveDirectory(absolutePath, entry, strategy, chunkSize, entryVisitorOrNull);
+            ok = archiveDirectoryTree(absolutePath, entry, strategy, chunkSize,
+                    entryVisitorOrNull);
         } else if (absolutePath.isFile())
         {
             final DataSetInfo dataSetInfoOrNull =
                     tryArchiveFile(absolutePath, entry,
-                            strategy.getStorageFeatureForPath(hdf5ObjectPath), chunkSize,
-                            entryVisitorOrNull);
+                            strategy.getStorageFeatureForPath(hdf5ObjectPath),
+                            strategy.doDeduplicate(), chunkSize, entryVisitorOrNull);
             ok = (dataSetInfoOrNull != null);
             if (dataSetInfoOrNull != null)
             {
@@ -463,23 +506,7 @@ class HDF5ArchiveUpdater
             return false;
         }
         final String hdf5GroupPath = dirEntry.getPath();
-        if ("/".equals(hdf5GroupPath) == false)
-            try
-            {
-                if (hdf5Writer.file().getFileFormatVersionBounds().getLowBound() == FileFormatVersion.EARLIEST
-                        && fileEntries.length > MIN_GROUP_MEMBER_COUNT_TO_COMPUTE_SIZEHINT)
-                {
-                    // Compute size hint and pre-create group in order to improve performance.
-                    int totalLength = computeSizeHint(fileEntries);
-                    hdf5Writer.object().createGroup(hdf5GroupPath, totalLength * SIZEHINT_FACTOR);
-                } else
-                {
-                    hdf5Writer.object().createGroup(hdf5GroupPath);
-                }
-            } catch (HDF5Exception ex)
-            {
-                errorStrategy.dealWithError(new ArchivingException(hdf5GroupPath, ex));
-            }
+        createGroup(hdf5GroupPath, fileEntries);
         final List<LinkRecord> linkEntries =
                 DirectoryIndex.convertFilesToLinks(fileEntries, errorStrategy);
 
@@ -532,8 +559,8 @@ class HDF5ArchiveUpdater
                 {
                     final DataSetInfo dataSetInfoOrNull =
                             tryArchiveFile(file, entry,
-                                    strategy.getStorageFeatureForPath(entry.getPath()), chunkSize,
-                                    entryVisitorOrNull);
+                                    strategy.getStorageFeatureForPath(entry.getPath()),
+                                    strategy.doDeduplicate(), chunkSize, entryVisitorOrNull);
                     if (dataSetInfoOrNull == null)
                     {
                         linkIt.remove();
@@ -556,6 +583,48 @@ class HDF5ArchiveUpdater
         return true;
     }
 
+    /**
+     * Archives the directory tree <var>dir</var>, using several threads if <var>strategy</var>
+     * asks for it.
+     */
+    private boolean archiveDirectoryTree(File dir, ArchiveEntry dirEntry,
+            ArchivingStrategy strategy, int chunkSize, IArchiveEntryVisitor entryVisitorOrNull)
+    {
+        if (strategy.getThreads() > 1)
+        {
+            return new ArchivingPipeline(this, indexProvider, idCache, strategy,
+                    getEffectiveChunkSize(chunkSize), entryVisitorOrNull).archive(dir, dirEntry);
+        }
+        return archiveDirectory(dir, dirEntry, strategy, chunkSize, entryVisitorOrNull);
+    }
+
+    /**
+     * Creates the group <var>hdf5GroupPath</var> for a directory with <var>fileEntries</var>.
+     */
+    void createGroup(String hdf5GroupPath, File[] fileEntries)
+    {
+        if ("/".equals(hdf5GroupPath))
+        {
+            return;
+        }
+        try
+        {
+            if (hdf5Writer.file().getFileFormatVersionBounds().getLowBound() == FileFormatVersion.EARLIEST
+                    && fileEntries.length > MIN_GROUP_MEMBER_COUNT_TO_COMPUTE_SIZEHINT)
+            {
+                // Compute size hint and pre-create group in order to improve performance.
+                int totalLength = computeSizeHint(fileEntries);
+                hdf5Writer.object().createGroup(hdf5GroupPath, totalLength * SIZEHINT_FACTOR);
+            } else
+            {
+                hdf5Writer.object().createGroup(hdf5GroupPath);
+            }
+        } catch (HDF5Exception ex)
+        {
+            errorStrategy.dealWithError(new ArchivingException(hdf5GroupPath, ex));
+        }
+    }
+
     private boolean archiveSymLink(ArchiveEntry entry)
     {
         if (entry.hasLinkTarget() == false)
@@ -567,7 +636,7 @@ class HDF5ArchiveUpdater
         return archiveSymLink(entry, null);
     }
 
-    private boolean archiveSymLink(ArchiveEntry entry, File file,
+    boolean archiveSymLink(ArchiveEntry entry, File file,
             IArchiveEntryVisitor entryVisitorOrNull)
     {
         if (entry.hasLinkTarget() == false)
@@ -608,13 +677,32 @@ class HDF5ArchiveUpdater
     }
 
     private DataSetInfo tryArchiveFile(File file, ArchiveEntry entry,
-            HDF5GenericStorageFeatures features, int chunkSize,
+            HDF5GenericStorageFeatures features, boolean deduplicate, int chunkSize,
             IArchiveEntryVisitor entryVisitorOrNull) throws ArchivingException
+    {
+        return tryArchiveFile(file, entry, features, deduplicate, chunkSize, entryVisitorOrNull,
+                null);
+    }
+
+    /**
+     * Archives <var>file</var>, taking its content from <var>contentOrNull</var>, if it has been
+     * read already.
+     */
+    DataSetInfo tryArchiveFile(File file, ArchiveEntry entry,
+            HDF5GenericStorageFeatures features, boolean deduplicate, int chunkSize,
+            IArchiveEntryVisitor entryVisitorOrNull, ArchivingPipeline.FileContent contentOrNull)
+            throws ArchivingException
     {
         DataSetInfo info = null;
         try
         {
-            info = copyToHDF5(file, entry.getPath(), features, chunkSize);
+            if (contentOrNull == null)
+            {
+                info = copyToHDF5(file, entry.getPath(), features, deduplicate, chunkSize);
+            } else
+            {
+                info = copyToHDF5(contentOrNull, entry.getPath(), features);
+            }
             entry.setDataSetInfo(info);
             if (entryVisitorOrNull != null)
             {
@@ -650,21 +738,29 @@ class HDF5ArchiveUpdater
     }
 
     private DataSetInfo copyToHDF5(final File source, final String objectPath,
-            final HDF5GenericStorageFeatures compression, int chunkSize) throws IOException
+            final HDF5GenericStorageFeatures compression, boolean deduplicate, int chunkSize)
+            throws IOException
     {
         try (final InputStream input = FileUtils.openInputStream(source))
         {
-            return copyToHDF5(input, objectPath, compression, chunkSize);
+            return copyToHDF5(input, objectPath, compression, deduplicate, chunkSize);
         }
     }
 
-    private int getEffectiveChunkSize(int chunkSize)
+    int getEffectiveChunkSize(int chunkSize)
     {
         return (chunkSize <= 0 || chunkSize > buffer.length) ? buffer.length : chunkSize;
     }
 
+    /**
+     * Copies <var>input</var> to the data set <var>objectPath</var>. If <var>deduplicate</var> is
+     * <code>true</code>, the content is hashed and stored in the {@link ContentStore}. Contents
+     * that fit into the buffer are hashed before they are written, so they are not written at all
+     * if the store has them already.
+     */
     private DataSetInfo copyToHDF5(final InputStream input, final String objectPath,
-            final HDF5GenericStorageFeatures compression, int chunkSize) throws IOException
+            final HDF5GenericStorageFeatures compression, boolean deduplicate, int chunkSize)
+            throws IOException
     {
         final int effectiveBufferLength = getEffectiveChunkSize(chunkSize);
         final CRC32 crc32 = new CRC32();
@@ -673,6 +769,13 @@ class HDF5ArchiveUpdater
         // Deal with small data sources separately to keep the file size smaller
         if (n < effectiveBufferLength)
         {
+            final String hashOrNull = deduplicate ? ContentStore.getHash(buffer, n) : null;
+            if (hashOrNull != null && contentStore.tryLink(hashOrNull, objectPath))
+            {
+                crc32.update(buffer, 0, n);
+                return new DataSetInfo(n, (int) crc32.getValue());
+            }
+            contentStore.delete(objectPath);
             // For data sets roughly up to 4096 bytes the overhead of a chunked data set outweighs
             // the saving of the compression.
             if (n <= SMALL_DATASET_LIMIT || features.isDeflating() == false)
@@ -683,9 +786,15 @@ class HDF5ArchiveUpdater
                     hdf5Writer.opaque().createArray(objectPath, OPAQUE_TAG_FILE, n, features);
             hdf5Writer.opaque().writeArrayBlockWithOffset(objectPath, type, buffer, n, 0);
             crc32.update(buffer, 0, n);
+            if (hashOrNull != null)
+            {
+                contentStore.add(hashOrNull, objectPath);
+            }
             return new DataSetInfo(n, (int) crc32.getValue());
         }
 
+        final MessageDigest digestOrNull = deduplicate ? ContentStore.createDigest() : null;
+        contentStore.delete(objectPath);
         final HDF5OpaqueType type =
                 hdf5Writer.opaque().createArray(objectPath, OPAQUE_TAG_FILE, 0,
                         effectiveBufferLength, compression);
@@ -695,11 +804,100 @@ class HDF5ArchiveUpdater
             hdf5Writer.opaque().writeArrayBlockWithOffset(objectPath, type, buffer, n, count);
             count += n;
             crc32.update(buffer, 0, n);
+            if (digestOrNull != null)
+            {
+                digestOrNull.update(buffer, 0, n);
+            }
             n = fillBuffer(input, effectiveBufferLength);
         }
+        if (digestOrNull != null)
+        {
+            // The content has been written already, but is replaced by a link, if it's a duplicate.
+            contentStore.add(ContentStore.getHash(digestOrNull), objectPath);
+        }
         return new DataSetInfo(count, (int) crc32.getValue());
     }
 
+    /**
+     * Writes a file whose content has been read, checksummed and compressed on a worker thread.
+     * The data set is laid out the same way as by
+     * {@link #copyToHDF5(InputStream, String, HDF5GenericStorageFeatures, boolean, int)}.
+     */
+    private DataSetInfo copyToHDF5(final ArchivingPipeline.FileContent content,
+            final String objectPath, final HDF5GenericStorageFeatures compression)
+            throws IOException
+    {
+        if (content.exceptionOrNull != null)
+        {
+            throw content.exceptionOrNull;
+        }
+        final int n = content.length;
+        if (content.hashOrNull != null && contentStore.tryLink(content.hashOrNull, objectPath))
+        {
+            return new DataSetInfo(n, content.crc32);
+        }
+        contentStore.delete(objectPath);
+        if (n <= SMALL_DATASET_LIMIT || compression.isDeflating() == false)
+        {
+            final HDF5OpaqueType type =
+                    hdf5Writer.opaque().createArray(objectPath, OPAQUE_TAG_FILE, n,
+                            HDF5GenericStorageFeatures.GENERIC_CONTIGUOUS);
+            hdf5Writer.opaque().writeArrayBlockWithOffset(objectPath, type, content.data, n, 0);
+        } else
+        {
+            final HDF5OpaqueType type =
+                    hdf5Writer.opaque().createArray(objectPath, OPAQUE_TAG_FILE, n, n,
+                            compression);
+            if (rawChunkWritingSupported == false || tryWriteRawChunk(objectPath, content) == false)
+            {
+                hdf5Writer.opaque().writeArrayBlockWithOffset(objectPath, type, content.data, n,
+                        0);
+            }
+        }
+        if (content.hashOrNull != null)
+        {
+            contentStore.add(content.hashOrNull, objectPath);
+        }
+        return new DataSetInfo(n, content.crc32);
+    }
+
+    /**
+     * Writes the content of a file as the only chunk of <var>objectPath</var>, which has the
+     * deflate filter as its only filter.
+     * 
+     * @return <code>false</code>, if the native library can't write pre-compressed chunks.
+     */
+    private boolean tryWriteRawChunk(String objectPath, ArchivingPipeline.FileContent content)
+    {
+        final HDF5RawChunk chunk;
+        if (content.deflatedOrNull != null)
+        {
+            chunk = new HDF5RawChunk(0, content.deflatedOrNull);
+        } else
+        {
+            // The content is not compressible: mark the deflate filter as not applied.
+            chunk = new HDF5RawChunk(1, (content.data.length == content.length) ? content.data
+                    : Arrays.copyOf(content.data, content.length));
+        }
+        try (final HDF5DataSet dataSet = hdf5Writer.object().openDataSet(objectPath))
+        {
+            hdf5Writer.rawChunk().writeRawChunk(dataSet, FIRST_CHUNK_OFFSET, chunk);
+            return true;
+        } catch (HDF5JavaException ex)
+        {
+            rawChunkWritingSupported = false;
+            return false;
+        }
+    }
+
+    /**
+     * Returns <code>true</code>, if files can be written as pre-compressed chunks.
+     */
+    boolean isRawChunkWritingSupported()
+    {
+        return rawChunkWritingSupported;
+    }
+
     private int fillBuffer(InputStream input, int bufferLength) throws IOException
     {
         int ofs = 0;
@@ -234,18 +234,14 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
     public boolean exists(String path)
     {
         final String normalizedPath = Utils.normalizePath(path);
-        final String parentPath = Utils.getParentPath(normalizedPath);
-        final String name = Utils.getName(normalizedPath);
-        return indexProvider.get(parentPath, false).exists(name);
+        return indexProvider.tryGetLink(normalizedPath, false) != null;
     }
 
     @Override
     public boolean isDirectory(String path)
     {
-        final String normalizedPath = Utils.normalizePath(path);
-        final String parentPath = Utils.getParentPath(normalizedPath);
-        final String name = Utils.getName(normalizedPath);
-        return indexProvider.get(parentPath, false).isDirectory(name);
+        final LinkRecord linkOrNull = tryGetLink(path, false);
+        return (linkOrNull != null) && linkOrNull.isDirectory();
     }
 
     @Override
@@ -270,17 +266,14 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
                     .file().getFile()), idCache);
         }
         final String parentPath = Utils.getParentPath(normalizedPath);
-        final String name = Utils.getName(normalizedPath);
         return Utils.tryToArchiveEntry(parentPath, normalizedPath,
-                indexProvider.get(parentPath, readLinkTarget).tryGetLink(name), idCache);
+                indexProvider.tryGetLink(normalizedPath, readLinkTarget), idCache);
     }
 
     private LinkRecord tryGetLink(String path, boolean readLinkTargets)
     {
         final String normalizedPath = Utils.normalizePath(path);
-        final String parentPath = Utils.getParentPath(normalizedPath);
-        final String name = Utils.getName(normalizedPath);
-        return indexProvider.get(parentPath, readLinkTargets).tryGetLink(name);
+        return indexProvider.tryGetLink(normalizedPath, readLinkTargets);
     }
 
     @Override
@@ -515,8 +508,16 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
                     : null;
         final ArchiveEntryVerifyProcessor verifyProcessor =
                 new ArchiveEntryVerifyProcessor(visitor, rootDirectoryOnFS, filesOnFSOrNull,
-                        buffer, params.isVerifyAttributes(), params.isNumeric());
-        processor.process(fileOrDir, params.isRecursive(), true, false, verifyProcessor);
+                        buffer, params.isVerifyAttributes(), params.isNumeric(),
+                        params.getThreads());
+        try
+        {
+            processor.process(fileOrDir, params.isRecursive(), true, false, verifyProcessor);
+            verifyProcessor.finish();
+        } finally
+        {
+            verifyProcessor.close();
+        }
         if (filesOnFSOrNull != null && filesOnFSOrNull.isEmpty() == false)
         {
             for (File f : filesOnFSOrNull)
@@ -549,8 +550,15 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
         final ArchiveEntryVerifyProcessor verifyProcessor =
                 new ArchiveEntryVerifyProcessor(visitor, rootDirectoryOnFS, filesOnFSOrNull,
                         rootDirectoryInArchive, buffer, params.isVerifyAttributes(),
-                        params.isNumeric());
-        processor.process(fileOrDir, params.isRecursive(), true, false, verifyProcessor);
+                        params.isNumeric(), params.getThreads());
+        try
+        {
+            processor.process(fileOrDir, params.isRecursive(), true, false, verifyProcessor);
+            verifyProcessor.finish();
+        } finally
+        {
+            verifyProcessor.close();
+        }
         if (filesOnFSOrNull != null && filesOnFSOrNull.isEmpty() == false)
         {
             for (File f : filesOnFSOrNull)
@@ -735,10 +743,18 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
             String rootPathInArchive, String path, ArchivingStrategy strategy,
             IArchiveEntryVisitor visitorOrNull) throws IllegalStateException
     {
-        final IArchiveEntryProcessor extractor =
+        final ArchiveEntryExtractProcessor extractor =
                 new ArchiveEntryExtractProcessor(visitorOrNull, strategy, rootDirectory,
                         rootPathInArchive, buffer);
-        processor.process(Utils.concatLink(rootPathInArchive, path), true, true, false, extractor);
+        try
+        {
+            processor.process(Utils.concatLink(rootPathInArchive, path), true, true, false,
+                    extractor);
+            extractor.finish();
+        } finally
+        {
+            extractor.close();
+        }
         return this;
     }
 
@@ -746,6 +762,15 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
     // IHDF5Archiver
     //
 
+    @Override
+    public IHDF5Archiver writePathIndex() throws IllegalStateException
+    {
+        checkReadWrite();
+        flush();
+        indexProvider.writePathIndex();
+        return this;
+    }
+
     @Override
     public IHDF5Archiver archiveFromFilesystem(File path) throws IllegalStateException
     {
@@ -888,7 +913,7 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
         final LinkRecord link = new LinkRecord(entry);
         final IOutputStream stream =
                 updaterOrNull.archiveFile(entry.getParentPath(), link, entry.isCompress(),
-                        entry.getChunkSize());
+                        entry.isDeduplicate(), entry.getChunkSize());
         return stream;
     }
 
@@ -898,7 +923,7 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
         checkReadWrite();
         final LinkRecord link = new LinkRecord(entry);
         updaterOrNull.archive(entry.getParentPath(), link, input, entry.isCompress(),
-                entry.getChunkSize());
+                entry.isDeduplicate(), entry.getChunkSize());
         entry.setCrc32(link.getCrc32());
         return this;
     }
@@ -914,7 +939,8 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
     {
         checkReadWrite();
         final LinkRecord link = new LinkRecord(entry);
-        updaterOrNull.archive(entry.getParentPath(), link, null, false, CHUNK_SIZE_AUTO);
+        updaterOrNull.archive(entry.getParentPath(), link, null, false, false,
+                CHUNK_SIZE_AUTO);
         return this;
     }
 
@@ -930,7 +956,8 @@ final class HDF5Archiver implements Closeable, Flushable, IHDF5Archiver, IHDF5Ar
     {
         checkReadWrite();
         final LinkRecord link = new LinkRecord(entry);
-        updaterOrNull.archive(entry.getParentPath(), link, null, false, CHUNK_SIZE_AUTO);
+        updaterOrNull.archive(entry.getParentPath(), link, null, false, false,
+                CHUNK_SIZE_AUTO);
         return this;
     }
 
@@ -173,6 +173,15 @@ public class HDF5ArchiverMain
     @Option(name = "-N", aliases = "--no-sync", hidden = true, usage = "Do not sync to disk before program exits (write mode only)")
     private boolean noSync = false;
 
+    @Option(name = "-p", aliases = "--path-index", usage = "Write an index of all paths for fast lookup of single entries after ARCHIVE")
+    private boolean writePathIndex = false;
+
+    @Option(name = "-d", aliases = "--deduplicate", usage = "Store files with identical content only once for ARCHIVE")
+    private boolean deduplicate = false;
+
+    @Option(name = "-T", aliases = "--threads", metaVar = "N", usage = "Number of threads to use for ARCHIVE, EXTRACT and VERIFY (default: 1)")
+    private int threads = 1;
+
     private HDF5Archiver archiver;
 
     /**
@@ -233,6 +242,12 @@ public class HDF5ArchiverMain
             initializationOK = false;
             return;
         }
+        if (threads < 1)
+        {
+            System.err.println("Number of threads needs to be at least 1.");
+            initializationOK = false;
+            return;
+        }
         initializationOK = true;
     }
 
@@ -367,6 +382,8 @@ public class HDF5ArchiverMain
         {
             strategy.addToCompressionBlackList(pattern);
         }
+        strategy.threads(threads);
+        strategy.deduplicate(deduplicate);
         return strategy;
     }
 
@@ -496,6 +513,10 @@ public class HDF5ArchiverMain
                                     true, verbose ? IArchiveEntryVisitor.NONVERBOSE_VISITOR : null);
                         }
                     }
+                    if (writePathIndex)
+                    {
+                        archiver.writePathIndex();
+                    }
                     break;
                 }
                 case CAT:
@@ -675,7 +696,8 @@ public class HDF5ArchiverMain
                     } : null;
         archiver.verifyAgainstFilesystem(fileOrDir, getFSRoot(), visitor,
                 missingFileVisitorOrNull, VerifyParameters.build().recursive(recursive)
-                        .numeric(numeric).verifyAttributes(verifyAttributes).get());
+                        .numeric(numeric).verifyAttributes(verifyAttributes).threads(threads)
+                        .get());
         return missingFileCount.get();
     }
 
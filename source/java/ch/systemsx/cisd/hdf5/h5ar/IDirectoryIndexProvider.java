@@ -29,6 +29,18 @@ interface IDirectoryIndexProvider extends Closeable
 {
     public IDirectoryIndex get(String normalizedGroupPath, boolean withLinkTargets);
 
+    /**
+     * Returns the link of <var>normalizedPath</var>, or <code>null</code>, if there is no such
+     * link. Uses the path index of the archive, if any, when the directory index of the parent
+     * of <var>normalizedPath</var> hasn't been loaded yet.
+     */
+    public LinkRecord tryGetLink(String normalizedPath, boolean withLinkTargets);
+
+    /**
+     * Writes the path index of the archive for all links of the directory indices.
+     */
+    public void writePathIndex();
+
     public IErrorStrategy getErrorStrategy();
  
     @Override
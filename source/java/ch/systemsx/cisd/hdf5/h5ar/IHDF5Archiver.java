@@ -315,6 +315,18 @@ public interface IHDF5Archiver extends IHDF5ArchiveReader
      */
     public IHDF5Archiver archiveDirectory(NewDirectoryArchiveEntry entry);
 
+    /**
+     * Writes an archive-wide index of all paths to the archive. With the path index, looking up a
+     * single entry, e.g. by {@link #tryGetEntry(String, boolean)} or when extracting a single
+     * file, takes a binary search over the paths rather than reading the index of the directory
+     * the entry is in.
+     * <p>
+     * The path index is not updated when the archive is modified, call this method again after
+     * modifying the archive. Until then, entries of modified directories are looked up in the
+     * index of their directory.
+     */
+    public IHDF5Archiver writePathIndex();
+
     /**
      * Deletes a <var>path</var> from the archive.
      * 
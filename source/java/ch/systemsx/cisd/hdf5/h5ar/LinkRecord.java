@@ -91,6 +91,16 @@ final class LinkRecord implements Comparable<LinkRecord>
         }
     }
 
+    /**
+     * Returns a {@link LinkRecord} object for the given <var>link</var> {@link File}.
+     *
+     * @throws IOExceptionUnchecked If a system call fails.
+     */
+    static LinkRecord create(File file) throws IOExceptionUnchecked
+    {
+        return new LinkRecord(file);
+    }
+
     /**
      * Returns the link target of <var>symbolicLink</var>, or <code>null</code>, if
      * <var>symbolicLink</var> is not a symbolic link or the link target could not be read.
@@ -267,16 +277,27 @@ final class LinkRecord implements Comparable<LinkRecord>
     int initAfterReading(String concatenatedNames, int startPos, IHDF5Reader reader,
             String groupPath, boolean readLinkTarget)
     {
-        this.hasCrc32Checksum = true;
         final int endPos = startPos + linkNameLength;
-        this.linkName = concatenatedNames.substring(startPos, endPos);
+        initAfterReading(concatenatedNames.substring(startPos, endPos), reader, groupPath,
+                readLinkTarget);
+        return endPos;
+    }
+
+    /**
+     * Call this method after reading the link from the archive without the concatenated names of
+     * its directory, when its name <var>name</var> is known.
+     */
+    void initAfterReading(String name, IHDF5Reader reader, String groupPath,
+            boolean readLinkTarget)
+    {
+        this.hasCrc32Checksum = true;
+        this.linkName = name;
         if (readLinkTarget && linkType == FileLinkType.SYMLINK)
         {
             this.linkTargetOrNull =
                     reader.object().getLinkInformation(groupPath + "/" + linkName)
                             .tryGetSymbolicLinkTarget();
         }
-        return endPos;
     }
 
     /**
@@ -306,6 +327,14 @@ final class LinkRecord implements Comparable<LinkRecord>
         return linkName;
     }
 
+    /**
+     * Returns the length of the link name as stored in the archive.
+     */
+    int getLinkNameLength()
+    {
+        return linkNameLength;
+    }
+
     public String tryGetLinkTarget()
     {
         return linkTargetOrNull;
@@ -52,6 +52,8 @@ public abstract class NewArchiveEntry
     {
         private boolean compress;
 
+        private boolean deduplicate;
+
         private int chunkSize;
 
         private NewFileArchiveEntry(String parentPath, String name)
@@ -105,6 +107,28 @@ public abstract class NewArchiveEntry
             return compress;
         }
 
+        /**
+         * Store the file only once if the archive already contains a deduplicated file with the
+         * same content.
+         */
+        public NewFileArchiveEntry deduplicate()
+        {
+            this.deduplicate = true;
+            return this;
+        }
+
+        public NewFileArchiveEntry deduplicate(@SuppressWarnings("hiding")
+        boolean deduplicate)
+        {
+            this.deduplicate = deduplicate;
+            return this;
+        }
+
+        public boolean isDeduplicate()
+        {
+            return deduplicate;
+        }
+
         /**
          * @param chunkSize The chunk size of the file in the archive. Will be capped to 10MB.
          */
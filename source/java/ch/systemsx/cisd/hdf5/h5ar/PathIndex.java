@@ -0,0 +1,267 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package ch.systemsx.cisd.hdf5.h5ar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import hdf.hdf5lib.exceptions.HDF5Exception;
+
+import ch.systemsx.cisd.hdf5.HDF5CompoundType;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.HDF5IntStorageFeatures;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * The archive-wide index of all paths in an archive.
+ * <p>
+ * The index consists of three data sets in the root group of the archive: the sorted full paths of
+ * all entries, the offset of each entry in the directory index of its parent directory and the
+ * checksums of the parent's directory index at the time the path index was written. Looking up a
+ * path takes a binary search over the paths and one read of the entry in the directory index, so
+ * the directory index doesn't need to be loaded as a whole.
+ * <p>
+ * The path index is only written on request. If a directory has been modified after the path index
+ * has been written, the checksums of its directory index don't match anymore and the entries of
+ * the directory are not found in the path index. As entries that have been added later are not
+ * found either, a path that is not found in the path index needs to be looked up in the directory
+ * index of its parent.
+ * 
+ * @author Bernd Rinn
+ */
+final class PathIndex
+{
+    private static final long UNKNOWN_SIZE = -1L;
+
+    /**
+     * An entry of the path index.
+     */
+    private static final class Entry implements Comparable<Entry>
+    {
+        final String path;
+
+        final int offset;
+
+        final long checksum;
+
+        Entry(String path, int offset, long checksum)
+        {
+            this.path = path;
+            this.offset = offset;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public int compareTo(Entry o)
+        {
+            return path.compareTo(o.path);
+        }
+    }
+
+    private final IHDF5Reader reader;
+
+    private final String pathsDataSetName;
+
+    private final String offsetsDataSetName;
+
+    private final String checksumsDataSetName;
+
+    /** The number of paths in the index, <code>0</code> if the archive has no path index. */
+    private long size = UNKNOWN_SIZE;
+
+    private HDF5CompoundType<LinkRecord> linkCompoundTypeOrNull;
+
+    PathIndex(IHDF5Reader reader)
+    {
+        this.reader = reader;
+        this.pathsDataSetName = "/" + reader.object().toHouseKeepingPath("PATHINDEX");
+        this.offsetsDataSetName = "/" + reader.object().toHouseKeepingPath("PATHINDEXOFFSETS");
+        this.checksumsDataSetName =
+                "/" + reader.object().toHouseKeepingPath("PATHINDEXCHECKSUMS");
+    }
+
+    /**
+     * Returns the link of <var>normalizedPath</var>, or <code>null</code>, if the path is not
+     * found in the path index or the directory index of its parent has been modified after the path
+     * index has been written.
+     */
+    synchronized LinkRecord tryGetLink(String normalizedPath, boolean readLinkTarget)
+    {
+        final long idx = find(normalizedPath);
+        if (idx < 0)
+        {
+            return null;
+        }
+        final String parentPath = Utils.getParentPath(normalizedPath);
+        final String name = Utils.getName(normalizedPath);
+        try
+        {
+            final long checksum =
+                    reader.int64().readArrayBlockWithOffset(checksumsDataSetName, 1, idx)[0];
+            if (checksum != getDirectoryChecksum(parentPath))
+            {
+                return null;
+            }
+            final int offset =
+                    reader.int32().readArrayBlockWithOffset(offsetsDataSetName, 1, idx)[0];
+            final LinkRecord link =
+                    reader.compound().readArrayBlockWithOffset(
+                            DirectoryIndex.getIndexDataSetName(reader, parentPath),
+                            getLinkCompoundType(), 1, offset)[0];
+            if (link.getLinkNameLength() != name.length())
+            {
+                return null;
+            }
+            link.initAfterReading(name, reader, parentPath, readLinkTarget);
+            return link;
+        } catch (HDF5Exception ex)
+        {
+            // The path index is out of date, let the directory index report the error, if any.
+            return null;
+        }
+    }
+
+    /**
+     * Writes the path index for all entries of the directory indices of <var>indexProvider</var>.
+     * The directory indices need to be flushed before calling this method.
+     */
+    synchronized void write(IDirectoryIndexProvider indexProvider)
+    {
+        if (reader instanceof IHDF5Writer == false)
+        {
+            throw new IllegalStateException("Cannot write path index in read-only mode.");
+        }
+        final IHDF5Writer writer = (IHDF5Writer) reader;
+        final List<Entry> entries = new ArrayList<Entry>();
+        addEntries(indexProvider, "/", entries);
+        Collections.sort(entries);
+        size = UNKNOWN_SIZE;
+        if (entries.isEmpty())
+        {
+            for (String dataSetName : new String[]
+                { pathsDataSetName, offsetsDataSetName, checksumsDataSetName })
+            {
+                if (writer.exists(dataSetName))
+                {
+                    writer.object().delete(dataSetName);
+                }
+            }
+            return;
+        }
+        final String[] paths = new String[entries.size()];
+        final int[] offsets = new int[entries.size()];
+        final long[] checksums = new long[entries.size()];
+        for (int i = 0; i < paths.length; ++i)
+        {
+            final Entry entry = entries.get(i);
+            paths[i] = entry.path;
+            offsets[i] = entry.offset;
+            checksums[i] = entry.checksum;
+        }
+        writer.string().writeArrayVL(pathsDataSetName, paths,
+                HDF5GenericStorageFeatures.GENERIC_DEFLATE);
+        writer.int32().writeArray(offsetsDataSetName, offsets, HDF5IntStorageFeatures.INT_DEFLATE);
+        writer.int64().writeArray(checksumsDataSetName, checksums,
+                HDF5IntStorageFeatures.INT_DEFLATE);
+    }
+
+    private void addEntries(IDirectoryIndexProvider indexProvider, String dir, List<Entry> entries)
+    {
+        // Directories whose index has never been written are left to their directory index.
+        final boolean stored =
+                reader.exists(DirectoryIndex.getIndexDataSetName(reader, dir))
+                        && reader.exists(DirectoryIndex.getIndexNamesDataSetName(reader, dir));
+        final long checksum = stored ? getDirectoryChecksum(dir) : 0L;
+        int offset = 0;
+        for (LinkRecord link : indexProvider.get(dir, false))
+        {
+            final String path = Utils.concatLink(dir, link.getLinkName());
+            if (stored)
+            {
+                entries.add(new Entry(path, offset, checksum));
+            }
+            ++offset;
+            if (link.isDirectory())
+            {
+                addEntries(indexProvider, path, entries);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of <var>normalizedPath</var> in the path index, or <code>-1</code>, if it
+     * is not found.
+     */
+    private long find(String normalizedPath)
+    {
+        long low = 0;
+        long high = getSize() - 1;
+        while (low <= high)
+        {
+            final long mid = (low + high) >>> 1;
+            final String path =
+                    reader.string().readArrayBlockWithOffset(pathsDataSetName, 1, mid)[0];
+            final int cmp = path.compareTo(normalizedPath);
+            if (cmp < 0)
+            {
+                low = mid + 1;
+            } else if (cmp > 0)
+            {
+                high = mid - 1;
+            } else
+            {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private long getSize()
+    {
+        if (size == UNKNOWN_SIZE)
+        {
+            size =
+                    reader.exists(pathsDataSetName) ? reader.object().getNumberOfElements(
+                            pathsDataSetName) : 0L;
+        }
+        return size;
+    }
+
+    private long getDirectoryChecksum(String dir)
+    {
+        final int indexCrc32 =
+                reader.int32().getAttr(DirectoryIndex.getIndexDataSetName(reader, dir),
+                        DirectoryIndex.CRC32_ATTRIBUTE_NAME);
+        final int namesCrc32 =
+                reader.int32().getAttr(DirectoryIndex.getIndexNamesDataSetName(reader, dir),
+                        DirectoryIndex.CRC32_ATTRIBUTE_NAME);
+        return ((long) indexCrc32 << 32) | (namesCrc32 & 0xFFFFFFFFL);
+    }
+
+    private HDF5CompoundType<LinkRecord> getLinkCompoundType()
+    {
+        if (linkCompoundTypeOrNull == null)
+        {
+            linkCompoundTypeOrNull = DirectoryIndex.getHDF5LinkCompoundType(reader);
+        }
+        return linkCompoundTypeOrNull;
+    }
+
+}
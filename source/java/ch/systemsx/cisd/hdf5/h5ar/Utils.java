@@ -38,6 +38,12 @@ final class Utils
 
     final static short UNKNOWN_S = -1;
 
+    /**
+     * The maximal number of bytes of file content that the worker threads of an archiving or
+     * extracting operation hold at any time.
+     */
+    static final long MAX_BYTES_IN_FLIGHT = 64L * 1024 * 1024;
+
     private static final char[] HEX_CHARACTERS =
         { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f', };
 
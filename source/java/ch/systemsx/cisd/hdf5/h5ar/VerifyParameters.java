@@ -32,7 +32,9 @@ public final class VerifyParameters
 
     private final boolean verifyAttributes;
 
-    public static final VerifyParameters DEFAULT = new VerifyParameters(true, false, false);
+    private final int threads;
+
+    public static final VerifyParameters DEFAULT = new VerifyParameters(true, false, false, 1);
 
     /**
      * A class for constructing a new verify parameters object.
@@ -45,6 +47,8 @@ public final class VerifyParameters
 
         private boolean verifyAttributes = false;
 
+        private int threads = 1;
+
         private VerifyParametersBuilder()
         {
         }
@@ -118,12 +122,28 @@ public final class VerifyParameters
             return this;
         }
 
+        /**
+         * Sets the number of threads to use for verifying. With more than one thread, the files
+         * are read and checksummed on worker threads, while the visitors are called on the calling
+         * thread in the order of the archive. The default is 1.
+         */
+        public VerifyParametersBuilder threads(int numberOfThreads)
+        {
+            if (numberOfThreads < 1)
+            {
+                throw new IllegalArgumentException("Number of threads must be positive, but is "
+                        + numberOfThreads + ".");
+            }
+            this.threads = numberOfThreads;
+            return this;
+        }
+
         /**
          * Returns the {@link VerifyParameters} object constructed.
          */
         public VerifyParameters get()
         {
-            return new VerifyParameters(recursive, numeric, verifyAttributes);
+            return new VerifyParameters(recursive, numeric, verifyAttributes, threads);
         }
     }
 
@@ -137,11 +157,13 @@ public final class VerifyParameters
         return new VerifyParametersBuilder();
     }
 
-    private VerifyParameters(boolean recursive, boolean numeric, boolean verifyAttributes)
+    private VerifyParameters(boolean recursive, boolean numeric, boolean verifyAttributes,
+            int threads)
     {
         this.recursive = recursive;
         this.numeric = numeric;
         this.verifyAttributes = verifyAttributes;
+        this.threads = threads;
     }
 
     /**
@@ -176,4 +198,14 @@ public final class VerifyParameters
         return verifyAttributes;
     }
 
+    /**
+     * Returns the number of threads to use for verifying.
+     * 
+     * @see VerifyParametersBuilder#threads(int)
+     */
+    public int getThreads()
+    {
+        return threads;
+    }
+
 }
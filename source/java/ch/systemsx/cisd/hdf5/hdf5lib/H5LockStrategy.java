@@ -0,0 +1,94 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.hdf5lib;
+
+import hdf.hdf5lib.H5;
+
+/**
+ * Provides the locks that calls into the native HDF5 library synchronize on.
+ * <p>
+ * All calls into the library synchronize on the class monitor of {@link H5} by default. If the
+ * native library has been built thread-safe, data access calls can synchronize on a lock that is
+ * selected by the file id instead, so that data access on different files doesn't contend for the
+ * same lock. Library-level calls (opening and closing objects, data spaces, data types, property
+ * lists, ...) always synchronize on the global lock.
+ *
+ * @author Bernd Rinn
+ */
+public final class H5LockStrategy
+{
+
+    /** The number of file locks. Needs to be a power of 2. */
+    private static final int NUMBER_OF_FILE_LOCKS = 64;
+
+    private static final Object[] fileLocks;
+
+    private static Boolean fileLockingSupported;
+
+    static
+    {
+        fileLocks = new Object[NUMBER_OF_FILE_LOCKS];
+        for (int i = 0; i < fileLocks.length; ++i)
+        {
+            fileLocks[i] = new Object();
+        }
+    }
+
+    private H5LockStrategy()
+    {
+        // Not to be instantiated.
+    }
+
+    /**
+     * Returns the lock that all library-level calls synchronize on.
+     */
+    public static Object getGlobalLock()
+    {
+        return H5.class;
+    }
+
+    /**
+     * Returns <code>true</code>, if data access can synchronize on file locks, i.e. if the native
+     * library is thread-safe and provides the unsynchronized data access methods.
+     */
+    public static synchronized boolean isFileLockingSupported()
+    {
+        if (fileLockingSupported == null)
+        {
+            // An older native library doesn't provide the helper methods.
+            fileLockingSupported =
+                    HDFHelper.isDataAccessHelpersAvailable()
+                            && HDFHelper.H5is_library_threadsafe();
+        }
+        return fileLockingSupported;
+    }
+
+    /**
+     * Returns the lock that data access calls on the file with <var>fileId</var> synchronize on if
+     * file locking is supported, and the global lock otherwise.
+     */
+    public static Object getFileLock(long fileId)
+    {
+        if (isFileLockingSupported() == false)
+        {
+            return getGlobalLock();
+        }
+        final int hash = (int) (fileId ^ (fileId >>> 32));
+        return fileLocks[(hash ^ (hash >>> 16)) & (NUMBER_OF_FILE_LOCKS - 1)];
+    }
+
+}
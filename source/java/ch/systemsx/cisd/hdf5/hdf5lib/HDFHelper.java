@@ -32,6 +32,8 @@ import static hdf.hdf5lib.HDF5Constants.H5P_DEFAULT;
 import static hdf.hdf5lib.HDF5Constants.H5_INDEX_NAME;
 import static hdf.hdf5lib.HDF5Constants.H5_ITER_INC;
 
+import java.nio.ByteBuffer;
+
 import com.sun.xml.internal.bind.v2.runtime.Name;
 
 import hdf.hdf5lib.H5;
@@ -422,6 +424,267 @@ public class HDFHelper
         }
     }
     
+    // ////////////////////////////////////////////////////////////
+    // //
+    // Functions for concurrent data access //
+    // //
+    // ////////////////////////////////////////////////////////////
+
+    private static native boolean _H5is_library_threadsafe() throws HDF5LibraryException;
+
+    /**
+     * Returns <code>true</code>, if the loaded native HDF5 library has been built with thread-safety
+     * enabled.
+     */
+    public static boolean H5is_library_threadsafe()
+    {
+        synchronized (H5.class)
+        {
+            return _H5is_library_threadsafe();
+        }
+    }
+
+    private static Boolean dataAccessHelpersAvailable;
+
+    /**
+     * Returns <code>true</code>, if the loaded native library provides the functions for
+     * concurrent and raw data access. Older native libraries don't.
+     */
+    public static synchronized boolean isDataAccessHelpersAvailable()
+    {
+        if (dataAccessHelpersAvailable == null)
+        {
+            boolean available;
+            try
+            {
+                H5is_library_threadsafe();
+                available = true;
+            } catch (UnsatisfiedLinkError ex)
+            {
+                available = false;
+            }
+            dataAccessHelpersAvailable = available;
+        }
+        return dataAccessHelpersAvailable;
+    }
+
+    private static native int _H5Dread_byte(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, byte[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, byte[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, byte[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_byte(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_short(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, short[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, short[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, short[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_short(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_int(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, int[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, int[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, int[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_int(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_long(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, long[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, long[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, long[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_long(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_float(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, float[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, float[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, float[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_float(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_double(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, double[] buf) throws HDF5LibraryException,
+            NullPointerException;
+
+    /**
+     * Version of {@link H5#H5Dread(long, long, long, long, long, double[])} that synchronizes on
+     * <var>lock</var> rather than on the class monitor of {@link H5}.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, double[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_double(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf);
+        }
+    }
+
+    private static native int _H5Dread_buffer(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, ByteBuffer buf, long buf_offset)
+            throws HDF5LibraryException, NullPointerException;
+
+    /**
+     * Reads data from a data set into the direct buffer <var>buf</var>, starting at byte
+     * <var>buf_offset</var> of the buffer. Synchronizes on <var>lock</var>.
+     * <p>
+     * The data are stored in the native byte order of the platform. The caller needs to ensure that
+     * the buffer has enough capacity for the selection of <var>mem_space_id</var>.
+     */
+    public static int H5Dread(Object lock, long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, ByteBuffer buf, long buf_offset)
+            throws HDF5LibraryException, NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dread_buffer(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf, buf_offset);
+        }
+    }
+
+    private static native int _H5Dwrite_buffer(long dataset_id, long mem_type_id,
+            long mem_space_id, long file_space_id, long xfer_plist_id, ByteBuffer buf,
+            long buf_offset) throws HDF5LibraryException, NullPointerException;
+
+    /**
+     * Writes data to a data set from the direct buffer <var>buf</var>, starting at byte
+     * <var>buf_offset</var> of the buffer.
+     * <p>
+     * The data are expected in the native byte order of the platform. The caller needs to ensure
+     * that the buffer holds enough data for the selection of <var>mem_space_id</var>.
+     */
+    public static int H5Dwrite(long dataset_id, long mem_type_id, long mem_space_id,
+            long file_space_id, long xfer_plist_id, ByteBuffer buf, long buf_offset)
+            throws HDF5LibraryException, NullPointerException
+    {
+        synchronized (H5.class)
+        {
+            return _H5Dwrite_buffer(dataset_id, mem_type_id, mem_space_id, file_space_id,
+                    xfer_plist_id, buf, buf_offset);
+        }
+    }
+
+    private static native long _H5Dget_chunk_storage_size(long dataset_id, long[] offset)
+            throws HDF5LibraryException, NullPointerException;
+
+    /**
+     * Returns the size in bytes of the chunk that starts at the logical position <var>offset</var>
+     * as it is stored in the file, i.e. after filtering. Returns 0 if the chunk has not been
+     * allocated. Synchronizes on <var>lock</var>.
+     */
+    public static long H5Dget_chunk_storage_size(Object lock, long dataset_id, long[] offset)
+            throws HDF5LibraryException, NullPointerException
+    {
+        synchronized (lock)
+        {
+            return _H5Dget_chunk_storage_size(dataset_id, offset);
+        }
+    }
+
+    private static native void _H5Dread_chunk(long dataset_id, long xfer_plist_id, long[] offset,
+            int[] filter_mask, byte[] buf) throws HDF5LibraryException, NullPointerException;
+
+    /**
+     * Reads the chunk that starts at the logical position <var>offset</var> into <var>buf</var>
+     * as it is stored in the file, i.e. without applying the filter pipeline. On return,
+     * <code>filter_mask[0]</code> holds the mask of the filters that have been skipped when the
+     * chunk was written. Synchronizes on <var>lock</var>.
+     * <p>
+     * The buffer needs to be at least as large as the value returned by
+     * {@link #H5Dget_chunk_storage_size(Object, long, long[])} for this chunk.
+     */
+    public static void H5Dread_chunk(Object lock, long dataset_id, long xfer_plist_id,
+            long[] offset, int[] filter_mask, byte[] buf) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (lock)
+        {
+            _H5Dread_chunk(dataset_id, xfer_plist_id, offset, filter_mask, buf);
+        }
+    }
+
+    private static native void _H5Dwrite_chunk(long dataset_id, long xfer_plist_id,
+            int filter_mask, long[] offset, byte[] buf, int buf_size)
+            throws HDF5LibraryException, NullPointerException;
+
+    /**
+     * Writes the first <var>buf_size</var> bytes of <var>buf</var> as the chunk that starts at
+     * the logical position <var>offset</var> directly to the file, i.e. without applying the
+     * filter pipeline. The bits set in <var>filter_mask</var> denote the filters that have
+     * <i>not</i> been applied to the data.
+     */
+    public static void H5Dwrite_chunk(long dataset_id, long xfer_plist_id, int filter_mask,
+            long[] offset, byte[] buf, int buf_size) throws HDF5LibraryException,
+            NullPointerException
+    {
+        synchronized (H5.class)
+        {
+            _H5Dwrite_chunk(dataset_id, xfer_plist_id, filter_mask, offset, buf, buf_size);
+        }
+    }
+
     // ////////////////////////////////////////////////////////////
     // //
     // Convenience functions for converting native data types. //
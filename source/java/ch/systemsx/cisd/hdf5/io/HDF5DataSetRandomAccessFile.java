@@ -16,6 +16,9 @@
 
 package ch.systemsx.cisd.hdf5.io;
 
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.createDaemonThreadFactory;
+import static ch.systemsx.cisd.hdf5.ConcurrencyUtils.getResult;
+
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -23,7 +26,17 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteOrder;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import hdf.hdf5lib.exceptions.HDF5Exception;
 import ch.systemsx.cisd.base.convert.NativeData;
@@ -44,11 +57,58 @@ import ch.systemsx.cisd.hdf5.exceptions.HDF5FileNotFoundException;
 /**
  * A {@link IRandomAccessFile} backed by an HDF5 dataset. The HDF5 dataset needs to be a byte array
  * (or opaque byte array) of rank 1.
+ * <p>
+ * The dataset is accessed in blocks of the chunk size. When reading sequentially, the blocks
+ * following the current block are read ahead asynchronously, and when a dirty block is left, it is
+ * written behind asynchronously, so that the HDF5 I/O overlaps with the work of the caller. The
+ * number of blocks that are read ahead and written behind is set by
+ * {@link #setNumberOfAsyncBlocks(int)}. {@link #flush()} and {@link #synchronize()} wait for all
+ * pending writes.
  * 
  * @author Bernd Rinn
  */
 public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
 {
+    /**
+     * The default number of blocks that are read ahead when reading sequentially and that may be
+     * waiting to be written behind when writing.
+     */
+    public static final int DEFAULT_NUMBER_OF_ASYNC_BLOCKS = 4;
+
+    /** The time after which the idle thread for asynchronous I/O terminates. */
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 10;
+
+    /** A block of data that has been read ahead. */
+    private static final class Block
+    {
+        final byte[] data;
+
+        final int size;
+
+        Block(byte[] data, int size)
+        {
+            this.data = data;
+            this.size = size;
+        }
+    }
+
+    /** A block of data that is being written behind. */
+    private static final class PendingWrite
+    {
+        final long offset;
+
+        final int size;
+
+        final Future<?> future;
+
+        PendingWrite(long offset, int size, Future<?> future)
+        {
+            this.offset = offset;
+            this.size = size;
+            this.future = future;
+        }
+    }
+
     private final IHDF5Reader reader;
 
     private final IHDF5Writer writerOrNull;
@@ -86,6 +146,20 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
     private ch.systemsx.cisd.base.convert.NativeData.ByteOrder byteOrder =
             ch.systemsx.cisd.base.convert.NativeData.ByteOrder.BIG_ENDIAN;
 
+    private int numberOfAsyncBlocks = DEFAULT_NUMBER_OF_ASYNC_BLOCKS;
+
+    /**
+     * Runs the asynchronous reads and writes in the order of submission, so that a block read
+     * ahead sees all writes that have been submitted before.
+     */
+    private ThreadPoolExecutor executorOrNull;
+
+    /** The blocks that are being read ahead, by block offset. */
+    private final Map<Long, Future<Block>> readAheadBlocks = new HashMap<Long, Future<Block>>();
+
+    /** The blocks that are being written behind, in the order of submission. */
+    private final Deque<PendingWrite> pendingWrites = new ArrayDeque<PendingWrite>();
+
     /**
      * Creates a new HDF5DataSetRandomAccessFile for the given hdf5File and dataSetPath.
      */
@@ -250,15 +324,8 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
                 this.realBlockSize = 0;
             } else
             {
-                try
-                {
-                    this.realBlockSize =
-                            reader.opaque().readArrayToBlockWithOffset(dataSetPath, block, blockSize,
-                                    blockOffset, 0);
-                } catch (HDF5Exception ex)
-                {
-                    throw new IOExceptionUnchecked(ex);
-                }
+                this.realBlockSize = readBlockData(block, blockOffset);
+                readAhead();
             }
         }
     }
@@ -267,15 +334,21 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
     {
         if (newBlockOffset != blockOffset)
         {
-            flush();
-            try
+            releaseBlock();
+            final Future<Block> readAheadOrNull = readAheadBlocks.remove(newBlockOffset);
+            if (readAheadOrNull != null)
             {
-                this.realBlockSize =
-                        reader.opaque().readArrayToBlockWithOffset(dataSetPath, block, blockSize,
-                                newBlockOffset, 0);
-            } catch (HDF5Exception ex)
+                final Block newBlock = getResult(readAheadOrNull);
+                this.block = newBlock.data;
+                this.realBlockSize = newBlock.size;
+            } else
             {
-                throw new IOExceptionUnchecked(ex);
+                if (block == null)
+                {
+                    block = new byte[blockSize];
+                }
+                awaitPendingWrites(newBlockOffset, blockSize);
+                this.realBlockSize = readBlockData(block, newBlockOffset);
             }
             this.blockOffset = newBlockOffset;
         }
@@ -285,6 +358,212 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
     {
         readBlock(blockOffset + realBlockSize);
         this.positionInBlock = 0;
+        readAhead();
+    }
+
+    private int readBlockData(byte[] data, long offset) throws IOExceptionUnchecked
+    {
+        try
+        {
+            return reader.opaque().readArrayToBlockWithOffset(dataSetPath, data, blockSize,
+                    offset, 0);
+        } catch (HDF5Exception ex)
+        {
+            throw new IOExceptionUnchecked(ex);
+        }
+    }
+
+    private void writeBlockData(byte[] data, int size, long offset) throws IOExceptionUnchecked
+    {
+        try
+        {
+            if (opaqueTypeOrNull != null)
+            {
+                writerOrNull.opaque().writeArrayBlockWithOffset(dataSetPath, opaqueTypeOrNull,
+                        data, size, offset);
+            } else
+            {
+                writerOrNull.int8().writeArrayBlockWithOffset(dataSetPath, data, size, offset);
+            }
+        } catch (HDF5Exception ex)
+        {
+            throw new IOExceptionUnchecked(ex);
+        }
+    }
+
+    /**
+     * Starts reading the blocks following the current block asynchronously, unless they are read
+     * ahead already, and discards all other blocks read ahead.
+     */
+    private void readAhead()
+    {
+        if (numberOfAsyncBlocks == 0 || blockSize == 0)
+        {
+            return;
+        }
+        final long startOffset = blockOffset + blockSize;
+        final long endOffset =
+                Math.min(length(), startOffset + (long) numberOfAsyncBlocks * blockSize);
+        final Iterator<Map.Entry<Long, Future<Block>>> it = readAheadBlocks.entrySet().iterator();
+        while (it.hasNext())
+        {
+            final Map.Entry<Long, Future<Block>> entry = it.next();
+            if (entry.getKey() < startOffset || entry.getKey() >= endOffset)
+            {
+                entry.getValue().cancel(false);
+                it.remove();
+            }
+        }
+        for (long offset = startOffset; offset < endOffset; offset += blockSize)
+        {
+            if (readAheadBlocks.containsKey(offset) == false)
+            {
+                final long readOffset = offset;
+                readAheadBlocks.put(offset, getExecutor().submit(new Callable<Block>()
+                    {
+                        @Override
+                        public Block call()
+                        {
+                            final byte[] data = new byte[blockSize];
+                            return new Block(data, readBlockData(data, readOffset));
+                        }
+                    }));
+            }
+        }
+    }
+
+    /**
+     * Discards the blocks read ahead that overlap with <var>size</var> bytes starting at
+     * <var>offset</var>, or all of them if <var>size</var> is negative.
+     */
+    private void discardReadAhead(long offset, int size)
+    {
+        final Iterator<Map.Entry<Long, Future<Block>>> it = readAheadBlocks.entrySet().iterator();
+        while (it.hasNext())
+        {
+            final Map.Entry<Long, Future<Block>> entry = it.next();
+            if (size < 0 || (entry.getKey() < offset + size && offset < entry.getKey() + blockSize))
+            {
+                entry.getValue().cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Writes the current block if it is dirty. If possible, the block is written behind and the
+     * caller needs to provide a new block.
+     */
+    private void releaseBlock() throws IOExceptionUnchecked
+    {
+        if (blockDirty == false)
+        {
+            return;
+        }
+        if (numberOfAsyncBlocks == 0)
+        {
+            flushBlock();
+            return;
+        }
+        final byte[] data = block;
+        final int size = realBlockSize;
+        final long offset = blockOffset;
+        discardReadAhead(offset, size);
+        while (pendingWrites.size() >= numberOfAsyncBlocks)
+        {
+            getResult(pendingWrites.removeFirst().future);
+        }
+        pendingWrites.addLast(new PendingWrite(offset, size, getExecutor().submit(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    writeBlockData(data, size, offset);
+                }
+            })));
+        this.block = null;
+        this.blockDirty = false;
+    }
+
+    private void flushBlock() throws IOExceptionUnchecked
+    {
+        if (isReadOnly() == false && blockDirty)
+        {
+            discardReadAhead(blockOffset, realBlockSize);
+            writeBlockData(block, realBlockSize, blockOffset);
+            blockDirty = false;
+        }
+    }
+
+    private void awaitPendingWrites() throws IOExceptionUnchecked
+    {
+        while (pendingWrites.isEmpty() == false)
+        {
+            getResult(pendingWrites.removeFirst().future);
+        }
+    }
+
+    /**
+     * Waits for the blocks written behind that overlap with <var>size</var> bytes starting at
+     * <var>offset</var>. As the blocks are written in the order of submission, this waits for all
+     * blocks submitted before the last overlapping one, too.
+     */
+    private void awaitPendingWrites(long offset, int size) throws IOExceptionUnchecked
+    {
+        PendingWrite lastOverlappingOrNull = null;
+        for (PendingWrite write : pendingWrites)
+        {
+            if (write.offset < offset + size && offset < write.offset + write.size)
+            {
+                lastOverlappingOrNull = write;
+            }
+        }
+        if (lastOverlappingOrNull != null)
+        {
+            PendingWrite write;
+            do
+            {
+                write = pendingWrites.removeFirst();
+                getResult(write.future);
+            } while (write != lastOverlappingOrNull);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor()
+    {
+        if (executorOrNull == null)
+        {
+            executorOrNull =
+                    new ThreadPoolExecutor(1, 1, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>(),
+                            createDaemonThreadFactory("HDF5 I/O " + dataSetPath));
+            executorOrNull.allowCoreThreadTimeOut(true);
+        }
+        return executorOrNull;
+    }
+
+    /**
+     * Stops the I/O thread and waits for it to terminate, as a read-ahead task that has already
+     * started can't be cancelled and must not access the data set after the reader is closed.
+     */
+    private void shutdownExecutor()
+    {
+        if (executorOrNull == null)
+        {
+            return;
+        }
+        executorOrNull.shutdown();
+        try
+        {
+            while (executorOrNull.awaitTermination(1L, TimeUnit.SECONDS) == false)
+            {
+                // Wait for the running task to finish.
+            }
+        } catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        executorOrNull = null;
     }
 
     private boolean eof()
@@ -318,6 +597,36 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
         return (writerOrNull == null);
     }
 
+    /**
+     * Sets the number of blocks that are read ahead asynchronously when reading sequentially and
+     * that may be waiting to be written behind asynchronously when writing. With <code>0</code>,
+     * all blocks are read and written synchronously. Default:
+     * {@link #DEFAULT_NUMBER_OF_ASYNC_BLOCKS}.
+     */
+    public HDF5DataSetRandomAccessFile setNumberOfAsyncBlocks(int numberOfAsyncBlocks)
+    {
+        if (numberOfAsyncBlocks < 0)
+        {
+            throw new IllegalArgumentException(
+                    "Number of asynchronous blocks may not be negative.");
+        }
+        this.numberOfAsyncBlocks = numberOfAsyncBlocks;
+        if (numberOfAsyncBlocks == 0)
+        {
+            discardReadAhead(0, -1);
+            awaitPendingWrites();
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of blocks that are read ahead and written behind asynchronously.
+     */
+    public int getNumberOfAsyncBlocks()
+    {
+        return numberOfAsyncBlocks;
+    }
+
     private void extend(int numberOfBytesToExtend) throws IOExceptionUnchecked
     {
         final long len = length();
@@ -446,7 +755,14 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
     @Override
     public void close() throws IOExceptionUnchecked
     {
-        flush();
+        try
+        {
+            flush();
+        } finally
+        {
+            discardReadAhead(0, -1);
+            shutdownExecutor();
+        }
         if (closeReaderOnCloseFile)
         {
             try
@@ -486,28 +802,14 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
         return true;
     }
 
+    /**
+     * Writes the current block if it is dirty and waits for all blocks that are written behind.
+     */
     @Override
     public void flush() throws IOExceptionUnchecked
     {
-        if (isReadOnly() == false && blockDirty)
-        {
-            try
-            {
-                if (opaqueTypeOrNull != null)
-                {
-                    writerOrNull.opaque().writeArrayBlockWithOffset(dataSetPath, opaqueTypeOrNull,
-                            block, realBlockSize, blockOffset);
-                } else
-                {
-                    writerOrNull.int8().writeArrayBlockWithOffset(dataSetPath, block,
-                            realBlockSize, blockOffset);
-                }
-            } catch (HDF5Exception ex)
-            {
-                throw new IOExceptionUnchecked(ex);
-            }
-            blockDirty = false;
-        }
+        flushBlock();
+        awaitPendingWrites();
     }
 
     @Override
@@ -587,6 +889,16 @@ public class HDF5DataSetRandomAccessFile implements IRandomAccessFile, Flushable
         {
             throw new IOExceptionUnchecked("setLength() called on non-extendable dataset.");
         }
+        if (newLength != length)
+        {
+            // Blocks read ahead have been cut at the old length.
+            discardReadAhead(0, -1);
+        }
+        if (newLength < length)
+        {
+            // Blocks beyond the new length must not be written behind.
+            awaitPendingWrites();
+        }
         try
         {
             writerOrNull.object().setDataSetSize(dataSetPath, newLength);
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * Benchmarks for setting and getting attributes of a data set.
+ * <p>
+ * Attributes are stored in the object header, thus the storage layout and deflate level of the
+ * data set don't apply. The benchmarks are parameterized by the number of attributes of the data
+ * set instead, which determines whether the attributes are stored compact or dense.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributeBenchmark
+{
+
+    @Param(
+        { "4", "64" })
+    public int numberOfAttributes;
+
+    private File readFile;
+
+    private File writeFile;
+
+    private IHDF5Reader reader;
+
+    private IHDF5Writer writer;
+
+    private int counter;
+
+    @Setup
+    public void setUp()
+    {
+        readFile = BenchmarkSupport.createTempFile("attributeRead");
+        final IHDF5Writer initialWriter = HDF5Factory.open(readFile);
+        createDataSetWithAttributes(initialWriter);
+        initialWriter.close();
+        reader = HDF5Factory.openForReading(readFile);
+        writeFile = BenchmarkSupport.createTempFile("attributeWrite");
+        writer = HDF5Factory.open(writeFile);
+        createDataSetWithAttributes(writer);
+    }
+
+    private void createDataSetWithAttributes(IHDF5Writer initialWriter)
+    {
+        initialWriter.int32().writeArray("ds", new int[]
+            { 1, 2, 3 });
+        for (int i = 0; i < numberOfAttributes; ++i)
+        {
+            initialWriter.int32().setAttr("ds", "int" + i, i);
+            initialWriter.string().setAttr("ds", "string" + i, "value of attribute " + i);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public void setIntAttribute()
+    {
+        writer.int32().setAttr("ds", "int0", ++counter);
+    }
+
+    @Benchmark
+    public void setStringAttribute()
+    {
+        writer.string().setAttr("ds", "string0", "value " + (++counter));
+    }
+
+    @Benchmark
+    public int getIntAttribute()
+    {
+        return reader.int32().getAttr("ds", "int0");
+    }
+
+    @Benchmark
+    public String getStringAttribute()
+    {
+        return reader.string().getAttr("ds", "string0");
+    }
+
+    @Benchmark
+    public List<String> getAttributeNames()
+    {
+        return reader.object().getAttributeNames("ds");
+    }
+
+}
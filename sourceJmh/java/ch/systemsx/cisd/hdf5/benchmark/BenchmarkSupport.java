@@ -0,0 +1,111 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+import ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.HDF5IntStorageFeatures;
+import ch.systemsx.cisd.hdf5.HDF5StorageLayout;
+
+/**
+ * Utility methods shared by the benchmarks.
+ * <p>
+ * The benchmarks that write or read data sets are parameterized by the storage layout (
+ * <code>COMPACT</code>, <code>CONTIGUOUS</code> or <code>CHUNKED</code>) and the deflate level
+ * (0 for no compression). As HDF5 can apply filters only to chunked data sets and limits compact
+ * data sets to 64 KB, the set-up of the other combinations fails with an
+ * {@link IllegalArgumentException}, which JMH reports as failure of this combination only. Use
+ * e.g. <code>-p layout=CHUNKED</code> to restrict a run to the valid combinations.
+ * 
+ * @author Bernd Rinn
+ */
+final class BenchmarkSupport
+{
+
+    /** The maximal size of a data set with compact storage layout. */
+    static final int MAX_COMPACT_SIZE = 64 * 1024 - 1024;
+
+    private BenchmarkSupport()
+    {
+        // Not to be instantiated.
+    }
+
+    /**
+     * Creates a temporary HDF5 file that is deleted when the JVM exits.
+     */
+    static File createTempFile(String prefix)
+    {
+        try
+        {
+            final File file = File.createTempFile(prefix, ".h5");
+            file.delete();
+            file.deleteOnExit();
+            return file;
+        } catch (IOException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Checks that a data set of <var>sizeInBytes</var> can be stored with <var>layout</var> and
+     * <var>deflateLevel</var>.
+     * 
+     * @throws IllegalArgumentException If the combination is not supported by HDF5.
+     */
+    static HDF5StorageLayout checkStorage(String layout, int deflateLevel, long sizeInBytes)
+    {
+        final HDF5StorageLayout storageLayout = HDF5StorageLayout.valueOf(layout);
+        if (deflateLevel > 0 && storageLayout != HDF5StorageLayout.CHUNKED)
+        {
+            throw new IllegalArgumentException("Deflation requires the CHUNKED storage layout.");
+        }
+        if (storageLayout == HDF5StorageLayout.COMPACT && sizeInBytes > MAX_COMPACT_SIZE)
+        {
+            throw new IllegalArgumentException("Data set of " + sizeInBytes
+                    + " bytes is too large for the COMPACT storage layout.");
+        }
+        return storageLayout;
+    }
+
+    static HDF5GenericStorageFeatures genericFeatures(String layout, int deflateLevel,
+            long sizeInBytes)
+    {
+        return HDF5GenericStorageFeatures.build()
+                .storageLayout(checkStorage(layout, deflateLevel, sizeInBytes))
+                .deflateLevel((byte) deflateLevel).features();
+    }
+
+    static HDF5FloatStorageFeatures floatFeatures(String layout, int deflateLevel,
+            long sizeInBytes)
+    {
+        return HDF5FloatStorageFeatures.build()
+                .storageLayout(checkStorage(layout, deflateLevel, sizeInBytes))
+                .deflateLevel((byte) deflateLevel).features();
+    }
+
+    static HDF5IntStorageFeatures intFeatures(String layout, int deflateLevel, long sizeInBytes)
+    {
+        return HDF5IntStorageFeatures.build()
+                .storageLayout(checkStorage(layout, deflateLevel, sizeInBytes))
+                .deflateLevel((byte) deflateLevel).features();
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.systemsx.cisd.hdf5.CompoundElement;
+import ch.systemsx.cisd.hdf5.HDF5CompoundType;
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * Benchmarks for writing and reading arrays of compounds mapped to a Java class.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompoundBenchmark
+{
+
+    /**
+     * The record type of the benchmark, 39 bytes per element in the file.
+     */
+    public static class Record
+    {
+        int id;
+
+        float value;
+
+        double timestamp;
+
+        boolean valid;
+
+        @CompoundElement(dimensions = 16)
+        String name;
+
+        @CompoundElement(dimensions = 3)
+        short[] flags;
+
+        Record()
+        {
+        }
+
+        Record(int id)
+        {
+            this.id = id;
+            this.value = id * 0.5f;
+            this.timestamp = id * 1e-3;
+            this.valid = (id % 2 == 0);
+            this.name = "record-" + id;
+            this.flags = new short[]
+                { (short) id, (short) (id + 1), (short) (id + 2) };
+        }
+    }
+
+    @Param(
+        { "COMPACT", "CONTIGUOUS", "CHUNKED" })
+    public String layout;
+
+    @Param(
+        { "0", "6" })
+    public int deflateLevel;
+
+    @Param(
+        { "1000", "100000" })
+    public int size;
+
+    private Record[] data;
+
+    private HDF5GenericStorageFeatures features;
+
+    private File readFile;
+
+    private File writeFile;
+
+    private IHDF5Reader reader;
+
+    private IHDF5Writer writer;
+
+    private HDF5CompoundType<Record> readType;
+
+    private HDF5CompoundType<Record> writeType;
+
+    @Setup
+    public void setUp()
+    {
+        features = BenchmarkSupport.genericFeatures(layout, deflateLevel, 39L * size);
+        data = new Record[size];
+        for (int i = 0; i < size; ++i)
+        {
+            data[i] = new Record(i);
+        }
+        readFile = BenchmarkSupport.createTempFile("compoundRead");
+        final IHDF5Writer initialWriter = HDF5Factory.open(readFile);
+        initialWriter.compound().writeArray("records", data, features);
+        initialWriter.close();
+        reader = HDF5Factory.openForReading(readFile);
+        readType = reader.compound().getDataSetType("records", Record.class);
+        writeFile = BenchmarkSupport.createTempFile("compoundWrite");
+        // Overwrite the data set in place rather than re-creating it on each invocation.
+        writer = HDF5Factory.configure(writeFile).keepDataSetsIfTheyExist().writer();
+        writeType = writer.compound().getInferredType(Record.class);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public void writeCompoundArray()
+    {
+        writer.compound().writeArray("records", writeType, data, features);
+    }
+
+    @Benchmark
+    public Record[] readCompoundArray()
+    {
+        return reader.compound().readArray("records", readType);
+    }
+
+    @Benchmark
+    public Record[] readCompoundArrayInferred()
+    {
+        return reader.compound().readArray("records", Record.class);
+    }
+
+}
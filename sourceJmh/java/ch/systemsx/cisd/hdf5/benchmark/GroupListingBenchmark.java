@@ -0,0 +1,99 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5LinkInformation;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * Benchmarks for listing the members of a group.
+ * <p>
+ * The members are small data sets, which is why the storage layout and deflate level don't apply.
+ * The benchmarks are parameterized by the number of group members instead.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupListingBenchmark
+{
+
+    @Param(
+        { "10", "1000", "10000" })
+    public int numberOfMembers;
+
+    private File file;
+
+    private IHDF5Reader reader;
+
+    @Setup
+    public void setUp()
+    {
+        file = BenchmarkSupport.createTempFile("groupListing");
+        final IHDF5Writer writer = HDF5Factory.open(file);
+        writer.object().createGroup("/group");
+        for (int i = 0; i < numberOfMembers; ++i)
+        {
+            writer.int32().write("/group/member" + i, i);
+        }
+        writer.close();
+        reader = HDF5Factory.openForReading(file);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public List<String> getGroupMembers()
+    {
+        return reader.object().getGroupMembers("/group");
+    }
+
+    @Benchmark
+    public List<HDF5LinkInformation> getGroupMemberInformation()
+    {
+        return reader.object().getGroupMemberInformation("/group", true);
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.systemsx.cisd.hdf5.HDF5DataBlock;
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures;
+import ch.systemsx.cisd.hdf5.HDF5IntStorageFeatures;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * Benchmarks for writing and reading primitive arrays, as a whole and by natural blocks.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveArrayBenchmark
+{
+
+    @Param(
+        { "COMPACT", "CONTIGUOUS", "CHUNKED" })
+    public String layout;
+
+    @Param(
+        { "0", "6" })
+    public int deflateLevel;
+
+    @Param(
+        { "10000", "1000000" })
+    public int size;
+
+    private float[] floatData;
+
+    private int[] intData;
+
+    private HDF5FloatStorageFeatures floatFeatures;
+
+    private HDF5IntStorageFeatures intFeatures;
+
+    private File readFile;
+
+    private File writeFile;
+
+    private IHDF5Reader reader;
+
+    private IHDF5Writer writer;
+
+    @Setup
+    public void setUp()
+    {
+        floatFeatures = BenchmarkSupport.floatFeatures(layout, deflateLevel, 4L * size);
+        intFeatures = BenchmarkSupport.intFeatures(layout, deflateLevel, 4L * size);
+        floatData = new float[size];
+        intData = new int[size];
+        for (int i = 0; i < size; ++i)
+        {
+            floatData[i] = i * 0.5f;
+            intData[i] = i % 1000;
+        }
+        readFile = BenchmarkSupport.createTempFile("primitiveArrayRead");
+        final IHDF5Writer initialWriter = HDF5Factory.open(readFile);
+        initialWriter.float32().writeArray("float", floatData, floatFeatures);
+        initialWriter.int32().writeArray("int", intData, intFeatures);
+        initialWriter.close();
+        reader = HDF5Factory.openForReading(readFile);
+        writeFile = BenchmarkSupport.createTempFile("primitiveArrayWrite");
+        // Overwrite the data sets in place rather than re-creating them on each invocation.
+        writer = HDF5Factory.configure(writeFile).keepDataSetsIfTheyExist().writer();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public void writeFloatArray()
+    {
+        writer.float32().writeArray("float", floatData, floatFeatures);
+    }
+
+    @Benchmark
+    public void writeIntArray()
+    {
+        writer.int32().writeArray("int", intData, intFeatures);
+    }
+
+    @Benchmark
+    public float[] readFloatArray()
+    {
+        return reader.float32().readArray("float");
+    }
+
+    @Benchmark
+    public int[] readIntArray()
+    {
+        return reader.int32().readArray("int");
+    }
+
+    @Benchmark
+    public void readFloatArrayNaturalBlocks(Blackhole blackhole)
+    {
+        for (HDF5DataBlock<float[]> block : reader.float32().getArrayNaturalBlocks("float"))
+        {
+            blackhole.consume(block.getData());
+        }
+    }
+
+    @Benchmark
+    public void readIntArrayNaturalBlocks(Blackhole blackhole)
+    {
+        for (HDF5DataBlock<int[]> block : reader.int32().getArrayNaturalBlocks("int"))
+        {
+            blackhole.consume(block.getData());
+        }
+    }
+
+}
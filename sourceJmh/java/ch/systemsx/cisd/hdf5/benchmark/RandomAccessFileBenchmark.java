@@ -0,0 +1,178 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+import ch.systemsx.cisd.hdf5.io.HDF5DataSetRandomAccessFile;
+import ch.systemsx.cisd.hdf5.io.HDF5IOAdapterFactory;
+
+/**
+ * Benchmarks for streaming an opaque data set through {@link HDF5DataSetRandomAccessFile}.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomAccessFileBenchmark
+{
+
+    private static final String TAG = "FILE";
+
+    @Param(
+        { "COMPACT", "CONTIGUOUS", "CHUNKED" })
+    public String layout;
+
+    @Param(
+        { "0", "6" })
+    public int deflateLevel;
+
+    @Param(
+        { "32768", "4194304" })
+    public int size;
+
+    /** The size of the buffer the data set is streamed with. */
+    @Param(
+        { "4096" })
+    public int bufferSize;
+
+    private byte[] data;
+
+    private byte[] buffer;
+
+    private File readFile;
+
+    private File writeFile;
+
+    private IHDF5Reader reader;
+
+    private IHDF5Writer writer;
+
+    @Setup
+    public void setUp()
+    {
+        final HDF5GenericStorageFeatures features =
+                BenchmarkSupport.genericFeatures(layout, deflateLevel, size);
+        data = new byte[size];
+        for (int i = 0; i < size; ++i)
+        {
+            // Somewhat compressible, but not trivially.
+            data[i] = (byte) ((i * 31) ^ (i >>> 7));
+        }
+        buffer = new byte[bufferSize];
+        readFile = BenchmarkSupport.createTempFile("randomAccessFileRead");
+        final IHDF5Writer initialWriter = HDF5Factory.open(readFile);
+        initialWriter.opaque().writeArray("file", TAG, data, features);
+        initialWriter.close();
+        reader = HDF5Factory.openForReading(readFile);
+        writeFile = BenchmarkSupport.createTempFile("randomAccessFileWrite");
+        writer = HDF5Factory.open(writeFile);
+        // Data sets that are not chunked can't be extended, so create it with its final size.
+        writer.opaque().createArray("file", TAG, size, features);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public long readStream()
+    {
+        final HDF5DataSetRandomAccessFile raf =
+                HDF5IOAdapterFactory.asRandomAccessFile(reader, "file");
+        long sum = 0;
+        try
+        {
+            int n;
+            while ((n = raf.read(buffer)) > 0)
+            {
+                sum += n;
+            }
+        } finally
+        {
+            raf.close();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void writeStream()
+    {
+        final HDF5DataSetRandomAccessFile raf =
+                HDF5IOAdapterFactory.asRandomAccessFile(writer, "file");
+        try
+        {
+            for (int offset = 0; offset < size; offset += bufferSize)
+            {
+                raf.write(data, offset, Math.min(bufferSize, size - offset));
+            }
+        } finally
+        {
+            raf.close();
+        }
+    }
+
+    @Benchmark
+    public long seekAndRead()
+    {
+        final HDF5DataSetRandomAccessFile raf =
+                HDF5IOAdapterFactory.asRandomAccessFile(reader, "file");
+        long sum = 0;
+        try
+        {
+            // Reads one buffer from 16 positions spread over the data set, back to front.
+            final int stride = Math.max(1, size / 16);
+            for (int pos = size - stride; pos >= 0; pos -= stride)
+            {
+                raf.seek(pos);
+                sum += raf.read(buffer);
+            }
+        } finally
+        {
+            raf.close();
+        }
+        return sum;
+    }
+
+}
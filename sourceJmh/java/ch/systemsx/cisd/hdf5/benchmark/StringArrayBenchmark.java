@@ -0,0 +1,136 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
+import ch.systemsx.cisd.hdf5.IHDF5Writer;
+
+/**
+ * Benchmarks for writing and reading arrays of fixed-length and variable-length strings.
+ * 
+ * @author Bernd Rinn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringArrayBenchmark
+{
+
+    /** The maximal length of the strings of the fixed-length string array. */
+    private static final int MAX_LENGTH = 32;
+
+    @Param(
+        { "COMPACT", "CONTIGUOUS", "CHUNKED" })
+    public String layout;
+
+    @Param(
+        { "0", "6" })
+    public int deflateLevel;
+
+    @Param(
+        { "1000", "100000" })
+    public int size;
+
+    private String[] data;
+
+    private HDF5GenericStorageFeatures features;
+
+    private File readFile;
+
+    private File writeFile;
+
+    private IHDF5Reader reader;
+
+    private IHDF5Writer writer;
+
+    @Setup
+    public void setUp()
+    {
+        // The fixed-length array is the larger one, variable-length strings take 16 bytes each.
+        features =
+                BenchmarkSupport.genericFeatures(layout, deflateLevel, (long) MAX_LENGTH * size);
+        data = new String[size];
+        for (int i = 0; i < size; ++i)
+        {
+            data[i] = "string number " + i;
+        }
+        readFile = BenchmarkSupport.createTempFile("stringArrayRead");
+        final IHDF5Writer initialWriter = HDF5Factory.open(readFile);
+        initialWriter.string().writeArray("fixed", data, MAX_LENGTH, features);
+        initialWriter.string().writeArrayVL("variable", data, features);
+        initialWriter.close();
+        reader = HDF5Factory.openForReading(readFile);
+        writeFile = BenchmarkSupport.createTempFile("stringArrayWrite");
+        // Overwrite the data sets in place rather than re-creating them on each invocation.
+        writer = HDF5Factory.configure(writeFile).keepDataSetsIfTheyExist().writer();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public void writeFixedLengthStringArray()
+    {
+        writer.string().writeArray("fixed", data, MAX_LENGTH, features);
+    }
+
+    @Benchmark
+    public void writeVariableLengthStringArray()
+    {
+        writer.string().writeArrayVL("variable", data, features);
+    }
+
+    @Benchmark
+    public String[] readFixedLengthStringArray()
+    {
+        return reader.string().readArray("fixed");
+    }
+
+    @Benchmark
+    public String[] readVariableLengthStringArray()
+    {
+        return reader.string().readArray("variable");
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ChunkFilterUtils}.
+ *
+ * @author Bernd Rinn
+ */
+public class ChunkFilterUtilsTest
+{
+    @Test
+    public void testInflate()
+    {
+        final byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; ++i)
+        {
+            data[i] = (byte) (i % 7);
+        }
+        final Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        final byte[] compressed = new byte[2000];
+        final int compressedLength = deflater.deflate(compressed);
+        deflater.end();
+        final byte[] inflated = new byte[data.length];
+        assertEquals(data.length, ChunkFilterUtils.inflate(compressed, compressedLength, inflated));
+        assertTrue(Arrays.equals(data, inflated));
+    }
+
+    @Test
+    public void testUnshuffle()
+    {
+        // 3 elements of size 2 and one left-over byte
+        final byte[] shuffled = new byte[]
+            { 1, 3, 5, 2, 4, 6, 7 };
+        final byte[] target = new byte[shuffled.length];
+        ChunkFilterUtils.unshuffle(shuffled, shuffled.length, 2, target);
+        assertTrue(Arrays.toString(target), Arrays.equals(new byte[]
+            { 1, 2, 3, 4, 5, 6, 7 }, target));
+    }
+
+    @Test
+    public void testDeflateInflate()
+    {
+        final byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; ++i)
+        {
+            data[i] = (byte) (i * 31 % 251);
+        }
+        final byte[] compressed = ChunkFilterUtils.deflate(data, data.length, 9);
+        final byte[] inflated = new byte[data.length];
+        assertEquals(data.length,
+                ChunkFilterUtils.inflate(compressed, compressed.length, inflated));
+        assertTrue(Arrays.equals(data, inflated));
+    }
+
+    @Test
+    public void testShuffleUnshuffle()
+    {
+        final byte[] data = new byte[]
+            { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        final byte[] shuffled = new byte[data.length];
+        ChunkFilterUtils.shuffle(data, data.length, 4, shuffled);
+        assertTrue(Arrays.toString(shuffled), Arrays.equals(new byte[]
+            { 1, 5, 2, 6, 3, 7, 4, 8, 9, 10, 11 }, shuffled));
+        final byte[] unshuffled = new byte[data.length];
+        ChunkFilterUtils.unshuffle(shuffled, shuffled.length, 4, unshuffled);
+        assertTrue(Arrays.equals(data, unshuffled));
+    }
+
+}
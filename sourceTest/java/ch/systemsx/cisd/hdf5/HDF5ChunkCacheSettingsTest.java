@@ -0,0 +1,96 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test cases for {@link HDF5ChunkCacheSettings}.
+ * 
+ * @author Bernd Rinn
+ */
+public class HDF5ChunkCacheSettingsTest
+{
+
+    @Test
+    public void testNextPrime()
+    {
+        assertEquals(2, HDF5ChunkCacheSettings.nextPrime(0));
+        assertEquals(3, HDF5ChunkCacheSettings.nextPrime(3));
+        assertEquals(521, HDF5ChunkCacheSettings.nextPrime(521));
+        assertEquals(523, HDF5ChunkCacheSettings.nextPrime(522));
+        assertEquals(10007, HDF5ChunkCacheSettings.nextPrime(10000));
+    }
+
+    @Test
+    public void testDefault()
+    {
+        assertTrue(HDF5ChunkCacheSettings.DEFAULT.isLibraryDefault());
+        assertFalse(HDF5ChunkCacheSettings.AUTO.isLibraryDefault());
+        assertFalse(HDF5ChunkCacheSettings.create(1L << 24).isLibraryDefault());
+        final HDF5ChunkCacheSettings settings = HDF5ChunkCacheSettings.create(1L << 24);
+        assertSame(settings, settings.resolve(new long[]
+            { 1000, 1000 }, new int[]
+            { 100, 100 }, 4));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testIllegalPreemptionPolicy()
+    {
+        HDF5ChunkCacheSettings.create(1L << 24, 10007, 1.5);
+    }
+
+    @Test
+    public void testAutoSmallRow()
+    {
+        // A row of chunks has 10 * 40000 bytes, less than the default cache size.
+        final HDF5ChunkCacheSettings settings = HDF5ChunkCacheSettings.AUTO.resolve(new long[]
+            { 1000, 1000 }, new int[]
+            { 100, 100 }, 4);
+        assertFalse(settings.isAuto());
+        assertEquals(HDF5ChunkCacheSettings.DEFAULT_SIZE_IN_BYTES, settings.getSizeInBytes());
+        assertEquals(2609, settings.getNumberOfSlots());
+        assertEquals(-1.0, settings.getPreemptionPolicy());
+    }
+
+    @Test
+    public void testAutoLargeRow()
+    {
+        // A row of chunks has 49 chunks of 1 MB each.
+        final HDF5ChunkCacheSettings settings = HDF5ChunkCacheSettings.AUTO.resolve(new long[]
+            { 10000, 25000 }, new int[]
+            { 512, 512 }, 4);
+        assertEquals(49L * 1024 * 1024, settings.getSizeInBytes());
+        assertEquals(4903, settings.getNumberOfSlots());
+    }
+
+    @Test
+    public void testAutoCapped()
+    {
+        // A single chunk is larger than the maximal cache size.
+        final HDF5ChunkCacheSettings settings = HDF5ChunkCacheSettings.AUTO.resolve(new long[]
+            { 100000, 100000 }, new int[]
+            { 5000, 5000 }, 8);
+        assertEquals(200000000L, settings.getSizeInBytes());
+        assertEquals(521, settings.getNumberOfSlots());
+    }
+}
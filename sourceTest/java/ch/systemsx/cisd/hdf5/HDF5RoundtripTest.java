@@ -24,6 +24,7 @@ import static ch.systemsx.cisd.hdf5.HDF5CompoundMemberMapping.mapping;
 import static ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures.FLOAT_CHUNKED;
 import static ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures.FLOAT_DEFLATE;
 import static ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures.FLOAT_SCALING1_DEFLATE;
+import static ch.systemsx.cisd.hdf5.HDF5FloatStorageFeatures.FLOAT_SHUFFLE_DEFLATE;
 import static ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures.GENERIC_DEFLATE;
 import static ch.systemsx.cisd.hdf5.HDF5GenericStorageFeatures.GENERIC_DEFLATE_MAX;
 import static ch.systemsx.cisd.hdf5.HDF5IntStorageFeatures.INT_AUTO_SCALING;
@@ -39,6 +40,7 @@ import static hdf.hdf5lib.HDF5Constants.H5T_ENUM;
 import static hdf.hdf5lib.HDF5Constants.H5T_FLOAT;
 import static hdf.hdf5lib.HDF5Constants.H5T_INTEGER;
 import static hdf.hdf5lib.HDF5Constants.H5T_REFERENCE;
+import static hdf.hdf5lib.HDF5Constants.H5Z_FILTER_DEFLATE;
 import static org.testng.AssertJUnit.assertEquals;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertNotNull;
@@ -50,17 +52,31 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.ArrayUtils;
@@ -155,6 +171,8 @@ public class HDF5RoundtripTest
         test.testStrangeDataSetName();
         test.testCreateSomeDeepGroup();
         test.testGetGroupMembersIteratively();
+        test.testGetGroupMemberPagesAndIterator();
+        test.testVisitObjects();
         test.testScalarValues();
         test.testUnsignedInt8ValuesArray();
         test.testUnsignedInt16ValuesArray();
@@ -165,6 +183,9 @@ public class HDF5RoundtripTest
         test.testFixedLengthStringArray();
         test.testVLStringCrash();
         test.testDataTypeInfoOptions();
+        test.testMetadataCache();
+        test.testAppender();
+        test.testMemoryMappedRead();
         test.testCompactDataset();
         test.testCreateEmptyFixedSizeDataSets();
         test.testCreateEmptyDefaultFixedSizeDataSets();
@@ -181,6 +202,18 @@ public class HDF5RoundtripTest
         test.testBooleanArray();
         test.testBooleanArrayBlock();
         test.testFloatArrayBlockWithPreopenedDataSet();
+        test.testFloatArrayBlockIntoBuffer();
+        test.testDoubleArrayWithDirectBuffer();
+        test.testMDArrayBlockWithDirectBuffer();
+        test.testParallelMDArrayRead();
+        test.testParallelMDArrayWriteAndRawChunks();
+        test.testChunkCache();
+        test.testAsyncRead();
+        test.testAsyncReadIsFairBetweenDataSets();
+        test.testAsyncReadQueuedWhileDrainingIsServedOnClose();
+        test.testDataSetHandleCache();
+        test.testConcurrentFileAccess();
+        test.testConcurrentFileAccessWithCallbacks();
         test.testFloatArraysFromTemplates();
         try
         {
@@ -248,6 +281,7 @@ public class HDF5RoundtripTest
         test.testStringArrayWithNullStrings();
         test.testStringMDArrayWithNullStrings();
         test.testStringArrayBlock();
+        test.testStringArrayView();
         test.testStringArrayBlockCompact();
         test.testStringArrayCompact();
         test.testStringCompression();
@@ -428,6 +462,11 @@ public class HDF5RoundtripTest
         test.testCompoundIncompleteJavaPojo();
         test.testCompoundManualMapping();
         test.testInferredCompoundType();
+        test.testCompoundTypeCache();
+        test.testReadCompoundColumns();
+        test.testReadCompoundColumnsOfAllTypes();
+        test.testReadCompoundColumnsNonSuccessiveEnum();
+        test.testCompoundCursor();
         test.testInferredIncompletelyMappedCompoundType();
         test.testNameChangeInCompoundMapping();
         test.testInferredCompoundTypedWithEnum();
@@ -606,6 +645,161 @@ public class HDF5RoundtripTest
         writer.close();
     }
 
+    @Test
+    public void testGetGroupMemberPagesAndIterator()
+    {
+        final File datasetFile = new File(workingDirectory, "groupMemberPages.h5");
+        datasetFile.delete();
+        assertFalse(datasetFile.exists());
+        datasetFile.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(datasetFile);
+        final String groupName = "/group";
+        for (int i = 0; i < 1000; ++i)
+        {
+            writer.int32().write(groupName + "/ds" + i, i);
+        }
+        writer.object().createSoftLink(groupName + "/ds7", groupName + "/link");
+        writer.int32().write(writer.object().toHouseKeepingPath(groupName + "/internal"), 1);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(datasetFile);
+        final List<String> expectedPaths = new ArrayList<String>();
+        for (HDF5LinkInformation info : reader.object().getGroupMemberInformation(groupName,
+                false))
+        {
+            expectedPaths.add(info.getPath());
+        }
+        Collections.sort(expectedPaths);
+        assertEquals(1001, expectedPaths.size());
+
+        final List<String> pagedPaths = new ArrayList<String>();
+        long startIndex = 0;
+        HDF5GroupMemberPage page;
+        do
+        {
+            page = reader.object().getGroupMemberInformationPage(groupName, startIndex, 64, true);
+            assertTrue(page.getMembers().size() <= 64);
+            for (HDF5LinkInformation info : page.getMembers())
+            {
+                pagedPaths.add(info.getPath());
+                if (info.getPath().equals(groupName + "/link"))
+                {
+                    assertEquals(HDF5ObjectType.SOFT_LINK, info.getType());
+                    assertEquals(groupName + "/ds7", info.tryGetSymbolicLinkTarget());
+                } else
+                {
+                    assertEquals(HDF5ObjectType.DATASET, info.getType());
+                }
+            }
+            startIndex = page.getNextIndex();
+        } while (page.isLastPage() == false);
+        assertEquals(expectedPaths, pagedPaths);
+
+        // Stop the iteration half way through and resume it with a new iterator.
+        final List<String> iteratedPaths = new ArrayList<String>();
+        final HDF5GroupMemberIterator it1 =
+                reader.object().getGroupMemberInformationIterator(groupName, 0L, 100, false);
+        for (int i = 0; i < 500; ++i)
+        {
+            iteratedPaths.add(it1.next().getPath());
+        }
+        final HDF5GroupMemberIterator it2 =
+                reader.object().getGroupMemberInformationIterator(groupName,
+                        it1.getNextIndex(), 33, false);
+        while (it2.hasNext())
+        {
+            iteratedPaths.add(it2.next().getPath());
+        }
+        assertEquals(expectedPaths, iteratedPaths);
+        assertEquals(1001, StreamSupport.stream(
+                reader.object().getGroupMemberInformationIterator(groupName, false)
+                        .spliterator(), false).count());
+        reader.close();
+    }
+
+    @Test
+    public void testVisitObjects()
+    {
+        final File datasetFile = new File(workingDirectory, "visitObjects.h5");
+        datasetFile.delete();
+        assertFalse(datasetFile.exists());
+        datasetFile.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(datasetFile);
+        writer.int32().write("/g1/ds1", 1);
+        writer.int32().write("/g1/ds2", 2);
+        writer.int32().setAttr("/g1/ds2", "a", 17);
+        writer.int32().write("/g1/sub/ds3", 3);
+        writer.object().createGroup("/g2");
+        writer.object().createHardLink("/g1/ds1", "/g2/hardLink");
+        writer.object().createSoftLink("/g1", "/g2/softLink");
+        writer.int32().write(writer.object().toHouseKeepingPath("/g2/internal"), 4);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(datasetFile);
+        final List<String> paths = new ArrayList<String>();
+        final List<HDF5ObjectType> types = new ArrayList<HDF5ObjectType>();
+        reader.object().visitObjects("/", new IHDF5ObjectVisitor()
+            {
+                @Override
+                public boolean visit(HDF5ObjectInformation info)
+                {
+                    paths.add(info.getPath());
+                    types.add(info.getType());
+                    return true;
+                }
+            });
+        assertEquals(Arrays.asList("/g1", "/g1/ds1", "/g1/ds2", "/g1/sub", "/g1/sub/ds3", "/g2"),
+                paths);
+        assertEquals(Arrays.asList(HDF5ObjectType.GROUP, HDF5ObjectType.DATASET,
+                HDF5ObjectType.DATASET, HDF5ObjectType.GROUP, HDF5ObjectType.DATASET,
+                HDF5ObjectType.GROUP), types);
+
+        final Map<String, HDF5ObjectInformation> infos =
+                new HashMap<String, HDF5ObjectInformation>();
+        reader.object().visitObjects("/g1", new IHDF5ObjectVisitor()
+            {
+                @Override
+                public boolean visit(HDF5ObjectInformation info)
+                {
+                    infos.put(info.getPath(), info);
+                    return true;
+                }
+            }, false, true);
+        assertEquals(4, infos.size());
+        assertEquals(2, infos.get("/g1/ds1").getReferenceCount());
+        assertEquals(0, infos.get("/g1/ds1").getNumberOfAttributes());
+        assertEquals(1, infos.get("/g1/ds2").getNumberOfAttributes());
+        assertEquals(reader.object().getObjectInformation("/g2/hardLink").getAddress(),
+                infos.get("/g1/ds1").getAddress());
+
+        final List<String> internalPaths = new ArrayList<String>();
+        reader.object().visitObjects("/g2", new IHDF5ObjectVisitor()
+            {
+                @Override
+                public boolean visit(HDF5ObjectInformation info)
+                {
+                    internalPaths.add(info.getPath());
+                    return true;
+                }
+            }, true, false);
+        assertEquals(Arrays.asList(reader.object().toHouseKeepingPath("/g2/internal"),
+                "/g2/hardLink"), internalPaths);
+
+        // Stop after the second object.
+        final List<String> firstPaths = new ArrayList<String>();
+        reader.object().visitObjects("/", new IHDF5ObjectVisitor()
+            {
+                @Override
+                public boolean visit(HDF5ObjectInformation info)
+                {
+                    firstPaths.add(info.getPath());
+                    return firstPaths.size() < 2;
+                }
+            });
+        assertEquals(Arrays.asList("/g1", "/g1/ds1"), firstPaths);
+        reader.close();
+    }
+
     @Test
     public void testOverwriteScalar()
     {
@@ -3326,58 +3520,948 @@ public class HDF5RoundtripTest
     {
         for (int i = 0; i < data.length; ++i)
         {
-            data[i] = mult * i;
+            data[i] = mult * i;
+        }
+    }
+
+    private static void fillArray(short mult, short[] data)
+    {
+        for (short i = 0; i < data.length; ++i)
+        {
+            data[i] = (short) (mult * i);
+        }
+    }
+
+    private static void fillArray(long mult, long[] data)
+    {
+        for (int i = 0; i < data.length; ++i)
+        {
+            data[i] = mult * i;
+        }
+    }
+
+    @Test
+    public void testFloatArrayBlockWithPreopenedDataSet()
+    {
+        final File floatArrayFile = new File(workingDirectory, "testFloatArrayBlockWithPreopenedDataSet.h5");
+        floatArrayFile.delete();
+        assertFalse(floatArrayFile.exists());
+        floatArrayFile.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(floatArrayFile);
+        final float[] dataWritten = new float[128];
+        writer.int32().createArray("ds", dataWritten.length);
+        try (final HDF5DataSet ds = writer.int32().createArrayAndOpen("ds", dataWritten.length))
+        {
+            for (long bx = 0; bx < 8; ++bx)
+            {
+                fillArray(bx + 1, dataWritten);
+                writer.float32().writeArrayBlock(ds, dataWritten, bx);
+            }
+        }
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(floatArrayFile);
+        try (final HDF5DataSet ds = reader.object().openDataSet("ds"))
+        {
+            for (long bx = 0; bx < 8; ++bx)
+            {
+                fillArray(bx + 1, dataWritten);
+                final float[] dataRead =
+                        reader.float32().readArrayBlock(ds, dataWritten.length, bx);
+                assertTrue("" + bx, Arrays.equals(dataWritten, dataRead));
+            }
+        }
+        reader.close();
+    }
+
+    @Test
+    public void testFloatArrayBlockIntoBuffer()
+    {
+        final File floatArrayFile = new File(workingDirectory, "testFloatArrayBlockIntoBuffer.h5");
+        floatArrayFile.delete();
+        assertFalse(floatArrayFile.exists());
+        floatArrayFile.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(floatArrayFile);
+        final float[] dataWritten = new float[100];
+        for (int i = 0; i < dataWritten.length; ++i)
+        {
+            dataWritten[i] = i;
+        }
+        writer.float32().createArray("ds", dataWritten.length, 30);
+        writer.float32().writeArrayBlock("ds", dataWritten, 0);
+        writer.int64().writeArray("ls", new long[] { 1L, 2L, 3L });
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(floatArrayFile);
+        final float[] buffer = new float[40];
+        try (final HDF5DataSet ds = reader.object().openDataSet("ds"))
+        {
+            Arrays.fill(buffer, -1f);
+            assertEquals(30, reader.float32().readArrayBlockWithOffset(ds, buffer, 5, 30, 10L));
+            for (int i = 0; i < buffer.length; ++i)
+            {
+                final float expected = (i < 5 || i >= 35) ? -1f : i + 5;
+                assertEquals(expected, buffer[i]);
+            }
+            // Block is shortened at the end of the data set.
+            assertEquals(10, reader.float32().readArrayBlockWithOffset(ds, buffer, 0, 40, 90L));
+            for (int i = 0; i < 10; ++i)
+            {
+                assertEquals(90f + i, buffer[i]);
+            }
+            assertEquals(0, reader.float32().readArrayBlockWithOffset(ds, buffer, 0, 0, 10L));
+            try
+            {
+                reader.float32().readArrayBlockWithOffset(ds, buffer, 20, 30, 0L);
+                fail("Block exceeding the target array not detected.");
+            } catch (HDF5JavaException ex)
+            {
+                // That is expected.
+            }
+        }
+        try (final HDF5DataSet ds = reader.object().openDataSet("ls"))
+        {
+            final long[] longBuffer = new long[3];
+            assertEquals(2, reader.int64().readArrayBlockWithOffset(ds, longBuffer, 1, 2, 1L));
+            assertTrue(Arrays.equals(new long[] { 0L, 2L, 3L }, longBuffer));
+        }
+        int blockCount = 0;
+        float[] firstBlockBuffer = null;
+        for (HDF5DataBlock<float[]> block : reader.float32().getArrayNaturalBlocks("ds", true))
+        {
+            if (firstBlockBuffer == null)
+            {
+                firstBlockBuffer = block.getData();
+            } else if (block.getData().length == firstBlockBuffer.length)
+            {
+                assertTrue(firstBlockBuffer == block.getData());
+            }
+            for (int i = 0; i < block.getData().length; ++i)
+            {
+                assertEquals((float) (block.getOffset() + i), block.getData()[i]);
+            }
+            ++blockCount;
+        }
+        assertEquals(4, blockCount);
+        reader.close();
+    }
+
+    @Test
+    public void testDoubleArrayWithDirectBuffer()
+    {
+        final File file = new File(workingDirectory, "testDoubleArrayWithDirectBuffer.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final int size = 1000;
+        final ByteBuffer writeBuffer =
+                ByteBuffer.allocateDirect(size * 8).order(java.nio.ByteOrder.nativeOrder());
+        for (int i = 0; i < size; ++i)
+        {
+            writeBuffer.putDouble(i * 0.5);
+        }
+        writeBuffer.flip();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.float64().createArray("ds", 0L, 100);
+        try (final HDF5DataSet ds = writer.object().openDataSet("ds"))
+        {
+            writer.float64().writeFromBuffer(ds, writeBuffer, 0L);
+        }
+        assertEquals(0, writeBuffer.remaining());
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        assertEquals(size, reader.object().getSize("ds"));
+        final ByteBuffer readBuffer =
+                ByteBuffer.allocateDirect(300 * 8).order(java.nio.ByteOrder.nativeOrder());
+        try (final HDF5DataSet ds = reader.object().openDataSet("ds"))
+        {
+            assertEquals(300, reader.float64().readToBuffer(ds, readBuffer, 100L));
+            assertEquals(0, readBuffer.remaining());
+            readBuffer.flip();
+            for (int i = 0; i < 300; ++i)
+            {
+                assertEquals((100 + i) * 0.5, readBuffer.getDouble());
+            }
+            readBuffer.clear();
+            assertEquals(100, reader.float64().readToBuffer(ds, readBuffer, 900L));
+            assertEquals(100 * 8, readBuffer.position());
+            try
+            {
+                reader.float64().readToBuffer(ds, ByteBuffer.allocate(80), 0L);
+                fail("Non-direct buffer not detected.");
+            } catch (HDF5JavaException ex)
+            {
+                // That is expected.
+            }
+        }
+        reader.close();
+    }
+
+
+    @Test
+    public void testMDArrayBlockWithDirectBuffer()
+    {
+        final File file = new File(workingDirectory, "testMDArrayBlockWithDirectBuffer.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.int32().createMDArray("ds", new long[]
+            { 0, 0 }, new int[]
+            { 4, 8 });
+        final ByteBuffer writeBuffer =
+                ByteBuffer.allocateDirect(6 * 10 * 4).order(java.nio.ByteOrder.nativeOrder());
+        for (int i = 0; i < 6; ++i)
+        {
+            for (int j = 0; j < 10; ++j)
+            {
+                writeBuffer.putInt(100 * i + j);
+            }
+        }
+        writeBuffer.flip();
+        try (final HDF5DataSet ds = writer.object().openDataSet("ds"))
+        {
+            writer.int32().writeMDArrayBlockWithOffsetFromBuffer(ds, new long[]
+                { 6, 10 }, new long[]
+                { 1, 2 }, writeBuffer);
+            assertEquals(0, writeBuffer.remaining());
+            try
+            {
+                writer.int32().writeMDArrayBlockWithOffsetFromBuffer(ds, new long[]
+                    { 2, 2 }, new long[]
+                    { 0, 0 }, writeBuffer);
+                fail("Too small buffer not detected.");
+            } catch (HDF5JavaException ex)
+            {
+                // That is expected.
+            }
+        }
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final MDIntArray array = reader.int32().readMDArray("ds");
+        assertTrue(Arrays.equals(new int[]
+            { 7, 12 }, array.dimensions()));
+        assertEquals(0, array.get(0, 0));
+        assertEquals(0, array.get(1, 2));
+        assertEquals(509, array.get(6, 11));
+        final ByteBuffer readBuffer =
+                ByteBuffer.allocateDirect(100 * 4).order(java.nio.ByteOrder.nativeOrder());
+        try (final HDF5DataSet ds = reader.object().openDataSet("ds"))
+        {
+            // The block is cut off at the end of the data set.
+            assertTrue(Arrays.equals(new long[]
+                { 2, 3 }, reader.int32().readMDArrayBlockWithOffsetToBuffer(ds, new long[]
+                { 5, 3 }, new long[]
+                { 5, 9 }, readBuffer)));
+            assertEquals(6 * 4, readBuffer.position());
+            readBuffer.flip();
+            for (int i = 5; i < 7; ++i)
+            {
+                for (int j = 9; j < 12; ++j)
+                {
+                    assertEquals(array.get(i, j), readBuffer.getInt());
+                }
+            }
+            try
+            {
+                reader.int32().readMDArrayBlockWithOffsetToBuffer(ds, new long[]
+                    { 7, 12 }, new long[]
+                    { 0, 0 }, ByteBuffer.allocateDirect(8));
+                fail("Too small buffer not detected.");
+            } catch (HDF5JavaException ex)
+            {
+                // That is expected.
+            }
+        }
+        reader.close();
+    }
+
+    @Test
+    public void testParallelMDArrayRead() throws Exception
+    {
+        final File file = new File(workingDirectory, "testParallelMDArrayRead.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final MDFloatArray floatBlock = new MDFloatArray(new int[]
+            { 32, 37 });
+        final MDShortArray shortBlock = new MDShortArray(new int[]
+            { 32, 37 });
+        for (int i = 0; i < floatBlock.size(0); ++i)
+        {
+            for (int j = 0; j < floatBlock.size(1); ++j)
+            {
+                floatBlock.set(i * 100 + j + 0.5f, i, j);
+                shortBlock.set((short) (i * 100 - j), i, j);
+            }
+        }
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.float32().createMDArray("f", new long[]
+            { 50, 37 }, new int[]
+            { 16, 10 }, FLOAT_SHUFFLE_DEFLATE);
+        // Leaves the chunks of the last rows unallocated.
+        writer.float32().writeMDArrayBlockWithOffset("f", floatBlock, new long[]
+            { 0, 0 });
+        writer.int16().createMDArray("s", new long[]
+            { 50, 37 }, new int[]
+            { 16, 10 }, INT_SHUFFLE_DEFLATE);
+        writer.int16().writeMDArrayBlockWithOffset("s", shortBlock, new long[]
+            { 0, 0 });
+        writer.float32().writeMDArray("contiguous", floatBlock);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final IHDF5ParallelReader parallelReader = reader.parallel(executor);
+            assertEquals(reader.float32().readMDArray("f"), parallelReader.readFloatMDArray("f"));
+            assertEquals(reader.float32().readMDArrayBlockWithOffset("f", new int[]
+                { 30, 20 }, new long[]
+                { 10, 5 }), parallelReader.readFloatMDArrayBlockWithOffset("f", new int[]
+                { 30, 20 }, new long[]
+                { 10, 5 }));
+            assertEquals(reader.int16().readMDArray("s"), parallelReader.readShortMDArray("s"));
+            // Block is shortened at the end of the data set.
+            assertEquals(reader.int16().readMDArrayBlockWithOffset("s", new int[]
+                { 30, 20 }, new long[]
+                { 40, 30 }), parallelReader.readShortMDArrayBlockWithOffset("s", new int[]
+                { 30, 20 }, new long[]
+                { 40, 30 }));
+            assertEquals(floatBlock, parallelReader.readFloatMDArray("contiguous"));
+            assertEquals(floatBlock, reader.parallel().readFloatMDArray("contiguous"));
+        } finally
+        {
+            executor.shutdown();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testParallelMDArrayWriteAndRawChunks() throws Exception
+    {
+        final File file = new File(workingDirectory, "testParallelMDArrayWriteAndRawChunks.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final MDFloatArray floatBlock = new MDFloatArray(new int[]
+            { 40, 37 });
+        final MDIntArray intBlock = new MDIntArray(new int[]
+            { 40, 37 });
+        for (int i = 0; i < floatBlock.size(0); ++i)
+        {
+            for (int j = 0; j < floatBlock.size(1); ++j)
+            {
+                floatBlock.set(i * 100 + j + 0.5f, i, j);
+                intBlock.set(i * 100 - j, i, j);
+            }
+        }
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            writer.float32().createMDArray("f", new long[]
+                { 0, 37 }, new int[]
+                { 16, 10 }, FLOAT_SHUFFLE_DEFLATE);
+            // Extends the data set, the chunks at the edges extend beyond the data set.
+            writer.parallel(executor).writeFloatMDArrayBlockWithOffset("f", floatBlock, new long[]
+                { 0, 0 });
+            writer.int32().createMDArray("i", new long[]
+                { 40, 37 }, new int[]
+                { 16, 10 }, INT_DEFLATE);
+            // The chunks of rows 16 to 31 are only partially covered by each of the blocks.
+            final int[] flatIntBlock = intBlock.getAsFlatArray();
+            writer.parallel(executor).writeIntMDArrayBlockWithOffset("i", new MDIntArray(
+                    Arrays.copyOfRange(flatIntBlock, 0, 20 * 37), new int[]
+                        { 20, 37 }), new long[]
+                { 0, 0 });
+            writer.parallel(executor).writeIntMDArrayBlockWithOffset("i", new MDIntArray(
+                    Arrays.copyOfRange(flatIntBlock, 20 * 37, 40 * 37), new int[]
+                        { 20, 37 }), new long[]
+                { 20, 0 });
+            writer.int32().createMDArray("copy", new long[]
+                { 40, 37 }, new int[]
+                { 16, 10 }, INT_DEFLATE);
+            final HDF5DataSet source = writer.object().openDataSet("i");
+            final HDF5DataSet target = writer.object().openDataSet("copy");
+            try
+            {
+                assertTrue(Arrays.equals(new int[]
+                    { H5Z_FILTER_DEFLATE }, writer.rawChunk().getFilters(source)));
+                assertTrue(writer.rawChunk().getRawChunkSize(source, new long[]
+                    { 16, 10 }) > 0);
+                for (long x = 0; x < 40; x += 16)
+                {
+                    for (long y = 0; y < 37; y += 10)
+                    {
+                        final long[] chunkOffset = new long[]
+                            { x, y };
+                        final HDF5RawChunk chunk =
+                                writer.rawChunk().tryReadRawChunk(source, chunkOffset);
+                        assertNotNull(chunk);
+                        assertTrue(chunk.isFilterApplied(0));
+                        writer.rawChunk().writeRawChunk(target, chunkOffset, chunk);
+                    }
+                }
+            } finally
+            {
+                source.close();
+                target.close();
+            }
+        } finally
+        {
+            executor.shutdown();
+            writer.close();
+        }
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        try
+        {
+            assertEquals(floatBlock, reader.float32().readMDArray("f"));
+            assertEquals(intBlock, reader.int32().readMDArray("i"));
+            assertEquals(intBlock, reader.int32().readMDArray("copy"));
+            assertEquals(intBlock, reader.parallel().readIntMDArray("copy"));
+        } finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testChunkCache() throws Exception
+    {
+        final File file = new File(workingDirectory, "testChunkCache.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final MDFloatArray floatArray = new MDFloatArray(new int[]
+            { 64, 300 });
+        for (int i = 0; i < floatArray.size(0); ++i)
+        {
+            for (int j = 0; j < floatArray.size(1); ++j)
+            {
+                floatArray.set(i * 1000 + j, i, j);
+            }
+        }
+        final IHDF5Writer writer =
+                HDF5FactoryProvider.get().configure(file)
+                        .chunkCache(HDF5ChunkCacheSettings.create(1L << 22, 10007, 0.0))
+                        .writer();
+        writer.float32().createMDArray("f", new long[]
+            { 64, 300 }, new int[]
+            { 16, 16 }, FLOAT_DEFLATE);
+        writer.float32().writeMDArrayBlockWithOffset("f", floatArray, new long[]
+            { 0, 0 });
+        writer.close();
+
+        final IHDF5Reader reader =
+                HDF5FactoryProvider.get().configureForReading(file)
+                        .chunkCache(HDF5ChunkCacheSettings.AUTO).reader();
+        try
+        {
+            assertEquals(floatArray, reader.float32().readMDArray("f"));
+            try (final HDF5DataSet dataSet = reader.object().openDataSet("f"))
+            {
+                // Reads row by row across all chunks of a row of chunks.
+                for (int i = 0; i < floatArray.size(0); ++i)
+                {
+                    final MDFloatArray row =
+                            reader.float32().readMDArrayBlockWithOffset(dataSet, new int[]
+                                { 1, 300 }, new long[]
+                                { i, 0 });
+                    assertEquals(floatArray.get(i, 299), row.get(0, 299));
+                }
+            }
+            try (final HDF5DataSet dataSet =
+                    reader.object().openDataSet("f", HDF5ChunkCacheSettings.create(1L << 20)))
+            {
+                assertEquals(floatArray.get(10, 20), reader.float32().readMDArrayBlockWithOffset(
+                        dataSet, new int[]
+                            { 1, 1 }, new long[]
+                            { 10, 20 }).get(0, 0));
+            }
+        } finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testAsyncRead() throws Exception
+    {
+        final File file = new File(workingDirectory, "testAsyncRead.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final float[] floatArray = new float[1000];
+        for (int i = 0; i < floatArray.length; ++i)
+        {
+            floatArray[i] = i;
+        }
+        final MDIntArray intArray = new MDIntArray(new int[]
+            { 20, 30 });
+        for (int i = 0; i < intArray.size(0); ++i)
+        {
+            for (int j = 0; j < intArray.size(1); ++j)
+            {
+                intArray.set(i * 100 + j, i, j);
+            }
+        }
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.float32().createArray("f", 1000, 100, FLOAT_CHUNKED);
+        writer.float32().writeArrayBlock("f", floatArray, 0);
+        writer.int32().writeMDArray("i", intArray);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            // Block the I/O thread so that all requests below are queued at the same time.
+            final CountDownLatch latch = new CountDownLatch(1);
+            executor.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            latch.await();
+                        } catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            final IHDF5AsyncReader asyncReader = reader.async(executor);
+            final CompletableFuture<float[]> block1 = asyncReader.readFloatArrayBlock("f", 100, 3);
+            final CompletableFuture<float[]> block2 = asyncReader.readFloatArrayBlock("f", 100, 3);
+            final CompletableFuture<float[]> cancelled =
+                    asyncReader.readFloatArrayBlockWithOffset("f", 10, 5);
+            final CompletableFuture<float[]> all = asyncReader.readFloatArray("f");
+            final CompletableFuture<MDIntArray> mdBlock =
+                    asyncReader.readIntMDArrayBlockWithOffset("i", new int[]
+                        { 2, 3 }, new long[]
+                        { 10, 20 });
+            final CompletableFuture<MDIntArray> missing =
+                    asyncReader.readIntMDArray("doesNotExist");
+            assertTrue(cancelled.cancel(false));
+            latch.countDown();
+
+            assertTrue(Arrays.equals(Arrays.copyOfRange(floatArray, 300, 400), block1.join()));
+            assertTrue(Arrays.equals(block1.join(), block2.join()));
+            // Coalesced requests don't share the array returned.
+            assertTrue(block1.join() != block2.join());
+            assertTrue(Arrays.equals(floatArray, all.join()));
+            assertEquals(1020, mdBlock.join().get(0, 0));
+            assertEquals(1122, mdBlock.join().get(1, 2));
+            assertTrue(cancelled.isCancelled());
+            try
+            {
+                missing.join();
+                fail("Failed to detect missing data set.");
+            } catch (CompletionException ex)
+            {
+                assertTrue(ex.getCause() instanceof HDF5LibraryException);
+            }
+
+            assertEquals(intArray, reader.async().readIntMDArray("i").join());
+
+            // Closing the reader waits for the reads queued on its I/O thread.
+            final List<CompletableFuture<float[]>> queuedReads =
+                    new ArrayList<CompletableFuture<float[]>>();
+            for (int i = 0; i < 10; ++i)
+            {
+                queuedReads.add(reader.async().readFloatArrayBlock("f", 100, i));
+            }
+            reader.close();
+            for (int i = 0; i < 10; ++i)
+            {
+                assertTrue(Arrays.equals(Arrays.copyOfRange(floatArray, 100 * i, 100 * (i + 1)),
+                        queuedReads.get(i).getNow(null)));
+            }
+        } finally
+        {
+            executor.shutdown();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testAsyncReadIsFairBetweenDataSets() throws Exception
+    {
+        final File file = new File(workingDirectory, "testAsyncReadIsFairBetweenDataSets.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.float32().writeArray("f", new float[100], FLOAT_CHUNKED);
+        writer.int32().writeArray("i", new int[10]);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final CountDownLatch latch = new CountDownLatch(1);
+            executor.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            latch.await();
+                        } catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+            final IHDF5AsyncReader asyncReader = reader.async(executor);
+            // Every completed read of "f" queues the next one, keeping the queue of "f" busy.
+            final int chainLength = 10;
+            final AtomicInteger readsOfF = new AtomicInteger();
+            final CompletableFuture<Void> chainDone = new CompletableFuture<Void>();
+            final Runnable readF = new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        final Runnable next = this;
+                        asyncReader.readFloatArrayBlock("f", 10, 0).thenRun(new Runnable()
+                            {
+                                @Override
+                                public void run()
+                                {
+                                    if (readsOfF.incrementAndGet() < chainLength)
+                                    {
+                                        next.run();
+                                    } else
+                                    {
+                                        chainDone.complete(null);
+                                    }
+                                }
+                            });
+                    }
+                };
+            readF.run();
+            final CompletableFuture<Integer> readsOfFWhenIIsRead =
+                    asyncReader.readIntArray("i").thenApply(new Function<int[], Integer>()
+                        {
+                            @Override
+                            public Integer apply(int[] data)
+                            {
+                                return readsOfF.get();
+                            }
+                        });
+            latch.countDown();
+            chainDone.join();
+            assertTrue(readsOfFWhenIIsRead.join() < chainLength);
+        } finally
+        {
+            executor.shutdown();
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testAsyncReadQueuedWhileDrainingIsServedOnClose() throws Exception
+    {
+        final File file =
+                new File(workingDirectory, "testAsyncReadQueuedWhileDrainingIsServedOnClose.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final float[] floatArray = new float[100];
+        for (int i = 0; i < floatArray.length; ++i)
+        {
+            floatArray[i] = i;
+        }
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        writer.float32().writeArray("f", floatArray, FLOAT_CHUNKED);
+        writer.close();
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final IHDF5AsyncReader asyncReader = reader.async();
+        final int numberOfQueuedReads = 5;
+        final List<CompletableFuture<float[]>> queuedReads =
+                Collections.synchronizedList(new ArrayList<CompletableFuture<float[]>>());
+        final CountDownLatch queued = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread testThread = Thread.currentThread();
+        // While the drain task of "f" serves the first read, queue more reads of "f" and block it
+        // until the reader is being closed.
+        asyncReader.readFloatArrayBlock("f", 10, 0).thenRun(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i = 0; i < numberOfQueuedReads; ++i)
+                    {
+                        queuedReads.add(asyncReader.readFloatArrayBlock("f", 10, i + 1));
+                    }
+                    queued.countDown();
+                    if (Thread.currentThread() != testThread)
+                    {
+                        try
+                        {
+                            release.await();
+                        } catch (InterruptedException ex)
+                        {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }
+            });
+        assertTrue(queued.await(10L, TimeUnit.SECONDS));
+        final Thread closer = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    reader.close();
+                }
+            });
+        closer.start();
+        // Give the closer the time to shut down the I/O thread while the drain task is active.
+        closer.join(200L);
+        release.countDown();
+        closer.join(60000L);
+        assertFalse(closer.isAlive());
+        assertEquals(numberOfQueuedReads, queuedReads.size());
+        for (int i = 0; i < numberOfQueuedReads; ++i)
+        {
+            assertTrue(Arrays.equals(Arrays.copyOfRange(floatArray, 10 * (i + 1), 10 * (i + 2)),
+                    queuedReads.get(i).join()));
         }
     }
 
-    private static void fillArray(short mult, short[] data)
+    @Test
+    public void testDataSetHandleCache()
     {
-        for (short i = 0; i < data.length; ++i)
+        final File file = new File(workingDirectory, "testDataSetHandleCache.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer =
+                HDF5FactoryProvider.get().configure(file).dataSetHandleCache(2).writer();
+        writer.float32().writeArray("g/a", new float[]
+            { 1f, 2f, 3f, 4f });
+        writer.float32().writeArray("g/b", new float[]
+            { 5f, 6f });
+        writer.float32().writeArray("c", new float[]
+            { 7f });
+        for (int i = 0; i < 4; ++i)
         {
-            data[i] = (short) (mult * i);
+            final int blockNumber = i % 2;
+            assertTrue(Arrays.equals(new float[]
+                { 2f * blockNumber + 1f, 2f * blockNumber + 2f },
+                    writer.float32().readArrayBlock("g/a", 2, blockNumber)));
+            assertTrue(Arrays.equals(new float[]
+                { 5f, 6f }, writer.float32().readArray("g/b")));
+            assertTrue(Arrays.equals(new float[]
+                { 7f }, writer.float32().readArray("/c")));
+        }
+        // Overwriting deletes the data set, so the cached handle must not be used anymore.
+        writer.float32().writeArray("g/b", new float[]
+            { 8f, 9f, 10f });
+        assertTrue(Arrays.equals(new float[]
+            { 8f, 9f, 10f }, writer.float32().readArray("g/b")));
+        writer.object().move("g", "h");
+        assertFalse(writer.exists("g/a"));
+        assertTrue(Arrays.equals(new float[]
+            { 3f, 4f }, writer.float32().readArrayBlock("h/a", 2, 1)));
+        writer.object().delete("h");
+        assertFalse(writer.exists("h/a"));
+        writer.close();
+
+        final IHDF5Reader reader =
+                HDF5FactoryProvider.get().configureForReading(file).dataSetHandleCache(1)
+                        .reader();
+        for (int i = 0; i < 3; ++i)
+        {
+            assertTrue(Arrays.equals(new float[]
+                { 7f }, reader.float32().readArrayBlockWithOffset("c", 1, 0)));
+            assertEquals(1, reader.object().getDataSetInformation("c").getNumberOfElements());
         }
+        reader.close();
     }
 
-    private static void fillArray(long mult, long[] data)
+    @Test
+    public void testConcurrentFileAccess() throws Throwable
     {
-        for (int i = 0; i < data.length; ++i)
+        final int numberOfFiles = 4;
+        final float[] dataWritten = new float[1024];
+        final File[] files = new File[numberOfFiles];
+        for (int i = 0; i < numberOfFiles; ++i)
         {
-            data[i] = mult * i;
+            files[i] = new File(workingDirectory, "concurrentFileAccess" + i + ".h5");
+            files[i].delete();
+            assertFalse(files[i].exists());
+            files[i].deleteOnExit();
+            final IHDF5Writer writer = HDF5FactoryProvider.get().open(files[i]);
+            fillArray(i + 1, dataWritten);
+            writer.float32().writeArray("ds", dataWritten);
+            writer.close();
+        }
+        final Throwable[] failures = new Throwable[numberOfFiles];
+        final Thread[] threads = new Thread[numberOfFiles];
+        for (int i = 0; i < numberOfFiles; ++i)
+        {
+            final int fileIndex = i;
+            threads[i] = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            final IHDF5Reader reader =
+                                    HDF5FactoryProvider.get().configureForReading(files[fileIndex])
+                                            .concurrentFileAccess().reader();
+                            final float[] expected = new float[dataWritten.length];
+                            fillArray(fileIndex + 1, expected);
+                            for (int j = 0; j < 100; ++j)
+                            {
+                                assertTrue(Arrays.equals(expected, reader.float32().readArray("ds")));
+                            }
+                            reader.close();
+                        } catch (Throwable th)
+                        {
+                            failures[fileIndex] = th;
+                        }
+                    }
+                });
+            threads[i].start();
+        }
+        for (int i = 0; i < numberOfFiles; ++i)
+        {
+            threads[i].join();
+            if (failures[i] != null)
+            {
+                throw failures[i];
+            }
         }
     }
 
     @Test
-    public void testFloatArrayBlockWithPreopenedDataSet()
+    public void testConcurrentFileAccessWithCallbacks() throws Throwable
     {
-        final File floatArrayFile = new File(workingDirectory, "testFloatArrayBlockWithPreopenedDataSet.h5");
-        floatArrayFile.delete();
-        assertFalse(floatArrayFile.exists());
-        floatArrayFile.deleteOnExit();
-        final IHDF5Writer writer = HDF5FactoryProvider.get().open(floatArrayFile);
-        final float[] dataWritten = new float[128];
-        writer.int32().createArray("ds", dataWritten.length);
-        try (final HDF5DataSet ds = writer.int32().createArrayAndOpen("ds", dataWritten.length))
+        final File dataFile = new File(workingDirectory, "concurrentFileAccessData.h5");
+        final File callbackFile = new File(workingDirectory, "concurrentFileAccessCallbacks.h5");
+        final int numberOfObjects = 200;
+        final float[] dataWritten = new float[4096];
+        fillArray(17, dataWritten);
+        final String[] stringsWritten = new String[numberOfObjects];
+        for (int i = 0; i < numberOfObjects; ++i)
         {
-            for (long bx = 0; bx < 8; ++bx)
-            {
-                fillArray(bx + 1, dataWritten);
-                writer.float32().writeArrayBlock(ds, dataWritten, bx);
-            }
+            stringsWritten[i] = "string " + i;
         }
-        writer.close();
+        for (File file : new File[]
+            { dataFile, callbackFile })
+        {
+            file.delete();
+            assertFalse(file.exists());
+            file.deleteOnExit();
+        }
+        final IHDF5Writer dataWriter = HDF5FactoryProvider.get().open(dataFile);
+        dataWriter.float32().writeArray("ds", dataWritten, FLOAT_CHUNKED);
+        dataWriter.close();
+        final IHDF5Writer callbackWriter = HDF5FactoryProvider.get().open(callbackFile);
+        for (int i = 0; i < numberOfObjects; ++i)
+        {
+            callbackWriter.int32().write("/g/ds" + i, i);
+        }
+        callbackWriter.string().writeArrayVL("vl", stringsWritten);
+        callbackWriter.close();
 
-        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(floatArrayFile);
-        try (final HDF5DataSet ds = reader.object().openDataSet("ds"))
+        // Readers with concurrent file access read without the global lock, while the other
+        // thread holds the HDF5 library mutex when calling back into Java and triggers garbage
+        // collections from there.
+        final int numberOfReaders = 2;
+        final Throwable[] failures = new Throwable[numberOfReaders + 1];
+        final Thread[] threads = new Thread[numberOfReaders + 1];
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        for (int i = 0; i < numberOfReaders; ++i)
         {
-            for (long bx = 0; bx < 8; ++bx)
+            final int readerIndex = i;
+            threads[i] = new Thread(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            final IHDF5Reader reader =
+                                    HDF5FactoryProvider.get().configureForReading(dataFile)
+                                            .concurrentFileAccess().reader();
+                            startSignal.await();
+                            for (int j = 0; j < 200; ++j)
+                            {
+                                assertTrue(Arrays.equals(dataWritten,
+                                        reader.float32().readArray("ds")));
+                            }
+                            reader.close();
+                        } catch (Throwable th)
+                        {
+                            failures[readerIndex] = th;
+                        }
+                    }
+                });
+        }
+        threads[numberOfReaders] = new Thread(new Runnable()
             {
-                fillArray(bx + 1, dataWritten);
-                final float[] dataRead =
-                        reader.float32().readArrayBlock(ds, dataWritten.length, bx);
-                assertTrue("" + bx, Arrays.equals(dataWritten, dataRead));
+                @Override
+                public void run()
+                {
+                    try
+                    {
+                        final IHDF5Reader reader =
+                                HDF5FactoryProvider.get().openForReading(callbackFile);
+                        startSignal.await();
+                        for (int j = 0; j < 20; ++j)
+                        {
+                            final int[] count = new int[1];
+                            reader.object().visitObjects("/g", new IHDF5ObjectVisitor()
+                                {
+                                    @Override
+                                    public boolean visit(HDF5ObjectInformation info)
+                                    {
+                                        if (++count[0] % 50 == 0)
+                                        {
+                                            System.gc();
+                                        }
+                                        return true;
+                                    }
+                                });
+                            assertEquals(numberOfObjects, count[0]);
+                            assertTrue(Arrays.equals(stringsWritten,
+                                    reader.string().readArray("vl")));
+                        }
+                        reader.close();
+                    } catch (Throwable th)
+                    {
+                        failures[numberOfReaders] = th;
+                    }
+                }
+            });
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        startSignal.countDown();
+        for (int i = 0; i < threads.length; ++i)
+        {
+            threads[i].join(60000L);
+            assertFalse("Thread " + i + " is deadlocked", threads[i].isAlive());
+            if (failures[i] != null)
+            {
+                throw failures[i];
             }
         }
-        reader.close();
     }
 
     @Test
@@ -3622,6 +4706,39 @@ public class HDF5RoundtripTest
         reader.close();
     }
 
+    @Test
+    public void testStringArrayView()
+    {
+        final File stringArrayFile = new File(workingDirectory, "stringArrayView.h5");
+        stringArrayFile.delete();
+        assertFalse(stringArrayFile.exists());
+        stringArrayFile.deleteOnExit();
+        final IHDF5Writer writer =
+                HDF5FactoryProvider.get().configure(stringArrayFile).useUTF8CharacterEncoding()
+                        .writer();
+        final String[] data = new String[]
+            { "abc", "", "ABCxxx\0" + "1", "\u00b6\u00bc\u09ab", "xyz" };
+        final String dataSetName = "/aStringArray";
+        writer.string().writeArray(dataSetName, data);
+        writer.close();
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(stringArrayFile);
+        final String[] dataZeroTerm = zeroTerm(data);
+        final HDF5StringArrayView view = reader.string().readArrayView(dataSetName);
+        assertEquals(data.length, view.size());
+        final CharSequence asciiSequence = view.getCharSequence(2);
+        assertFalse(asciiSequence instanceof String);
+        assertEquals(dataZeroTerm[2], asciiSequence.toString());
+        assertEquals("BCx", asciiSequence.subSequence(1, 4).toString());
+        assertEquals(data[3], view.getCharSequence(3));
+        assertEquals(Arrays.asList(dataZeroTerm), view);
+        assertTrue(Arrays.equals(dataZeroTerm, view.toStringArray()));
+        assertTrue(Arrays.equals(dataZeroTerm, reader.string().readArray(dataSetName)));
+        final HDF5StringArrayView blockView =
+                reader.string().readArrayViewBlockWithOffset(dataSetName, 2, 3);
+        assertEquals(Arrays.asList(data[3], data[4]), blockView);
+        reader.close();
+    }
+
     @Test
     public void testStringArrayBlockCompact()
     {
@@ -6777,6 +7894,163 @@ public class HDF5RoundtripTest
         reader.close();
     }
 
+    @Test
+    public void testMetadataCache()
+    {
+        final File file = new File(workingDirectory, "metadataCache.h5");
+        final String enumDsName = "/testEnum";
+        final String dateDsName = "/testDate";
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5Factory.configure(file).writer();
+        writer.enumeration().write(enumDsName, JavaEnum.TWO);
+        writer.time().write(dateDsName, new Date(10000L));
+        writer.float32().writeArray("/testArray", new float[3]);
+        // Writers don't cache.
+        assertTrue(writer.object().getDataSetInformation(enumDsName) != writer.object()
+                .getDataSetInformation(enumDsName));
+        writer.close();
+        final IHDF5Reader reader = HDF5Factory.openForReading(file);
+        final HDF5DataSetInformation allInfo =
+                reader.object().getDataSetInformation(enumDsName, DataTypeInfoOptions.ALL);
+        assertEquals(allInfo, reader.object().getDataSetInformation(enumDsName,
+                DataTypeInfoOptions.ALL));
+        assertEquals(JavaEnum.class.getSimpleName(), allInfo.getTypeInformation().tryGetName());
+        final DataTypeInfoOptions options = HDF5DataTypeInformation.options().path().noVariant();
+        final HDF5DataSetInformation pathInfo =
+                reader.object().getDataSetInformation(enumDsName, options);
+        assertTrue(pathInfo != allInfo);
+        // Changing the options after the call must not change the cached information.
+        options.nothing();
+        assertTrue(pathInfo.getTypeInformation().knowsDataTypePath());
+        assertEquals(JavaEnum.class.getSimpleName(), pathInfo.getTypeInformation().tryGetName());
+        final HDF5DataTypeInformation minimalInfo =
+                reader.object().getDataSetInformation(enumDsName, options).getTypeInformation();
+        assertFalse(minimalInfo.knowsDataTypePath());
+        assertNull(minimalInfo.tryGetName());
+        for (int i = 0; i < 2; ++i)
+        {
+            assertNull(reader.object().tryGetTypeVariant(enumDsName));
+            assertEquals(HDF5DataTypeVariant.TIMESTAMP_MILLISECONDS_SINCE_START_OF_THE_EPOCH,
+                    reader.object().tryGetTypeVariant(dateDsName));
+            assertEquals(new Date(10000L), reader.time().readDate(dateDsName));
+        }
+        // Changing the arrays returned must not change the cached information.
+        final HDF5DataSetInformation arrayInfo =
+                reader.object().getDataSetInformation("/testArray");
+        final long maxDimension = arrayInfo.getMaxDimensions()[0];
+        arrayInfo.getDimensions()[0] = 17;
+        arrayInfo.getMaxDimensions()[0] = 17;
+        final HDF5DataSetInformation arrayInfo2 =
+                reader.object().getDataSetInformation("/testArray");
+        assertTrue(arrayInfo != arrayInfo2);
+        assertEquals(3, arrayInfo2.getDimensions()[0]);
+        assertEquals(maxDimension, arrayInfo2.getMaxDimensions()[0]);
+        reader.close();
+    }
+
+    @Test
+    public void testAppender()
+    {
+        final File file = new File(workingDirectory, "appender.h5");
+        final String floatDsName = "/floats";
+        final String compoundDsName = "/records";
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5Factory.open(file);
+        final float[] expected = new float[1000];
+        for (int i = 0; i < expected.length; ++i)
+        {
+            expected[i] = i;
+        }
+        try (final IHDF5Appender<float[]> appender = writer.float32().createAppender(floatDsName, 64))
+        {
+            // Mix appends smaller and larger than a chunk, from offsets and from the start.
+            appender.append(expected, 0, 10);
+            appender.append(Arrays.copyOfRange(expected, 10, 210));
+            appender.append(expected, 210, 90);
+            assertEquals(300, appender.size());
+            appender.flush();
+            assertEquals(300, writer.object().getDimensions(floatDsName)[0]);
+            assertTrue(Arrays.equals(Arrays.copyOf(expected, 300),
+                    writer.float32().readArray(floatDsName)));
+            appender.append(Arrays.copyOfRange(expected, 300, 428));
+            appender.append(expected, 428, 572);
+            assertEquals(expected.length, appender.size());
+        }
+        final HDF5CompoundType<SimpleRecordWithStringsAndInts> type =
+                writer.compound().getInferredType(SimpleRecordWithStringsAndInts.class);
+        final IHDF5Appender<SimpleRecordWithStringsAndInts[]> compoundAppender =
+                writer.compound().createAppender(compoundDsName, type, 4);
+        final SimpleRecordWithStringsAndInts[] records = new SimpleRecordWithStringsAndInts[11];
+        for (int i = 0; i < records.length; ++i)
+        {
+            records[i] = new SimpleRecordWithStringsAndInts("a" + i, i, "b" + i, -i);
+            compoundAppender.append(new SimpleRecordWithStringsAndInts[]
+                { records[i] });
+        }
+        // The writer closes the appender.
+        writer.close();
+        final IHDF5Reader reader = HDF5Factory.openForReading(file);
+        assertEquals(expected.length, reader.object().getDimensions(floatDsName)[0]);
+        assertTrue(Arrays.equals(expected, reader.float32().readArray(floatDsName)));
+        assertTrue(Arrays.equals(records, reader.compound().readArray(compoundDsName,
+                reader.compound().getInferredType(SimpleRecordWithStringsAndInts.class))));
+        reader.close();
+    }
+
+    @Test
+    public void testMemoryMappedRead()
+    {
+        final File file = new File(workingDirectory, "memoryMappedRead.h5");
+        final String contiguousDsName = "/contiguous";
+        final String chunkedDsName = "/chunked";
+        final String matrixDsName = "/matrix";
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final float[] data = new float[1000];
+        for (int i = 0; i < data.length; ++i)
+        {
+            data[i] = i / 10f;
+        }
+        final int[][] matrix = new int[][]
+            {
+                { 1, 2, 3 },
+                { 4, 5, 6 } };
+        final IHDF5Writer writer = HDF5Factory.open(file);
+        writer.float32().writeArray(contiguousDsName, data,
+                HDF5FloatStorageFeatures.FLOAT_CONTIGUOUS);
+        writer.float32().writeArray(chunkedDsName, data, FLOAT_CHUNKED);
+        writer.int32().writeMatrix(matrixDsName, matrix, HDF5IntStorageFeatures.INT_CONTIGUOUS);
+        writer.close();
+        final IHDF5Reader reader =
+                HDF5Factory.configureForReading(file).memoryMapContiguousDataSets().reader();
+        final FloatBuffer mapped = reader.float32().tryMapArray(contiguousDsName);
+        assertNotNull(mapped);
+        assertEquals(data.length, mapped.remaining());
+        assertEquals(data[999], mapped.get(999));
+        // Mapped data sets can't be read with a different data type.
+        assertNull(reader.float64().tryMapArray(contiguousDsName));
+        assertNull(reader.float32().tryMapArray(chunkedDsName));
+        final FloatBuffer block = reader.float32().tryMapArrayBlockWithOffset(contiguousDsName,
+                100, 950);
+        assertEquals(50, block.remaining());
+        assertEquals(data[950], block.get(0));
+        assertTrue(Arrays.equals(data, reader.float32().readArray(contiguousDsName)));
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data, 10, 30),
+                reader.float32().readArrayBlockWithOffset(contiguousDsName, 20, 10)));
+        assertTrue(Arrays.equals(Arrays.copyOfRange(data, 990, 1000),
+                reader.float32().readArrayBlockWithOffset(contiguousDsName, 20, 990)));
+        assertTrue(Arrays.equals(data, reader.float32().readArray(chunkedDsName)));
+        assertTrue(Arrays.equals(new int[]
+            { 1, 2, 3, 4, 5, 6 }, reader.int32().readArray(matrixDsName)));
+        assertTrue(Arrays.deepEquals(matrix, reader.int32().readMatrix(matrixDsName)));
+        reader.close();
+    }
+
     enum JavaEnum
     {
         ONE, TWO, THREE
@@ -11085,6 +12359,297 @@ public class HDF5RoundtripTest
         }
     }
 
+    @Test
+    public void testCompoundTypeCache()
+    {
+        final File file = new File(workingDirectory, "compoundTypeCache.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        final SimpleRecord[] records = new SimpleRecord[]
+            { new SimpleRecord(2.2f, 17, (short) 10, "test"),
+                    new SimpleRecord(-1.5f, 42, (short) 3, "some") };
+        writer.compound().writeArray("sc", records);
+        writer.compound().writeArray("sc2", records);
+        writer.compound().write("other", new SimpleInheretingRecord(-3.1f, 42, (short) 17,
+                "some", new long[][]
+                    {
+                        { 1, 2, 3 },
+                        { 4, 5, 6 } }));
+        writer.close();
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final HDF5CompoundType<SimpleRecord> type =
+                reader.compound().getDataSetType("sc", SimpleRecord.class);
+        assertTrue(type == reader.compound().getDataSetType("sc", SimpleRecord.class));
+        // Same on-disk type, so the same type can be used.
+        assertTrue(type == reader.compound().getDataSetType("sc2", SimpleRecord.class));
+        assertFalse(type == reader.compound().getDataSetType("sc", SimpleRecord.class,
+                new HDF5CompoundMappingHints().useVariableLengthStrings()));
+        assertFalse(type == reader.compound().getDataSetType("sc", SimpleRecord.class,
+                (HDF5CompoundMappingHints) null, false));
+        assertTrue(reader.compound().getInferredType(SimpleRecord.class) == reader.compound()
+                .getInferredType(SimpleRecord.class));
+        for (int i = 0; i < 3; ++i)
+        {
+            assertTrue(Arrays.equals(records,
+                    reader.compound().readArray("sc", SimpleRecord.class)));
+        }
+        assertEquals(HDF5DataTypeVariant.TIME_DURATION_SECONDS,
+                type.getCompoundMemberInformation()[2].getType().tryGetTypeVariant());
+        // Different on-disk type, so a different type is needed.
+        final HDF5CompoundType<SimpleInheretingRecord> otherType =
+                reader.compound().getDataSetType("other", SimpleInheretingRecord.class);
+        assertTrue(otherType == reader.compound().getDataSetType("other",
+                SimpleInheretingRecord.class));
+        assertEquals(-3.1f, reader.compound().read("other", otherType).getF());
+        reader.close();
+    }
+
+    @Test
+    public void testReadCompoundColumns()
+    {
+        final File file = new File(workingDirectory, "compoundColumns.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        final SimpleRecord[] records = new SimpleRecord[100];
+        for (int i = 0; i < records.length; ++i)
+        {
+            records[i] = new SimpleRecord(i / 2f, 1000 + i, (short) -i, "s" + i);
+        }
+        writer.compound().writeArray("sc", records);
+        writer.close();
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final Map<String, Object> columns = reader.compound().readColumns("sc", "s", "f", "d");
+        assertEquals(Arrays.asList("s", "f", "d"), new ArrayList<String>(columns.keySet()));
+        final String[] s = (String[]) columns.get("s");
+        final float[] f = (float[]) columns.get("f");
+        final short[] d = (short[]) columns.get("d");
+        assertEquals(records.length, s.length);
+        for (int i = 0; i < records.length; ++i)
+        {
+            assertEquals(records[i].getS(), s[i]);
+            assertEquals(records[i].getF(), f[i]);
+            assertEquals(records[i].getD(), d[i]);
+        }
+        final Map<String, Object> block =
+                reader.compound().readColumnsBlock("sc", new String[]
+                    { "i" }, 10, 3);
+        final int[] i = (int[]) block.get("i");
+        assertEquals(10, i.length);
+        assertEquals(1030, i[0]);
+        assertEquals(1039, i[9]);
+        final Map<String, Object> blockWithOffset =
+                reader.compound().readColumnsBlockWithOffset("sc", new String[]
+                    { "i", "s" }, 5, 97);
+        assertTrue(Arrays.equals(new int[]
+            { 1097, 1098, 1099 }, (int[]) blockWithOffset.get("i")));
+        assertTrue(Arrays.equals(new String[]
+            { "s97", "s98", "s99" }, (String[]) blockWithOffset.get("s")));
+        try
+        {
+            reader.compound().readColumns("sc", "doesNotExist");
+            fail("Expected HDF5JavaException for a non-existing member.");
+        } catch (HDF5JavaException ex)
+        {
+            assertEquals("Data set 'sc' has no compound member 'doesNotExist'.", ex.getMessage());
+        }
+        reader.close();
+    }
+
+    static class ColumnsRecord
+    {
+        byte b;
+
+        long l;
+
+        double x;
+
+        boolean flag;
+
+        FruitEnum fruit;
+
+        @CompoundElement(variableLength = true)
+        String vl;
+
+        ColumnsRecord()
+        {
+        }
+
+        ColumnsRecord(byte b, long l, double x, boolean flag, FruitEnum fruit, String vl)
+        {
+            this.b = b;
+            this.l = l;
+            this.x = x;
+            this.flag = flag;
+            this.fruit = fruit;
+            this.vl = vl;
+        }
+    }
+
+    @Test
+    public void testReadCompoundColumnsOfAllTypes()
+    {
+        final File file = new File(workingDirectory, "compoundColumnsOfAllTypes.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        final ColumnsRecord[] records = new ColumnsRecord[50];
+        for (int i = 0; i < records.length; ++i)
+        {
+            records[i] =
+                    new ColumnsRecord((byte) -i, Long.MAX_VALUE - i, i / 3.0, i % 3 == 0,
+                            FruitEnum.values()[i % 3], StringUtils.repeat("v", i));
+        }
+        writer.compound().writeArray("cr", records);
+        writer.close();
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final Map<String, Object> columns =
+                reader.compound().readColumns("cr", "vl", "fruit", "flag", "l", "b", "x");
+        final String[] vl = (String[]) columns.get("vl");
+        final String[] fruit = (String[]) columns.get("fruit");
+        final boolean[] flag = (boolean[]) columns.get("flag");
+        final long[] l = (long[]) columns.get("l");
+        final byte[] b = (byte[]) columns.get("b");
+        final double[] x = (double[]) columns.get("x");
+        assertEquals(records.length, vl.length);
+        for (int i = 0; i < records.length; ++i)
+        {
+            assertEquals(records[i].vl, vl[i]);
+            assertEquals(records[i].fruit.name(), fruit[i]);
+            assertEquals(records[i].flag, flag[i]);
+            assertEquals(records[i].l, l[i]);
+            assertEquals(records[i].b, b[i]);
+            assertEquals(records[i].x, x[i]);
+        }
+        final Map<String, Object> block =
+                reader.compound().readColumnsBlockWithOffset("cr", new String[]
+                    { "fruit", "vl" }, 10, 45);
+        assertTrue(Arrays.equals(new String[]
+            { "APPLE", "ORANGE", "CHERRY", "APPLE", "ORANGE" }, (String[]) block.get("fruit")));
+        assertEquals(StringUtils.repeat("v", 49), ((String[]) block.get("vl"))[4]);
+        reader.close();
+    }
+
+    @Test
+    public void testReadCompoundColumnsNonSuccessiveEnum()
+    {
+        final File file = new File(workingDirectory, "compoundColumnsNonSuccessiveEnum.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        // HDF5 files written by other tools may have enums with arbitrary values.
+        final long fileId =
+                H5.H5Fcreate(file.getAbsolutePath(), HDF5Constants.H5F_ACC_TRUNC,
+                        HDF5Constants.H5P_DEFAULT, HDF5Constants.H5P_DEFAULT);
+        final long enumTypeId = H5.H5Tenum_create(HDF5Constants.H5T_NATIVE_INT32);
+        H5.H5Tenum_insert(enumTypeId, "A", 10);
+        H5.H5Tenum_insert(enumTypeId, "B", 20);
+        H5.H5Tenum_insert(enumTypeId, "C", -5);
+        final long compoundTypeId = H5.H5Tcreate(HDF5Constants.H5T_COMPOUND, 8);
+        H5.H5Tinsert(compoundTypeId, "i", 0, HDF5Constants.H5T_NATIVE_INT32);
+        H5.H5Tinsert(compoundTypeId, "e", 4, enumTypeId);
+        final long spaceId = H5.H5Screate_simple(1, new long[]
+            { 3 }, null);
+        final long dataSetId =
+                H5.H5Dcreate(fileId, "ce", compoundTypeId, spaceId, HDF5Constants.H5P_DEFAULT,
+                        HDF5Constants.H5P_DEFAULT, HDF5Constants.H5P_DEFAULT);
+        final ByteBuffer data = ByteBuffer.allocate(24).order(java.nio.ByteOrder.nativeOrder());
+        data.putInt(1).putInt(20).putInt(2).putInt(-5).putInt(3).putInt(10);
+        H5.H5Dwrite(dataSetId, compoundTypeId, HDF5Constants.H5S_ALL, HDF5Constants.H5S_ALL,
+                HDF5Constants.H5P_DEFAULT, data.array());
+        H5.H5Dclose(dataSetId);
+        H5.H5Sclose(spaceId);
+        H5.H5Tclose(compoundTypeId);
+        H5.H5Tclose(enumTypeId);
+        H5.H5Fclose(fileId);
+
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final Map<String, Object> columns = reader.compound().readColumns("ce", "e", "i");
+        assertTrue(Arrays.equals(new String[]
+            { "B", "C", "A" }, (String[]) columns.get("e")));
+        assertTrue(Arrays.equals(new int[]
+            { 1, 2, 3 }, (int[]) columns.get("i")));
+        reader.close();
+    }
+
+    @Test
+    public void testCompoundCursor()
+    {
+        final File file = new File(workingDirectory, "compoundCursor.h5");
+        file.delete();
+        assertFalse(file.exists());
+        file.deleteOnExit();
+        final IHDF5Writer writer = HDF5FactoryProvider.get().open(file);
+        final SimpleRecord[] records = new SimpleRecord[1000];
+        for (int i = 0; i < records.length; ++i)
+        {
+            records[i] = new SimpleRecord(i / 4f, -i, (short) (i % 100), "r" + (i % 1000));
+        }
+        writer.compound().writeArray("sc", records);
+        writer.close();
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(file);
+        final HDF5CompoundType<SimpleRecord> type =
+                reader.compound().getDataSetType("sc", SimpleRecord.class);
+        try (final IHDF5CompoundCursor<SimpleRecord> cursor =
+                reader.compound().getCursor("sc", type, 64))
+        {
+            assertEquals(records.length, cursor.getNumberOfRecords());
+            final int fIdx = cursor.getMemberIndex("f");
+            final int iIdx = cursor.getMemberIndex("i");
+            final int dIdx = cursor.getMemberIndex("d");
+            final int sIdx = cursor.getMemberIndex("s");
+            final SimpleRecord record = new SimpleRecord();
+            int count = 0;
+            while (cursor.next())
+            {
+                assertEquals(count, cursor.getIndex());
+                assertEquals(records[count].getF(), cursor.getFloat(fIdx));
+                assertEquals(records[count].getF(), cursor.getDouble(fIdx), 0f);
+                assertEquals(records[count].getI(), cursor.getInt(iIdx));
+                assertEquals(records[count].getI(), cursor.getLong(iIdx));
+                assertEquals(records[count].getD(), cursor.getShort(dIdx));
+                assertEquals(records[count].getS(), cursor.getString(sIdx));
+                assertTrue(record == cursor.get(record));
+                assertEquals(records[count], record);
+                ++count;
+            }
+            assertEquals(records.length, count);
+            assertFalse(cursor.next());
+            try
+            {
+                cursor.getFloat(fIdx);
+                fail("Expected NoSuchElementException after the last record.");
+            } catch (NoSuchElementException ex)
+            {
+                // Expected.
+            }
+        }
+        try (final IHDF5CompoundCursor<SimpleRecord> cursor =
+                reader.compound().getCursor("sc", SimpleRecord.class))
+        {
+            assertTrue(cursor.next());
+            try
+            {
+                cursor.getFloat(cursor.getMemberIndex("i"));
+                fail("Expected HDF5JavaException for reading an int member as float.");
+            } catch (HDF5JavaException ex)
+            {
+                // Expected.
+            }
+            long sum = 0;
+            do
+            {
+                sum += cursor.getInt(cursor.getMemberIndex("i"));
+            } while (cursor.next());
+            assertEquals(-(records.length * (records.length - 1L)) / 2, sum);
+        }
+        reader.close();
+    }
+
     @Test
     public void testInferredCompoundType()
     {
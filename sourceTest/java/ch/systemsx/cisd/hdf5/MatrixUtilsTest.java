@@ -53,4 +53,21 @@ public class MatrixUtilsTest
         assertFalse(MatrixUtils.incrementIdx(idx, blockDims, offset));
     }
 
+    @Test
+    public void testCopyRegion()
+    {
+        // 3 x 4 source, values are 10 * row + column
+        final int[] source = new int[]
+            { 0, 1, 2, 3, 10, 11, 12, 13, 20, 21, 22, 23 };
+        final int[] target = new int[3 * 5];
+        MatrixUtils.copyRegion(source, new int[]
+            { 3, 4 }, new int[]
+            { 1, 2 }, target, new int[]
+            { 3, 5 }, new int[]
+            { 0, 3 }, new int[]
+            { 2, 2 });
+        assertTrue(Arrays.toString(target), Arrays.equals(new int[]
+            { 0, 0, 0, 12, 13, 0, 0, 0, 22, 23, 0, 0, 0, 0, 0 }, target));
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2007 - 2018 ETH Zuerich, CISD and SIS.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ch.systemsx.cisd.hdf5.cleanup;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test cases for {@link CleanUpCallable} and {@link CleanUpRegistry}.
+ * 
+ * @author Bernd Rinn
+ */
+public class CleanUpCallableTest
+{
+
+    private static Runnable record(final List<Integer> log, final int value)
+    {
+        return new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    log.add(value);
+                }
+            };
+    }
+
+    @Test
+    public void testCleanUpInReverseOrder()
+    {
+        final List<Integer> log = new ArrayList<Integer>();
+        final CleanUpRegistry registry = new CleanUpRegistry();
+        for (int i = 0; i < 20; ++i)
+        {
+            registry.registerCleanUp(record(log, i));
+        }
+        registry.cleanUp(false);
+        assertEquals(20, log.size());
+        for (int i = 0; i < 20; ++i)
+        {
+            assertEquals(19 - i, log.get(i).intValue());
+        }
+        log.clear();
+        registry.cleanUp(false);
+        assertEquals(0, log.size());
+    }
+
+    @Test
+    public void testFirstExceptionIsRethrownAfterAllCleanUps()
+    {
+        final List<Integer> log = new ArrayList<Integer>();
+        final CleanUpRegistry registry = new CleanUpRegistry();
+        registry.registerCleanUp(record(log, 1));
+        registry.registerCleanUp(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    throw new IllegalStateException("first");
+                }
+            });
+        registry.registerCleanUp(record(log, 2));
+        try
+        {
+            registry.cleanUp(false);
+            fail("Exception during clean-up not re-thrown.");
+        } catch (IllegalStateException ex)
+        {
+            assertEquals("first", ex.getMessage());
+        }
+        assertEquals(Arrays.asList(2, 1), log);
+    }
+
+    @Test
+    public void testRegistryIsReusedAndNestedCallsGetTheirOwn()
+    {
+        final CleanUpCallable runner = new CleanUpCallable();
+        final List<Integer> log = new ArrayList<Integer>();
+        final ICleanUpRegistry[] registries = new ICleanUpRegistry[3];
+        runner.call(new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry outer)
+                {
+                    registries[0] = outer;
+                    outer.registerCleanUp(record(log, 1));
+                    runner.call(new ICallableWithCleanUp<Void>()
+                        {
+                            @Override
+                            public Void call(ICleanUpRegistry inner)
+                            {
+                                registries[1] = inner;
+                                inner.registerCleanUp(record(log, 2));
+                                return null;
+                            }
+                        });
+                    assertEquals(Arrays.asList(2), log);
+                    return null;
+                }
+            });
+        assertEquals(Arrays.asList(2, 1), log);
+        assertNotSame(registries[0], registries[1]);
+        runner.call(new ICallableWithCleanUp<Void>()
+            {
+                @Override
+                public Void call(ICleanUpRegistry registry)
+                {
+                    registries[2] = registry;
+                    return null;
+                }
+            });
+        assertSame(registries[0], registries[2]);
+    }
+
+}
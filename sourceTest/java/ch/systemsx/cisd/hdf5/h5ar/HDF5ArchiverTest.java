@@ -28,8 +28,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
@@ -43,6 +47,8 @@ import ch.systemsx.cisd.base.unix.Unix;
 import ch.systemsx.cisd.base.unix.Unix.Stat;
 import ch.systemsx.cisd.base.utilities.OSUtilities;
 import ch.systemsx.cisd.hdf5.HDF5Factory;
+import ch.systemsx.cisd.hdf5.HDF5FactoryProvider;
+import ch.systemsx.cisd.hdf5.IHDF5Reader;
 import ch.systemsx.cisd.hdf5.IHDF5Writer;
 import ch.systemsx.cisd.hdf5.IHDF5WriterConfigurator.FileFormatVersionBounds;
 
@@ -699,6 +705,347 @@ public class HDF5ArchiverTest
         ra.close();
     }
 
+    /**
+     * Creates a directory tree with small files of which some are compressible and some are not.
+     */
+    private File createTreeOfSmallFiles(String name) throws IOException
+    {
+        final File dir = new File(workingDirectory, name);
+        deleteAll(dir);
+        final Random random = new Random(42L);
+        for (int d = 0; d < 10; ++d)
+        {
+            final File subDir = new File(dir, "dir" + d + "/sub");
+            subDir.mkdirs();
+            for (int f = 0; f < 20; ++f)
+            {
+                final byte[] content = new byte[random.nextInt(3 * 4096)];
+                if (f % 2 == 0)
+                {
+                    random.nextBytes(content);
+                } else
+                {
+                    Arrays.fill(content, (byte) f);
+                }
+                FileUtils.writeByteArrayToFile(new File((f % 3 == 0) ? subDir
+                        : subDir.getParentFile(), "file" + f), content);
+            }
+        }
+        new File(dir, "emptyDir").mkdir();
+        return dir;
+    }
+
+    @Test
+    public void testArchiveWithSeveralThreads() throws IOException
+    {
+        final File dir = createTreeOfSmallFiles("severalThreads");
+        final File h5arfile = new File(workingDirectory, "testArchiveWithSeveralThreads.h5ar");
+        h5arfile.delete();
+        h5arfile.deleteOnExit();
+        final AtomicInteger entryCount = new AtomicInteger(0);
+        final ArchivingStrategy strategy =
+                new ArchivingStrategy(ArchivingStrategy.DEFAULT).compressAll().threads(4);
+        HDF5ArchiverFactory.open(h5arfile)
+                .archiveFromFilesystem(dir, strategy, true, new IArchiveEntryVisitor()
+                    {
+                        @Override
+                        public void visit(ArchiveEntry entry)
+                        {
+                            entryCount.incrementAndGet();
+                        }
+                    }).close();
+        // The root, 10 directories with a sub-directory each, 200 files and the empty directory.
+        assertEquals(222, entryCount.get());
+        final IHDF5ArchiveReader ar = HDF5ArchiverFactory.openForReading(h5arfile);
+        assertTrue(ar.test().isEmpty());
+        assertTrue(ar.verifyAgainstFilesystem(dir).isEmpty());
+        assertEquals(222, ar.list("/").size());
+        final File extracted = new File(workingDirectory, "severalThreadsExtracted");
+        deleteAll(extracted);
+        ar.extractToFilesystem(extracted, "/");
+        ar.close();
+        for (int f = 0; f < 20; ++f)
+        {
+            final String path = "severalThreads/dir7/" + ((f % 3 == 0) ? "sub/" : "") + "file" + f;
+            assertTrue(path, Arrays.equals(FileUtils.readFileToByteArray(new File(
+                    workingDirectory, path)), FileUtils.readFileToByteArray(new File(extracted,
+                    path))));
+        }
+    }
+
+    @Test
+    public void testVerifyAndExtractWithSeveralThreads() throws IOException
+    {
+        final File dir = createTreeOfSmallFiles("severalThreadsVerifyExtract");
+        final File h5arfile =
+                new File(workingDirectory, "testVerifyAndExtractWithSeveralThreads.h5ar");
+        h5arfile.delete();
+        h5arfile.deleteOnExit();
+        HDF5ArchiverFactory.open(h5arfile).archiveFromFilesystem(dir).close();
+        final IHDF5ArchiveReader ar = HDF5ArchiverFactory.openForReading(h5arfile);
+        final List<String> expectedPaths = new ArrayList<String>();
+        for (ArchiveEntry entry : ar.list("/"))
+        {
+            expectedPaths.add(entry.getPath());
+        }
+        assertEquals(222, expectedPaths.size());
+        final File extracted = new File(workingDirectory, "severalThreadsVerifyExtractExtracted");
+        deleteAll(extracted);
+        final List<String> extractedPaths = new ArrayList<String>();
+        ar.extractToFilesystem(extracted, "/", new ArchivingStrategy().threads(4),
+                new IArchiveEntryVisitor()
+                    {
+                        @Override
+                        public void visit(ArchiveEntry entry)
+                        {
+                            assertTrue(entry.getPath(), entry.isOK());
+                            extractedPaths.add(entry.getPath());
+                        }
+                    });
+        assertEquals(expectedPaths, extractedPaths);
+        final List<String> verifiedPaths = new ArrayList<String>();
+        ar.verifyAgainstFilesystem("/", extracted, new IArchiveEntryVisitor()
+            {
+                @Override
+                public void visit(ArchiveEntry entry)
+                {
+                    assertTrue(entry.getStatus(true), entry.isOK());
+                    verifiedPaths.add(entry.getPath());
+                }
+            }, VerifyParameters.build().verifyAttributes().threads(4).get());
+        assertEquals(expectedPaths, verifiedPaths);
+        final String modifiedPath = "severalThreadsVerifyExtract/dir3/file4";
+        FileUtils.writeByteArrayToFile(new File(extracted, modifiedPath), new byte[] { 1, 2, 3 });
+        final List<ArchiveEntry> errors =
+                ar.verifyAgainstFilesystem("/", extracted,
+                        VerifyParameters.build().threads(4).get());
+        ar.close();
+        assertEquals(1, errors.size());
+        assertEquals("/" + modifiedPath, errors.get(0).getPath());
+        for (int f = 0; f < 20; ++f)
+        {
+            final String path =
+                    "severalThreadsVerifyExtract/dir5/" + ((f % 3 == 0) ? "sub/" : "") + "file"
+                            + f;
+            assertTrue(path, Arrays.equals(FileUtils.readFileToByteArray(new File(
+                    workingDirectory, path)), FileUtils.readFileToByteArray(new File(extracted,
+                    path))));
+        }
+    }
+
+    @Test
+    public void testPathIndex()
+    {
+        workingDirectory.mkdirs();
+        final File h5arfile = new File(workingDirectory, "testPathIndex.h5ar");
+        h5arfile.delete();
+        h5arfile.deleteOnExit();
+        final IHDF5Archiver a = HDF5ArchiverFactory.open(h5arfile);
+        for (int d = 0; d < 5; ++d)
+        {
+            for (int f = 0; f < 10; ++f)
+            {
+                a.archiveFile(NewArchiveEntry.file("/a/b" + d + "/c", "file" + f).lastModified(
+                        1000000L + f), ("content " + d + "/" + f).getBytes());
+            }
+        }
+        a.archiveSymlink(NewArchiveEntry.symlink("/a/link", "b3/c/file7"));
+        a.writePathIndex();
+        a.close();
+
+        final IHDF5ArchiveReader ra = HDF5ArchiverFactory.openForReading(h5arfile);
+        final ArchiveEntry entry = ra.tryGetEntry("/a/b3/c/file7", false);
+        assertNotNull(entry);
+        assertTrue(entry.isRegularFile());
+        assertEquals("/a/b3/c", entry.getParentPath());
+        assertEquals("file7", entry.getName());
+        assertEquals("content 3/7".length(), entry.getSize());
+        assertEquals(1000007L, entry.getLastModified());
+        assertEquals("content 3/7", new String(ra.extractFileAsByteArray("/a/b3/c/file7")));
+        assertTrue(ra.isDirectory("/a/b2"));
+        assertTrue(ra.isSymLink("/a/link"));
+        assertEquals("b3/c/file7", ra.tryGetEntry("/a/link", true).getLinkTarget());
+        assertFalse(ra.exists("/a/b2/c/file10"));
+        assertNull(ra.tryGetEntry("/a/b7", false));
+        ra.close();
+
+        // Modify the archive without writing the path index anew.
+        final IHDF5Archiver a2 = HDF5ArchiverFactory.open(h5arfile);
+        a2.delete("/a/b3/c/file7");
+        a2.archiveFile(NewArchiveEntry.file("/a/b3/c", "file8").lastModified(2000000L),
+                "changed".getBytes());
+        a2.close();
+        final IHDF5ArchiveReader ra2 = HDF5ArchiverFactory.openForReading(h5arfile);
+        assertNull(ra2.tryGetEntry("/a/b3/c/file7", false));
+        assertEquals(2000000L, ra2.tryGetEntry("/a/b3/c/file8", false).getLastModified());
+        assertEquals("changed", new String(ra2.extractFileAsByteArray("/a/b3/c/file8")));
+        assertEquals(1000007L, ra2.tryGetEntry("/a/b4/c/file7", false).getLastModified());
+        assertTrue(ra2.test().isEmpty());
+        ra2.close();
+    }
+
+    private File createTreeWithDuplicates(String name) throws IOException
+    {
+        final File dir = new File(workingDirectory, name);
+        deleteAll(dir);
+        final Random random = new Random(17L);
+        final byte[] smallContent = new byte[5000];
+        random.nextBytes(smallContent);
+        final byte[] largeContent = new byte[2 * 1024 * 1024];
+        random.nextBytes(largeContent);
+        for (int c = 0; c < 4; ++c)
+        {
+            final File copyDir = new File(dir, "copy" + c);
+            copyDir.mkdirs();
+            FileUtils.writeByteArrayToFile(new File(copyDir, "small"), smallContent);
+            FileUtils.writeByteArrayToFile(new File(copyDir, "large"), largeContent);
+            FileUtils.writeStringToFile(new File(copyDir, "unique"), "copy " + c,
+                    StandardCharsets.UTF_8);
+        }
+        return dir;
+    }
+
+    @Test
+    public void testDeduplicate() throws IOException
+    {
+        final File dir = createTreeWithDuplicates("deduplicate");
+        final File plainFile = new File(workingDirectory, "testDeduplicatePlain.h5ar");
+        plainFile.delete();
+        plainFile.deleteOnExit();
+        HDF5ArchiverFactory.open(plainFile).archiveFromFilesystem(dir).close();
+        final File dedupFile = new File(workingDirectory, "testDeduplicate.h5ar");
+        dedupFile.delete();
+        dedupFile.deleteOnExit();
+        HDF5ArchiverFactory.open(dedupFile)
+                .archiveFromFilesystem(dir, new ArchivingStrategy().deduplicate()).close();
+        final File dedupThreadsFile =
+                new File(workingDirectory, "testDeduplicateSeveralThreads.h5ar");
+        dedupThreadsFile.delete();
+        dedupThreadsFile.deleteOnExit();
+        HDF5ArchiverFactory.open(dedupThreadsFile)
+                .archiveFromFilesystem(dir, new ArchivingStrategy().deduplicate().threads(4))
+                .close();
+        // Three copies of the large file are not stored.
+        assertTrue(dedupFile.length() < plainFile.length() - 5 * 1024 * 1024);
+        assertTrue(dedupThreadsFile.length() < plainFile.length() - 5 * 1024 * 1024);
+
+        for (File file : new File[]
+            { dedupFile, dedupThreadsFile })
+        {
+            final IHDF5ArchiveReader ar = HDF5ArchiverFactory.openForReading(file);
+            assertTrue(ar.test().isEmpty());
+            assertTrue(ar.verifyAgainstFilesystem("/", workingDirectory,
+                    VerifyParameters.build().verifyAttributes().get()).isEmpty());
+            for (int c = 0; c < 4; ++c)
+            {
+                for (String name : new String[]
+                    { "small", "large", "unique" })
+                {
+                    final String path = "deduplicate/copy" + c + "/" + name;
+                    assertTrue(path, Arrays.equals(FileUtils.readFileToByteArray(new File(
+                            workingDirectory, path)), ar.extractFileAsByteArray(path)));
+                }
+            }
+            ar.close();
+        }
+
+        final byte[] smallContent =
+                FileUtils.readFileToByteArray(new File(dir, "copy0/small"));
+        final IHDF5Archiver a = HDF5ArchiverFactory.open(dedupFile);
+        a.delete("/deduplicate/copy0/large");
+        a.delete("/deduplicate/copy1");
+        a.archiveFile(NewArchiveEntry.file("/added", "small").deduplicate(), smallContent);
+        a.archiveFile(NewArchiveEntry.file("/deduplicate/copy2", "small").deduplicate(),
+                "changed".getBytes());
+        a.close();
+        final IHDF5ArchiveReader ra = HDF5ArchiverFactory.openForReading(dedupFile);
+        assertTrue(ra.test().isEmpty());
+        assertFalse(ra.exists("/deduplicate/copy0/large"));
+        assertFalse(ra.exists("/deduplicate/copy1"));
+        assertTrue(Arrays.equals(FileUtils.readFileToByteArray(new File(dir, "copy0/large")),
+                ra.extractFileAsByteArray("/deduplicate/copy2/large")));
+        assertTrue(Arrays.equals(smallContent, ra.extractFileAsByteArray("/added/small")));
+        assertTrue(Arrays.equals(smallContent,
+                ra.extractFileAsByteArray("/deduplicate/copy3/small")));
+        assertEquals("changed", new String(ra.extractFileAsByteArray("/deduplicate/copy2/small")));
+        ra.close();
+
+        // Overwriting the last files with the large content without deduplication releases it.
+        final int numberOfContents = getContentPaths(dedupFile).size();
+        final IHDF5Archiver a2 = HDF5ArchiverFactory.open(dedupFile);
+        a2.archiveFile(NewArchiveEntry.file("/deduplicate/copy2", "large"), "plain2".getBytes());
+        a2.archiveFile(NewArchiveEntry.file("/deduplicate/copy3", "large"), "plain3".getBytes());
+        a2.close();
+        assertEquals(numberOfContents - 1, getContentPaths(dedupFile).size());
+        final IHDF5ArchiveReader ra2 = HDF5ArchiverFactory.openForReading(dedupFile);
+        assertTrue(ra2.test().isEmpty());
+        assertEquals("plain2", new String(ra2.extractFileAsByteArray("/deduplicate/copy2/large")));
+        assertEquals("plain3", new String(ra2.extractFileAsByteArray("/deduplicate/copy3/large")));
+        ra2.close();
+    }
+
+    private static List<String> getContentPaths(File archiveFile)
+    {
+        final IHDF5Reader reader = HDF5FactoryProvider.get().openForReading(archiveFile);
+        try
+        {
+            for (String member : reader.object().getAllGroupMembers("/"))
+            {
+                if (member.startsWith("CONTENT"))
+                {
+                    return reader.object().getAllGroupMembers("/" + member);
+                }
+            }
+            return Collections.emptyList();
+        } finally
+        {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testExtractWithSeveralThreadsVisitsInArchiveOrder() throws IOException
+    {
+        final File dir = new File(workingDirectory, "severalThreadsVisitOrder");
+        deleteAll(dir);
+        dir.mkdirs();
+        // Many small files in one directory, so that a lot of write tasks are pending at a time.
+        for (int f = 0; f < 100; ++f)
+        {
+            FileUtils.writeByteArrayToFile(new File(dir, String.format("file%03d", f)),
+                    new byte[] { (byte) f });
+        }
+        final File h5arfile = new File(workingDirectory, "testSeveralThreadsVisitOrder.h5ar");
+        h5arfile.delete();
+        h5arfile.deleteOnExit();
+        HDF5ArchiverFactory.open(h5arfile).archiveFromFilesystem(dir).close();
+        final IHDF5ArchiveReader ar = HDF5ArchiverFactory.openForReading(h5arfile);
+        final List<String> expectedPaths = new ArrayList<String>();
+        for (ArchiveEntry entry : ar.list("/"))
+        {
+            expectedPaths.add(entry.getPath());
+        }
+        assertEquals(102, expectedPaths.size());
+        for (int run = 0; run < 3; ++run)
+        {
+            final File extracted = new File(workingDirectory, "severalThreadsVisitOrderExtracted");
+            deleteAll(extracted);
+            final List<String> visitedPaths = new ArrayList<String>();
+            ar.extractToFilesystem(extracted, "/", new ArchivingStrategy().threads(4),
+                    new IArchiveEntryVisitor()
+                        {
+                            @Override
+                            public void visit(ArchiveEntry entry)
+                            {
+                                assertTrue(entry.getPath(), entry.isOK());
+                                visitedPaths.add(entry.getPath());
+                            }
+                        });
+            assertEquals(expectedPaths, visitedPaths);
+        }
+        ar.close();
+    }
+
     @Test
     public void testFollowSymbolicLinks()
     {
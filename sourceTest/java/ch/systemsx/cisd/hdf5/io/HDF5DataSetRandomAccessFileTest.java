@@ -33,6 +33,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
 import java.util.Objects;
 
 import org.apache.commons.io.IOUtils;
@@ -540,6 +541,73 @@ public class HDF5DataSetRandomAccessFileTest
         istream.close();
     }
 
+    @Test
+    public void testReadAheadAndWriteBehind() throws IOException
+    {
+        final File dataSetFile = new File(workingDirectory, "testReadAheadAndWriteBehind.h5");
+        final String dataSetName = "ds";
+        dataSetFile.delete();
+        assertFalse(dataSetFile.exists());
+        dataSetFile.deleteOnExit();
+
+        final byte[] referenceArray = new byte[100 * 1000];
+        for (int i = 0; i < referenceArray.length; ++i)
+        {
+            referenceArray[i] = (byte) (i / 7);
+        }
+        final IHDF5Writer writer =
+                HDF5FactoryProvider.get().configure(dataSetFile).keepDataSetsIfTheyExist().writer();
+        final HDF5DataSetRandomAccessFile raFile =
+                asRandomAccessFile(writer, dataSetName, HDF5GenericStorageFeatures.GENERIC_CHUNKED,
+                        1000, null);
+        assertEquals(HDF5DataSetRandomAccessFile.DEFAULT_NUMBER_OF_ASYNC_BLOCKS,
+                raFile.getNumberOfAsyncBlocks());
+        for (int i = 0; i < referenceArray.length; i += 333)
+        {
+            raFile.write(referenceArray, i, Math.min(333, referenceArray.length - i));
+        }
+        // Overwrite parts of the blocks that are read ahead or written behind.
+        raFile.setNumberOfAsyncBlocks(2);
+        final byte[] overwrite = new byte[1500];
+        for (int pos = 500; pos < referenceArray.length; pos += 7000)
+        {
+            raFile.seek(pos);
+            assertEquals(referenceArray[pos] & 0xff, raFile.read());
+            raFile.seek(pos);
+            Arrays.fill(overwrite, (byte) (pos / 7000));
+            final int len = Math.min(overwrite.length, referenceArray.length - pos);
+            raFile.write(overwrite, 0, len);
+            System.arraycopy(overwrite, 0, referenceArray, pos, len);
+        }
+        raFile.flush();
+        assertTrue(Objects.deepEquals(referenceArray, writer.int8().readArray(dataSetName)));
+        raFile.seek(0);
+        final byte[] arrayReadRA = new byte[referenceArray.length];
+        raFile.readFully(arrayReadRA);
+        assertTrue(Objects.deepEquals(referenceArray, arrayReadRA));
+        raFile.close();
+        writer.close();
+
+        final InputStream istream = asInputStream(dataSetFile, dataSetName);
+        assertTrue(Objects.deepEquals(referenceArray, IOUtils.toByteArray(istream)));
+        istream.close();
+        final HDF5DataSetRandomAccessFile raFileReadOnly =
+                asRandomAccessFileReadOnly(dataSetFile, dataSetName);
+        raFileReadOnly.setNumberOfAsyncBlocks(0);
+        final byte[] arrayReadSync = new byte[referenceArray.length];
+        raFileReadOnly.readFully(arrayReadSync);
+        assertTrue(Objects.deepEquals(referenceArray, arrayReadSync));
+        raFileReadOnly.close();
+        // Close while blocks are still being read ahead.
+        for (int i = 0; i < 10; ++i)
+        {
+            final HDF5DataSetRandomAccessFile raFileClosedEarly =
+                    asRandomAccessFileReadOnly(dataSetFile, dataSetName);
+            assertEquals(referenceArray[0] & 0xff, raFileClosedEarly.read());
+            raFileClosedEarly.close();
+        }
+    }
+
     @Test
     public void testSeek() throws IOException
     {
@@ -960,6 +1028,45 @@ public class HDF5DataSetRandomAccessFileTest
         raFile.close();
     }
 
+    @Test
+    public void testGrowThenRead() throws IOException
+    {
+        final File dataSetFile = new File(workingDirectory, "testGrowThenRead.h5");
+        final String dataSetName = "ds";
+        dataSetFile.delete();
+        assertFalse(dataSetFile.exists());
+        dataSetFile.deleteOnExit();
+
+        final int chunkSize = 1000;
+        final byte[] referenceArray = new byte[4 * chunkSize];
+        for (int i = 0; i < 2500; ++i)
+        {
+            referenceArray[i] = (byte) (i / 7 + 1);
+        }
+        final IHDF5Writer writer =
+                HDF5FactoryProvider.get().configure(dataSetFile).keepDataSetsIfTheyExist().writer();
+        writer.int8().createArray(dataSetName, 0, chunkSize);
+        writer.close();
+        final HDF5DataSetRandomAccessFile raFileWrite =
+                asRandomAccessFileReadWrite(dataSetFile, dataSetName);
+        raFileWrite.write(referenceArray, 0, 2500);
+        raFileWrite.close();
+
+        final HDF5DataSetRandomAccessFile raFile =
+                asRandomAccessFileReadWrite(dataSetFile, dataSetName);
+        // Reads the partial last block ahead.
+        assertEquals(referenceArray[0] & 0xff, raFile.read());
+        raFile.setLength(referenceArray.length);
+        assertEquals(referenceArray.length, raFile.length());
+        raFile.seek(2700);
+        assertEquals(0, raFile.read());
+        raFile.seek(0);
+        final byte[] arrayRead = new byte[referenceArray.length];
+        raFile.readFully(arrayRead);
+        assertTrue(Arrays.equals(referenceArray, arrayRead));
+        raFile.close();
+    }
+
     @Test
     public void testEmptyDatasetDefaultParameters() throws IOException
     {